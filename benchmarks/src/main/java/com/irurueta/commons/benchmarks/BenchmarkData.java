@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons.benchmarks;
+
+import java.util.Random;
+
+/**
+ * Generates deterministic datasets used by benchmarks.
+ * Datasets try to resemble production traffic: PANs from mixed networks, with
+ * and without separators, along with a share of invalid inputs.
+ */
+public class BenchmarkData {
+
+    /**
+     * Number of elements of each dataset. Benchmarks cycle through them to
+     * prevent the JIT from folding results of a constant input.
+     */
+    public static final int DATASET_SIZE = 1024;
+
+    /**
+     * Seed used to generate datasets, so that all runs measure the same data.
+     */
+    public static final long SEED = 0x5EEDL;
+
+    /**
+     * IIN prefixes and PAN lengths of generated PANs, covering most networks.
+     */
+    private static final Object[][] PAN_TEMPLATES = new Object[][]{
+            new Object[]{"4", 16},
+            new Object[]{"4", 13},
+            new Object[]{"4917", 16},
+            new Object[]{"51", 16},
+            new Object[]{"55", 16},
+            new Object[]{"2221", 16},
+            new Object[]{"2720", 16},
+            new Object[]{"34", 15},
+            new Object[]{"37", 15},
+            new Object[]{"6011", 16},
+            new Object[]{"65", 16},
+            new Object[]{"3528", 16},
+            new Object[]{"36", 14},
+            new Object[]{"300", 14},
+            new Object[]{"6759", 18},
+            new Object[]{"62", 19},
+            new Object[]{"6304", 16},
+            new Object[]{"637", 16}
+    };
+
+    /**
+     * Dates and timestamps in all supported layouts, along with invalid ones.
+     */
+    private static final String[] DATE_TEMPLATES = new String[]{
+            "%04d%02d%02dT%02d%02d%02d+0200",
+            "%04d%02d%02dT%02d%02d%02dZ",
+            "%04d-%02d-%02dT%02d:%02d:%02d+0000",
+            "%04d%02d%02d",
+            "%04d/%02d/%02d %02d:%02d:%02d"
+    };
+
+    /**
+     * Characters used to generate strings for edit distance benchmarks.
+     */
+    private static final String ALPHABET =
+            "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ ";
+
+    /**
+     * Constructor.
+     */
+    private BenchmarkData() {
+    }
+
+    /**
+     * Generates credit card PANs of mixed networks. About 70% of them are
+     * valid, 15% have a wrong checksum, 10% have a wrong length and 5% contain
+     * no digits at all. Each PAN is written either without separators, with
+     * spaces or with hyphens every 4 digits.
+     *
+     * @return generated PANs.
+     */
+    public static String[] pans() {
+        final Random random = new Random(SEED);
+        final String[] result = new String[DATASET_SIZE];
+        for (int i = 0; i < DATASET_SIZE; i++) {
+            final Object[] template = PAN_TEMPLATES[random.nextInt(PAN_TEMPLATES.length)];
+            final String prefix = (String) template[0];
+            int length = (Integer) template[1];
+
+            final int kind = random.nextInt(100);
+            if (kind >= 95) {
+                result[i] = "n/a";
+                continue;
+            }
+            if (kind >= 85) {
+                length += random.nextBoolean() ? 1 : -1;
+            }
+
+            final StringBuilder digits = new StringBuilder(prefix);
+            while (digits.length() < length - 1) {
+                digits.append((char) ('0' + random.nextInt(10)));
+            }
+            int check = luhnCheckDigit(digits);
+            if (kind >= 70 && kind < 85) {
+                check = (check + 1 + random.nextInt(9)) % 10;
+            }
+            digits.append((char) ('0' + check));
+
+            result[i] = addSeparators(digits, random.nextInt(3));
+        }
+        return result;
+    }
+
+    /**
+     * Generates last 4 digits of PANs.
+     *
+     * @return generated last digits.
+     */
+    public static String[] lastDigits() {
+        final Random random = new Random(SEED);
+        final String[] result = new String[DATASET_SIZE];
+        for (int i = 0; i < DATASET_SIZE; i++) {
+            result[i] = String.format("%04d", random.nextInt(10000));
+        }
+        return result;
+    }
+
+    /**
+     * Generates dates and timestamps in all layouts supported by DateUtils,
+     * plus about 20% of strings in an unsupported layout.
+     *
+     * @return generated dates.
+     */
+    public static String[] dates() {
+        final Random random = new Random(SEED);
+        final String[] result = new String[DATASET_SIZE];
+        for (int i = 0; i < DATASET_SIZE; i++) {
+            final String template = DATE_TEMPLATES[random.nextInt(DATE_TEMPLATES.length)];
+            result[i] = String.format(template, 1990 + random.nextInt(40),
+                    1 + random.nextInt(12), 1 + random.nextInt(28),
+                    random.nextInt(24), random.nextInt(60), random.nextInt(60));
+        }
+        return result;
+    }
+
+    /**
+     * Generates pairs of similar strings of provided length. Second string of
+     * each pair is obtained by applying a few random edits to the first one.
+     *
+     * @param length length of strings.
+     * @return array containing two arrays with first and second strings of each
+     * pair.
+     */
+    public static String[][] similarStringPairs(final int length) {
+        final Random random = new Random(SEED);
+        final String[] first = new String[DATASET_SIZE];
+        final String[] second = new String[DATASET_SIZE];
+        for (int i = 0; i < DATASET_SIZE; i++) {
+            final StringBuilder builder = new StringBuilder(length);
+            for (int j = 0; j < length; j++) {
+                builder.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+            first[i] = builder.toString();
+
+            final int numEdits = 1 + random.nextInt(Math.max(1, length / 8));
+            for (int e = 0; e < numEdits && builder.length() > 0; e++) {
+                final int pos = random.nextInt(builder.length());
+                final char c = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+                switch (random.nextInt(3)) {
+                    case 0:
+                        builder.setCharAt(pos, c);
+                        break;
+                    case 1:
+                        builder.insert(pos, c);
+                        break;
+                    default:
+                        builder.deleteCharAt(pos);
+                        break;
+                }
+            }
+            second[i] = builder.toString();
+        }
+        return new String[][]{first, second};
+    }
+
+    /**
+     * Picks a random element of provided array to build a dataset.
+     *
+     * @param values values to pick from.
+     * @return dataset of values picked at random.
+     */
+    public static String[] pick(final String[] values) {
+        final Random random = new Random(SEED);
+        final String[] result = new String[DATASET_SIZE];
+        for (int i = 0; i < DATASET_SIZE; i++) {
+            result[i] = values[random.nextInt(values.length)];
+        }
+        return result;
+    }
+
+    /**
+     * Computes Luhn check digit of provided digits.
+     *
+     * @param digits digits without check digit.
+     * @return check digit.
+     */
+    private static int luhnCheckDigit(final CharSequence digits) {
+        int sum = 0;
+        boolean doubled = true;
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int digit = digits.charAt(i) - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    /**
+     * Adds separators every 4 digits.
+     *
+     * @param digits digits of PAN.
+     * @param style  0 for no separators, 1 for spaces and 2 for hyphens.
+     * @return PAN with separators.
+     */
+    private static String addSeparators(final CharSequence digits, final int style) {
+        if (style == 0) {
+            return digits.toString();
+        }
+
+        final char separator = style == 1 ? ' ' : '-';
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < digits.length(); i++) {
+            if (i > 0 && i % 4 == 0) {
+                builder.append(separator);
+            }
+            builder.append(digits.charAt(i));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons.benchmarks;
+
+import com.irurueta.commons.validators.CreditCardNetwork;
+import com.irurueta.commons.validators.CreditCardValidator;
+import com.irurueta.commons.validators.PanAnalysis;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks credit card PAN validation and network detection over PANs of
+ * mixed networks, separators and validity.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CreditCardValidatorBenchmark {
+
+    /**
+     * PANs to be validated.
+     */
+    private String[] mPans;
+
+    /**
+     * Same PANs as mutable char sequences.
+     */
+    private StringBuilder[] mPanBuilders;
+
+    /**
+     * Reusable analysis result.
+     */
+    private PanAnalysis mAnalysis;
+
+    /**
+     * Position of next PAN to be used.
+     */
+    private int mPos;
+
+    /**
+     * Generates dataset.
+     */
+    @Setup
+    public void setup() {
+        mPans = BenchmarkData.pans();
+        mPanBuilders = new StringBuilder[mPans.length];
+        for (int i = 0; i < mPans.length; i++) {
+            mPanBuilders[i] = new StringBuilder(mPans[i]);
+        }
+        mAnalysis = new PanAnalysis();
+    }
+
+    /**
+     * Validates a PAN string.
+     *
+     * @return true if PAN is valid.
+     */
+    @Benchmark
+    public boolean isValid() {
+        return CreditCardValidator.isValid(mPans[nextPos()]);
+    }
+
+    /**
+     * Validates a PAN contained in a mutable char sequence.
+     *
+     * @return true if PAN is valid.
+     */
+    @Benchmark
+    public boolean isValidCharSequence() {
+        return CreditCardValidator.isValid(mPanBuilders[nextPos()]);
+    }
+
+    /**
+     * Detects network of a PAN string.
+     *
+     * @return detected network.
+     */
+    @Benchmark
+    public CreditCardNetwork detectNetworkFromPAN() {
+        return CreditCardValidator.detectNetworkFromPAN(mPans[nextPos()]);
+    }
+
+    /**
+     * Validates checksum of a PAN string.
+     *
+     * @return true if checksum is valid.
+     */
+    @Benchmark
+    public boolean isValidChecksumForPAN() {
+        return CreditCardValidator.isValidChecksumForPAN(mPans[nextPos()]);
+    }
+
+    /**
+     * Analyzes a PAN reusing the same result instance.
+     *
+     * @return analysis result.
+     */
+    @Benchmark
+    public PanAnalysis analyze() {
+        return CreditCardValidator.analyze(mPans[nextPos()], mAnalysis);
+    }
+
+    /**
+     * Returns position of next PAN to be used.
+     *
+     * @return position of next PAN.
+     */
+    private int nextPos() {
+        final int pos = mPos;
+        mPos = (pos + 1) % BenchmarkData.DATASET_SIZE;
+        return pos;
+    }
+}
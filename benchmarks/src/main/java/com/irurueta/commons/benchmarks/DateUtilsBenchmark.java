@@ -0,0 +1,216 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons.benchmarks;
+
+import com.irurueta.commons.CurrentDay;
+import com.irurueta.commons.DateUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks parsing and formatting of dates and timestamps, and day
+ * computations over epoch milliseconds, both using the default timezone
+ * (which is looked up on every call) and an explicit one.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DateUtilsBenchmark {
+
+    /**
+     * Dates and timestamps to be parsed.
+     */
+    private String[] mValues;
+
+    /**
+     * Dates to be formatted.
+     */
+    private Date[] mDates;
+
+    /**
+     * Timestamps of dates expressed as epoch milliseconds.
+     */
+    private long[] mMillis;
+
+    /**
+     * Explicit timezone.
+     */
+    private TimeZone mZone;
+
+    /**
+     * Current day of explicit timezone.
+     */
+    private CurrentDay mToday;
+
+    /**
+     * Position of next value to be used.
+     */
+    private int mPos;
+
+    /**
+     * Generates dataset.
+     */
+    @Setup
+    public void setup() {
+        mValues = BenchmarkData.dates();
+        mDates = new Date[mValues.length];
+        final Date now = new Date();
+        for (int i = 0; i < mValues.length; i++) {
+            final Date date = DateUtils.parse(mValues[i]);
+            mDates[i] = date != null ? date : now;
+        }
+
+        mMillis = new long[mDates.length];
+        for (int i = 0; i < mDates.length; i++) {
+            mMillis[i] = mDates[i].getTime();
+        }
+        mZone = TimeZone.getDefault();
+        mToday = new CurrentDay(mZone);
+    }
+
+    /**
+     * Parses a date or timestamp.
+     *
+     * @return parsed date or null.
+     */
+    @Benchmark
+    public Date parse() {
+        return DateUtils.parse(mValues[nextPos()]);
+    }
+
+    /**
+     * Formats date and time.
+     *
+     * @return formatted date and time.
+     */
+    @Benchmark
+    public String formatDateAndTime() {
+        return DateUtils.formatDateAndTime(mDates[nextPos()]);
+    }
+
+    /**
+     * Checks whether a date corresponds to today.
+     *
+     * @return true if date is today.
+     */
+    @Benchmark
+    public boolean isToday() {
+        return DateUtils.isToday(mDates[nextPos()]);
+    }
+
+    /**
+     * Checks whether a timestamp corresponds to today in default timezone.
+     *
+     * @return true if timestamp is today.
+     */
+    @Benchmark
+    public boolean isTodayMillis() {
+        return DateUtils.isToday(mMillis[nextPos()]);
+    }
+
+    /**
+     * Checks whether a timestamp corresponds to today using a cached current
+     * day of an explicit timezone.
+     *
+     * @return true if timestamp is today.
+     */
+    @Benchmark
+    public boolean currentDayIsToday() {
+        return mToday.isToday(mMillis[nextPos()]);
+    }
+
+    /**
+     * Checks whether a timestamp corresponds to today using the current day
+     * set on {@link DateUtils}.
+     *
+     * @param state state setting current day of {@link DateUtils}.
+     * @return true if timestamp is today.
+     */
+    @Benchmark
+    public boolean configuredIsTodayMillis(final ConfiguredCurrentDay state) {
+        return DateUtils.isToday(mMillis[nextPos()]);
+    }
+
+    /**
+     * Computes epoch day of a timestamp in default timezone.
+     *
+     * @return epoch day.
+     */
+    @Benchmark
+    public long epochDay() {
+        return DateUtils.epochDay(mMillis[nextPos()]);
+    }
+
+    /**
+     * Computes epoch day of a timestamp in an explicit timezone.
+     *
+     * @return epoch day.
+     */
+    @Benchmark
+    public long epochDayWithZone() {
+        return DateUtils.epochDay(mMillis[nextPos()], mZone);
+    }
+
+    /**
+     * Returns position of next value to be used.
+     *
+     * @return position of next value.
+     */
+    private int nextPos() {
+        final int pos = mPos;
+        mPos = (pos + 1) % BenchmarkData.DATASET_SIZE;
+        return pos;
+    }
+
+    /**
+     * State setting current day of {@link DateUtils} while a benchmark runs.
+     */
+    @State(Scope.Benchmark)
+    public static class ConfiguredCurrentDay {
+
+        /**
+         * Sets current day of default timezone.
+         */
+        @Setup
+        public void setup() {
+            DateUtils.setCurrentDay(new CurrentDay());
+        }
+
+        /**
+         * Restores current day tracking default timezone.
+         */
+        @TearDown
+        public void tearDown() {
+            DateUtils.setCurrentDay(null);
+        }
+    }
+}
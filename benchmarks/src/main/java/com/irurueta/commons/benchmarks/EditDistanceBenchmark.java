@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons.benchmarks;
+
+import com.irurueta.commons.EditDistance;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks Levenshtein distance between similar strings of different
+ * lengths, ranging from short names to long addresses.
+ * Bit-parallel computation used for Strings is compared against the
+ * dynamic programming computation used for arrays of chars.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EditDistanceBenchmark {
+
+    /**
+     * Length of compared strings.
+     */
+    @Param({"8", "32", "64", "256"})
+    public int length;
+
+    /**
+     * First strings of each pair.
+     */
+    private String[] mFirst;
+
+    /**
+     * Second strings of each pair.
+     */
+    private String[] mSecond;
+
+    /**
+     * Characters of first strings of each pair.
+     */
+    private char[][] mFirstChars;
+
+    /**
+     * Characters of second strings of each pair.
+     */
+    private char[][] mSecondChars;
+
+    /**
+     * Position of next pair to be used.
+     */
+    private int mPos;
+
+    /**
+     * Generates dataset.
+     */
+    @Setup
+    public void setup() {
+        final String[][] pairs = BenchmarkData.similarStringPairs(length);
+        mFirst = pairs[0];
+        mSecond = pairs[1];
+
+        mFirstChars = new char[mFirst.length][];
+        mSecondChars = new char[mSecond.length][];
+        for (int i = 0; i < mFirst.length; i++) {
+            mFirstChars[i] = mFirst[i].toCharArray();
+            mSecondChars[i] = mSecond[i].toCharArray();
+        }
+    }
+
+    /**
+     * Computes distance between a pair of strings.
+     *
+     * @return distance.
+     */
+    @Benchmark
+    public int stringDistance() {
+        final int pos = nextPos();
+        return EditDistance.stringDistance(mFirst[pos], mSecond[pos]);
+    }
+
+    /**
+     * Computes distance between a pair of strings using dynamic programming
+     * as a baseline.
+     *
+     * @return distance.
+     */
+    @Benchmark
+    public int dynamicProgrammingDistance() {
+        final int pos = nextPos();
+        return EditDistance.distance(mFirstChars[pos], mSecondChars[pos]);
+    }
+
+    /**
+     * Returns position of next pair to be used.
+     *
+     * @return position of next pair.
+     */
+    private int nextPos() {
+        final int pos = mPos;
+        mPos = (pos + 1) % BenchmarkData.DATASET_SIZE;
+        return pos;
+    }
+}
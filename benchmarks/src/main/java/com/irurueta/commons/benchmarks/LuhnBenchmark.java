@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons.benchmarks;
+
+import com.irurueta.commons.validators.CreditCardValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks Luhn checksum computation on PAN digits, comparing the
+ * table-driven implementation against the former one, which copied the input
+ * array, doubled digits in place and then summed their units and tens.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LuhnBenchmark {
+
+    /**
+     * Digits of PANs, including check digit.
+     */
+    private byte[][] mDigits;
+
+    /**
+     * PANs without check digit.
+     */
+    private String[] mPansWithoutCheck;
+
+    /**
+     * Position of next PAN to be used.
+     */
+    private int mPos;
+
+    /**
+     * Generates dataset.
+     */
+    @Setup
+    public void setup() {
+        final String[] pans = BenchmarkData.pans();
+        mDigits = new byte[pans.length][];
+        mPansWithoutCheck = new String[pans.length];
+        for (int i = 0; i < pans.length; i++) {
+            mDigits[i] = CreditCardValidator.toDigits(pans[i]);
+            mPansWithoutCheck[i] = pans[i].substring(0,
+                    Math.max(0, pans[i].length() - 1));
+        }
+    }
+
+    /**
+     * Validates checksum of PAN digits using former implementation.
+     *
+     * @return true if checksum is valid.
+     */
+    @Benchmark
+    public boolean legacyIsValidChecksum() {
+        final byte[] digits = mDigits[nextPos()];
+        final int length = digits.length;
+        if (length < 2) {
+            return false;
+        }
+        final byte[] digitsWithoutCheck = Arrays.copyOf(digits, length - 1);
+        return digits[length - 1] == legacyComputeCheck(digitsWithoutCheck);
+    }
+
+    /**
+     * Validates checksum of PAN digits using table-driven implementation.
+     *
+     * @return true if checksum is valid.
+     */
+    @Benchmark
+    public boolean isValidChecksum() {
+        return LuhnAccess.isValidChecksum(mDigits[nextPos()]);
+    }
+
+    /**
+     * Computes check digit of a PAN string for PAN generation.
+     *
+     * @return check digit.
+     */
+    @Benchmark
+    public int computeCheckDigit() {
+        return CreditCardValidator.computeCheckDigit(mPansWithoutCheck[nextPos()]);
+    }
+
+    /**
+     * Former Luhn implementation, which modifies provided array.
+     *
+     * @param digitsWithoutCheck digits without check digit.
+     * @return check digit.
+     */
+    private static byte legacyComputeCheck(final byte[] digitsWithoutCheck) {
+        final int length = digitsWithoutCheck.length;
+        for (int i = length - 1; i >= 0; i -= 2) {
+            digitsWithoutCheck[i] *= 2;
+        }
+
+        byte value;
+        byte unit;
+        byte ten;
+        for (int i = 0; i < length; i++) {
+            value = digitsWithoutCheck[i];
+            unit = (byte) (value % 10);
+            ten = (byte) ((value - unit) / 10);
+            digitsWithoutCheck[i] = (byte) (unit + ten);
+        }
+
+        int sum = 0;
+        for (final byte digitWithoutCheck : digitsWithoutCheck) {
+            sum += digitWithoutCheck;
+        }
+        return (byte) ((sum * 9) % 10);
+    }
+
+    /**
+     * Returns position of next PAN to be used.
+     *
+     * @return position of next PAN.
+     */
+    private int nextPos() {
+        final int pos = mPos;
+        mPos = (pos + 1) % BenchmarkData.DATASET_SIZE;
+        return pos;
+    }
+
+    /**
+     * Gives access to protected methods working on PAN digits.
+     */
+    private static class LuhnAccess extends CreditCardValidator {
+
+        /**
+         * Validates checksum of provided PAN digits.
+         *
+         * @param digits PAN digits, including check digit.
+         * @return true if checksum is valid.
+         */
+        static boolean isValidChecksum(final byte[] digits) {
+            return isValidChecksumForPAN(digits);
+        }
+    }
+}
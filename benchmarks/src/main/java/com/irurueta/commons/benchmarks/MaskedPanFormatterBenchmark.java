@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons.benchmarks;
+
+import com.irurueta.commons.MaskedPanFormatter;
+import com.irurueta.commons.PanMaskGenerator;
+import com.irurueta.commons.validators.CreditCardNetwork;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks masking and mask generation of credit card PANs.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MaskedPanFormatterBenchmark {
+
+    /**
+     * Full PANs to be masked.
+     */
+    private String[] mPans;
+
+    /**
+     * Last digits of PANs to be masked.
+     */
+    private String[] mLastDigits;
+
+    /**
+     * Networks of PANs.
+     */
+    private CreditCardNetwork[] mNetworks;
+
+    /**
+     * Position of next PAN to be used.
+     */
+    private int mPos;
+
+    /**
+     * Generates dataset.
+     */
+    @Setup
+    public void setup() {
+        mPans = BenchmarkData.pans();
+        mLastDigits = BenchmarkData.lastDigits();
+        final CreditCardNetwork[] networks = CreditCardNetwork.values();
+        mNetworks = new CreditCardNetwork[BenchmarkData.DATASET_SIZE];
+        for (int i = 0; i < mNetworks.length; i++) {
+            mNetworks[i] = networks[i % networks.length];
+        }
+    }
+
+    /**
+     * Masks a full PAN detecting its network.
+     *
+     * @return masked PAN.
+     */
+    @Benchmark
+    public String formatPan() {
+        return MaskedPanFormatter.format(mPans[nextPos()]);
+    }
+
+    /**
+     * Masks last digits of a PAN for a known network.
+     *
+     * @return masked PAN.
+     */
+    @Benchmark
+    public String formatLastDigits() {
+        final int pos = nextPos();
+        return MaskedPanFormatter.format(mLastDigits[pos], mNetworks[pos]);
+    }
+
+    /**
+     * Generates mask for a network.
+     *
+     * @return generated mask.
+     */
+    @Benchmark
+    public String generateMask() {
+        return PanMaskGenerator.generate(mNetworks[nextPos()]);
+    }
+
+    /**
+     * Returns position of next PAN to be used.
+     *
+     * @return position of next PAN.
+     */
+    private int nextPos() {
+        final int pos = mPos;
+        mPos = (pos + 1) % BenchmarkData.DATASET_SIZE;
+        return pos;
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons.benchmarks;
+
+import com.irurueta.commons.validators.EmailValidator;
+import com.irurueta.commons.validators.NIFValidator;
+import com.irurueta.commons.validators.ZipCodeValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks NIF, email and zip code validators using a mix of valid and
+ * invalid values.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ValidatorsBenchmark {
+
+    /**
+     * Spanish NIF, NIE and CIF values, both valid and invalid.
+     */
+    private static final String[] NIFS = new String[]{
+            "22072532F", "22072532E", "Y7921566N", "A0744669N", "Y0744669K",
+            "A78018413", "XX5636417", "", "12345678Z"
+    };
+
+    /**
+     * Email addresses, both valid and invalid.
+     */
+    private static final String[] EMAILS = new String[]{
+            "alberto@irurueta.com", "john.doe+billing@example.co.uk",
+            "first_last@sub.domain.org", "invalid.email", "@example.com",
+            "user@", "user@@example.com", "a@b.c"
+    };
+
+    /**
+     * Zip codes for each country of {@link #COUNTRIES}, both valid and
+     * invalid.
+     */
+    private static final String[] ZIP_CODES = new String[]{
+            "28001", "2800", "1000-100", "SW1A 1AA", "1012AB", "90210-1234",
+            "100-0001", "K1A 0B1", "ABCDE"
+    };
+
+    /**
+     * Countries of zip code validators.
+     */
+    private static final String[] COUNTRIES = new String[]{
+            "ES", "PT", "GB", "NL", "US", "JP", "CA"
+    };
+
+    /**
+     * NIF values to be validated.
+     */
+    private String[] mNifs;
+
+    /**
+     * Email addresses to be validated.
+     */
+    private String[] mEmails;
+
+    /**
+     * Zip codes to be validated.
+     */
+    private String[] mZipCodes;
+
+    /**
+     * Zip code validators for different countries.
+     */
+    private ZipCodeValidator[] mZipCodeValidators;
+
+    /**
+     * Email validator.
+     */
+    private EmailValidator mEmailValidator;
+
+    /**
+     * Position of next value to be used.
+     */
+    private int mPos;
+
+    /**
+     * Generates dataset.
+     */
+    @Setup
+    public void setup() {
+        mNifs = BenchmarkData.pick(NIFS);
+        mEmails = BenchmarkData.pick(EMAILS);
+        mZipCodes = BenchmarkData.pick(ZIP_CODES);
+        final String[] countries = BenchmarkData.pick(COUNTRIES);
+        mZipCodeValidators = new ZipCodeValidator[countries.length];
+        for (int i = 0; i < countries.length; i++) {
+            mZipCodeValidators[i] = new ZipCodeValidator(countries[i]);
+        }
+        mEmailValidator = EmailValidator.getInstance();
+    }
+
+    /**
+     * Validates a NIF.
+     *
+     * @return true if NIF is valid.
+     */
+    @Benchmark
+    public boolean nifIsValid() {
+        return NIFValidator.isValid(mNifs[nextPos()]);
+    }
+
+    /**
+     * Validates an email address.
+     *
+     * @return true if email is valid.
+     */
+    @Benchmark
+    public boolean emailIsValid() {
+        return mEmailValidator.isValid(mEmails[nextPos()]);
+    }
+
+    /**
+     * Validates a zip code.
+     *
+     * @return true if zip code is valid.
+     */
+    @Benchmark
+    public boolean zipCodeIsValid() {
+        final int pos = nextPos();
+        return mZipCodeValidators[pos].isValid(mZipCodes[pos]);
+    }
+
+    /**
+     * Returns position of next value to be used.
+     *
+     * @return position of next value.
+     */
+    private int nextPos() {
+        final int pos = mPos;
+        mPos = (pos + 1) % BenchmarkData.DATASET_SIZE;
+        return pos;
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons;
+
+/**
+ * Source of current time, which can be replaced (e.g. in tests) to control
+ * the time seen by classes depending on it.
+ */
+public interface Clock {
+
+    /**
+     * Clock returning current system time.
+     */
+    Clock SYSTEM = new Clock() {
+        @Override
+        public long currentTimeMillis() {
+            return System.currentTimeMillis();
+        }
+    };
+
+    /**
+     * Gets current time.
+     *
+     * @return current time expressed as epoch milliseconds.
+     */
+    long currentTimeMillis();
+}
@@ -0,0 +1,313 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork/join task searching the closest candidates to a query in terms of
+ * Levenshtein distance.
+ * Range of candidates is recursively split in halves, and each leaf keeps
+ * a bounded heap of its best matches, which is used to tighten the maximum
+ * distance of interest as soon as it is full, so that remaining candidates
+ * of the leaf can be rejected early. Leaves compute distances using the
+ * calculator bound to their worker thread, hence buffers are reused among
+ * leaves and searches.
+ */
+class ClosestMatchesTask extends RecursiveTask<List<EditDistanceMatch>> {
+
+    /**
+     * Serialization version.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Maximum number of candidates processed sequentially by a leaf.
+     */
+    static final int LEAF_SIZE = 1024;
+
+    /**
+     * Maximum distance of interest for which a banded computation is used.
+     * For larger distances, bit-parallel computation is faster.
+     */
+    private static final int MAX_BANDED_DISTANCE = 16;
+
+    /**
+     * Query to be compared.
+     */
+    private final String mQuery;
+
+    /**
+     * Candidates to compare with.
+     */
+    private final String[] mCandidates;
+
+    /**
+     * Position of first candidate of this task (inclusive).
+     */
+    private final int mFrom;
+
+    /**
+     * Position of last candidate of this task (exclusive).
+     */
+    private final int mTo;
+
+    /**
+     * Maximum distance of matches.
+     */
+    private final int mMaxDistance;
+
+    /**
+     * Maximum number of matches to be returned.
+     */
+    private final int mMaxResults;
+
+    /**
+     * Constructor.
+     *
+     * @param query       query to be compared.
+     * @param candidates  candidates to compare with.
+     * @param from        position of first candidate (inclusive).
+     * @param to          position of last candidate (exclusive).
+     * @param maxDistance maximum distance of matches.
+     * @param maxResults  maximum number of matches to be returned.
+     */
+    ClosestMatchesTask(final String query, final String[] candidates,
+                       final int from, final int to, final int maxDistance,
+                       final int maxResults) {
+        mQuery = query;
+        mCandidates = candidates;
+        mFrom = from;
+        mTo = to;
+        mMaxDistance = maxDistance;
+        mMaxResults = maxResults;
+    }
+
+    /**
+     * Gets default pool used to run searches, which is created when first
+     * needed and uses as many threads as available processors.
+     *
+     * @return default pool.
+     */
+    static ForkJoinPool getDefaultPool() {
+        return PoolHolder.POOL;
+    }
+
+    /**
+     * Searches closest candidates within the range of this task.
+     *
+     * @return matches sorted by increasing distance and position.
+     */
+    @Override
+    protected List<EditDistanceMatch> compute() {
+        if (mTo - mFrom <= LEAF_SIZE) {
+            return search();
+        }
+
+        final int middle = (mFrom + mTo) >>> 1;
+        final ClosestMatchesTask left = new ClosestMatchesTask(mQuery,
+                mCandidates, mFrom, middle, mMaxDistance, mMaxResults);
+        final ClosestMatchesTask right = new ClosestMatchesTask(mQuery,
+                mCandidates, middle, mTo, mMaxDistance, mMaxResults);
+        right.fork();
+        final List<EditDistanceMatch> leftMatches = left.compute();
+        return merge(leftMatches, right.join(), mMaxResults);
+    }
+
+    /**
+     * Merges two lists of sorted matches keeping only the best ones.
+     *
+     * @param matches1   1st list of sorted matches.
+     * @param matches2   2nd list of sorted matches.
+     * @param maxResults maximum number of matches to be kept.
+     * @return merged matches.
+     */
+    static List<EditDistanceMatch> merge(final List<EditDistanceMatch> matches1,
+                                         final List<EditDistanceMatch> matches2,
+                                         final int maxResults) {
+        final int size = Math.min(maxResults,
+                matches1.size() + matches2.size());
+        final List<EditDistanceMatch> result = new ArrayList<>(size);
+        int pos1 = 0;
+        int pos2 = 0;
+        while (result.size() < size) {
+            if (pos2 >= matches2.size() || (pos1 < matches1.size() &&
+                    matches1.get(pos1).compareTo(matches2.get(pos2)) <= 0)) {
+                result.add(matches1.get(pos1++));
+            } else {
+                result.add(matches2.get(pos2++));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sequentially searches closest candidates within the range of this task.
+     *
+     * @return matches sorted by increasing distance and position.
+     */
+    private List<EditDistanceMatch> search() {
+        final EditDistanceCalculator calculator =
+                EditDistanceCalculator.getThreadInstance();
+        final int capacity = Math.min(mMaxResults, mTo - mFrom) + 1;
+        final PriorityQueue<EditDistanceMatch> heap =
+                new PriorityQueue<>(capacity, Collections.reverseOrder());
+
+        final int queryLength = mQuery.length();
+        int bound = mMaxDistance;
+        for (int i = mFrom; i < mTo; i++) {
+            final String candidate = mCandidates[i];
+            if (Math.abs(candidate.length() - queryLength) > bound) {
+                continue;
+            }
+
+            final int distance = bound <= MAX_BANDED_DISTANCE ?
+                    calculator.distanceAtMost(mQuery, candidate, bound) :
+                    calculator.stringDistance(mQuery, candidate);
+            if (distance > bound) {
+                continue;
+            }
+
+            if (heap.size() == mMaxResults) {
+                // bound guarantees that new match is closer than worst one
+                heap.poll();
+            }
+            heap.add(new EditDistanceMatch(i, candidate, distance));
+
+            if (heap.size() == mMaxResults) {
+                // following candidates are only of interest if they are
+                // strictly closer than worst match
+                bound = heap.peek().getDistance() - 1;
+                if (bound < 0) {
+                    break;
+                }
+            }
+        }
+
+        final List<EditDistanceMatch> result = new ArrayList<>(heap);
+        Collections.sort(result);
+        return result;
+    }
+
+    /**
+     * Fork/join task searching the closest candidates to each query of a
+     * list. Range of queries is recursively split in halves, and search of
+     * each query is split as well among ranges of candidates.
+     */
+    static class AllPairs extends RecursiveTask<List<List<EditDistanceMatch>>> {
+
+        /**
+         * Serialization version.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Queries to be compared.
+         */
+        private final String[] mQueries;
+
+        /**
+         * Candidates to compare with.
+         */
+        private final String[] mCandidates;
+
+        /**
+         * Position of first query of this task (inclusive).
+         */
+        private final int mFrom;
+
+        /**
+         * Position of last query of this task (exclusive).
+         */
+        private final int mTo;
+
+        /**
+         * Maximum distance of matches.
+         */
+        private final int mMaxDistance;
+
+        /**
+         * Maximum number of matches to be returned for each query.
+         */
+        private final int mMaxResults;
+
+        /**
+         * Constructor.
+         *
+         * @param queries     queries to be compared.
+         * @param candidates  candidates to compare with.
+         * @param from        position of first query (inclusive).
+         * @param to          position of last query (exclusive).
+         * @param maxDistance maximum distance of matches.
+         * @param maxResults  maximum number of matches to be returned for each
+         *                    query.
+         */
+        AllPairs(final String[] queries, final String[] candidates,
+                 final int from, final int to, final int maxDistance,
+                 final int maxResults) {
+            mQueries = queries;
+            mCandidates = candidates;
+            mFrom = from;
+            mTo = to;
+            mMaxDistance = maxDistance;
+            mMaxResults = maxResults;
+        }
+
+        /**
+         * Searches closest candidates of each query within the range of this
+         * task.
+         *
+         * @return matches of each query sorted by increasing distance and
+         * position.
+         */
+        @Override
+        protected List<List<EditDistanceMatch>> compute() {
+            if (mTo - mFrom == 1) {
+                final List<List<EditDistanceMatch>> result = new ArrayList<>(1);
+                result.add(new ClosestMatchesTask(mQueries[mFrom], mCandidates,
+                        0, mCandidates.length, mMaxDistance, mMaxResults)
+                        .compute());
+                return result;
+            }
+
+            final int middle = (mFrom + mTo) >>> 1;
+            final AllPairs left = new AllPairs(mQueries, mCandidates, mFrom,
+                    middle, mMaxDistance, mMaxResults);
+            final AllPairs right = new AllPairs(mQueries, mCandidates, middle,
+                    mTo, mMaxDistance, mMaxResults);
+            right.fork();
+            final List<List<EditDistanceMatch>> result = left.compute();
+            result.addAll(right.join());
+            return result;
+        }
+    }
+
+    /**
+     * Lazily creates default pool.
+     */
+    private static class PoolHolder {
+
+        /**
+         * Default pool.
+         */
+        private static final ForkJoinPool POOL = new ForkJoinPool();
+    }
+}
@@ -0,0 +1,383 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons;
+
+import com.irurueta.commons.validators.CardNetworkRegistry;
+import com.irurueta.commons.validators.CreditCardNetwork;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+
+/**
+ * Formats credit card PANs of a given network following a
+ * {@link MaskingPolicy}.
+ * The layout of masked PANs (position of masked digits, separators and
+ * visible digits) is computed once when the formatter is compiled, so that
+ * formatting only needs a single pass over provided PAN and does not create
+ * any intermediate object when writing into provided buffers.
+ * Leading digits are only made visible when provided digits have at least
+ * the minimum length of a full PAN of the network (according to the
+ * {@link CardNetworkRegistry} used to compile the formatter), hence when only
+ * the last digits of a PAN are provided, only trailing digits are visible
+ * and digits in the middle of a PAN are never shown as if they were the BIN.
+ * Instances are immutable and thread safe, and can be obtained with
+ * {@link MaskingPolicy#getFormatter(CreditCardNetwork)}.
+ */
+public class CompiledPanFormatter {
+
+    /**
+     * Value of slot positions containing a separator.
+     */
+    private static final int SEPARATOR = -1;
+
+    /**
+     * Policy that was compiled.
+     */
+    private final MaskingPolicy mPolicy;
+
+    /**
+     * Credit card network.
+     */
+    private final CreditCardNetwork mNetwork;
+
+    /**
+     * Registry containing groupings used to compile this formatter.
+     */
+    private final CardNetworkRegistry mRegistry;
+
+    /**
+     * Masked PAN containing no visible digit.
+     */
+    private final char[] mTemplate;
+
+    /**
+     * Masked PAN containing no visible digit, as a string.
+     */
+    private final String mTemplateString;
+
+    /**
+     * Position of digit slot for each position of masked PAN, or
+     * {@link #SEPARATOR} for separators.
+     */
+    private final int[] mSlots;
+
+    /**
+     * Number of digit slots.
+     */
+    private final int mNumSlots;
+
+    /**
+     * Maximum number of visible leading digits.
+     */
+    private final int mNumLeadingDigits;
+
+    /**
+     * Maximum number of visible trailing digits.
+     */
+    private final int mNumTrailingDigits;
+
+    /**
+     * Minimum number of digits of a full PAN of the network, below which no
+     * leading digit is visible.
+     */
+    private final int mMinFullLength;
+
+    /**
+     * Constructor.
+     *
+     * @param policy   policy to be compiled.
+     * @param network  credit card network.
+     * @param registry registry containing groupings of networks.
+     */
+    CompiledPanFormatter(final MaskingPolicy policy, final CreditCardNetwork network,
+                         final CardNetworkRegistry registry) {
+        mPolicy = policy;
+        mNetwork = network;
+        mRegistry = registry;
+
+        int[] grouping = policy.getGrouping();
+        if (grouping == null) {
+            grouping = new int[registry.getNumberOfGroups(network)];
+            for (int i = 0; i < grouping.length; i++) {
+                grouping[i] = registry.getMaxDigitsForGroup(i, network);
+            }
+        }
+
+        int numSlots = 0;
+        for (final int groupLength : grouping) {
+            numSlots += groupLength;
+        }
+        final int length = numSlots + grouping.length - 1;
+        mTemplate = new char[length];
+        mSlots = new int[length];
+        int pos = 0;
+        int slot = 0;
+        for (int i = 0; i < grouping.length; i++) {
+            if (i > 0) {
+                mTemplate[pos] = policy.getSeparatorChar();
+                mSlots[pos++] = SEPARATOR;
+            }
+            for (int j = 0; j < grouping[i]; j++) {
+                mTemplate[pos] = policy.getMaskChar();
+                mSlots[pos++] = slot++;
+            }
+        }
+        mTemplateString = new String(mTemplate);
+        mNumSlots = numSlots;
+
+        // only the last group of digits can be visible at the end, and
+        // leading digits cannot overlap trailing ones
+        mNumTrailingDigits = Math.min(policy.getNumTrailingDigits(),
+                grouping[grouping.length - 1]);
+        mNumLeadingDigits = Math.min(policy.getNumLeadingDigits(),
+                numSlots - mNumTrailingDigits);
+        mMinFullLength = registry.getMinLength(network);
+    }
+
+    /**
+     * Gets policy that was compiled.
+     *
+     * @return compiled policy.
+     */
+    public MaskingPolicy getPolicy() {
+        return mPolicy;
+    }
+
+    /**
+     * Gets credit card network.
+     *
+     * @return credit card network.
+     */
+    public CreditCardNetwork getNetwork() {
+        return mNetwork;
+    }
+
+    /**
+     * Gets length of masked PANs, which can be used to size destination
+     * buffers.
+     *
+     * @return length of masked PANs.
+     */
+    public int getLength() {
+        return mTemplate.length;
+    }
+
+    /**
+     * Formats provided credit card PAN (or its last digits). Any non digit
+     * character is ignored.
+     *
+     * @param panOrLastDigits credit card number (or its last digits) to be
+     *                        masked.
+     * @return masked PAN.
+     */
+    public String format(final CharSequence panOrLastDigits) {
+        if (countDigits(panOrLastDigits) == 0) {
+            return mTemplateString;
+        }
+        final char[] result = new char[mTemplate.length];
+        format(panOrLastDigits, result, 0);
+        return new String(result);
+    }
+
+    /**
+     * Formats provided credit card PAN (or its last digits) into provided
+     * appendable.
+     *
+     * @param panOrLastDigits credit card number (or its last digits) to be
+     *                        masked.
+     * @param out             appendable where masked PAN is written.
+     * @return number of written characters.
+     * @throws IllegalArgumentException if provided appendable is null.
+     * @throws IOException              if writing fails.
+     */
+    public int format(final CharSequence panOrLastDigits, final Appendable out)
+            throws IOException {
+        if (out == null) {
+            throw new IllegalArgumentException();
+        }
+        return write(panOrLastDigits, null, 0, out);
+    }
+
+    /**
+     * Formats provided credit card PAN (or its last digits) into provided
+     * builder.
+     *
+     * @param panOrLastDigits credit card number (or its last digits) to be
+     *                        masked.
+     * @param out             builder where masked PAN is written.
+     * @return number of written characters.
+     * @throws IllegalArgumentException if provided builder is null.
+     */
+    public int format(final CharSequence panOrLastDigits, final StringBuilder out) {
+        try {
+            return format(panOrLastDigits, (Appendable) out);
+        } catch (final IOException e) {
+            // never happens when writing into a StringBuilder
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Formats provided credit card PAN (or its last digits) into provided
+     * array starting at provided offset.
+     *
+     * @param panOrLastDigits credit card number (or its last digits) to be
+     *                        masked.
+     * @param dest            array where masked PAN is written.
+     * @param offset          position where masked PAN starts.
+     * @return number of written characters.
+     * @throws IllegalArgumentException if provided array is null or has not
+     *                                  enough room after provided offset.
+     */
+    public int format(final CharSequence panOrLastDigits, final char[] dest,
+                      final int offset) {
+        if (dest == null || offset < 0 || offset > dest.length - mTemplate.length) {
+            throw new IllegalArgumentException();
+        }
+        try {
+            return write(panOrLastDigits, dest, offset, null);
+        } catch (final IOException e) {
+            // never happens when writing into an array
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Formats provided credit card PAN (or its last digits) into provided
+     * buffer at its current position, which is advanced by the number of
+     * written characters.
+     *
+     * @param panOrLastDigits credit card number (or its last digits) to be
+     *                        masked.
+     * @param dest            buffer where masked PAN is written.
+     * @return number of written characters.
+     * @throws IllegalArgumentException if provided buffer is null or has not
+     *                                  enough remaining room.
+     */
+    public int format(final CharSequence panOrLastDigits, final CharBuffer dest) {
+        if (dest == null || dest.remaining() < mTemplate.length) {
+            throw new IllegalArgumentException();
+        }
+        if (dest.hasArray()) {
+            final int written = format(panOrLastDigits, dest.array(),
+                    dest.arrayOffset() + dest.position());
+            dest.position(dest.position() + written);
+            return written;
+        }
+        try {
+            return write(panOrLastDigits, null, 0, dest);
+        } catch (final IOException e) {
+            // never happens when writing into a buffer
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Gets registry containing groupings used to compile this formatter.
+     *
+     * @return registry used to compile this formatter.
+     */
+    CardNetworkRegistry getRegistry() {
+        return mRegistry;
+    }
+
+    /**
+     * Writes masked PAN either into provided array or into provided
+     * appendable.
+     * Because both visible leading and trailing digits are written in
+     * increasing order, a single cursor over provided PAN is enough.
+     *
+     * @param pan    credit card number (or its last digits) to be masked.
+     * @param dest   array where masked PAN is written or null.
+     * @param offset position of array where masked PAN starts.
+     * @param out    appendable where masked PAN is written if array is null.
+     * @return number of written characters.
+     * @throws IOException if writing into appendable fails.
+     */
+    private int write(final CharSequence pan, final char[] dest, final int offset,
+                      final Appendable out) throws IOException {
+        final int numDigits = countDigits(pan);
+        final int numTrailingDigits = Math.min(mNumTrailingDigits, numDigits);
+        // partial PANs only contain their last digits, hence their first
+        // digits are not the BIN and must remain masked
+        final int numLeadingDigits = numDigits >= mMinFullLength ?
+                Math.min(mNumLeadingDigits, numDigits - numTrailingDigits) : 0;
+        final int firstTrailingSlot = mNumSlots - numTrailingDigits;
+        final int firstTrailingDigit = numDigits - numTrailingDigits;
+
+        int cursor = 0;
+        int digitPos = -1;
+        final int length = mTemplate.length;
+        for (int i = 0; i < length; i++) {
+            char c = mTemplate[i];
+            final int slot = mSlots[i];
+            int wanted = -1;
+            if (slot != SEPARATOR) {
+                if (slot < numLeadingDigits) {
+                    wanted = slot;
+                } else if (slot >= firstTrailingSlot) {
+                    wanted = firstTrailingDigit + slot - firstTrailingSlot;
+                }
+            }
+
+            // advance cursor up to wanted digit
+            while (digitPos < wanted) {
+                final char p = pan.charAt(cursor++);
+                if (isDigit(p)) {
+                    digitPos++;
+                    c = p;
+                }
+            }
+
+            if (dest != null) {
+                dest[offset + i] = c;
+            } else {
+                out.append(c);
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Counts number of digits contained in provided value.
+     *
+     * @param value value to be checked.
+     * @return number of digits.
+     */
+    private static int countDigits(final CharSequence value) {
+        if (value == null) {
+            return 0;
+        }
+        int result = 0;
+        final int length = value.length();
+        for (int i = 0; i < length; i++) {
+            if (isDigit(value.charAt(i))) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Indicates whether provided character is a digit.
+     *
+     * @param c a character.
+     * @return true if character is a digit, false otherwise.
+     */
+    private static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons;
+
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * Keeps boundaries of current day within a timezone according to a clock.
+ * Boundaries are cached and only computed again once the clock reaches the
+ * end of the cached day (or goes back before its start), so that checking
+ * whether a timestamp belongs to today only requires reading the clock and
+ * comparing the timestamp with both boundaries.
+ * Instances are thread safe.
+ */
+public class CurrentDay {
+
+    /**
+     * Clock providing current time.
+     */
+    private final Clock mClock;
+
+    /**
+     * Boundaries of days of the timezone.
+     */
+    private final DayTable mDays;
+
+    /**
+     * Cached current day.
+     */
+    private volatile DayTable.Day mDay;
+
+    /**
+     * Constructor using system clock and default timezone at the time of
+     * creation.
+     */
+    public CurrentDay() {
+        this(Clock.SYSTEM, TimeZone.getDefault());
+    }
+
+    /**
+     * Constructor using system clock.
+     *
+     * @param zone timezone of days.
+     * @throws IllegalArgumentException if timezone is null.
+     */
+    public CurrentDay(final TimeZone zone) {
+        this(Clock.SYSTEM, zone);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param clock clock providing current time.
+     * @param zone  timezone of days.
+     * @throws IllegalArgumentException if any parameter is null.
+     */
+    public CurrentDay(final Clock clock, final TimeZone zone) {
+        if (clock == null || zone == null) {
+            throw new IllegalArgumentException();
+        }
+        mClock = clock;
+        mDays = new DayTable(zone);
+    }
+
+    /**
+     * Constructor sharing day boundaries already computed.
+     *
+     * @param clock clock providing current time.
+     * @param days  boundaries of days.
+     */
+    CurrentDay(final Clock clock, final DayTable days) {
+        mClock = clock;
+        mDays = days;
+    }
+
+    /**
+     * Gets first instant of current day. This is usually midnight, unless a
+     * daylight saving change takes place at midnight.
+     *
+     * @return first instant of current day expressed as epoch milliseconds.
+     */
+    public long getStart() {
+        return currentDay().getStart();
+    }
+
+    /**
+     * Gets first instant of next day.
+     *
+     * @return first instant of next day expressed as epoch milliseconds.
+     */
+    public long getEnd() {
+        return currentDay().getEnd();
+    }
+
+    /**
+     * Gets number of days between 1970-01-01 and current day.
+     *
+     * @return epoch day of current day.
+     */
+    public long getEpochDay() {
+        return currentDay().getEpochDay();
+    }
+
+    /**
+     * Indicates whether provided timestamp belongs to current day.
+     *
+     * @param millis timestamp expressed as epoch milliseconds.
+     * @return true if timestamp belongs to current day, false otherwise.
+     */
+    public boolean isToday(final long millis) {
+        return currentDay().contains(millis);
+    }
+
+    /**
+     * Indicates whether provided date belongs to current day.
+     *
+     * @param date date to be checked.
+     * @return true if date belongs to current day, false otherwise.
+     * @throws IllegalArgumentException if date is null.
+     */
+    public boolean isToday(final Date date) {
+        if (date == null) {
+            throw new IllegalArgumentException();
+        }
+        return isToday(date.getTime());
+    }
+
+    /**
+     * Indicates whether this instance uses provided day boundaries.
+     *
+     * @param days day boundaries to be checked.
+     * @return true if day boundaries are the ones of this instance, false
+     * otherwise.
+     */
+    boolean uses(final DayTable days) {
+        return mDays == days;
+    }
+
+    /**
+     * Gets current day, which is computed again if clock is no longer within
+     * cached day.
+     *
+     * @return current day.
+     */
+    private DayTable.Day currentDay() {
+        final long now = mClock.currentTimeMillis();
+        DayTable.Day day = mDay;
+        if (day == null || !day.contains(now)) {
+            day = mDays.getDay(now);
+            mDay = day;
+        }
+        return day;
+    }
+}
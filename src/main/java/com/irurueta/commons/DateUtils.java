@@ -16,20 +16,45 @@
 package com.irurueta.commons;
 
 import java.text.DateFormat;
-import java.text.ParseException;
+import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.GregorianCalendar;
 import java.util.Locale;
+import java.util.TimeZone;
 
 /**
  * Utility class to work with timestamps or dates.
  * This class allows parsing and formatting of timestamps in ISO 8601 format,
  * and some utility methods such as to determine whether two timestamps
  * correspond to the same date, etc.
+ * Besides methods using {@link Date} instances, timestamps can also be
+ * handled as epoch milliseconds and dates as epoch days (number of days
+ * since 1970-01-01), which avoids creating a {@link Date} or
+ * {@link Calendar} for each timestamp. Local days are computed using cached
+ * tables of day boundaries, hence no calendar is needed except the first
+ * time a day is found. Boundaries of current day are also cached until it
+ * ends (see {@link CurrentDay}).
+ * Methods checking current day ({@link #isToday(long)}, {@link #today()} and
+ * {@link #todayMillis()}) delegate to a {@link CurrentDay}, which can be set
+ * with {@link #setCurrentDay(CurrentDay)} to use another clock or timezone
+ * (e.g. in tests), and which only reads its clock and compares timestamps
+ * with both cached boundaries.
+ * When no current day is set, and for the rest of methods without a
+ * timezone parameter, the default timezone is looked up on each call to
+ * notice changes of default timezone. Since {@link TimeZone#getDefault()}
+ * returns a copy, cached boundaries are matched by identity of the timezone
+ * ID and offsets instead of comparing timezone rules.
  */
 public class DateUtils {
 
+    /**
+     * Value returned when a timestamp expressed as epoch milliseconds could
+     * not be parsed.
+     */
+    public static final long INVALID_TIMESTAMP = Long.MIN_VALUE;
+
     /**
      * Timestamp format without date and time separators.
      */
@@ -47,6 +72,88 @@ public class DateUtils {
      */
     private static final String DATE_FORMAT = "yyyyMMdd";
 
+    /**
+     * Length of timestamps without separators at UTC ('Z' timezone).
+     */
+    private static final int NO_SEPARATORS_LENGTH = 16;
+
+    /**
+     * Length of timestamps with separators at UTC ('Z' timezone).
+     */
+    private static final int SEPARATORS_LENGTH = 20;
+
+    /**
+     * Length of numeric timezone offsets (e.g. +0200).
+     */
+    private static final int OFFSET_LENGTH = 5;
+
+    /**
+     * Length of dates.
+     */
+    private static final int DATE_LENGTH = 8;
+
+    /**
+     * First year entirely within the Gregorian calendar.
+     */
+    private static final int MIN_GREGORIAN_YEAR = 1583;
+
+    /**
+     * Number of hours per day.
+     */
+    private static final int HOURS_PER_DAY = 24;
+
+    /**
+     * Number of minutes per hour.
+     */
+    private static final int MINUTES_PER_HOUR = 60;
+
+    /**
+     * Number of seconds per minute.
+     */
+    private static final int SECONDS_PER_MINUTE = 60;
+
+    /**
+     * Number of seconds per day.
+     */
+    private static final long SECONDS_PER_DAY = 86400L;
+
+    /**
+     * Number of milliseconds per second.
+     */
+    private static final long MILLIS_PER_SECOND = 1000L;
+
+    /**
+     * Formatters of each thread.
+     */
+    private static final ThreadLocal<Formats> FORMATS =
+            new ThreadLocal<Formats>() {
+                @Override
+                protected Formats initialValue() {
+                    return new Formats();
+                }
+            };
+
+    /**
+     * Day boundaries of default timezone.
+     */
+    private static volatile DayTable mDefaultDays;
+
+    /**
+     * Day boundaries of last timezone other than default one.
+     */
+    private static volatile DayTable mZoneDays;
+
+    /**
+     * Current day of default timezone.
+     */
+    private static volatile CurrentDay mToday;
+
+    /**
+     * Current day set by {@link #setCurrentDay(CurrentDay)}, or null to use
+     * current day of default timezone.
+     */
+    private static volatile CurrentDay mCurrentDay;
+
     /**
      * Constructor.
      */
@@ -55,39 +162,24 @@ public class DateUtils {
 
     /**
      * Parses a string representing a date or timestamp in ISO 8601 format.
+     * Timestamps strictly following any of the supported layouts (with
+     * either a numeric offset or 'Z' as timezone), and dates strictly
+     * following the date layout, are parsed without creating any formatter.
+     * Any other string is parsed leniently using cached formatters.
      *
      * @param date date or timestamp expressed as a String in ISO 8601 format.
      * @return a date object or null if string could not be parsed.
      */
-    public static Date parse(String date) {
+    public static Date parse(final String date) {
         if (date == null) {
             return null;
         }
 
-        try {
-            // try parsing without separators
-            date = date.replaceAll("Z$", "+0000");
-            final SimpleDateFormat format = new SimpleDateFormat(
-                    TIMESTAMP_NO_SEPARATORS_FORMAT, Locale.US);
-            return format.parse(date);
-        } catch (final ParseException e) {
-            // if it fails, try parsing with separators
-            try {
-                final SimpleDateFormat format = new SimpleDateFormat(
-                        TIMESTAMP_SEPARATORS_FORMAT, Locale.US);
-                return format.parse(date);
-            } catch (final ParseException e2) {
-                // if it fails, try parsing just the date component
-                try {
-                    final SimpleDateFormat format = new SimpleDateFormat(DATE_FORMAT,
-                            Locale.US);
-                    return format.parse(date);
-                } catch (final ParseException e3) {
-                    // if it fails, return null.
-                    return null;
-                }
-            }
+        final long millis = parseCanonical(date);
+        if (millis != INVALID_TIMESTAMP) {
+            return new Date(millis);
         }
+        return parseLenient(date);
     }
 
     /**
@@ -99,10 +191,7 @@ public class DateUtils {
     public static String formatDate(final Date date) {
         if (date != null) {
             // format date with MEDIUM format
-            final SimpleDateFormat format =
-                    (SimpleDateFormat) DateFormat.getDateInstance(
-                            DateFormat.MEDIUM);
-            return format.format(date);
+            return FORMATS.get().getDateFormat().format(date);
         }
         return "";
     }
@@ -116,26 +205,123 @@ public class DateUtils {
     public static String formatDateAndTime(final Date date) {
         if (date != null) {
             // format date and time with SHORT format
-            final SimpleDateFormat format =
-                    (SimpleDateFormat) DateFormat.getDateTimeInstance(
-                            DateFormat.SHORT, DateFormat.SHORT);
-            return format.format(date);
+            return FORMATS.get().getDateAndTimeFormat().format(date);
         }
         return "";
     }
 
+    /**
+     * Parses a string representing a date or timestamp in ISO 8601 format
+     * into epoch milliseconds.
+     *
+     * @param date date or timestamp expressed as a String in ISO 8601 format.
+     * @return epoch milliseconds or {@link #INVALID_TIMESTAMP} if string is
+     * null or could not be parsed.
+     * @see #parse(String)
+     */
+    public static long parseMillis(final String date) {
+        if (date == null) {
+            return INVALID_TIMESTAMP;
+        }
+
+        final long millis = parseCanonical(date);
+        if (millis != INVALID_TIMESTAMP) {
+            return millis;
+        }
+        final Date result = parseLenient(date);
+        return result != null ? result.getTime() : INVALID_TIMESTAMP;
+    }
+
     /**
      * Obtains a date/instance set to current date at midnight.
      *
      * @return current date at midnight.
      */
     public static Date today() {
-        final Calendar cal = Calendar.getInstance();
-        cal.set(Calendar.HOUR_OF_DAY, 0);
-        cal.set(Calendar.MINUTE, 0);
-        cal.set(Calendar.SECOND, 0);
-        cal.set(Calendar.MILLISECOND, 0);
-        return cal.getTime();
+        return new Date(todayMillis());
+    }
+
+    /**
+     * Obtains epoch milliseconds of current date at midnight taking into
+     * account local timezone.
+     *
+     * @return current date at midnight expressed as epoch milliseconds.
+     */
+    public static long todayMillis() {
+        return getCurrentDay().getStart();
+    }
+
+    /**
+     * Gets current day used to check whether timestamps belong to today.
+     *
+     * @return current day set with {@link #setCurrentDay(CurrentDay)}, or
+     * current day of default timezone according to system clock if none has
+     * been set.
+     */
+    public static CurrentDay getCurrentDay() {
+        final CurrentDay currentDay = mCurrentDay;
+        return currentDay != null ? currentDay : defaultToday();
+    }
+
+    /**
+     * Sets current day used to check whether timestamps belong to today,
+     * which allows using a specific clock or timezone.
+     *
+     * @param currentDay current day to be used, or null to use current day of
+     *                   default timezone according to system clock.
+     */
+    public static void setCurrentDay(final CurrentDay currentDay) {
+        mCurrentDay = currentDay;
+    }
+
+    /**
+     * Obtains first instant of the day containing provided timestamp taking
+     * into account local timezone. This is usually midnight, unless a
+     * daylight saving change takes place at midnight.
+     *
+     * @param millis timestamp expressed as epoch milliseconds.
+     * @return first instant of day expressed as epoch milliseconds.
+     */
+    public static long startOfDay(final long millis) {
+        return defaultDays().getDay(millis).getStart();
+    }
+
+    /**
+     * Obtains first instant of the day containing provided timestamp within
+     * provided timezone. This is usually midnight, unless a daylight saving
+     * change takes place at midnight.
+     *
+     * @param millis timestamp expressed as epoch milliseconds.
+     * @param zone   timezone.
+     * @return first instant of day expressed as epoch milliseconds.
+     * @throws IllegalArgumentException if timezone is null.
+     */
+    public static long startOfDay(final long millis, final TimeZone zone) {
+        return zoneDays(zone).getDay(millis).getStart();
+    }
+
+    /**
+     * Obtains number of days between 1970-01-01 and the local date
+     * containing provided timestamp, taking into account local timezone.
+     *
+     * @param millis timestamp expressed as epoch milliseconds.
+     * @return epoch day.
+     */
+    public static long epochDay(final long millis) {
+        return defaultDays().getDay(millis).getEpochDay();
+    }
+
+    /**
+     * Obtains number of days between 1970-01-01 and the date containing
+     * provided timestamp within provided timezone.
+     *
+     * @param millis timestamp expressed as epoch milliseconds.
+     * @param zone   timezone.
+     * @return epoch day.
+     * @throws IllegalArgumentException if timezone is null.
+     */
+    public static long epochDay(final long millis, final TimeZone zone) {
+        return zoneDays(zone).getDay(millis).getEpochDay();
     }
 
     /**
@@ -147,11 +333,34 @@ public class DateUtils {
      * @return true if both dates are the same, false otherwise.
      */
     public static boolean isSameDay(final Date date1, final Date date2) {
-        final Calendar cal1 = Calendar.getInstance();
-        cal1.setTime(date1);
-        final Calendar cal2 = Calendar.getInstance();
-        cal2.setTime(date2);
-        return isSameDay(cal1, cal2);
+        return isSameDay(date1.getTime(), date2.getTime());
+    }
+
+    /**
+     * Indicates whether two timestamps correspond to the same day taking
+     * into account local timezone.
+     *
+     * @param millis1 1st timestamp expressed as epoch milliseconds.
+     * @param millis2 2nd timestamp expressed as epoch milliseconds.
+     * @return true if both timestamps have the same date, false otherwise.
+     */
+    public static boolean isSameDay(final long millis1, final long millis2) {
+        return defaultDays().getDay(millis1).contains(millis2);
+    }
+
+    /**
+     * Indicates whether two timestamps correspond to the same day within
+     * provided timezone.
+     *
+     * @param millis1 1st timestamp expressed as epoch milliseconds.
+     * @param millis2 2nd timestamp expressed as epoch milliseconds.
+     * @param zone    timezone.
+     * @return true if both timestamps have the same date, false otherwise.
+     * @throws IllegalArgumentException if timezone is null.
+     */
+    public static boolean isSameDay(final long millis1, final long millis2,
+                                    final TimeZone zone) {
+        return zoneDays(zone).getDay(millis1).contains(millis2);
     }
 
     /**
@@ -176,6 +385,361 @@ public class DateUtils {
      * @return true if date/time corresponds to today, false otherwise.
      */
     public static boolean isToday(final Date date) {
-        return isSameDay(date, new Date());
+        return isToday(date.getTime());
+    }
+
+    /**
+     * Indicates whether provided timestamp corresponds to today taking into
+     * account local timezone, or the clock and timezone of the current day set
+     * with {@link #setCurrentDay(CurrentDay)}.
+     *
+     * @param millis timestamp expressed as epoch milliseconds.
+     * @return true if timestamp corresponds to today, false otherwise.
+     */
+    public static boolean isToday(final long millis) {
+        return getCurrentDay().isToday(millis);
+    }
+
+    /**
+     * Gets day boundaries of default timezone, which are created again if
+     * default timezone has changed.
+     * Since {@link TimeZone#getDefault()} returns a new copy on each call,
+     * cached boundaries are matched by checking that the default timezone is
+     * still a copy of the timezone they were created with, which avoids
+     * comparing timezone rules.
+     *
+     * @return day boundaries of default timezone.
+     */
+    private static DayTable defaultDays() {
+        final TimeZone zone = TimeZone.getDefault();
+        DayTable days = mDefaultDays;
+        if (days == null || !days.isCopyOf(zone)) {
+            days = new DayTable(zone);
+            mDefaultDays = days;
+        }
+        return days;
+    }
+
+    /**
+     * Gets current day of default timezone, which is created again if
+     * default timezone has changed.
+     *
+     * @return current day of default timezone.
+     */
+    private static CurrentDay defaultToday() {
+        final DayTable days = defaultDays();
+        CurrentDay today = mToday;
+        if (today == null || !today.uses(days)) {
+            today = new CurrentDay(Clock.SYSTEM, days);
+            mToday = today;
+        }
+        return today;
+    }
+
+    /**
+     * Gets day boundaries of provided timezone. Boundaries are kept for the
+     * default timezone and the last other requested timezone.
+     *
+     * @param zone timezone.
+     * @return day boundaries of timezone.
+     * @throws IllegalArgumentException if timezone is null.
+     */
+    private static DayTable zoneDays(final TimeZone zone) {
+        if (zone == null) {
+            throw new IllegalArgumentException();
+        }
+        DayTable days = mDefaultDays;
+        if (days != null && days.isZone(zone)) {
+            return days;
+        }
+        days = mZoneDays;
+        if (days == null || !days.isZone(zone)) {
+            days = new DayTable(zone);
+            mZoneDays = days;
+        }
+        return days;
+    }
+
+    /**
+     * Parses a date or timestamp strictly following any of the supported
+     * layouts. Layout is detected by length and position of separators.
+     *
+     * @param date date or timestamp to be parsed.
+     * @return epoch milliseconds or {@link #INVALID_TIMESTAMP} if string does not
+     * strictly follow any layout, contains values out of range, or refers to
+     * a year before the adoption of the Gregorian calendar.
+     */
+    private static long parseCanonical(final String date) {
+        final int length = date.length();
+        if (length == DATE_LENGTH) {
+            return parseDate(date);
+        }
+
+        final boolean separators;
+        final int zonePos;
+        if ((length == NO_SEPARATORS_LENGTH ||
+                length == NO_SEPARATORS_LENGTH + OFFSET_LENGTH - 1) &&
+                date.charAt(8) == 'T') {
+            separators = false;
+            zonePos = NO_SEPARATORS_LENGTH - 1;
+        } else if ((length == SEPARATORS_LENGTH ||
+                length == SEPARATORS_LENGTH + OFFSET_LENGTH - 1) &&
+                date.charAt(4) == '-' && date.charAt(7) == '-' &&
+                date.charAt(10) == 'T' && date.charAt(13) == ':' &&
+                date.charAt(16) == ':') {
+            separators = true;
+            zonePos = SEPARATORS_LENGTH - 1;
+        } else {
+            return INVALID_TIMESTAMP;
+        }
+
+        final int offsetMinutes;
+        if (length == zonePos + 1) {
+            if (date.charAt(zonePos) != 'Z') {
+                return INVALID_TIMESTAMP;
+            }
+            offsetMinutes = 0;
+        } else {
+            final char sign = date.charAt(zonePos);
+            final int offsetHours = digits(date, zonePos + 1, 2);
+            final int minutes = digits(date, zonePos + 3, 2);
+            if ((sign != '+' && sign != '-') || offsetHours < 0 ||
+                    offsetHours >= HOURS_PER_DAY || minutes < 0 ||
+                    minutes >= MINUTES_PER_HOUR) {
+                return INVALID_TIMESTAMP;
+            }
+            final int value = offsetHours * MINUTES_PER_HOUR + minutes;
+            offsetMinutes = sign == '+' ? value : -value;
+        }
+
+        final int year = digits(date, 0, 4);
+        final int month = digits(date, separators ? 5 : 4, 2);
+        final int day = digits(date, separators ? 8 : 6, 2);
+        final int hour = digits(date, separators ? 11 : 9, 2);
+        final int minute = digits(date, separators ? 14 : 11, 2);
+        final int second = digits(date, separators ? 17 : 13, 2);
+        if (!isValidDate(year, month, day) || hour < 0 ||
+                hour >= HOURS_PER_DAY || minute < 0 ||
+                minute >= MINUTES_PER_HOUR || second < 0 ||
+                second >= SECONDS_PER_MINUTE) {
+            return INVALID_TIMESTAMP;
+        }
+
+        final long seconds = daysFromCivil(year, month, day) * SECONDS_PER_DAY +
+                (hour * MINUTES_PER_HOUR + minute - offsetMinutes) *
+                        SECONDS_PER_MINUTE + second;
+        return seconds * MILLIS_PER_SECOND;
+    }
+
+    /**
+     * Parses a date strictly following the date layout as midnight of that
+     * date in local timezone.
+     *
+     * @param date date to be parsed.
+     * @return epoch milliseconds or {@link #INVALID_TIMESTAMP} if string does not
+     * strictly follow date layout.
+     */
+    private static long parseDate(final String date) {
+        final int year = digits(date, 0, 4);
+        final int month = digits(date, 4, 2);
+        final int day = digits(date, 6, 2);
+        if (!isValidDate(year, month, day)) {
+            return INVALID_TIMESTAMP;
+        }
+
+        // local midnight depends on timezone rules, which are left to the
+        // calendar
+        final Calendar cal = FORMATS.get().getCalendar();
+        cal.clear();
+        cal.set(year, month - 1, day);
+        return cal.getTimeInMillis();
+    }
+
+    /**
+     * Parses a date or timestamp leniently by trying each supported format
+     * in turn, as {@link SimpleDateFormat} does.
+     *
+     * @param date date or timestamp to be parsed.
+     * @return a date object or null if string could not be parsed.
+     */
+    private static Date parseLenient(final String date) {
+        final int last = date.length() - 1;
+        final String source = last >= 0 && date.charAt(last) == 'Z' ?
+                date.substring(0, last) + "+0000" : date;
+
+        final TimeZone zone = TimeZone.getDefault();
+        for (final SimpleDateFormat format :
+                FORMATS.get().getParseFormats()) {
+            format.setTimeZone(zone);
+            final Date result = format.parse(source, new ParsePosition(0));
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parses a number consisting of provided amount of ASCII digits.
+     *
+     * @param str   string containing digits.
+     * @param start position of 1st digit.
+     * @param count number of digits.
+     * @return parsed number or -1 if any character is not a digit.
+     */
+    private static int digits(final String str, final int start,
+                              final int count) {
+        int result = 0;
+        for (int i = start; i < start + count; i++) {
+            final int digit = str.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            result = 10 * result + digit;
+        }
+        return result;
+    }
+
+    /**
+     * Indicates whether provided values form a valid date within the
+     * Gregorian calendar.
+     *
+     * @param year  year.
+     * @param month month starting at 1.
+     * @param day   day of month starting at 1.
+     * @return true if date is valid, false otherwise.
+     */
+    private static boolean isValidDate(final int year, final int month,
+                                       final int day) {
+        if (year < MIN_GREGORIAN_YEAR || month < 1 || month > 12 || day < 1) {
+            return false;
+        }
+        final int days;
+        if (month == 2) {
+            final boolean leap = (year % 4 == 0 && year % 100 != 0) ||
+                    year % 400 == 0;
+            days = leap ? 29 : 28;
+        } else if (month == 4 || month == 6 || month == 9 || month == 11) {
+            days = 30;
+        } else {
+            days = 31;
+        }
+        return day <= days;
+    }
+
+    /**
+     * Computes number of days since 1970-01-01 of provided date of the
+     * proleptic Gregorian calendar.
+     *
+     * @param year  year.
+     * @param month month starting at 1.
+     * @param day   day of month starting at 1.
+     * @return number of days since epoch.
+     */
+    private static long daysFromCivil(final int year, final int month,
+                                      final int day) {
+        // years are counted from March so that leap days are at the end
+        final int y = month <= 2 ? year - 1 : year;
+        final int era = (y >= 0 ? y : y - 399) / 400;
+        final int yearOfEra = y - era * 400;
+        final int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) /
+                5 + day - 1;
+        final int dayOfEra = yearOfEra * 365 + yearOfEra / 4 -
+                yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468L;
+    }
+
+    /**
+     * Formatters and calendar reused by each thread, since neither
+     * {@link DateFormat} nor {@link Calendar} are thread safe.
+     */
+    private static final class Formats {
+
+        /**
+         * Formats used for lenient parsing, in order of preference.
+         */
+        private final SimpleDateFormat[] mParseFormats = {
+                new SimpleDateFormat(TIMESTAMP_NO_SEPARATORS_FORMAT, Locale.US),
+                new SimpleDateFormat(TIMESTAMP_SEPARATORS_FORMAT, Locale.US),
+                new SimpleDateFormat(DATE_FORMAT, Locale.US)
+        };
+
+        /**
+         * Calendar used to compute local midnight of dates.
+         */
+        private final Calendar mCalendar = new GregorianCalendar(Locale.US);
+
+        /**
+         * Locale of display formats.
+         */
+        private Locale mLocale;
+
+        /**
+         * Format of dates using medium format.
+         */
+        private DateFormat mDateFormat;
+
+        /**
+         * Format of dates and times using short format.
+         */
+        private DateFormat mDateAndTimeFormat;
+
+        /**
+         * Gets formats used for lenient parsing.
+         *
+         * @return formats used for lenient parsing.
+         */
+        SimpleDateFormat[] getParseFormats() {
+            return mParseFormats;
+        }
+
+        /**
+         * Gets calendar set to local timezone.
+         *
+         * @return calendar set to local timezone.
+         */
+        Calendar getCalendar() {
+            mCalendar.setTimeZone(TimeZone.getDefault());
+            return mCalendar;
+        }
+
+        /**
+         * Gets date format using medium format for current locale and
+         * timezone.
+         *
+         * @return date format.
+         */
+        DateFormat getDateFormat() {
+            updateLocale();
+            mDateFormat.setTimeZone(TimeZone.getDefault());
+            return mDateFormat;
+        }
+
+        /**
+         * Gets date and time format using short format for current locale and
+         * timezone.
+         *
+         * @return date and time format.
+         */
+        DateFormat getDateAndTimeFormat() {
+            updateLocale();
+            mDateAndTimeFormat.setTimeZone(TimeZone.getDefault());
+            return mDateAndTimeFormat;
+        }
+
+        /**
+         * Creates display formats again if default locale has changed since
+         * they were created.
+         */
+        private void updateLocale() {
+            final Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+            if (!locale.equals(mLocale)) {
+                mDateFormat = DateFormat.getDateInstance(DateFormat.MEDIUM,
+                        locale);
+                mDateAndTimeFormat = DateFormat.getDateTimeInstance(
+                        DateFormat.SHORT, DateFormat.SHORT, locale);
+                mLocale = locale;
+            }
+        }
     }
 }
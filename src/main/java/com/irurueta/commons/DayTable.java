@@ -0,0 +1,264 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Table caching the boundaries of local days of a timezone, so that the day
+ * containing a timestamp can be determined with a few comparisons instead of
+ * a calendar.
+ * Each local day is stored at the slot given by its day number. Since the
+ * actual offset of a timezone differs from its current raw offset by less
+ * than a day (except for rare historical changes of raw offset, which are
+ * still handled correctly although not cached), the day of a timestamp is
+ * found at the slot of its day using the raw offset, or at one of both
+ * adjacent slots.
+ * Days are only computed (using a calendar) the first time a timestamp
+ * within them is looked up, or when their slot has been reused by a day
+ * far apart.
+ * Instances are thread safe: days are immutable, and when several threads
+ * compute the same day concurrently, any of them can be kept.
+ */
+final class DayTable {
+
+    /**
+     * Number of milliseconds per day.
+     */
+    static final long MILLIS_PER_DAY = 86400000L;
+
+    /**
+     * Number of slots of the table. Must be a power of 2.
+     */
+    private static final int TABLE_SIZE = 512;
+
+    /**
+     * Timezone of days.
+     */
+    private final TimeZone mZone;
+
+    /**
+     * Raw offset of timezone expressed in milliseconds.
+     */
+    private final long mRawOffset;
+
+    /**
+     * Amount of time added to local time during daylight saving time,
+     * expressed in milliseconds.
+     */
+    private final int mDstSavings;
+
+    /**
+     * Cached days.
+     */
+    private final Day[] mDays = new Day[TABLE_SIZE];
+
+    /**
+     * Constructor.
+     *
+     * @param zone timezone of days. Provided instance is copied, so that
+     *             later changes to it do not alter this table.
+     */
+    DayTable(final TimeZone zone) {
+        mZone = (TimeZone) zone.clone();
+        mRawOffset = mZone.getRawOffset();
+        mDstSavings = mZone.getDSTSavings();
+    }
+
+    /**
+     * Indicates whether this table contains days of provided timezone.
+     *
+     * @param zone timezone to be checked.
+     * @return true if timezone has the same rules as the one of this table,
+     * false otherwise.
+     */
+    boolean isZone(final TimeZone zone) {
+        return mZone.equals(zone);
+    }
+
+    /**
+     * Indicates whether provided timezone is a copy of the timezone of this
+     * table (or of the instance it was copied from). Copies share the ID
+     * instance of the original timezone, hence this only compares references
+     * and offsets, which is much cheaper than comparing timezone rules.
+     * Timezones having equal rules but not being copies are not matched.
+     *
+     * @param zone timezone to be checked.
+     * @return true if timezone is a copy with the same offsets, false
+     * otherwise.
+     */
+    boolean isCopyOf(final TimeZone zone) {
+        //noinspection StringEquality
+        return mZone.getID() == zone.getID() &&
+                mRawOffset == zone.getRawOffset() &&
+                mDstSavings == zone.getDSTSavings();
+    }
+
+    /**
+     * Gets local day containing provided timestamp.
+     *
+     * @param millis timestamp expressed as epoch milliseconds.
+     * @return local day.
+     */
+    Day getDay(final long millis) {
+        final long key = floorDiv(millis + mRawOffset, MILLIS_PER_DAY);
+        Day day = mDays[slot(key)];
+        if (day != null && day.contains(millis)) {
+            return day;
+        }
+        day = mDays[slot(key - 1)];
+        if (day != null && day.contains(millis)) {
+            return day;
+        }
+        day = mDays[slot(key + 1)];
+        if (day != null && day.contains(millis)) {
+            return day;
+        }
+
+        day = computeDay(millis);
+        mDays[slot(day.getEpochDay())] = day;
+        return day;
+    }
+
+    /**
+     * Computes the largest integer less or equal than the quotient of
+     * provided values.
+     *
+     * @param x dividend.
+     * @param y divisor. Must be positive.
+     * @return floor of quotient.
+     */
+    static long floorDiv(final long x, final long y) {
+        final long q = x / y;
+        return x % y < 0 ? q - 1 : q;
+    }
+
+    /**
+     * Gets slot of provided day number.
+     *
+     * @param key day number.
+     * @return slot within table.
+     */
+    private static int slot(final long key) {
+        return (int) key & (TABLE_SIZE - 1);
+    }
+
+    /**
+     * Computes local day containing provided timestamp.
+     *
+     * @param millis timestamp expressed as epoch milliseconds.
+     * @return local day.
+     */
+    private Day computeDay(final long millis) {
+        final Calendar cal = new GregorianCalendar(mZone, Locale.US);
+        cal.setTimeInMillis(millis);
+        final int era = cal.get(Calendar.ERA);
+        final int year = cal.get(Calendar.YEAR);
+        final int month = cal.get(Calendar.MONTH);
+        final int dayOfMonth = cal.get(Calendar.DAY_OF_MONTH);
+
+        // midnight is set through date fields, so that days starting after
+        // midnight because of a daylight saving change are handled by the
+        // calendar
+        cal.clear();
+        cal.set(Calendar.ERA, era);
+        cal.set(year, month, dayOfMonth);
+        final long start = cal.getTimeInMillis();
+
+        cal.clear();
+        cal.set(Calendar.ERA, era);
+        cal.set(year, month, dayOfMonth + 1);
+        final long end = cal.getTimeInMillis();
+
+        final long epochDay = floorDiv(start + mZone.getOffset(start),
+                MILLIS_PER_DAY);
+        return new Day(start, end, epochDay);
+    }
+
+    /**
+     * Boundaries of a local day.
+     */
+    static final class Day {
+
+        /**
+         * First instant of day expressed as epoch milliseconds.
+         */
+        private final long mStart;
+
+        /**
+         * First instant of next day expressed as epoch milliseconds.
+         */
+        private final long mEnd;
+
+        /**
+         * Number of days between 1970-01-01 and this day.
+         */
+        private final long mEpochDay;
+
+        /**
+         * Constructor.
+         *
+         * @param start    first instant of day.
+         * @param end      first instant of next day.
+         * @param epochDay number of days since 1970-01-01.
+         */
+        Day(final long start, final long end, final long epochDay) {
+            mStart = start;
+            mEnd = end;
+            mEpochDay = epochDay;
+        }
+
+        /**
+         * Gets first instant of day.
+         *
+         * @return first instant of day expressed as epoch milliseconds.
+         */
+        long getStart() {
+            return mStart;
+        }
+
+        /**
+         * Gets first instant of next day.
+         *
+         * @return first instant of next day expressed as epoch milliseconds.
+         */
+        long getEnd() {
+            return mEnd;
+        }
+
+        /**
+         * Gets number of days between 1970-01-01 and this day.
+         *
+         * @return number of days since epoch.
+         */
+        long getEpochDay() {
+            return mEpochDay;
+        }
+
+        /**
+         * Indicates whether provided timestamp belongs to this day.
+         *
+         * @param millis timestamp expressed as epoch milliseconds.
+         * @return true if timestamp is within this day, false otherwise.
+         */
+        boolean contains(final long millis) {
+            return millis >= mStart && millis < mEnd;
+        }
+    }
+}
@@ -0,0 +1,326 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Costs of modifications used to compute weighted Levenshtein distances.
+ * Insertions and deletions have a fixed cost, whereas substitutions have a
+ * default cost that can be overridden for specific pairs of characters (e.g.
+ * to make typographic errors between adjacent keys cheaper).
+ * Substituting a character by itself has no cost.
+ * Instances are immutable and can be created using {@link Builder}.
+ */
+public class EditCosts {
+
+    /**
+     * Costs where all modifications have unit cost, so that weighted
+     * distance equals Levenshtein distance.
+     */
+    public static final EditCosts UNIT = new Builder().build();
+
+    /**
+     * Rows of a QWERTY keyboard.
+     */
+    private static final String[] QWERTY_ROWS = {
+            "1234567890", "qwertyuiop", "asdfghjkl", "zxcvbnm"
+    };
+
+    /**
+     * Cost of inserting a character.
+     */
+    private final double mInsertionCost;
+
+    /**
+     * Cost of deleting a character.
+     */
+    private final double mDeletionCost;
+
+    /**
+     * Cost of substituting characters having no specific cost.
+     */
+    private final double mSubstitutionCost;
+
+    /**
+     * Sorted pairs of characters having specific substitution costs, where
+     * 1st character is stored in the upper 16 bits.
+     */
+    private final int[] mPairs;
+
+    /**
+     * Substitution cost of each pair of characters.
+     */
+    private final double[] mPairCosts;
+
+    /**
+     * Constructor.
+     *
+     * @param builder builder containing costs.
+     */
+    private EditCosts(final Builder builder) {
+        mInsertionCost = builder.mInsertionCost;
+        mDeletionCost = builder.mDeletionCost;
+        mSubstitutionCost = builder.mSubstitutionCost;
+
+        mPairs = new int[builder.mPairCosts.size()];
+        mPairCosts = new double[mPairs.length];
+        int i = 0;
+        for (final Map.Entry<Integer, Double> entry :
+                builder.mPairCosts.entrySet()) {
+            mPairs[i] = entry.getKey();
+            mPairCosts[i] = entry.getValue();
+            i++;
+        }
+    }
+
+    /**
+     * Creates costs where substitutions between keys that are adjacent on a
+     * QWERTY keyboard (either horizontally or diagonally, and for both lower
+     * and upper case letters) have provided cost, and any other modification
+     * has unit cost.
+     *
+     * @param adjacentCost cost of substituting adjacent keys.
+     * @return keyboard adjacency costs.
+     * @throws IllegalArgumentException if cost is negative or not finite.
+     */
+    public static EditCosts qwertyAdjacency(final double adjacentCost) {
+        final Builder builder = new Builder();
+        for (int r = 0; r < QWERTY_ROWS.length; r++) {
+            final String row = QWERTY_ROWS[r];
+            for (int i = 0; i < row.length(); i++) {
+                final char key = row.charAt(i);
+                if (i + 1 < row.length()) {
+                    setKeyCost(builder, key, row.charAt(i + 1), adjacentCost);
+                }
+                if (r + 1 < QWERTY_ROWS.length) {
+                    // keys of each row are shifted half a key to the right
+                    // of keys of the row above
+                    final String next = QWERTY_ROWS[r + 1];
+                    if (i - 1 >= 0 && i - 1 < next.length()) {
+                        setKeyCost(builder, key, next.charAt(i - 1),
+                                adjacentCost);
+                    }
+                    if (i < next.length()) {
+                        setKeyCost(builder, key, next.charAt(i), adjacentCost);
+                    }
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Gets cost of inserting a character.
+     *
+     * @return cost of inserting a character.
+     */
+    public double getInsertionCost() {
+        return mInsertionCost;
+    }
+
+    /**
+     * Gets cost of deleting a character.
+     *
+     * @return cost of deleting a character.
+     */
+    public double getDeletionCost() {
+        return mDeletionCost;
+    }
+
+    /**
+     * Gets cost of substituting characters having no specific cost.
+     *
+     * @return default substitution cost.
+     */
+    public double getDefaultSubstitutionCost() {
+        return mSubstitutionCost;
+    }
+
+    /**
+     * Gets cost of substituting a character by another one.
+     *
+     * @param from character being substituted.
+     * @param to   new character.
+     * @return substitution cost.
+     */
+    public double getSubstitutionCost(final char from, final char to) {
+        if (from == to) {
+            return 0.0;
+        }
+        if (mPairs.length == 0) {
+            return mSubstitutionCost;
+        }
+        final int pos = Arrays.binarySearch(mPairs, pair(from, to));
+        return pos >= 0 ? mPairCosts[pos] : mSubstitutionCost;
+    }
+
+    /**
+     * Sets cost of substituting two keys in both directions, for both lower
+     * and upper case.
+     *
+     * @param builder builder where costs are set.
+     * @param key1    1st key.
+     * @param key2    2nd key.
+     * @param cost    substitution cost.
+     */
+    private static void setKeyCost(final Builder builder, final char key1,
+                                   final char key2, final double cost) {
+        builder.setSubstitutionCost(key1, key2, cost);
+        builder.setSubstitutionCost(Character.toUpperCase(key1),
+                Character.toUpperCase(key2), cost);
+    }
+
+    /**
+     * Encodes a pair of characters into an int.
+     *
+     * @param from character being substituted.
+     * @param to   new character.
+     * @return encoded pair.
+     */
+    private static int pair(final char from, final char to) {
+        // pairs whose 1st character is above 0x7FFF are negative, which is
+        // fine since pairs are both sorted and searched using signed order
+        return (from << 16) | to;
+    }
+
+    /**
+     * Validates provided cost.
+     *
+     * @param cost cost to be checked.
+     * @throws IllegalArgumentException if cost is negative or not finite.
+     */
+    private static void checkCost(final double cost) {
+        if (!(cost >= 0.0) || Double.isInfinite(cost)) {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    /**
+     * Builds costs of modifications. All costs are 1.0 unless otherwise
+     * set.
+     */
+    public static class Builder {
+
+        /**
+         * Cost of inserting a character.
+         */
+        private double mInsertionCost = 1.0;
+
+        /**
+         * Cost of deleting a character.
+         */
+        private double mDeletionCost = 1.0;
+
+        /**
+         * Cost of substituting characters having no specific cost.
+         */
+        private double mSubstitutionCost = 1.0;
+
+        /**
+         * Substitution costs of specific pairs of characters.
+         */
+        private final TreeMap<Integer, Double> mPairCosts = new TreeMap<>();
+
+        /**
+         * Sets cost of inserting a character.
+         *
+         * @param cost cost of inserting a character.
+         * @return this builder.
+         * @throws IllegalArgumentException if cost is negative or not finite.
+         */
+        public Builder setInsertionCost(final double cost) {
+            checkCost(cost);
+            mInsertionCost = cost;
+            return this;
+        }
+
+        /**
+         * Sets cost of deleting a character.
+         *
+         * @param cost cost of deleting a character.
+         * @return this builder.
+         * @throws IllegalArgumentException if cost is negative or not finite.
+         */
+        public Builder setDeletionCost(final double cost) {
+            checkCost(cost);
+            mDeletionCost = cost;
+            return this;
+        }
+
+        /**
+         * Sets cost of substituting characters having no specific cost.
+         *
+         * @param cost default substitution cost.
+         * @return this builder.
+         * @throws IllegalArgumentException if cost is negative or not finite.
+         */
+        public Builder setDefaultSubstitutionCost(final double cost) {
+            checkCost(cost);
+            mSubstitutionCost = cost;
+            return this;
+        }
+
+        /**
+         * Sets cost of substituting provided characters by each other, in
+         * both directions.
+         *
+         * @param c1   1st character.
+         * @param c2   2nd character.
+         * @param cost substitution cost.
+         * @return this builder.
+         * @throws IllegalArgumentException if characters are equal or cost is
+         *                                  negative or not finite.
+         */
+        public Builder setSubstitutionCost(final char c1, final char c2,
+                                           final double cost) {
+            setSubstitutionCostFrom(c1, c2, cost);
+            return setSubstitutionCostFrom(c2, c1, cost);
+        }
+
+        /**
+         * Sets cost of substituting a character by another one, only in
+         * provided direction.
+         *
+         * @param from character being substituted.
+         * @param to   new character.
+         * @param cost substitution cost.
+         * @return this builder.
+         * @throws IllegalArgumentException if characters are equal or cost is
+         *                                  negative or not finite.
+         */
+        public Builder setSubstitutionCostFrom(final char from, final char to,
+                                               final double cost) {
+            if (from == to) {
+                throw new IllegalArgumentException();
+            }
+            checkCost(cost);
+            mPairCosts.put(pair(from, to), cost);
+            return this;
+        }
+
+        /**
+         * Builds costs.
+         *
+         * @return built costs.
+         */
+        public EditCosts build() {
+            return new EditCosts(this);
+        }
+    }
+}
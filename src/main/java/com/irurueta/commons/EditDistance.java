@@ -15,6 +15,11 @@
  */
 package com.irurueta.commons;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * Utility class to compute Levenshtein distance (number of
  * substitutions/modifications) between two arrays or strings.
@@ -23,9 +28,52 @@ package com.irurueta.commons;
  * make two collections equal. Thus, this distance measure is appropriate to
  * compare similar but not exactly equal Strings (to take into account
  * typographic errors, etc).
+ * Distance between Strings (or any character sequences) is computed using
+ * Myers' bit-parallel algorithm, which processes up to 64 characters of the
+ * shortest String at once, whereas distance between generic arrays is
+ * computed using dynamic programming.
+ * Besides Levenshtein distance, optimal string alignment distance (which
+ * also accounts for transpositions), weighted Levenshtein distance (using
+ * configurable {@link EditCosts}) and Jaro-Winkler similarity are provided,
+ * all of them reusing buffers of an optional {@link Workspace}.
+ * Notice that methods not taking a workspace (or receiving a null one)
+ * allocate new buffers on every call, which is convenient for occasional
+ * computations but causes garbage collection churn when computing large
+ * numbers of distances. In such cases, either pass a {@link Workspace}, or
+ * use an {@link EditDistanceCalculator} (e.g. the one bound to each thread
+ * by {@link EditDistanceCalculator#getThreadInstance()}), which reuses its
+ * buffers. Static methods do not use per-thread buffers themselves, so that
+ * they never retain memory after returning.
  */
 public class EditDistance {
 
+    /**
+     * Number of bits of each word used by bit-parallel algorithm.
+     */
+    private static final int WORD_SIZE = 64;
+
+    /**
+     * Number of bits to shift a position to obtain its word index.
+     */
+    private static final int WORD_SHIFT = 6;
+
+    /**
+     * Number of characters having their own entry in tables of match masks.
+     * Remaining characters are looked up using binary search.
+     */
+    private static final int ASCII_SIZE = 128;
+
+    /**
+     * Maximum length of common prefix rewarded by Jaro-Winkler similarity.
+     */
+    private static final int JARO_WINKLER_MAX_PREFIX = 4;
+
+    /**
+     * Weight given to each character of common prefix by Jaro-Winkler
+     * similarity.
+     */
+    private static final double JARO_WINKLER_PREFIX_SCALE = 0.1;
+
     /**
      * Constructor.
      */
@@ -34,22 +82,330 @@ public class EditDistance {
 
     /**
      * Computes Levenshtein distance between two Strings.
+     * Shortest String is encoded into bit vectors so that each character of
+     * the longest String is processed in O(1) word operations when the
+     * shortest String has up to 64 characters, or in O(m / 64) word
+     * operations otherwise, where m is the length of the shortest String.
      *
      * @param x 1st String.
      * @param y 2nd String.
      * @return Levenshtein distance.
+     * @throws IllegalArgumentException if any String is null.
      */
     public static int stringDistance(final String x, final String y) {
-        return distance(new StringArrayWrapper(x), new StringArrayWrapper(y));
+        return stringDistance(x, y, null);
+    }
+
+    /**
+     * Computes Levenshtein distance between two Strings reusing buffers of
+     * provided workspace.
+     *
+     * @param x         1st String.
+     * @param y         2nd String.
+     * @param workspace workspace whose buffers are reused or null to allocate
+     *                  new buffers.
+     * @return Levenshtein distance.
+     * @throws IllegalArgumentException if any String is null.
+     * @see #stringDistance(String, String)
+     */
+    public static int stringDistance(final String x, final String y,
+                                     final Workspace workspace) {
+        if (x == null || y == null) {
+            throw new IllegalArgumentException();
+        }
+        return bitParallelDistance(x, y, workspace);
+    }
+
+    /**
+     * Computes Levenshtein distance between two character sequences using
+     * Myers' bit-parallel algorithm, or its blocked variant when shortest
+     * sequence is longer than 64 characters.
+     *
+     * @param x         1st character sequence.
+     * @param y         2nd character sequence.
+     * @param workspace workspace whose buffers are reused or null to allocate
+     *                  new buffers.
+     * @return Levenshtein distance.
+     */
+    private static int bitParallelDistance(final CharSequence x,
+                                           final CharSequence y,
+                                           final Workspace workspace) {
+        // distance is symmetric, hence shortest sequence is encoded to
+        // minimize number of words
+        final CharSequence pattern;
+        final CharSequence text;
+        if (x.length() <= y.length()) {
+            pattern = x;
+            text = y;
+        } else {
+            pattern = y;
+            text = x;
+        }
+
+        if (pattern.length() == 0) {
+            return text.length();
+        }
+
+        final PatternMasks masks = workspace != null ? workspace.getMasks() :
+                new PatternMasks();
+        masks.encode(pattern);
+        if (masks.mNumBlocks == 1) {
+            return myersDistance(masks, pattern.length(), text);
+        } else {
+            return blockedMyersDistance(masks, pattern.length(), text);
+        }
+    }
+
+    /**
+     * Computes Levenshtein distance between two Strings only if it does not
+     * exceed provided maximum distance.
+     * Only a diagonal band of 2 * maxDistance + 1 cells of each row of the
+     * dynamic programming matrix is computed, since cells outside of it
+     * always exceed maximum distance, and computation stops as soon as all
+     * cells of a row exceed maximum distance. Hence, this method requires
+     * O(maxDistance * n) time, and dissimilar Strings are usually rejected
+     * after processing a few characters.
+     *
+     * @param x           1st String.
+     * @param y           2nd String.
+     * @param maxDistance maximum distance of interest.
+     * @return Levenshtein distance if it is less or equal than maximum
+     * distance, or maxDistance + 1 otherwise.
+     * @throws IllegalArgumentException if any String is null or if maximum
+     *                                  distance is negative.
+     */
+    public static int distanceAtMost(final String x, final String y,
+                                     final int maxDistance) {
+        return distanceAtMost(x, y, maxDistance, null);
+    }
+
+    /**
+     * Computes Levenshtein distance between two Strings only if it does not
+     * exceed provided maximum distance, reusing row buffers of provided
+     * workspace.
+     *
+     * @param x           1st String.
+     * @param y           2nd String.
+     * @param maxDistance maximum distance of interest.
+     * @param workspace   workspace whose buffers are reused or null to
+     *                    allocate new buffers.
+     * @return Levenshtein distance if it is less or equal than maximum
+     * distance, or maxDistance + 1 otherwise.
+     * @throws IllegalArgumentException if any String is null or if maximum
+     *                                  distance is negative.
+     * @see #distanceAtMost(String, String, int)
+     */
+    public static int distanceAtMost(final String x, final String y,
+                                     final int maxDistance,
+                                     final Workspace workspace) {
+        if (x == null || y == null || maxDistance < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        // rows are iterated over shortest String, so that the band always
+        // reaches last column
+        final String rowString;
+        final String colString;
+        if (x.length() <= y.length()) {
+            rowString = x;
+            colString = y;
+        } else {
+            rowString = y;
+            colString = x;
+        }
+        final int n = rowString.length();
+        final int m = colString.length();
+        if (m - n > maxDistance) {
+            return maxDistance + 1;
+        }
+        if (n == 0) {
+            return m;
+        }
+
+        // distance never exceeds length of longest String, hence band is
+        // limited to avoid overflows
+        final int k = Math.min(maxDistance, m);
+        final int tooFar = k + 1;
+
+        final Workspace w = workspace != null ? workspace :
+                new Workspace(m + 1);
+        w.ensureCapacity(m + 1);
+        int[] prevRow = w.mPrevRow;
+        int[] curRow = w.mCurRow;
+        for (int j = 0; j <= m; j++) {
+            prevRow[j] = j <= k ? j : tooFar;
+        }
+
+        for (int i = 1; i <= n; i++) {
+            final int from = Math.max(1, i - k);
+            final int to = Math.min(m, i + k);
+            final char c = rowString.charAt(i - 1);
+
+            // cell at the left of band
+            if (from == 1) {
+                curRow[0] = i <= k ? i : tooFar;
+            } else {
+                curRow[from - 1] = tooFar;
+            }
+            int rowMin = curRow[from - 1];
+
+            for (int j = from; j <= to; j++) {
+                final int dist1 = prevRow[j] + 1;
+                final int dist2 = curRow[j - 1] + 1;
+                final int dist3 = prevRow[j - 1] +
+                        (c == colString.charAt(j - 1) ? 0 : 1);
+                final int dist = Math.min(tooFar,
+                        Math.min(dist1, Math.min(dist2, dist3)));
+                curRow[j] = dist;
+                if (dist < rowMin) {
+                    rowMin = dist;
+                }
+            }
+
+            // cell at the right of band, which is read by next row
+            if (to < m) {
+                curRow[to + 1] = tooFar;
+            }
+
+            if (rowMin > k) {
+                return maxDistance + 1;
+            }
+
+            final int[] tmp = prevRow;
+            prevRow = curRow;
+            curRow = tmp;
+        }
+
+        final int result = prevRow[m];
+        return result <= k ? result : maxDistance + 1;
+    }
+
+    /**
+     * Searches the candidates closest to provided query in terms of
+     * Levenshtein distance.
+     * Candidates are compared in parallel using a default fork/join pool
+     * having as many threads as available processors.
+     *
+     * @param query       query to be compared.
+     * @param candidates  candidates to compare with.
+     * @param maxDistance maximum distance of returned matches.
+     * @param maxResults  maximum number of returned matches.
+     * @return closest matches sorted by increasing distance and, for equal
+     * distances, by increasing position of candidate.
+     * @throws IllegalArgumentException if query, candidates or any candidate
+     *                                  is null, if maximum distance is negative or if maximum number of
+     *                                  matches is less than 1.
+     */
+    public static List<EditDistanceMatch> closestMatches(
+            final String query, final List<String> candidates,
+            final int maxDistance, final int maxResults) {
+        return closestMatches(query, candidates, maxDistance, maxResults,
+                ClosestMatchesTask.getDefaultPool());
+    }
+
+    /**
+     * Searches the candidates closest to provided query in terms of
+     * Levenshtein distance, comparing them in parallel using provided pool.
+     * Each thread of the pool reuses its own buffers (see
+     * {@link EditDistanceCalculator#getThreadInstance()}), and candidates
+     * farther than the current worst match of each thread are rejected
+     * early.
+     *
+     * @param query       query to be compared.
+     * @param candidates  candidates to compare with.
+     * @param maxDistance maximum distance of returned matches.
+     * @param maxResults  maximum number of returned matches.
+     * @param pool        pool where comparisons are run.
+     * @return closest matches sorted by increasing distance and, for equal
+     * distances, by increasing position of candidate.
+     * @throws IllegalArgumentException if query, candidates, any candidate or
+     *                                  pool is null, if maximum distance is negative or if maximum number
+     *                                  of matches is less than 1.
+     */
+    public static List<EditDistanceMatch> closestMatches(
+            final String query, final List<String> candidates,
+            final int maxDistance, final int maxResults,
+            final ForkJoinPool pool) {
+        if (query == null) {
+            throw new IllegalArgumentException();
+        }
+        final String[] array = toCandidatesArray(candidates, maxDistance,
+                maxResults, pool);
+        if (array.length <= ClosestMatchesTask.LEAF_SIZE) {
+            // not worth submitting to pool
+            return new ClosestMatchesTask(query, array, 0, array.length,
+                    maxDistance, maxResults).compute();
+        }
+        return pool.invoke(new ClosestMatchesTask(query, array, 0,
+                array.length, maxDistance, maxResults));
+    }
+
+    /**
+     * Searches the candidates closest to each of provided queries in terms
+     * of Levenshtein distance.
+     * Comparisons are run in parallel using a default fork/join pool having
+     * as many threads as available processors.
+     *
+     * @param queries     queries to be compared.
+     * @param candidates  candidates to compare with.
+     * @param maxDistance maximum distance of returned matches.
+     * @param maxResults  maximum number of returned matches for each query.
+     * @return closest matches of each query, in the same order as queries.
+     * @throws IllegalArgumentException if queries, candidates or any of their
+     *                                  elements is null, if maximum distance is negative or if maximum
+     *                                  number of matches is less than 1.
+     */
+    public static List<List<EditDistanceMatch>> closestMatches(
+            final List<String> queries, final List<String> candidates,
+            final int maxDistance, final int maxResults) {
+        return closestMatches(queries, candidates, maxDistance, maxResults,
+                ClosestMatchesTask.getDefaultPool());
+    }
+
+    /**
+     * Searches the candidates closest to each of provided queries in terms
+     * of Levenshtein distance, comparing them in parallel using provided
+     * pool.
+     *
+     * @param queries     queries to be compared.
+     * @param candidates  candidates to compare with.
+     * @param maxDistance maximum distance of returned matches.
+     * @param maxResults  maximum number of returned matches for each query.
+     * @param pool        pool where comparisons are run.
+     * @return closest matches of each query, in the same order as queries.
+     * @throws IllegalArgumentException if queries, candidates, any of their
+     *                                  elements or pool is null, if maximum distance is negative or if
+     *                                  maximum number of matches is less than 1.
+     */
+    public static List<List<EditDistanceMatch>> closestMatches(
+            final List<String> queries, final List<String> candidates,
+            final int maxDistance, final int maxResults,
+            final ForkJoinPool pool) {
+        if (queries == null) {
+            throw new IllegalArgumentException();
+        }
+        final String[] queriesArray = queries.toArray(new String[queries.size()]);
+        for (final String query : queriesArray) {
+            if (query == null) {
+                throw new IllegalArgumentException();
+            }
+        }
+        final String[] array = toCandidatesArray(candidates, maxDistance,
+                maxResults, pool);
+        if (queriesArray.length == 0) {
+            return new ArrayList<>();
+        }
+        return pool.invoke(new ClosestMatchesTask.AllPairs(queriesArray, array,
+                0, queriesArray.length, maxDistance, maxResults));
     }
 
     /**
      * Computes Levenshtein distance between two arrays of objects of type
      * T.
      * NOTE: this method cannot be used with arrays of primitive types,
-     * instead an array of wrappers of primitive objects must be used or
-     * this class must be extended to add implementations of ArrayWrappers
-     * for all primitive types that must be supported.
+     * instead specific methods for arrays of chars, ints, bytes or longs must
+     * be used, which avoid boxing and comparison of elements using
+     * {@link Object#equals(Object)}.
      *
      * @param x   1st array of objects of type T.
      * @param y   2nd array of objects of type T.
@@ -57,74 +413,1577 @@ public class EditDistance {
      * @return Levenshtein distance.
      */
     public static <T> int distance(final T[] x, final T[] y) {
+        return distance(x, y, null);
+    }
+
+    /**
+     * Computes Levenshtein distance between two arrays of objects of type
+     * T reusing row buffers of provided workspace.
+     *
+     * @param x         1st array of objects of type T.
+     * @param y         2nd array of objects of type T.
+     * @param workspace workspace whose buffers are reused or null to allocate
+     *                  new buffers.
+     * @param <T>       type of arrays.
+     * @return Levenshtein distance.
+     * @see #distance(Object[], Object[])
+     */
+    public static <T> int distance(final T[] x, final T[] y,
+                                   final Workspace workspace) {
         return distance(new GenericArrayWrapper<>(x),
-                new GenericArrayWrapper<>(y));
+                new GenericArrayWrapper<>(y), workspace);
     }
 
     /**
-     * Computes Levenshtein distance between two arrays of type T. To compute
-     * this distance an ArrayWrapper is used to make a more efficient access to
-     * primitive datatypes or strings.
+     * Computes Levenshtein distance between two arrays of chars.
      *
-     * @param x   1st array of objects of type T.
-     * @param y   2nd array of objects of type T.
-     * @param <T> type of arrays.
+     * @param x 1st array of chars.
+     * @param y 2nd array of chars.
      * @return Levenshtein distance.
+     * @throws IllegalArgumentException if any parameter is null.
      */
-    private static <T> int distance(final ArrayWrapper<T> x, final ArrayWrapper<T> y) {
+    public static int distance(final char[] x, final char[] y) {
+        return distance(x, y, null);
+    }
 
-        // validate parameters
+    /**
+     * Computes Levenshtein distance between two arrays of chars reusing
+     * row buffers of provided workspace.
+     *
+     * @param x         1st array of chars.
+     * @param y         2nd array of chars.
+     * @param workspace workspace whose buffers are reused or null to allocate
+     *                  new buffers.
+     * @return Levenshtein distance.
+     * @throws IllegalArgumentException if any sequence is null.
+     */
+    public static int distance(final char[] x, final char[] y,
+                               final Workspace workspace) {
         if (x == null || y == null) {
             throw new IllegalArgumentException();
         }
 
-        // Obtains length of both parameters. If one of them is 0, we return the
-        // length of the other, since that number of insertions will be required
-        final int n = x.length();
-        final int m = y.length();
-        if (n == 0) {
-            return m;
+        // rows are iterated over longest sequence, so that buffers are as
+        // short as possible
+        final char[] rowSeq;
+        final char[] colSeq;
+        if (x.length >= y.length) {
+            rowSeq = x;
+            colSeq = y;
+        } else {
+            rowSeq = y;
+            colSeq = x;
         }
+        final int n = rowSeq.length;
+        final int m = colSeq.length;
         if (m == 0) {
             return n;
         }
 
-        // Instead of keeping a whole matrix (which would require an O(n*m)
-        // space, we just keep current and next rows, both of which have a length
-        // of m+1, and hence only O(n) space is required.
-        // Initialize current row.
-        int curRow = 0;
-        int nextRow = 1;
-        final int[][] rows = new int[][]{new int[m + 1], new int[m + 1]};
-        for (int j = 0; j <= m; ++j) {
-            rows[curRow][j] = j;
+        final Workspace w = workspace != null ? workspace :
+                new Workspace(m + 1);
+        w.ensureCapacity(m + 1);
+        int[] prevRow = w.mPrevRow;
+        int[] curRow = w.mCurRow;
+        for (int j = 0; j <= m; j++) {
+            prevRow[j] = j;
         }
 
-        // for each virtual row (since we only keep two)
-        for (int i = 1; i <= n; ++i) {
-            // fill values of row
-            rows[nextRow][0] = i;
-            for (int j = 1; j <= m; ++j) {
-                final int dist1 = rows[curRow][j] + 1;
-                final int dist2 = rows[nextRow][j - 1] + 1;
-                final int dist3 = rows[curRow][j - 1] +
-                        (x.equals(y, i - 1, j - 1) ? 0 : 1);
+        for (int i = 1; i <= n; i++) {
+            final char value = rowSeq[i - 1];
+            curRow[0] = i;
+            for (int j = 1; j <= m; j++) {
+                final int dist1 = prevRow[j] + 1;
+                final int dist2 = curRow[j - 1] + 1;
+                final int dist3 = prevRow[j - 1] +
+                        (value == colSeq[j - 1] ? 0 : 1);
+                curRow[j] = Math.min(dist1, Math.min(dist2, dist3));
+            }
+
+            final int[] tmp = prevRow;
+            prevRow = curRow;
+            curRow = tmp;
+        }
+        return prevRow[m];
+    }
+
+    /**
+     * Computes Levenshtein distance between two arrays of ints.
+     *
+     * @param x 1st array of ints.
+     * @param y 2nd array of ints.
+     * @return Levenshtein distance.
+     * @throws IllegalArgumentException if any parameter is null.
+     */
+    public static int distance(final int[] x, final int[] y) {
+        return distance(x, y, null);
+    }
+
+    /**
+     * Computes Levenshtein distance between two arrays of ints reusing
+     * row buffers of provided workspace.
+     *
+     * @param x         1st array of ints.
+     * @param y         2nd array of ints.
+     * @param workspace workspace whose buffers are reused or null to allocate
+     *                  new buffers.
+     * @return Levenshtein distance.
+     * @throws IllegalArgumentException if any sequence is null.
+     */
+    public static int distance(final int[] x, final int[] y,
+                               final Workspace workspace) {
+        if (x == null || y == null) {
+            throw new IllegalArgumentException();
+        }
+
+        // rows are iterated over longest sequence, so that buffers are as
+        // short as possible
+        final int[] rowSeq;
+        final int[] colSeq;
+        if (x.length >= y.length) {
+            rowSeq = x;
+            colSeq = y;
+        } else {
+            rowSeq = y;
+            colSeq = x;
+        }
+        final int n = rowSeq.length;
+        final int m = colSeq.length;
+        if (m == 0) {
+            return n;
+        }
 
-                rows[nextRow][j] = Math.min(dist1, Math.min(dist2, dist3));
+        final Workspace w = workspace != null ? workspace :
+                new Workspace(m + 1);
+        w.ensureCapacity(m + 1);
+        int[] prevRow = w.mPrevRow;
+        int[] curRow = w.mCurRow;
+        for (int j = 0; j <= m; j++) {
+            prevRow[j] = j;
+        }
+
+        for (int i = 1; i <= n; i++) {
+            final int value = rowSeq[i - 1];
+            curRow[0] = i;
+            for (int j = 1; j <= m; j++) {
+                final int dist1 = prevRow[j] + 1;
+                final int dist2 = curRow[j - 1] + 1;
+                final int dist3 = prevRow[j - 1] +
+                        (value == colSeq[j - 1] ? 0 : 1);
+                curRow[j] = Math.min(dist1, Math.min(dist2, dist3));
             }
 
-            // exchanges current and next rows
-            if (curRow == 0) {
-                curRow = 1;
-                nextRow = 0;
-            } else {
-                curRow = 0;
-                nextRow = 1;
+            final int[] tmp = prevRow;
+            prevRow = curRow;
+            curRow = tmp;
+        }
+        return prevRow[m];
+    }
+
+    /**
+     * Computes Levenshtein distance between two arrays of bytes.
+     *
+     * @param x 1st array of bytes.
+     * @param y 2nd array of bytes.
+     * @return Levenshtein distance.
+     * @throws IllegalArgumentException if any parameter is null.
+     */
+    public static int distance(final byte[] x, final byte[] y) {
+        return distance(x, y, null);
+    }
+
+    /**
+     * Computes Levenshtein distance between two arrays of bytes reusing
+     * row buffers of provided workspace.
+     *
+     * @param x         1st array of bytes.
+     * @param y         2nd array of bytes.
+     * @param workspace workspace whose buffers are reused or null to allocate
+     *                  new buffers.
+     * @return Levenshtein distance.
+     * @throws IllegalArgumentException if any sequence is null.
+     */
+    public static int distance(final byte[] x, final byte[] y,
+                               final Workspace workspace) {
+        if (x == null || y == null) {
+            throw new IllegalArgumentException();
+        }
+
+        // rows are iterated over longest sequence, so that buffers are as
+        // short as possible
+        final byte[] rowSeq;
+        final byte[] colSeq;
+        if (x.length >= y.length) {
+            rowSeq = x;
+            colSeq = y;
+        } else {
+            rowSeq = y;
+            colSeq = x;
+        }
+        final int n = rowSeq.length;
+        final int m = colSeq.length;
+        if (m == 0) {
+            return n;
+        }
+
+        final Workspace w = workspace != null ? workspace :
+                new Workspace(m + 1);
+        w.ensureCapacity(m + 1);
+        int[] prevRow = w.mPrevRow;
+        int[] curRow = w.mCurRow;
+        for (int j = 0; j <= m; j++) {
+            prevRow[j] = j;
+        }
+
+        for (int i = 1; i <= n; i++) {
+            final byte value = rowSeq[i - 1];
+            curRow[0] = i;
+            for (int j = 1; j <= m; j++) {
+                final int dist1 = prevRow[j] + 1;
+                final int dist2 = curRow[j - 1] + 1;
+                final int dist3 = prevRow[j - 1] +
+                        (value == colSeq[j - 1] ? 0 : 1);
+                curRow[j] = Math.min(dist1, Math.min(dist2, dist3));
             }
+
+            final int[] tmp = prevRow;
+            prevRow = curRow;
+            curRow = tmp;
         }
+        return prevRow[m];
+    }
 
-        // returns computed distance
-        return rows[curRow][m];
+    /**
+     * Computes Levenshtein distance between two arrays of longs.
+     *
+     * @param x 1st array of longs.
+     * @param y 2nd array of longs.
+     * @return Levenshtein distance.
+     * @throws IllegalArgumentException if any parameter is null.
+     */
+    public static int distance(final long[] x, final long[] y) {
+        return distance(x, y, null);
+    }
+
+    /**
+     * Computes Levenshtein distance between two arrays of longs reusing
+     * row buffers of provided workspace.
+     *
+     * @param x         1st array of longs.
+     * @param y         2nd array of longs.
+     * @param workspace workspace whose buffers are reused or null to allocate
+     *                  new buffers.
+     * @return Levenshtein distance.
+     * @throws IllegalArgumentException if any sequence is null.
+     */
+    public static int distance(final long[] x, final long[] y,
+                               final Workspace workspace) {
+        if (x == null || y == null) {
+            throw new IllegalArgumentException();
+        }
+
+        // rows are iterated over longest sequence, so that buffers are as
+        // short as possible
+        final long[] rowSeq;
+        final long[] colSeq;
+        if (x.length >= y.length) {
+            rowSeq = x;
+            colSeq = y;
+        } else {
+            rowSeq = y;
+            colSeq = x;
+        }
+        final int n = rowSeq.length;
+        final int m = colSeq.length;
+        if (m == 0) {
+            return n;
+        }
+
+        final Workspace w = workspace != null ? workspace :
+                new Workspace(m + 1);
+        w.ensureCapacity(m + 1);
+        int[] prevRow = w.mPrevRow;
+        int[] curRow = w.mCurRow;
+        for (int j = 0; j <= m; j++) {
+            prevRow[j] = j;
+        }
+
+        for (int i = 1; i <= n; i++) {
+            final long value = rowSeq[i - 1];
+            curRow[0] = i;
+            for (int j = 1; j <= m; j++) {
+                final int dist1 = prevRow[j] + 1;
+                final int dist2 = curRow[j - 1] + 1;
+                final int dist3 = prevRow[j - 1] +
+                        (value == colSeq[j - 1] ? 0 : 1);
+                curRow[j] = Math.min(dist1, Math.min(dist2, dist3));
+            }
+
+            final int[] tmp = prevRow;
+            prevRow = curRow;
+            curRow = tmp;
+        }
+        return prevRow[m];
+    }
+
+    /**
+     * Computes Levenshtein distance between two character sequences using
+     * the same bit-parallel algorithm as
+     * {@link #stringDistance(String, String)}, so that sequences such as
+     * {@link StringBuilder} or {@link java.nio.CharBuffer} do not need to be
+     * converted into Strings.
+     *
+     * @param x 1st character sequence.
+     * @param y 2nd character sequence.
+     * @return Levenshtein distance.
+     * @throws IllegalArgumentException if any parameter is null.
+     */
+    public static int distance(final CharSequence x, final CharSequence y) {
+        return distance(x, y, null);
+    }
+
+    /**
+     * Computes Levenshtein distance between two character sequences reusing
+     * match masks of provided workspace.
+     *
+     * @param x         1st character sequence.
+     * @param y         2nd character sequence.
+     * @param workspace workspace whose buffers are reused or null to allocate
+     *                  new buffers.
+     * @return Levenshtein distance.
+     * @throws IllegalArgumentException if any sequence is null.
+     */
+    public static int distance(final CharSequence x, final CharSequence y,
+                               final Workspace workspace) {
+        if (x == null || y == null) {
+            throw new IllegalArgumentException();
+        }
+        return bitParallelDistance(x, y, workspace);
+    }
+
+    /**
+     * Computes optimal string alignment distance between two character sequences, which
+     * extends Levenshtein distance by also considering transpositions of
+     * adjacent elements as a single modification (as long as no element is
+     * modified more than once).
+     *
+     * @param x 1st character sequence.
+     * @param y 2nd character sequence.
+     * @return optimal string alignment distance.
+     * @throws IllegalArgumentException if any parameter is null.
+     */
+    public static int osaDistance(final CharSequence x, final CharSequence y) {
+        return osaDistance(x, y, null);
+    }
+
+    /**
+     * Computes optimal string alignment distance between two character sequences
+     * reusing row buffers of provided workspace.
+     *
+     * @param x         1st character sequence.
+     * @param y         2nd character sequence.
+     * @param workspace workspace whose buffers are reused or null to allocate
+     *                  new buffers.
+     * @return optimal string alignment distance.
+     * @throws IllegalArgumentException if any sequence is null.
+     * @see #osaDistance(CharSequence, CharSequence)
+     */
+    public static int osaDistance(final CharSequence x, final CharSequence y,
+                                  final Workspace workspace) {
+        if (x == null || y == null) {
+            throw new IllegalArgumentException();
+        }
+
+        // rows are iterated over longest sequence, so that buffers are as
+        // short as possible
+        final CharSequence rowSeq;
+        final CharSequence colSeq;
+        if (x.length() >= y.length()) {
+            rowSeq = x;
+            colSeq = y;
+        } else {
+            rowSeq = y;
+            colSeq = x;
+        }
+        final int n = rowSeq.length();
+        final int m = colSeq.length();
+        if (m == 0) {
+            return n;
+        }
+
+        final Workspace w = workspace != null ? workspace :
+                new Workspace(m + 1);
+        w.ensureCapacity(m + 1);
+        w.ensureTranspositionCapacity(m + 1);
+        // besides previous row, the one before it is needed to account for
+        // transpositions
+        int[] prevPrevRow = w.mTranspositionRow;
+        int[] prevRow = w.mPrevRow;
+        int[] curRow = w.mCurRow;
+        for (int j = 0; j <= m; j++) {
+            prevRow[j] = j;
+        }
+
+        char prevValue = 0;
+        for (int i = 1; i <= n; i++) {
+            final char value = rowSeq.charAt(i - 1);
+            curRow[0] = i;
+            char prevColValue = 0;
+            for (int j = 1; j <= m; j++) {
+                final char colValue = colSeq.charAt(j - 1);
+                final int dist1 = prevRow[j] + 1;
+                final int dist2 = curRow[j - 1] + 1;
+                final int dist3 = prevRow[j - 1] + (value == colValue ? 0 : 1);
+                int dist = Math.min(dist1, Math.min(dist2, dist3));
+                if (i > 1 && j > 1 && value == prevColValue &&
+                        prevValue == colValue) {
+                    dist = Math.min(dist, prevPrevRow[j - 2] + 1);
+                }
+                curRow[j] = dist;
+                prevColValue = colValue;
+            }
+
+            final int[] tmp = prevPrevRow;
+            prevPrevRow = prevRow;
+            prevRow = curRow;
+            curRow = tmp;
+            prevValue = value;
+        }
+        return prevRow[m];
+    }
+
+    /**
+     * Computes optimal string alignment distance between two arrays of ints, which
+     * extends Levenshtein distance by also considering transpositions of
+     * adjacent elements as a single modification (as long as no element is
+     * modified more than once).
+     *
+     * @param x 1st array of ints.
+     * @param y 2nd array of ints.
+     * @return optimal string alignment distance.
+     * @throws IllegalArgumentException if any parameter is null.
+     */
+    public static int osaDistance(final int[] x, final int[] y) {
+        return osaDistance(x, y, null);
+    }
+
+    /**
+     * Computes optimal string alignment distance between two arrays of ints
+     * reusing row buffers of provided workspace.
+     *
+     * @param x         1st array of ints.
+     * @param y         2nd array of ints.
+     * @param workspace workspace whose buffers are reused or null to allocate
+     *                  new buffers.
+     * @return optimal string alignment distance.
+     * @throws IllegalArgumentException if any sequence is null.
+     * @see #osaDistance(int[], int[])
+     */
+    public static int osaDistance(final int[] x, final int[] y,
+                                  final Workspace workspace) {
+        if (x == null || y == null) {
+            throw new IllegalArgumentException();
+        }
+
+        // rows are iterated over longest sequence, so that buffers are as
+        // short as possible
+        final int[] rowSeq;
+        final int[] colSeq;
+        if (x.length >= y.length) {
+            rowSeq = x;
+            colSeq = y;
+        } else {
+            rowSeq = y;
+            colSeq = x;
+        }
+        final int n = rowSeq.length;
+        final int m = colSeq.length;
+        if (m == 0) {
+            return n;
+        }
+
+        final Workspace w = workspace != null ? workspace :
+                new Workspace(m + 1);
+        w.ensureCapacity(m + 1);
+        w.ensureTranspositionCapacity(m + 1);
+        // besides previous row, the one before it is needed to account for
+        // transpositions
+        int[] prevPrevRow = w.mTranspositionRow;
+        int[] prevRow = w.mPrevRow;
+        int[] curRow = w.mCurRow;
+        for (int j = 0; j <= m; j++) {
+            prevRow[j] = j;
+        }
+
+        int prevValue = 0;
+        for (int i = 1; i <= n; i++) {
+            final int value = rowSeq[i - 1];
+            curRow[0] = i;
+            int prevColValue = 0;
+            for (int j = 1; j <= m; j++) {
+                final int colValue = colSeq[j - 1];
+                final int dist1 = prevRow[j] + 1;
+                final int dist2 = curRow[j - 1] + 1;
+                final int dist3 = prevRow[j - 1] + (value == colValue ? 0 : 1);
+                int dist = Math.min(dist1, Math.min(dist2, dist3));
+                if (i > 1 && j > 1 && value == prevColValue &&
+                        prevValue == colValue) {
+                    dist = Math.min(dist, prevPrevRow[j - 2] + 1);
+                }
+                curRow[j] = dist;
+                prevColValue = colValue;
+            }
+
+            final int[] tmp = prevPrevRow;
+            prevPrevRow = prevRow;
+            prevRow = curRow;
+            curRow = tmp;
+            prevValue = value;
+        }
+        return prevRow[m];
+    }
+
+    /**
+     * Computes weighted Levenshtein distance between two character sequences
+     * using provided costs of insertions, deletions and substitutions.
+     * Distance is the minimum cost of the modifications required to
+     * transform 1st sequence into 2nd one, hence it is not symmetric if
+     * insertion and deletion costs differ.
+     *
+     * @param x     1st character sequence.
+     * @param y     2nd character sequence.
+     * @param costs costs of modifications.
+     * @return weighted Levenshtein distance.
+     * @throws IllegalArgumentException if any parameter is null.
+     */
+    public static double weightedDistance(final CharSequence x,
+                                          final CharSequence y,
+                                          final EditCosts costs) {
+        return weightedDistance(x, y, costs, null);
+    }
+
+    /**
+     * Computes weighted Levenshtein distance between two character sequences
+     * using provided costs and reusing row buffers of provided workspace.
+     *
+     * @param x         1st character sequence.
+     * @param y         2nd character sequence.
+     * @param costs     costs of modifications.
+     * @param workspace workspace whose buffers are reused or null to allocate
+     *                  new buffers.
+     * @return weighted Levenshtein distance.
+     * @throws IllegalArgumentException if any sequence or costs are null.
+     * @see #weightedDistance(CharSequence, CharSequence, EditCosts)
+     */
+    public static double weightedDistance(final CharSequence x,
+                                          final CharSequence y,
+                                          final EditCosts costs,
+                                          final Workspace workspace) {
+        if (x == null || y == null || costs == null) {
+            throw new IllegalArgumentException();
+        }
+
+        // distance is not symmetric, hence rows are always iterated over
+        // 1st sequence
+        final int n = x.length();
+        final int m = y.length();
+        final double insertionCost = costs.getInsertionCost();
+        final double deletionCost = costs.getDeletionCost();
+
+        final Workspace w = workspace != null ? workspace : new Workspace();
+        w.ensureWeightedCapacity(m + 1);
+        double[] prevRow = w.mWeightedPrevRow;
+        double[] curRow = w.mWeightedCurRow;
+        prevRow[0] = 0.0;
+        for (int j = 1; j <= m; j++) {
+            prevRow[j] = prevRow[j - 1] + insertionCost;
+        }
+
+        for (int i = 1; i <= n; i++) {
+            final char value = x.charAt(i - 1);
+            curRow[0] = prevRow[0] + deletionCost;
+            for (int j = 1; j <= m; j++) {
+                final double dist1 = prevRow[j] + deletionCost;
+                final double dist2 = curRow[j - 1] + insertionCost;
+                final double dist3 = prevRow[j - 1] +
+                        costs.getSubstitutionCost(value, y.charAt(j - 1));
+                curRow[j] = Math.min(dist1, Math.min(dist2, dist3));
+            }
+
+            final double[] tmp = prevRow;
+            prevRow = curRow;
+            curRow = tmp;
+        }
+        return prevRow[m];
+    }
+
+    /**
+     * Computes Jaro similarity between two character sequences, which is
+     * based on the number of matching characters (equal characters that are
+     * not farther than half the length of the longest sequence) and the
+     * number of transpositions among them.
+     *
+     * @param x 1st character sequence.
+     * @param y 2nd character sequence.
+     * @return Jaro similarity, between 0.0 (no similarity) and 1.0 (equal
+     * sequences).
+     * @throws IllegalArgumentException if any sequence is null.
+     */
+    public static double jaroSimilarity(final CharSequence x,
+                                        final CharSequence y) {
+        return jaroSimilarity(x, y, null);
+    }
+
+    /**
+     * Computes Jaro similarity between two character sequences reusing
+     * buffers of provided workspace.
+     *
+     * @param x         1st character sequence.
+     * @param y         2nd character sequence.
+     * @param workspace workspace whose buffers are reused or null to allocate
+     *                  new buffers.
+     * @return Jaro similarity, between 0.0 (no similarity) and 1.0 (equal
+     * sequences).
+     * @throws IllegalArgumentException if any sequence is null.
+     * @see #jaroSimilarity(CharSequence, CharSequence)
+     */
+    public static double jaroSimilarity(final CharSequence x,
+                                        final CharSequence y,
+                                        final Workspace workspace) {
+        if (x == null || y == null) {
+            throw new IllegalArgumentException();
+        }
+
+        final int n = x.length();
+        final int m = y.length();
+        if (n == 0 && m == 0) {
+            return 1.0;
+        }
+        if (n == 0 || m == 0) {
+            return 0.0;
+        }
+
+        final Workspace w = workspace != null ? workspace : new Workspace();
+        w.ensureMatchCapacity(Math.max(n, m));
+        final boolean[] matchedX = w.mMatchedX;
+        final boolean[] matchedY = w.mMatchedY;
+        Arrays.fill(matchedX, 0, n, false);
+        Arrays.fill(matchedY, 0, m, false);
+
+        // find matching characters within window
+        final int window = Math.max(0, Math.max(n, m) / 2 - 1);
+        int matches = 0;
+        for (int i = 0; i < n; i++) {
+            final char value = x.charAt(i);
+            final int to = Math.min(m, i + window + 1);
+            for (int j = Math.max(0, i - window); j < to; j++) {
+                if (!matchedY[j] && value == y.charAt(j)) {
+                    matchedX[i] = true;
+                    matchedY[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) {
+            return 0.0;
+        }
+
+        // count matching characters in different order, each pair of which
+        // is a transposition
+        int outOfOrder = 0;
+        int j = 0;
+        for (int i = 0; i < n; i++) {
+            if (matchedX[i]) {
+                while (!matchedY[j]) {
+                    j++;
+                }
+                if (x.charAt(i) != y.charAt(j)) {
+                    outOfOrder++;
+                }
+                j++;
+            }
+        }
+
+        final double numMatches = matches;
+        return (numMatches / n + numMatches / m +
+                (numMatches - outOfOrder / 2.0) / numMatches) / 3.0;
+    }
+
+    /**
+     * Computes Jaro-Winkler similarity between two character sequences,
+     * which increases Jaro similarity of sequences sharing a common prefix
+     * of up to 4 characters, and is hence suited to compare names.
+     *
+     * @param x 1st character sequence.
+     * @param y 2nd character sequence.
+     * @return Jaro-Winkler similarity, between 0.0 (no similarity) and 1.0
+     * (equal sequences).
+     * @throws IllegalArgumentException if any sequence is null.
+     */
+    public static double jaroWinklerSimilarity(final CharSequence x,
+                                               final CharSequence y) {
+        return jaroWinklerSimilarity(x, y, null);
+    }
+
+    /**
+     * Computes Jaro-Winkler similarity between two character sequences
+     * reusing buffers of provided workspace.
+     *
+     * @param x         1st character sequence.
+     * @param y         2nd character sequence.
+     * @param workspace workspace whose buffers are reused or null to allocate
+     *                  new buffers.
+     * @return Jaro-Winkler similarity, between 0.0 (no similarity) and 1.0
+     * (equal sequences).
+     * @throws IllegalArgumentException if any sequence is null.
+     * @see #jaroWinklerSimilarity(CharSequence, CharSequence)
+     */
+    public static double jaroWinklerSimilarity(final CharSequence x,
+                                               final CharSequence y,
+                                               final Workspace workspace) {
+        final double jaro = jaroSimilarity(x, y, workspace);
+
+        final int maxPrefix = Math.min(JARO_WINKLER_MAX_PREFIX,
+                Math.min(x.length(), y.length()));
+        int prefix = 0;
+        while (prefix < maxPrefix && x.charAt(prefix) == y.charAt(prefix)) {
+            prefix++;
+        }
+        return jaro + prefix * JARO_WINKLER_PREFIX_SCALE * (1.0 - jaro);
+    }
+
+    /**
+     * Computes an edit script with the minimum number of modifications
+     * (insertions, deletions and substitutions) required to transform a
+     * source character sequence into a target one.
+     *
+     * @param source source character sequence.
+     * @param target target character sequence.
+     * @return modifications sorted by their positions, whose number equals
+     * the Levenshtein distance between both sequences.
+     * @throws IllegalArgumentException if any sequence is null.
+     * @see #editScript(int[], int[])
+     */
+    public static List<EditOperation> editScript(final CharSequence source,
+                                                 final CharSequence target) {
+        if (source == null || target == null) {
+            throw new IllegalArgumentException();
+        }
+        return editScript(toInts(source), toInts(target));
+    }
+
+    /**
+     * Computes an edit script with the minimum number of modifications
+     * (insertions, deletions and substitutions) required to transform a
+     * source array of ints (i.e. token ids) into a target one.
+     * Hirschberg's divide and conquer algorithm is used, hence only rows of
+     * the length of the shortest array are kept in memory (rather than the
+     * whole dynamic programming matrix), at the expense of roughly doubling
+     * the number of computed cells.
+     *
+     * @param source source array of ints.
+     * @param target target array of ints.
+     * @return modifications sorted by their positions, whose number equals
+     * the Levenshtein distance between both arrays.
+     * @throws IllegalArgumentException if any array is null.
+     */
+    public static List<EditOperation> editScript(final int[] source,
+                                                 final int[] target) {
+        if (source == null || target == null) {
+            throw new IllegalArgumentException();
+        }
+        final List<EditOperation> result = new ArrayList<>();
+        if (source.length >= target.length) {
+            new Hirschberg(source, target, false, result).align(0,
+                    source.length, 0, target.length);
+        } else {
+            new Hirschberg(target, source, true, result).align(0,
+                    target.length, 0, source.length);
+        }
+        return result;
+    }
+
+    /**
+     * Computes Levenshtein distance between two arrays of type T. To compute
+     * this distance an ArrayWrapper is used to make a more efficient access to
+     * primitive datatypes or strings.
+     *
+     * @param x         1st array of objects of type T.
+     * @param y         2nd array of objects of type T.
+     * @param workspace workspace whose buffers are reused or null to allocate
+     *                  new buffers.
+     * @param <T>       type of arrays.
+     * @return Levenshtein distance.
+     */
+    private static <T> int distance(final ArrayWrapper<T> x, final ArrayWrapper<T> y,
+                                    final Workspace workspace) {
+
+        // validate parameters
+        if (x == null || y == null) {
+            throw new IllegalArgumentException();
+        }
+
+        // Obtains length of both parameters. If one of them is 0, we return the
+        // length of the other, since that number of insertions will be required
+        final int n = x.length();
+        final int m = y.length();
+        if (n == 0) {
+            return m;
+        }
+        if (m == 0) {
+            return n;
+        }
+
+        // Instead of keeping a whole matrix (which would require an O(n*m)
+        // space, we just keep current and next rows, both of which have a length
+        // of m+1, and hence only O(n) space is required.
+        // Initialize current row.
+        final Workspace w = workspace != null ? workspace :
+                new Workspace(m + 1);
+        w.ensureCapacity(m + 1);
+        int[] curRow = w.mPrevRow;
+        int[] nextRow = w.mCurRow;
+        for (int j = 0; j <= m; ++j) {
+            curRow[j] = j;
+        }
+
+        // for each virtual row (since we only keep two)
+        for (int i = 1; i <= n; ++i) {
+            // fill values of row
+            nextRow[0] = i;
+            for (int j = 1; j <= m; ++j) {
+                final int dist1 = curRow[j] + 1;
+                final int dist2 = nextRow[j - 1] + 1;
+                final int dist3 = curRow[j - 1] +
+                        (x.equals(y, i - 1, j - 1) ? 0 : 1);
+
+                nextRow[j] = Math.min(dist1, Math.min(dist2, dist3));
+            }
+
+            // exchanges current and next rows
+            final int[] tmp = curRow;
+            curRow = nextRow;
+            nextRow = tmp;
+        }
+
+        // returns computed distance
+        return curRow[m];
+    }
+
+    /**
+     * Validates parameters of a search and copies candidates into an array.
+     *
+     * @param candidates  candidates to compare with.
+     * @param maxDistance maximum distance of returned matches.
+     * @param maxResults  maximum number of returned matches.
+     * @param pool        pool where comparisons are run.
+     * @return array containing candidates.
+     * @throws IllegalArgumentException if candidates, any candidate or pool
+     *                                  is null, if maximum distance is negative or if maximum number of
+     *                                  matches is less than 1.
+     */
+    private static String[] toCandidatesArray(final List<String> candidates,
+                                              final int maxDistance,
+                                              final int maxResults,
+                                              final ForkJoinPool pool) {
+        if (candidates == null || pool == null || maxDistance < 0 ||
+                maxResults < 1) {
+            throw new IllegalArgumentException();
+        }
+        final String[] result = candidates.toArray(
+                new String[candidates.size()]);
+        for (final String candidate : result) {
+            if (candidate == null) {
+                throw new IllegalArgumentException();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Copies characters of provided sequence into an array of ints.
+     *
+     * @param value a character sequence.
+     * @return array containing characters.
+     */
+    private static int[] toInts(final CharSequence value) {
+        final int[] result = new int[value.length()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = value.charAt(i);
+        }
+        return result;
+    }
+
+    /**
+     * Computes Levenshtein distance using Myers' bit-parallel algorithm (as
+     * formulated by Hyyrö) for patterns of up to 64 characters.
+     * Each column of the dynamic programming matrix is represented by the
+     * vertical differences between consecutive rows, which are +1, 0 or -1
+     * and are stored as two bit vectors (positive and negative), so that
+     * a whole column is computed with a few word operations.
+     *
+     * @param masks  match masks of pattern.
+     * @param m      length of pattern.
+     * @param text   text to be compared against pattern.
+     * @return Levenshtein distance.
+     */
+    private static int myersDistance(final PatternMasks masks, final int m,
+                                     final CharSequence text) {
+        final long last = 1L << (m - 1);
+        long pv = -1L;
+        long mv = 0L;
+        int score = m;
+
+        final int n = text.length();
+        for (int j = 0; j < n; j++) {
+            final long eq = masks.getMask(text.charAt(j));
+            final long xv = eq | mv;
+            final long xh = (((eq & pv) + pv) ^ pv) | eq;
+            long ph = mv | ~(xh | pv);
+            long mh = pv & xh;
+
+            // horizontal difference at last row updates distance
+            if ((ph & last) != 0) {
+                score++;
+            } else if ((mh & last) != 0) {
+                score--;
+            }
+
+            // first row always increases by one
+            ph = (ph << 1) | 1L;
+            mh <<= 1;
+            pv = mh | ~(xv | ph);
+            mv = ph & xv;
+        }
+        return score;
+    }
+
+    /**
+     * Computes Levenshtein distance using the blocked variant of Myers'
+     * bit-parallel algorithm for patterns longer than 64 characters.
+     * Pattern is split into blocks of 64 characters and horizontal
+     * differences at the last row of each block are carried into the next
+     * one.
+     *
+     * @param masks  match masks of pattern.
+     * @param m      length of pattern.
+     * @param text   text to be compared against pattern.
+     * @return Levenshtein distance.
+     */
+    private static int blockedMyersDistance(final PatternMasks masks,
+                                            final int m,
+                                            final CharSequence text) {
+        final int numBlocks = masks.mNumBlocks;
+        final int lastBlock = numBlocks - 1;
+        final long last = 1L << ((m - 1) & (WORD_SIZE - 1));
+        final long[] pvs = masks.mPvs;
+        final long[] mvs = masks.mMvs;
+        Arrays.fill(pvs, 0, numBlocks, -1L);
+        Arrays.fill(mvs, 0, numBlocks, 0L);
+        int score = m;
+
+        final int n = text.length();
+        for (int j = 0; j < n; j++) {
+            final char c = text.charAt(j);
+            final long[] table = masks.getTable(c);
+            final int base = masks.getBase(c, table);
+
+            // first row always increases by one
+            int hin = 1;
+            for (int b = 0; b < numBlocks; b++) {
+                long eq = base >= 0 ? table[base + b] : 0L;
+                final long pv = pvs[b];
+                final long mv = mvs[b];
+
+                final long xv = eq | mv;
+                if (hin < 0) {
+                    eq |= 1L;
+                }
+                final long xh = (((eq & pv) + pv) ^ pv) | eq;
+                long ph = mv | ~(xh | pv);
+                long mh = pv & xh;
+
+                if (b == lastBlock) {
+                    if ((ph & last) != 0) {
+                        score++;
+                    } else if ((mh & last) != 0) {
+                        score--;
+                    }
+                }
+
+                final int hout;
+                if (ph < 0) {
+                    hout = 1;
+                } else if (mh < 0) {
+                    hout = -1;
+                } else {
+                    hout = 0;
+                }
+
+                ph <<= 1;
+                mh <<= 1;
+                if (hin < 0) {
+                    mh |= 1L;
+                } else if (hin > 0) {
+                    ph |= 1L;
+                }
+                pvs[b] = mh | ~(xv | ph);
+                mvs[b] = ph & xv;
+                hin = hout;
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Contains buffers used to compute distances and similarities (row
+     * buffers, match masks of bit-parallel algorithm and matched characters
+     * of Jaro similarity), which can be reused among several
+     * computations to avoid allocating new buffers each time.
+     * Buffers grow as needed to fit longest compared sequences.
+     * Instances are not thread safe.
+     */
+    public static final class Workspace {
+
+        /**
+         * Buffer containing previous row.
+         */
+        private int[] mPrevRow;
+
+        /**
+         * Buffer containing current row.
+         */
+        private int[] mCurRow;
+
+        /**
+         * Match masks of patterns, which are created when first needed.
+         */
+        private PatternMasks mMasks;
+
+        /**
+         * Buffer containing the row before previous one, which is used to
+         * account for transpositions.
+         */
+        private int[] mTranspositionRow = new int[0];
+
+        /**
+         * Buffer containing previous row of weighted distances.
+         */
+        private double[] mWeightedPrevRow = new double[0];
+
+        /**
+         * Buffer containing current row of weighted distances.
+         */
+        private double[] mWeightedCurRow = new double[0];
+
+        /**
+         * Indicates which characters of 1st sequence have a match.
+         */
+        private boolean[] mMatchedX = new boolean[0];
+
+        /**
+         * Indicates which characters of 2nd sequence have a match.
+         */
+        private boolean[] mMatchedY = new boolean[0];
+
+        /**
+         * Constructor.
+         */
+        public Workspace() {
+            this(0);
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param capacity initial capacity of row buffers, which is enough to
+         *                 compare sequences up to capacity - 1 elements long
+         *                 without growing.
+         * @throws IllegalArgumentException if capacity is negative.
+         */
+        public Workspace(final int capacity) {
+            if (capacity < 0) {
+                throw new IllegalArgumentException();
+            }
+            mPrevRow = new int[capacity];
+            mCurRow = new int[capacity];
+        }
+
+        /**
+         * Gets current capacity of row buffers.
+         *
+         * @return capacity of row buffers.
+         */
+        public int getCapacity() {
+            return mPrevRow.length;
+        }
+
+        /**
+         * Gets match masks of patterns, creating them if needed.
+         *
+         * @return match masks of patterns.
+         */
+        private PatternMasks getMasks() {
+            if (mMasks == null) {
+                mMasks = new PatternMasks();
+            }
+            return mMasks;
+        }
+
+        /**
+         * Grows row buffers if needed to have at least provided capacity.
+         *
+         * @param capacity required capacity.
+         */
+        private void ensureCapacity(final int capacity) {
+            if (mPrevRow.length < capacity) {
+                final int newCapacity = Math.max(capacity, 2 * mPrevRow.length);
+                mPrevRow = new int[newCapacity];
+                mCurRow = new int[newCapacity];
+            }
+        }
+
+        /**
+         * Grows buffer of transpositions if needed to have at least provided
+         * capacity.
+         *
+         * @param capacity required capacity.
+         */
+        private void ensureTranspositionCapacity(final int capacity) {
+            if (mTranspositionRow.length < capacity) {
+                mTranspositionRow = new int[Math.max(capacity,
+                        2 * mTranspositionRow.length)];
+            }
+        }
+
+        /**
+         * Grows buffers of weighted distances if needed to have at least
+         * provided capacity.
+         *
+         * @param capacity required capacity.
+         */
+        private void ensureWeightedCapacity(final int capacity) {
+            if (mWeightedPrevRow.length < capacity) {
+                final int newCapacity = Math.max(capacity,
+                        2 * mWeightedPrevRow.length);
+                mWeightedPrevRow = new double[newCapacity];
+                mWeightedCurRow = new double[newCapacity];
+            }
+        }
+
+        /**
+         * Grows buffers of matched characters if needed to have at least
+         * provided capacity.
+         *
+         * @param capacity required capacity.
+         */
+        private void ensureMatchCapacity(final int capacity) {
+            if (mMatchedX.length < capacity) {
+                final int newCapacity = Math.max(capacity, 2 * mMatchedX.length);
+                mMatchedX = new boolean[newCapacity];
+                mMatchedY = new boolean[newCapacity];
+            }
+        }
+    }
+
+    /**
+     * Computes edit scripts using Hirschberg's algorithm.
+     * The longest sequence is recursively split in halves, and the position
+     * where the shortest sequence must be split is found as the one
+     * minimizing the sum of the distances of the first halves (computed
+     * forwards) and the second halves (computed backwards). Once sequences
+     * are split into single elements, modifications are directly obtained.
+     */
+    private static final class Hirschberg {
+
+        /**
+         * Longest sequence, which is split in halves.
+         */
+        private final int[] mA;
+
+        /**
+         * Shortest sequence.
+         */
+        private final int[] mB;
+
+        /**
+         * Indicates whether longest sequence is the target one, and hence
+         * insertions and deletions and positions must be swapped.
+         */
+        private final boolean mSwapped;
+
+        /**
+         * Computed modifications.
+         */
+        private final List<EditOperation> mOperations;
+
+        /**
+         * Buffer containing row of forward distances.
+         */
+        private int[] mForward;
+
+        /**
+         * Buffer containing previous row of distances.
+         */
+        private int[] mPrevRow;
+
+        /**
+         * Buffer containing row of backward distances.
+         */
+        private int[] mBackward;
+
+        /**
+         * Constructor.
+         *
+         * @param a          longest sequence.
+         * @param b          shortest sequence.
+         * @param swapped    true if longest sequence is the target one.
+         * @param operations list where modifications are added.
+         */
+        private Hirschberg(final int[] a, final int[] b, final boolean swapped,
+                           final List<EditOperation> operations) {
+            mA = a;
+            mB = b;
+            mSwapped = swapped;
+            mOperations = operations;
+            mForward = new int[b.length + 1];
+            mPrevRow = new int[b.length + 1];
+            mBackward = new int[b.length + 1];
+        }
+
+        /**
+         * Computes modifications to transform provided range of longest
+         * sequence into provided range of shortest sequence.
+         *
+         * @param aFrom first position of longest sequence (inclusive).
+         * @param aTo   last position of longest sequence (exclusive).
+         * @param bFrom first position of shortest sequence (inclusive).
+         * @param bTo   last position of shortest sequence (exclusive).
+         */
+        private void align(final int aFrom, final int aTo, final int bFrom,
+                           final int bTo) {
+            final int aLength = aTo - aFrom;
+            final int bLength = bTo - bFrom;
+            if (bLength == 0) {
+                for (int i = aFrom; i < aTo; i++) {
+                    add(EditOperation.Type.DELETION, i, bFrom);
+                }
+                return;
+            }
+            if (aLength == 0) {
+                for (int j = bFrom; j < bTo; j++) {
+                    add(EditOperation.Type.INSERTION, aFrom, j);
+                }
+                return;
+            }
+            if (aLength == 1) {
+                alignSingle(aFrom, bFrom, bTo);
+                return;
+            }
+
+            final int aMiddle = aFrom + aLength / 2;
+            forwardRow(aFrom, aMiddle, bFrom, bTo);
+            backwardRow(aMiddle, aTo, bFrom, bTo);
+
+            int split = 0;
+            int best = Integer.MAX_VALUE;
+            for (int k = 0; k <= bLength; k++) {
+                final int cost = mForward[k] + mBackward[bLength - k];
+                if (cost < best) {
+                    best = cost;
+                    split = k;
+                }
+            }
+
+            align(aFrom, aMiddle, bFrom, bFrom + split);
+            align(aMiddle, aTo, bFrom + split, bTo);
+        }
+
+        /**
+         * Computes modifications to transform a single element of longest
+         * sequence into provided range of shortest sequence.
+         *
+         * @param aPos  position of element of longest sequence.
+         * @param bFrom first position of shortest sequence (inclusive).
+         * @param bTo   last position of shortest sequence (exclusive).
+         */
+        private void alignSingle(final int aPos, final int bFrom, final int bTo) {
+            final int value = mA[aPos];
+            int match = -1;
+            for (int j = bFrom; j < bTo; j++) {
+                if (mB[j] == value) {
+                    match = j;
+                    break;
+                }
+            }
+
+            if (match >= 0) {
+                // keep matching element and insert remaining ones around it
+                for (int j = bFrom; j < match; j++) {
+                    add(EditOperation.Type.INSERTION, aPos, j);
+                }
+                for (int j = match + 1; j < bTo; j++) {
+                    add(EditOperation.Type.INSERTION, aPos + 1, j);
+                }
+            } else {
+                add(EditOperation.Type.SUBSTITUTION, aPos, bFrom);
+                for (int j = bFrom + 1; j < bTo; j++) {
+                    add(EditOperation.Type.INSERTION, aPos + 1, j);
+                }
+            }
+        }
+
+        /**
+         * Computes distances between provided range of longest sequence and
+         * each prefix of provided range of shortest sequence.
+         *
+         * @param aFrom first position of longest sequence (inclusive).
+         * @param aTo   last position of longest sequence (exclusive).
+         * @param bFrom first position of shortest sequence (inclusive).
+         * @param bTo   last position of shortest sequence (exclusive).
+         */
+        private void forwardRow(final int aFrom, final int aTo, final int bFrom,
+                                final int bTo) {
+            final int m = bTo - bFrom;
+            int[] prevRow = mPrevRow;
+            int[] curRow = mForward;
+            for (int j = 0; j <= m; j++) {
+                prevRow[j] = j;
+            }
+            for (int i = aFrom; i < aTo; i++) {
+                final int value = mA[i];
+                curRow[0] = prevRow[0] + 1;
+                for (int j = 1; j <= m; j++) {
+                    final int dist1 = prevRow[j] + 1;
+                    final int dist2 = curRow[j - 1] + 1;
+                    final int dist3 = prevRow[j - 1] +
+                            (value == mB[bFrom + j - 1] ? 0 : 1);
+                    curRow[j] = Math.min(dist1, Math.min(dist2, dist3));
+                }
+                final int[] tmp = prevRow;
+                prevRow = curRow;
+                curRow = tmp;
+            }
+            mPrevRow = curRow;
+            mForward = prevRow;
+        }
+
+        /**
+         * Computes distances between provided range of longest sequence and
+         * each suffix of provided range of shortest sequence, where position
+         * k of resulting row refers to the suffix of length k.
+         *
+         * @param aFrom first position of longest sequence (inclusive).
+         * @param aTo   last position of longest sequence (exclusive).
+         * @param bFrom first position of shortest sequence (inclusive).
+         * @param bTo   last position of shortest sequence (exclusive).
+         */
+        private void backwardRow(final int aFrom, final int aTo,
+                                 final int bFrom, final int bTo) {
+            final int m = bTo - bFrom;
+            int[] prevRow = mPrevRow;
+            int[] curRow = mBackward;
+            for (int j = 0; j <= m; j++) {
+                prevRow[j] = j;
+            }
+            for (int i = aTo - 1; i >= aFrom; i--) {
+                final int value = mA[i];
+                curRow[0] = prevRow[0] + 1;
+                for (int j = 1; j <= m; j++) {
+                    final int dist1 = prevRow[j] + 1;
+                    final int dist2 = curRow[j - 1] + 1;
+                    final int dist3 = prevRow[j - 1] +
+                            (value == mB[bTo - j] ? 0 : 1);
+                    curRow[j] = Math.min(dist1, Math.min(dist2, dist3));
+                }
+                final int[] tmp = prevRow;
+                prevRow = curRow;
+                curRow = tmp;
+            }
+            mPrevRow = curRow;
+            mBackward = prevRow;
+        }
+
+        /**
+         * Adds a modification, swapping it if longest sequence is the target
+         * one.
+         *
+         * @param type type of modification in terms of transforming longest
+         *             sequence into shortest one.
+         * @param aPos position within longest sequence.
+         * @param bPos position within shortest sequence.
+         */
+        private void add(final EditOperation.Type type, final int aPos,
+                         final int bPos) {
+            if (!mSwapped) {
+                mOperations.add(new EditOperation(type, aPos, bPos));
+                return;
+            }
+
+            final EditOperation.Type swappedType;
+            switch (type) {
+                case INSERTION:
+                    swappedType = EditOperation.Type.DELETION;
+                    break;
+                case DELETION:
+                    swappedType = EditOperation.Type.INSERTION;
+                    break;
+                default:
+                    swappedType = type;
+                    break;
+            }
+            mOperations.add(new EditOperation(swappedType, bPos, aPos));
+        }
+    }
+
+    /**
+     * Contains bit masks indicating the positions of a pattern where each
+     * character appears. Masks of each character are stored consecutively,
+     * one word for each block of 64 characters of the pattern.
+     * Buffers are reused when encoding new patterns and grow as needed.
+     */
+    private static final class PatternMasks {
+
+        /**
+         * Number of blocks of 64 characters of encoded pattern.
+         */
+        private int mNumBlocks;
+
+        /**
+         * Masks of ASCII characters.
+         */
+        private long[] mAsciiMasks = new long[0];
+
+        /**
+         * Sorted non ASCII characters contained in pattern.
+         */
+        private char[] mChars = new char[0];
+
+        /**
+         * Number of distinct non ASCII characters contained in pattern.
+         */
+        private int mNumChars;
+
+        /**
+         * Masks of non ASCII characters contained in pattern.
+         */
+        private long[] mCharMasks = new long[0];
+
+        /**
+         * Positive vertical differences of each block.
+         */
+        private long[] mPvs = new long[0];
+
+        /**
+         * Negative vertical differences of each block.
+         */
+        private long[] mMvs = new long[0];
+
+        /**
+         * Encodes provided pattern, replacing any previously encoded one.
+         *
+         * @param pattern pattern to be encoded.
+         */
+        private void encode(final CharSequence pattern) {
+            // clear masks of previous pattern
+            Arrays.fill(mAsciiMasks, 0, ASCII_SIZE * mNumBlocks, 0L);
+            Arrays.fill(mCharMasks, 0, mNumChars * mNumBlocks, 0L);
+
+            final int m = pattern.length();
+            mNumBlocks = (m + WORD_SIZE - 1) >>> WORD_SHIFT;
+            if (mAsciiMasks.length < ASCII_SIZE * mNumBlocks) {
+                mAsciiMasks = new long[ASCII_SIZE * mNumBlocks];
+                mPvs = new long[mNumBlocks];
+                mMvs = new long[mNumBlocks];
+            }
+            if (mChars.length < m) {
+                mChars = new char[m];
+            }
+
+            int numOthers = 0;
+            for (int i = 0; i < m; i++) {
+                final char c = pattern.charAt(i);
+                if (c < ASCII_SIZE) {
+                    mAsciiMasks[c * mNumBlocks + (i >>> WORD_SHIFT)] |= 1L << i;
+                } else {
+                    mChars[numOthers++] = c;
+                }
+            }
+
+            // keep distinct non ASCII characters
+            Arrays.sort(mChars, 0, numOthers);
+            int numChars = 0;
+            for (int i = 0; i < numOthers; i++) {
+                if (numChars == 0 || mChars[numChars - 1] != mChars[i]) {
+                    mChars[numChars++] = mChars[i];
+                }
+            }
+            mNumChars = numChars;
+            if (mCharMasks.length < numChars * mNumBlocks) {
+                mCharMasks = new long[numChars * mNumBlocks];
+            }
+            if (numChars > 0) {
+                for (int i = 0; i < m; i++) {
+                    final char c = pattern.charAt(i);
+                    if (c >= ASCII_SIZE) {
+                        mCharMasks[indexOf(c) * mNumBlocks +
+                                (i >>> WORD_SHIFT)] |= 1L << i;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Gets mask of provided character for patterns having a single block.
+         *
+         * @param c a character.
+         * @return mask of positions where character appears.
+         */
+        private long getMask(final char c) {
+            if (c < ASCII_SIZE) {
+                return mAsciiMasks[c];
+            }
+            final int pos = indexOf(c);
+            return pos >= 0 ? mCharMasks[pos] : 0L;
+        }
+
+        /**
+         * Gets table containing masks of provided character.
+         *
+         * @param c a character.
+         * @return table containing masks of character.
+         */
+        private long[] getTable(final char c) {
+            return c < ASCII_SIZE ? mAsciiMasks : mCharMasks;
+        }
+
+        /**
+         * Gets position of first mask of provided character within its table.
+         *
+         * @param c     a character.
+         * @param table table containing masks of character.
+         * @return position of first mask or -1 if character does not appear
+         * in pattern.
+         */
+        private int getBase(final char c, final long[] table) {
+            if (table == mAsciiMasks) {
+                return c * mNumBlocks;
+            }
+            final int pos = indexOf(c);
+            return pos >= 0 ? pos * mNumBlocks : -1;
+        }
+
+        /**
+         * Gets position of provided non ASCII character among distinct
+         * characters of pattern.
+         *
+         * @param c a non ASCII character.
+         * @return position of character or a negative value if not found.
+         */
+        private int indexOf(final char c) {
+            return Arrays.binarySearch(mChars, 0, mNumChars, c);
+        }
     }
 
     /**
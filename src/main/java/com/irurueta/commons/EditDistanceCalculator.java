@@ -0,0 +1,262 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons;
+
+/**
+ * Computes Levenshtein distances reusing its buffers among computations, so
+ * that once buffers have grown to fit the longest compared sequences, no
+ * further memory is allocated.
+ * This class is intended for batch processes computing large numbers of
+ * distances, where allocating new buffers for each computation (as static
+ * methods of {@link EditDistance} do) would cause significant garbage
+ * collection churn.
+ * Instances are not thread safe. Each thread can either create its own
+ * instance or obtain the instance bound to it using
+ * {@link #getThreadInstance()}.
+ * Notice that buffers never shrink, hence instances keep memory enough for
+ * the longest sequences they have compared.
+ */
+public class EditDistanceCalculator {
+
+    /**
+     * Instance of each thread.
+     */
+    private static final ThreadLocal<EditDistanceCalculator> THREAD_INSTANCE =
+            new ThreadLocal<EditDistanceCalculator>() {
+                @Override
+                protected EditDistanceCalculator initialValue() {
+                    return new EditDistanceCalculator();
+                }
+            };
+
+    /**
+     * Workspace containing reused buffers.
+     */
+    private final EditDistance.Workspace mWorkspace;
+
+    /**
+     * Constructor.
+     */
+    public EditDistanceCalculator() {
+        mWorkspace = new EditDistance.Workspace();
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param capacity initial capacity of row buffers, which is enough to
+     *                 compare sequences up to capacity - 1 elements long
+     *                 without growing.
+     * @throws IllegalArgumentException if capacity is negative.
+     */
+    public EditDistanceCalculator(final int capacity) {
+        mWorkspace = new EditDistance.Workspace(capacity);
+    }
+
+    /**
+     * Gets calculator bound to current thread, which is created the first
+     * time it is requested by each thread.
+     * Returned instance must not be shared with other threads.
+     *
+     * @return calculator of current thread.
+     */
+    public static EditDistanceCalculator getThreadInstance() {
+        return THREAD_INSTANCE.get();
+    }
+
+    /**
+     * Gets current capacity of row buffers.
+     *
+     * @return capacity of row buffers.
+     */
+    public int getCapacity() {
+        return mWorkspace.getCapacity();
+    }
+
+    /**
+     * Computes Levenshtein distance between two Strings.
+     *
+     * @param x 1st String.
+     * @param y 2nd String.
+     * @return Levenshtein distance.
+     * @throws IllegalArgumentException if any String is null.
+     * @see EditDistance#stringDistance(String, String)
+     */
+    public int stringDistance(final String x, final String y) {
+        return EditDistance.stringDistance(x, y, mWorkspace);
+    }
+
+    /**
+     * Computes Levenshtein distance between two Strings only if it does not
+     * exceed provided maximum distance.
+     *
+     * @param x           1st String.
+     * @param y           2nd String.
+     * @param maxDistance maximum distance of interest.
+     * @return Levenshtein distance if it is less or equal than maximum
+     * distance, or maxDistance + 1 otherwise.
+     * @throws IllegalArgumentException if any String is null or if maximum
+     *                                  distance is negative.
+     * @see EditDistance#distanceAtMost(String, String, int)
+     */
+    public int distanceAtMost(final String x, final String y,
+                              final int maxDistance) {
+        return EditDistance.distanceAtMost(x, y, maxDistance, mWorkspace);
+    }
+
+    /**
+     * Computes Levenshtein distance between two arrays of objects of type
+     * T.
+     *
+     * @param x   1st array of objects of type T.
+     * @param y   2nd array of objects of type T.
+     * @param <T> type of arrays.
+     * @return Levenshtein distance.
+     * @see EditDistance#distance(Object[], Object[])
+     */
+    public <T> int distance(final T[] x, final T[] y) {
+        return EditDistance.distance(x, y, mWorkspace);
+    }
+
+    /**
+     * Computes Levenshtein distance between two arrays of chars.
+     *
+     * @param x 1st array of chars.
+     * @param y 2nd array of chars.
+     * @return Levenshtein distance.
+     * @throws IllegalArgumentException if any array is null.
+     */
+    public int distance(final char[] x, final char[] y) {
+        return EditDistance.distance(x, y, mWorkspace);
+    }
+
+    /**
+     * Computes Levenshtein distance between two arrays of ints.
+     *
+     * @param x 1st array of ints.
+     * @param y 2nd array of ints.
+     * @return Levenshtein distance.
+     * @throws IllegalArgumentException if any array is null.
+     */
+    public int distance(final int[] x, final int[] y) {
+        return EditDistance.distance(x, y, mWorkspace);
+    }
+
+    /**
+     * Computes Levenshtein distance between two arrays of bytes.
+     *
+     * @param x 1st array of bytes.
+     * @param y 2nd array of bytes.
+     * @return Levenshtein distance.
+     * @throws IllegalArgumentException if any array is null.
+     */
+    public int distance(final byte[] x, final byte[] y) {
+        return EditDistance.distance(x, y, mWorkspace);
+    }
+
+    /**
+     * Computes Levenshtein distance between two arrays of longs.
+     *
+     * @param x 1st array of longs.
+     * @param y 2nd array of longs.
+     * @return Levenshtein distance.
+     * @throws IllegalArgumentException if any array is null.
+     */
+    public int distance(final long[] x, final long[] y) {
+        return EditDistance.distance(x, y, mWorkspace);
+    }
+
+    /**
+     * Computes Levenshtein distance between two character sequences.
+     *
+     * @param x 1st character sequence.
+     * @param y 2nd character sequence.
+     * @return Levenshtein distance.
+     * @throws IllegalArgumentException if any sequence is null.
+     */
+    public int distance(final CharSequence x, final CharSequence y) {
+        return EditDistance.distance(x, y, mWorkspace);
+    }
+
+    /**
+     * Computes optimal string alignment distance between two character
+     * sequences.
+     *
+     * @param x 1st character sequence.
+     * @param y 2nd character sequence.
+     * @return optimal string alignment distance.
+     * @throws IllegalArgumentException if any sequence is null.
+     * @see EditDistance#osaDistance(CharSequence, CharSequence)
+     */
+    public int osaDistance(final CharSequence x, final CharSequence y) {
+        return EditDistance.osaDistance(x, y, mWorkspace);
+    }
+
+    /**
+     * Computes optimal string alignment distance between two arrays of ints.
+     *
+     * @param x 1st array of ints.
+     * @param y 2nd array of ints.
+     * @return optimal string alignment distance.
+     * @throws IllegalArgumentException if any array is null.
+     * @see EditDistance#osaDistance(int[], int[])
+     */
+    public int osaDistance(final int[] x, final int[] y) {
+        return EditDistance.osaDistance(x, y, mWorkspace);
+    }
+
+    /**
+     * Computes weighted Levenshtein distance between two character sequences.
+     *
+     * @param x     1st character sequence.
+     * @param y     2nd character sequence.
+     * @param costs costs of modifications.
+     * @return weighted Levenshtein distance.
+     * @throws IllegalArgumentException if any parameter is null.
+     * @see EditDistance#weightedDistance(CharSequence, CharSequence, EditCosts)
+     */
+    public double weightedDistance(final CharSequence x, final CharSequence y,
+                                   final EditCosts costs) {
+        return EditDistance.weightedDistance(x, y, costs, mWorkspace);
+    }
+
+    /**
+     * Computes Jaro similarity between two character sequences.
+     *
+     * @param x 1st character sequence.
+     * @param y 2nd character sequence.
+     * @return Jaro similarity.
+     * @throws IllegalArgumentException if any sequence is null.
+     * @see EditDistance#jaroSimilarity(CharSequence, CharSequence)
+     */
+    public double jaroSimilarity(final CharSequence x, final CharSequence y) {
+        return EditDistance.jaroSimilarity(x, y, mWorkspace);
+    }
+
+    /**
+     * Computes Jaro-Winkler similarity between two character sequences.
+     *
+     * @param x 1st character sequence.
+     * @param y 2nd character sequence.
+     * @return Jaro-Winkler similarity.
+     * @throws IllegalArgumentException if any sequence is null.
+     * @see EditDistance#jaroWinklerSimilarity(CharSequence, CharSequence)
+     */
+    public double jaroWinklerSimilarity(final CharSequence x,
+                                        final CharSequence y) {
+        return EditDistance.jaroWinklerSimilarity(x, y, mWorkspace);
+    }
+}
@@ -0,0 +1,364 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Index of Strings supporting fuzzy lookups in terms of Levenshtein
+ * distance, so that searches only compare a small fraction of indexed terms.
+ * Terms are arranged in a BK-tree: each child of a node is placed under the
+ * edge labeled with its distance to that node, hence, by the triangle
+ * inequality, only children whose edge differs from the distance between
+ * query and node by at most the maximum distance can contain matches.
+ * Additionally, each node keeps the minimum and maximum length of the terms
+ * in its subtree, and whole subtrees are skipped when their lengths differ
+ * from query length by more than the maximum distance (since distance is at
+ * least the difference of lengths).
+ * Nodes are stored in parallel arrays rather than as objects to keep memory
+ * usage low for large numbers of terms.
+ * Adding terms is not thread safe, but once built, an index can be searched
+ * concurrently by several threads.
+ */
+public class EditDistanceIndex {
+
+    /**
+     * Initial capacity of node arrays.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Value indicating that a node has no child or sibling.
+     */
+    private static final int NONE = -1;
+
+    /**
+     * Term of each node.
+     */
+    private String[] mTerms;
+
+    /**
+     * Distance between each node and its parent.
+     */
+    private int[] mEdges;
+
+    /**
+     * First child of each node.
+     */
+    private int[] mFirstChildren;
+
+    /**
+     * Next sibling of each node.
+     */
+    private int[] mNextSiblings;
+
+    /**
+     * Minimum length of terms in the subtree of each node.
+     */
+    private int[] mMinLengths;
+
+    /**
+     * Maximum length of terms in the subtree of each node.
+     */
+    private int[] mMaxLengths;
+
+    /**
+     * Number of indexed terms.
+     */
+    private int mSize;
+
+    /**
+     * Calculator used to compute distances while adding terms.
+     */
+    private final EditDistanceCalculator mCalculator =
+            new EditDistanceCalculator();
+
+    /**
+     * Constructor.
+     */
+    public EditDistanceIndex() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param capacity expected number of terms.
+     * @throws IllegalArgumentException if capacity is negative.
+     */
+    public EditDistanceIndex(final int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException();
+        }
+        allocate(Math.max(capacity, 1));
+    }
+
+    /**
+     * Builds an index containing provided terms.
+     *
+     * @param terms terms to be indexed.
+     * @return a new index.
+     * @throws IllegalArgumentException if terms or any term is null.
+     */
+    public static EditDistanceIndex build(final Collection<String> terms) {
+        if (terms == null) {
+            throw new IllegalArgumentException();
+        }
+        final EditDistanceIndex result = new EditDistanceIndex(terms.size());
+        result.addAll(terms);
+        return result;
+    }
+
+    /**
+     * Gets number of indexed terms.
+     *
+     * @return number of indexed terms.
+     */
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * Adds provided term to this index unless it is already contained.
+     * Added terms are identified by their position in order of addition.
+     *
+     * @param term term to be added.
+     * @return true if term was added, false if it was already contained.
+     * @throws IllegalArgumentException if term is null.
+     */
+    public boolean add(final String term) {
+        if (term == null) {
+            throw new IllegalArgumentException();
+        }
+
+        final int length = term.length();
+        if (mSize == 0) {
+            addNode(term, 0);
+            return true;
+        }
+
+        int node = 0;
+        while (true) {
+            final int distance = mCalculator.stringDistance(term, mTerms[node]);
+            if (distance == 0) {
+                return false;
+            }
+
+            int child = mFirstChildren[node];
+            while (child != NONE && mEdges[child] != distance) {
+                child = mNextSiblings[child];
+            }
+
+            if (child == NONE) {
+                final int added = addNode(term, distance);
+                mNextSiblings[added] = mFirstChildren[node];
+                mFirstChildren[node] = added;
+            }
+
+            // extend lengths of subtree along the path
+            mMinLengths[node] = Math.min(mMinLengths[node], length);
+            mMaxLengths[node] = Math.max(mMaxLengths[node], length);
+
+            if (child == NONE) {
+                return true;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Adds provided terms to this index, ignoring those already contained.
+     *
+     * @param terms terms to be added.
+     * @return number of added terms.
+     * @throws IllegalArgumentException if terms or any term is null. If a
+     *                                  term is null, preceding ones are still added.
+     */
+    public int addAll(final Collection<String> terms) {
+        if (terms == null) {
+            throw new IllegalArgumentException();
+        }
+        if (mSize + terms.size() > mTerms.length) {
+            grow(mSize + terms.size());
+        }
+        int result = 0;
+        for (final String term : terms) {
+            if (add(term)) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Indicates whether provided term is contained in this index.
+     *
+     * @param term term to be checked.
+     * @return true if term is contained, false otherwise.
+     * @throws IllegalArgumentException if term is null.
+     */
+    public boolean contains(final String term) {
+        if (term == null) {
+            throw new IllegalArgumentException();
+        }
+        if (mSize == 0) {
+            return false;
+        }
+
+        // only the path of edges labeled with distances to term must be
+        // followed
+        final EditDistanceCalculator calculator =
+                EditDistanceCalculator.getThreadInstance();
+        int node = 0;
+        while (node != NONE) {
+            final int distance = calculator.stringDistance(term, mTerms[node]);
+            if (distance == 0) {
+                return true;
+            }
+            int child = mFirstChildren[node];
+            while (child != NONE && mEdges[child] != distance) {
+                child = mNextSiblings[child];
+            }
+            node = child;
+        }
+        return false;
+    }
+
+    /**
+     * Gets term at provided position in order of addition.
+     *
+     * @param index position of term.
+     * @return term.
+     * @throws IndexOutOfBoundsException if index is out of range.
+     */
+    public String getTerm(final int index) {
+        if (index < 0 || index >= mSize) {
+            throw new IndexOutOfBoundsException();
+        }
+        return mTerms[index];
+    }
+
+    /**
+     * Searches indexed terms within provided distance of query.
+     *
+     * @param query       query to be searched.
+     * @param maxDistance maximum distance of returned matches.
+     * @return matches sorted by increasing distance and position of term,
+     * where position of each match is the position of the term in order of
+     * addition.
+     * @throws IllegalArgumentException if query is null or maximum distance
+     *                                  is negative.
+     */
+    public List<EditDistanceMatch> search(final String query,
+                                          final int maxDistance) {
+        if (query == null || maxDistance < 0) {
+            throw new IllegalArgumentException();
+        }
+        if (mSize == 0) {
+            return new ArrayList<>();
+        }
+
+        final EditDistanceCalculator calculator =
+                EditDistanceCalculator.getThreadInstance();
+        final int length = query.length();
+        final List<EditDistanceMatch> result = new ArrayList<>();
+
+        int[] stack = new int[DEFAULT_CAPACITY];
+        int stackSize = 0;
+        stack[stackSize++] = 0;
+        while (stackSize > 0) {
+            final int node = stack[--stackSize];
+            // lengths are compared as longs to prevent overflow for large
+            // maximum distances
+            if ((long) length + maxDistance < mMinLengths[node] ||
+                    (long) length - maxDistance > mMaxLengths[node]) {
+                // no term of subtree can be close enough
+                continue;
+            }
+
+            final int distance = calculator.stringDistance(query, mTerms[node]);
+            if (distance <= maxDistance) {
+                result.add(new EditDistanceMatch(node, mTerms[node], distance));
+            }
+
+            for (int child = mFirstChildren[node]; child != NONE;
+                 child = mNextSiblings[child]) {
+                if (Math.abs(mEdges[child] - distance) <= maxDistance) {
+                    if (stackSize == stack.length) {
+                        stack = Arrays.copyOf(stack, 2 * stack.length);
+                    }
+                    stack[stackSize++] = child;
+                }
+            }
+        }
+
+        Collections.sort(result);
+        return result;
+    }
+
+    /**
+     * Adds a node without children.
+     *
+     * @param term term of node.
+     * @param edge distance to parent node.
+     * @return position of added node.
+     */
+    private int addNode(final String term, final int edge) {
+        if (mSize == mTerms.length) {
+            grow(2 * mSize);
+        }
+        final int node = mSize++;
+        mTerms[node] = term;
+        mEdges[node] = edge;
+        mFirstChildren[node] = NONE;
+        mNextSiblings[node] = NONE;
+        mMinLengths[node] = term.length();
+        mMaxLengths[node] = term.length();
+        return node;
+    }
+
+    /**
+     * Allocates node arrays.
+     *
+     * @param capacity capacity of arrays.
+     */
+    private void allocate(final int capacity) {
+        mTerms = new String[capacity];
+        mEdges = new int[capacity];
+        mFirstChildren = new int[capacity];
+        mNextSiblings = new int[capacity];
+        mMinLengths = new int[capacity];
+        mMaxLengths = new int[capacity];
+    }
+
+    /**
+     * Grows node arrays to provided capacity.
+     *
+     * @param capacity new capacity of arrays.
+     */
+    private void grow(final int capacity) {
+        mTerms = Arrays.copyOf(mTerms, capacity);
+        mEdges = Arrays.copyOf(mEdges, capacity);
+        mFirstChildren = Arrays.copyOf(mFirstChildren, capacity);
+        mNextSiblings = Arrays.copyOf(mNextSiblings, capacity);
+        mMinLengths = Arrays.copyOf(mMinLengths, capacity);
+        mMaxLengths = Arrays.copyOf(mMaxLengths, capacity);
+    }
+}
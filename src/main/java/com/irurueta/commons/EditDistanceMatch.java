@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons;
+
+/**
+ * Candidate found when searching the closest Strings to a query in terms of
+ * Levenshtein distance.
+ * Matches are ordered by increasing distance and, for equal distances, by
+ * increasing position of candidate.
+ */
+public class EditDistanceMatch implements Comparable<EditDistanceMatch> {
+
+    /**
+     * Position of candidate within searched candidates.
+     */
+    private final int mIndex;
+
+    /**
+     * Matched candidate.
+     */
+    private final String mCandidate;
+
+    /**
+     * Levenshtein distance between query and candidate.
+     */
+    private final int mDistance;
+
+    /**
+     * Constructor.
+     *
+     * @param index     position of candidate within searched candidates.
+     * @param candidate matched candidate.
+     * @param distance  Levenshtein distance between query and candidate.
+     */
+    EditDistanceMatch(final int index, final String candidate,
+                      final int distance) {
+        mIndex = index;
+        mCandidate = candidate;
+        mDistance = distance;
+    }
+
+    /**
+     * Gets position of candidate within searched candidates.
+     *
+     * @return position of candidate.
+     */
+    public int getIndex() {
+        return mIndex;
+    }
+
+    /**
+     * Gets matched candidate.
+     *
+     * @return matched candidate.
+     */
+    public String getCandidate() {
+        return mCandidate;
+    }
+
+    /**
+     * Gets Levenshtein distance between query and candidate.
+     *
+     * @return Levenshtein distance.
+     */
+    public int getDistance() {
+        return mDistance;
+    }
+
+    /**
+     * Compares this match with provided one by distance and position of
+     * candidate.
+     *
+     * @param other match to compare with.
+     * @return negative value if this match is closer, positive value if it
+     * is farther, or zero if both matches refer to the same position and
+     * distance.
+     */
+    @Override
+    public int compareTo(final EditDistanceMatch other) {
+        final int result = Integer.compare(mDistance, other.mDistance);
+        return result != 0 ? result : Integer.compare(mIndex, other.mIndex);
+    }
+
+    /**
+     * Indicates whether provided object is equal to this match.
+     *
+     * @param obj object to compare with.
+     * @return true if both refer to the same candidate at the same position
+     * and distance, false otherwise.
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof EditDistanceMatch)) {
+            return false;
+        }
+        final EditDistanceMatch other = (EditDistanceMatch) obj;
+        return mIndex == other.mIndex && mDistance == other.mDistance &&
+                mCandidate.equals(other.mCandidate);
+    }
+
+    /**
+     * Computes hash code of this match.
+     *
+     * @return hash code.
+     */
+    @Override
+    public int hashCode() {
+        return (31 * mIndex + mDistance) * 31 + mCandidate.hashCode();
+    }
+
+    /**
+     * Returns a string representation of this match.
+     *
+     * @return string representation.
+     */
+    @Override
+    public String toString() {
+        return mCandidate + " (" + mIndex + "): " + mDistance;
+    }
+}
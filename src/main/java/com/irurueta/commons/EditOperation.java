@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons;
+
+/**
+ * Modification of an edit script transforming a source sequence into a
+ * target sequence.
+ * Each operation refers to a position of the source sequence and a position
+ * of the target sequence:
+ * - Substitutions replace source element at source position by target
+ * element at target position.
+ * - Deletions remove source element at source position, and target position
+ * is the position of target sequence where the element would have been.
+ * - Insertions add target element at target position before source element
+ * at source position (which can be equal to the length of source sequence
+ * for insertions at the end).
+ */
+public class EditOperation {
+
+    /**
+     * Types of modifications.
+     */
+    public enum Type {
+        /**
+         * Insertion of a target element.
+         */
+        INSERTION,
+
+        /**
+         * Deletion of a source element.
+         */
+        DELETION,
+
+        /**
+         * Substitution of a source element by a target element.
+         */
+        SUBSTITUTION
+    }
+
+    /**
+     * Type of modification.
+     */
+    private final Type mType;
+
+    /**
+     * Position within source sequence.
+     */
+    private final int mSourcePosition;
+
+    /**
+     * Position within target sequence.
+     */
+    private final int mTargetPosition;
+
+    /**
+     * Constructor.
+     *
+     * @param type           type of modification.
+     * @param sourcePosition position within source sequence.
+     * @param targetPosition position within target sequence.
+     */
+    EditOperation(final Type type, final int sourcePosition,
+                  final int targetPosition) {
+        mType = type;
+        mSourcePosition = sourcePosition;
+        mTargetPosition = targetPosition;
+    }
+
+    /**
+     * Gets type of modification.
+     *
+     * @return type of modification.
+     */
+    public Type getType() {
+        return mType;
+    }
+
+    /**
+     * Gets position within source sequence.
+     *
+     * @return position within source sequence.
+     */
+    public int getSourcePosition() {
+        return mSourcePosition;
+    }
+
+    /**
+     * Gets position within target sequence.
+     *
+     * @return position within target sequence.
+     */
+    public int getTargetPosition() {
+        return mTargetPosition;
+    }
+
+    /**
+     * Indicates whether provided object is equal to this operation.
+     *
+     * @param obj object to compare with.
+     * @return true if both have the same type and positions, false
+     * otherwise.
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof EditOperation)) {
+            return false;
+        }
+        final EditOperation other = (EditOperation) obj;
+        return mType == other.mType &&
+                mSourcePosition == other.mSourcePosition &&
+                mTargetPosition == other.mTargetPosition;
+    }
+
+    /**
+     * Computes hash code of this operation.
+     *
+     * @return hash code.
+     */
+    @Override
+    public int hashCode() {
+        return (mType.hashCode() * 31 + mSourcePosition) * 31 + mTargetPosition;
+    }
+
+    /**
+     * Returns a string representation of this operation.
+     *
+     * @return string representation.
+     */
+    @Override
+    public String toString() {
+        return mType + " " + mSourcePosition + " -> " + mTargetPosition;
+    }
+}
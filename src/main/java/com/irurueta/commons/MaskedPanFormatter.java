@@ -15,9 +15,14 @@
  */
 package com.irurueta.commons;
 
+import com.irurueta.commons.validators.CardNetworkRegistry;
 import com.irurueta.commons.validators.CreditCardNetwork;
 import com.irurueta.commons.validators.CreditCardValidator;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+
 /**
  * Generates a masked PAN where only the last 4 digits are displayed and the
  * remaining ones are masked using digit groupings according to the
@@ -26,6 +31,14 @@ import com.irurueta.commons.validators.CreditCardValidator;
  * matter how many visible digits are requested.
  * If less than request digits are available in provided PAN, then only
  * available digits are displayed as the last digits of masked PAN.
+ * Besides returning new strings, masked PANs can also be written into
+ * provided {@link Appendable}, {@link StringBuilder}, char arrays or
+ * {@link CharBuffer} instances without creating any intermediate object,
+ * which is convenient when rendering large amounts of masked PANs (i.e. into
+ * logs or responses). Masked PANs always have the length of the mask of their
+ * network, as returned by {@link #getFormattedLength(CreditCardNetwork)}.
+ * To also make visible leading digits or to use other groupings, see
+ * {@link MaskingPolicy}.
  */
 public class MaskedPanFormatter {
 
@@ -66,8 +79,10 @@ public class MaskedPanFormatter {
                                 final CreditCardNetwork network,
                                 final char maskChar,
                                 final char separatorChar) {
-        return format(toDigits(panOrLastDigits), network, maskChar,
-                separatorChar, NUM_VISIBLE_DIGITS);
+        final StringBuilder builder = new StringBuilder(
+                getFormattedLength(network));
+        format(panOrLastDigits, network, maskChar, separatorChar, builder);
+        return builder.toString();
     }
 
     /**
@@ -162,57 +177,322 @@ public class MaskedPanFormatter {
     }
 
     /**
-     * Formats a credit card PAN (or its last digits) by making visible only the
-     * last digits and masking the remaining ones following the digits grouping
-     * required for provided credit card network.
+     * Formats a credit card PAN (or its last digits) into provided appendable
+     * by making visible only the last digits and masking the remaining ones
+     * following the digits grouping required for provided credit card network.
      *
-     * @param digits           array containing the full credit card number (or its last
-     *                         digits) to be masked.
-     * @param network          credit card network.
-     * @param maskChar         mask character to be used.
-     * @param separatorChar    group separator character to be used.
-     * @param numVisibleDigits number of visible digits. The number of visible
-     *                         digits must not exceed 4 to remain PCI DSS compliant. Only the last group
-     *                         of digits will be shown unmasked if this value exceed the length of such
-     *                         group.
-     * @return masked PAN.
+     * @param panOrLastDigits credit card number (or its last digits) to be
+     *                        masked.
+     * @param network         credit card network.
+     * @param maskChar        mask character to be used.
+     * @param separatorChar   group separator character to be used.
+     * @param out             appendable where masked PAN is written.
+     * @return number of written characters.
+     * @throws IllegalArgumentException if provided appendable is null.
+     * @throws IOException              if writing fails.
      */
-    @SuppressWarnings("SameParameterValue")
-    private static String format(final byte[] digits, final CreditCardNetwork network,
-                                 final char maskChar, final char separatorChar,
-                                 int numVisibleDigits) {
-        String mask = PanMaskGenerator.generate(network, maskChar,
+    public static int format(final CharSequence panOrLastDigits,
+                             final CreditCardNetwork network,
+                             final char maskChar, final char separatorChar,
+                             final Appendable out) throws IOException {
+        if (out == null) {
+            throw new IllegalArgumentException();
+        }
+
+        final String mask = PanMaskGenerator.generate(network, maskChar,
                 separatorChar);
+        final int numVisibleDigits = numVisibleDigits(panOrLastDigits, network);
+        final int endMaskPosition = mask.length() - numVisibleDigits;
+        if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(mask, 0, endMaskPosition);
+        } else if (out instanceof Writer) {
+            ((Writer) out).write(mask, 0, endMaskPosition);
+        } else {
+            for (int i = 0; i < endMaskPosition; i++) {
+                out.append(mask.charAt(i));
+            }
+        }
 
-        // limit the number of visible digits to provided value, limited to
-        // the length of last group of digits
-        final int numGroups = CreditCardValidator.getNumberOfGroupsForNetwork(
-                network);
-        final int lastGroupLength = CreditCardValidator.
-                getMaxDigitsForGroupAndNetwork(numGroups - 1, network);
-
-        numVisibleDigits = Math.min(numVisibleDigits, lastGroupLength);
-        final int startPos = Math.max(0, digits.length - numVisibleDigits);
-        final int visibleDigits = digits.length - startPos;
-        final int endMaskPosition = mask.length() - visibleDigits;
-
-        mask = mask.substring(0, endMaskPosition);
-        final StringBuilder builder = new StringBuilder(mask);
-        for (int i = startPos; i < digits.length; i++) {
-            builder.append(digits[i]);
+        final int length = panOrLastDigits != null ? panOrLastDigits.length() : 0;
+        for (int i = visibleDigitsStart(panOrLastDigits, numVisibleDigits);
+             i < length; i++) {
+            final char c = panOrLastDigits.charAt(i);
+            if (isDigit(c)) {
+                out.append(c);
+            }
         }
+        return mask.length();
+    }
 
-        return builder.toString();
+    /**
+     * Formats a credit card PAN (or its last digits) into provided builder by
+     * making visible only the last digits and masking the remaining ones
+     * following the digits grouping required for provided credit card network.
+     *
+     * @param panOrLastDigits credit card number (or its last digits) to be
+     *                        masked.
+     * @param network         credit card network.
+     * @param maskChar        mask character to be used.
+     * @param separatorChar   group separator character to be used.
+     * @param out             builder where masked PAN is written.
+     * @return number of written characters.
+     * @throws IllegalArgumentException if provided builder is null.
+     */
+    public static int format(final CharSequence panOrLastDigits,
+                             final CreditCardNetwork network,
+                             final char maskChar, final char separatorChar,
+                             final StringBuilder out) {
+        try {
+            return format(panOrLastDigits, network, maskChar, separatorChar,
+                    (Appendable) out);
+        } catch (final IOException e) {
+            // never happens when writing into a StringBuilder
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Formats a credit card PAN (or its last digits) into provided array
+     * starting at provided offset, by making visible only the last digits and
+     * masking the remaining ones following the digits grouping required for
+     * provided credit card network.
+     *
+     * @param panOrLastDigits credit card number (or its last digits) to be
+     *                        masked.
+     * @param network         credit card network.
+     * @param maskChar        mask character to be used.
+     * @param separatorChar   group separator character to be used.
+     * @param dest            array where masked PAN is written.
+     * @param offset          position where masked PAN starts.
+     * @return number of written characters.
+     * @throws IllegalArgumentException if provided array is null or has not
+     *                                  enough room after provided offset.
+     */
+    public static int format(final CharSequence panOrLastDigits,
+                             final CreditCardNetwork network,
+                             final char maskChar, final char separatorChar,
+                             final char[] dest, final int offset) {
+        final String mask = PanMaskGenerator.generate(network, maskChar,
+                separatorChar);
+        final int formattedLength = mask.length();
+        if (dest == null || offset < 0 || offset > dest.length - formattedLength) {
+            throw new IllegalArgumentException();
+        }
+
+        final int numVisibleDigits = numVisibleDigits(panOrLastDigits, network);
+        final int endMaskPosition = formattedLength - numVisibleDigits;
+        mask.getChars(0, endMaskPosition, dest, offset);
+
+        int pos = offset + endMaskPosition;
+        final int length = panOrLastDigits != null ? panOrLastDigits.length() : 0;
+        for (int i = visibleDigitsStart(panOrLastDigits, numVisibleDigits);
+             i < length; i++) {
+            final char c = panOrLastDigits.charAt(i);
+            if (isDigit(c)) {
+                dest[pos++] = c;
+            }
+        }
+        return formattedLength;
+    }
+
+    /**
+     * Formats a credit card PAN (or its last digits) into provided buffer at
+     * its current position, by making visible only the last digits and masking
+     * the remaining ones following the digits grouping required for provided
+     * credit card network.
+     * Buffer position is advanced by the number of written characters.
+     *
+     * @param panOrLastDigits credit card number (or its last digits) to be
+     *                        masked.
+     * @param network         credit card network.
+     * @param maskChar        mask character to be used.
+     * @param separatorChar   group separator character to be used.
+     * @param dest            buffer where masked PAN is written.
+     * @return number of written characters.
+     * @throws IllegalArgumentException if provided buffer is null or has not
+     *                                  enough remaining room.
+     */
+    public static int format(final CharSequence panOrLastDigits,
+                             final CreditCardNetwork network,
+                             final char maskChar, final char separatorChar,
+                             final CharBuffer dest) {
+        if (dest == null || dest.remaining() < getFormattedLength(network)) {
+            throw new IllegalArgumentException();
+        }
+
+        final int written;
+        if (dest.hasArray()) {
+            written = format(panOrLastDigits, network, maskChar, separatorChar,
+                    dest.array(), dest.arrayOffset() + dest.position());
+            dest.position(dest.position() + written);
+        } else {
+            final String mask = PanMaskGenerator.generate(network, maskChar,
+                    separatorChar);
+            final int numVisibleDigits = numVisibleDigits(panOrLastDigits,
+                    network);
+            dest.put(mask, 0, mask.length() - numVisibleDigits);
+
+            final int length = panOrLastDigits != null ?
+                    panOrLastDigits.length() : 0;
+            for (int i = visibleDigitsStart(panOrLastDigits, numVisibleDigits);
+                 i < length; i++) {
+                final char c = panOrLastDigits.charAt(i);
+                if (isDigit(c)) {
+                    dest.put(c);
+                }
+            }
+            written = mask.length();
+        }
+        return written;
+    }
+
+    /**
+     * Formats a full credit card PAN into provided appendable by making
+     * visible only the last digits and masking the remaining ones following
+     * the digits grouping required for the detected credit card network.
+     *
+     * @param pan           a full credit card number.
+     * @param maskChar      mask character to be used.
+     * @param separatorChar group separator character to be used.
+     * @param out           appendable where masked PAN is written.
+     * @return number of written characters.
+     * @throws IllegalArgumentException if provided appendable is null.
+     * @throws IOException              if writing fails.
+     */
+    public static int format(final CharSequence pan, final char maskChar,
+                             final char separatorChar, final Appendable out)
+            throws IOException {
+        return format(pan, CreditCardValidator.detectNetworkFromPAN(pan),
+                maskChar, separatorChar, out);
+    }
+
+    /**
+     * Formats a full credit card PAN into provided builder by making visible
+     * only the last digits and masking the remaining ones following the
+     * digits grouping required for the detected credit card network.
+     *
+     * @param pan           a full credit card number.
+     * @param maskChar      mask character to be used.
+     * @param separatorChar group separator character to be used.
+     * @param out           builder where masked PAN is written.
+     * @return number of written characters.
+     * @throws IllegalArgumentException if provided builder is null.
+     */
+    public static int format(final CharSequence pan, final char maskChar,
+                             final char separatorChar, final StringBuilder out) {
+        return format(pan, CreditCardValidator.detectNetworkFromPAN(pan),
+                maskChar, separatorChar, out);
+    }
+
+    /**
+     * Formats a full credit card PAN into provided array starting at provided
+     * offset, by making visible only the last digits and masking the remaining
+     * ones following the digits grouping required for the detected credit
+     * card network.
+     *
+     * @param pan           a full credit card number.
+     * @param maskChar      mask character to be used.
+     * @param separatorChar group separator character to be used.
+     * @param dest          array where masked PAN is written.
+     * @param offset        position where masked PAN starts.
+     * @return number of written characters.
+     * @throws IllegalArgumentException if provided array is null or has not
+     *                                  enough room after provided offset.
+     */
+    public static int format(final CharSequence pan, final char maskChar,
+                             final char separatorChar, final char[] dest,
+                             final int offset) {
+        return format(pan, CreditCardValidator.detectNetworkFromPAN(pan),
+                maskChar, separatorChar, dest, offset);
+    }
+
+    /**
+     * Formats a full credit card PAN into provided buffer at its current
+     * position, by making visible only the last digits and masking the
+     * remaining ones following the digits grouping required for the detected
+     * credit card network.
+     *
+     * @param pan           a full credit card number.
+     * @param maskChar      mask character to be used.
+     * @param separatorChar group separator character to be used.
+     * @param dest          buffer where masked PAN is written.
+     * @return number of written characters.
+     * @throws IllegalArgumentException if provided buffer is null or has not
+     *                                  enough remaining room.
+     */
+    public static int format(final CharSequence pan, final char maskChar,
+                             final char separatorChar, final CharBuffer dest) {
+        return format(pan, CreditCardValidator.detectNetworkFromPAN(pan),
+                maskChar, separatorChar, dest);
+    }
+
+    /**
+     * Gets length of masked PANs for provided credit card network, which can
+     * be used to size destination buffers.
+     *
+     * @param network credit card network.
+     * @return length of masked PANs.
+     */
+    public static int getFormattedLength(final CreditCardNetwork network) {
+        return PanMaskGenerator.generate(network).length();
+    }
+
+    /**
+     * Returns number of digits of provided PAN that will be visible, which is
+     * limited to {@link #NUM_VISIBLE_DIGITS}, to the length of last group of
+     * digits of provided network and to the number of available digits.
+     *
+     * @param panOrLastDigits credit card number (or its last digits).
+     * @param network         credit card network.
+     * @return number of visible digits.
+     */
+    private static int numVisibleDigits(final CharSequence panOrLastDigits,
+                                        final CreditCardNetwork network) {
+        final CardNetworkRegistry registry = CardNetworkRegistry.getInstance();
+        final int lastGroupLength = registry.getMaxDigitsForGroup(
+                registry.getNumberOfGroups(network) - 1, network);
+        final int maxVisibleDigits = Math.min(NUM_VISIBLE_DIGITS, lastGroupLength);
+
+        int result = 0;
+        final int length = panOrLastDigits != null ? panOrLastDigits.length() : 0;
+        for (int i = length - 1; i >= 0 && result < maxVisibleDigits; i--) {
+            if (isDigit(panOrLastDigits.charAt(i))) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns position of provided PAN where its last visible digits start.
+     *
+     * @param panOrLastDigits  credit card number (or its last digits).
+     * @param numVisibleDigits number of visible digits.
+     * @return position where visible digits start.
+     */
+    private static int visibleDigitsStart(final CharSequence panOrLastDigits,
+                                          final int numVisibleDigits) {
+        if (panOrLastDigits == null) {
+            return 0;
+        }
+
+        int pos = panOrLastDigits.length();
+        int count = 0;
+        while (count < numVisibleDigits) {
+            if (isDigit(panOrLastDigits.charAt(--pos))) {
+                count++;
+            }
+        }
+        return pos;
     }
 
     /**
-     * Converts a PAN into an array of digits. Any non digit character is
-     * ignored.
+     * Indicates whether provided character is a digit.
      *
-     * @param pan PAN to be converted to digits.
-     * @return array containing digits within provided PAN.
+     * @param c a character.
+     * @return true if character is a digit, false otherwise.
      */
-    private static byte[] toDigits(final String pan) {
-        return CreditCardValidator.toDigits(pan);
+    private static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
     }
 }
@@ -0,0 +1,268 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons;
+
+import com.irurueta.commons.validators.CardNetworkRegistry;
+import com.irurueta.commons.validators.CreditCardNetwork;
+import com.irurueta.commons.validators.CreditCardValidator;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Defines how credit card PANs are masked: the number of leading and trailing
+ * digits left visible, the grouping of digits, and the mask and separator
+ * characters.
+ * To remain PCI DSS compliant, at most the first 8 digits (BIN) and the last
+ * 4 digits can be made visible, and leading digits are only made visible
+ * for full PANs, so that digits in the middle of a partial PAN are never
+ * disclosed.
+ * Policies are immutable and are compiled into a {@link CompiledPanFormatter}
+ * for each credit card network, so that the layout of masked PANs is computed
+ * only once and formatting does not need to derive it again.
+ * Compiled formatters are cached by each policy and discarded when the
+ * current {@link CardNetworkRegistry} is replaced.
+ */
+public class MaskingPolicy {
+
+    /**
+     * Maximum number of leading digits that can be visible.
+     */
+    public static final int MAX_LEADING_DIGITS = 8;
+
+    /**
+     * Maximum number of trailing digits that can be visible.
+     */
+    public static final int MAX_TRAILING_DIGITS = 4;
+
+    /**
+     * Policy showing only the last 4 digits, which is the one used by
+     * {@link MaskedPanFormatter}.
+     */
+    public static final MaskingPolicy LAST_4 = new MaskingPolicy(0, 4);
+
+    /**
+     * Policy showing the first 6 digits (BIN) and the last 4 digits.
+     */
+    public static final MaskingPolicy FIRST_6_LAST_4 = new MaskingPolicy(6, 4);
+
+    /**
+     * Policy masking all digits.
+     */
+    public static final MaskingPolicy FULLY_MASKED = new MaskingPolicy(0, 0);
+
+    /**
+     * Number of leading digits that are visible.
+     */
+    private final int mNumLeadingDigits;
+
+    /**
+     * Number of trailing digits that are visible.
+     */
+    private final int mNumTrailingDigits;
+
+    /**
+     * Length of each group of digits or null to use groupings of each
+     * network.
+     */
+    private final int[] mGrouping;
+
+    /**
+     * Character used to mask digits.
+     */
+    private final char mMaskChar;
+
+    /**
+     * Character used to separate groups of digits.
+     */
+    private final char mSeparatorChar;
+
+    /**
+     * Compiled formatters indexed by network ordinal.
+     */
+    private final AtomicReferenceArray<CompiledPanFormatter> mFormatters =
+            new AtomicReferenceArray<>(CreditCardNetwork.values().length);
+
+    /**
+     * Constructor.
+     *
+     * @param numLeadingDigits  number of leading digits that are visible.
+     * @param numTrailingDigits number of trailing digits that are visible.
+     * @param grouping          length of each group of digits or null to use
+     *                          groupings of each network.
+     * @param maskChar          character used to mask digits.
+     * @param separatorChar     character used to separate groups of digits.
+     * @throws IllegalArgumentException if number of visible digits is negative
+     *                                  or not PCI DSS compliant, or if grouping is empty or has non positive
+     *                                  lengths.
+     */
+    public MaskingPolicy(final int numLeadingDigits, final int numTrailingDigits,
+                         final int[] grouping, final char maskChar,
+                         final char separatorChar) {
+        if (numLeadingDigits < 0 || numLeadingDigits > MAX_LEADING_DIGITS ||
+                numTrailingDigits < 0 || numTrailingDigits > MAX_TRAILING_DIGITS) {
+            throw new IllegalArgumentException();
+        }
+        if (grouping != null) {
+            if (grouping.length == 0) {
+                throw new IllegalArgumentException();
+            }
+            for (final int length : grouping) {
+                if (length <= 0) {
+                    throw new IllegalArgumentException();
+                }
+            }
+        }
+
+        mNumLeadingDigits = numLeadingDigits;
+        mNumTrailingDigits = numTrailingDigits;
+        mGrouping = grouping != null ? grouping.clone() : null;
+        mMaskChar = maskChar;
+        mSeparatorChar = separatorChar;
+    }
+
+    /**
+     * Constructor using groupings of each network and default mask and
+     * separator characters of {@link MaskedPanFormatter}.
+     *
+     * @param numLeadingDigits  number of leading digits that are visible.
+     * @param numTrailingDigits number of trailing digits that are visible.
+     * @throws IllegalArgumentException if number of visible digits is negative
+     *                                  or not PCI DSS compliant.
+     */
+    public MaskingPolicy(final int numLeadingDigits, final int numTrailingDigits) {
+        this(numLeadingDigits, numTrailingDigits, null,
+                MaskedPanFormatter.DEFAULT_MASK_CHAR,
+                MaskedPanFormatter.DEFAULT_SEPARATOR_CHAR);
+    }
+
+    /**
+     * Gets number of leading digits that are visible.
+     *
+     * @return number of leading digits that are visible.
+     */
+    public int getNumLeadingDigits() {
+        return mNumLeadingDigits;
+    }
+
+    /**
+     * Gets number of trailing digits that are visible.
+     *
+     * @return number of trailing digits that are visible.
+     */
+    public int getNumTrailingDigits() {
+        return mNumTrailingDigits;
+    }
+
+    /**
+     * Gets length of each group of digits.
+     *
+     * @return length of each group of digits or null if groupings of each
+     * network are used.
+     */
+    public int[] getGrouping() {
+        return mGrouping != null ? mGrouping.clone() : null;
+    }
+
+    /**
+     * Gets character used to mask digits.
+     *
+     * @return character used to mask digits.
+     */
+    public char getMaskChar() {
+        return mMaskChar;
+    }
+
+    /**
+     * Gets character used to separate groups of digits.
+     *
+     * @return character used to separate groups of digits.
+     */
+    public char getSeparatorChar() {
+        return mSeparatorChar;
+    }
+
+    /**
+     * Returns a policy equal to this one but using provided mask and
+     * separator characters.
+     *
+     * @param maskChar      character used to mask digits.
+     * @param separatorChar character used to separate groups of digits.
+     * @return a new policy.
+     */
+    public MaskingPolicy withChars(final char maskChar, final char separatorChar) {
+        return new MaskingPolicy(mNumLeadingDigits, mNumTrailingDigits,
+                mGrouping, maskChar, separatorChar);
+    }
+
+    /**
+     * Returns a policy equal to this one but using provided grouping.
+     *
+     * @param grouping length of each group of digits or null to use
+     *                 groupings of each network.
+     * @return a new policy.
+     * @throws IllegalArgumentException if grouping is empty or has non
+     *                                  positive lengths.
+     */
+    public MaskingPolicy withGrouping(final int[] grouping) {
+        return new MaskingPolicy(mNumLeadingDigits, mNumTrailingDigits,
+                grouping, mMaskChar, mSeparatorChar);
+    }
+
+    /**
+     * Gets formatter of this policy for provided network, compiling it if
+     * needed.
+     *
+     * @param network a credit card network or null to use default grouping.
+     * @return compiled formatter.
+     */
+    public CompiledPanFormatter getFormatter(final CreditCardNetwork network) {
+        final CreditCardNetwork n = network != null ? network :
+                CreditCardNetwork.UNKNOWN;
+        final CardNetworkRegistry registry = CardNetworkRegistry.getInstance();
+        final int ordinal = n.ordinal();
+        CompiledPanFormatter formatter = mFormatters.get(ordinal);
+        if (formatter == null || formatter.getRegistry() != registry) {
+            formatter = new CompiledPanFormatter(this, n, registry);
+            mFormatters.set(ordinal, formatter);
+        }
+        return formatter;
+    }
+
+    /**
+     * Formats provided credit card PAN (or its last digits) following this
+     * policy and the grouping of provided network.
+     *
+     * @param panOrLastDigits credit card number (or its last digits) to be
+     *                        masked.
+     * @param network         credit card network.
+     * @return masked PAN.
+     */
+    public String format(final CharSequence panOrLastDigits,
+                         final CreditCardNetwork network) {
+        return getFormatter(network).format(panOrLastDigits);
+    }
+
+    /**
+     * Formats provided full credit card PAN following this policy and the
+     * grouping of its detected network.
+     *
+     * @param pan a full credit card number.
+     * @return masked PAN.
+     */
+    public String format(final CharSequence pan) {
+        return format(pan, CreditCardValidator.detectNetworkFromPAN(pan));
+    }
+}
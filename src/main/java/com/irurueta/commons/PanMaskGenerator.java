@@ -15,14 +15,23 @@
  */
 package com.irurueta.commons;
 
+import com.irurueta.commons.validators.CardNetworkRegistry;
 import com.irurueta.commons.validators.CreditCardNetwork;
-import com.irurueta.commons.validators.CreditCardValidator;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Class to generate masks for PAN (Personal Account Numbers) of credit cards.
  * Masks can be used on text fields to determine how users can input text, and
  * masks can also be used to display credit card PAN's on the screen being
  * PCI DSS compliant by showing only the last 4 digits of the PAN.
+ * Generated masks are immutable and cached per network, mask character and
+ * separator character, so that no memory is allocated once a mask has been
+ * generated. Masks using default characters are always cached, whereas a
+ * bounded number of masks using custom characters are kept. Caches are
+ * discarded whenever the current {@link CardNetworkRegistry} is replaced.
  */
 public class PanMaskGenerator {
 
@@ -36,6 +45,17 @@ public class PanMaskGenerator {
      */
     public static final char DEFAULT_GROUP_SEPARATOR = ' ';
 
+    /**
+     * Number of cached masks using custom characters. Must be a power of 2.
+     */
+    private static final int CUSTOM_CACHE_SIZE = 256;
+
+    /**
+     * Cache of masks for current registry.
+     */
+    private static final AtomicReference<MaskCache> CACHE =
+            new AtomicReference<>();
+
     /**
      * Constructor.
      */
@@ -53,25 +73,8 @@ public class PanMaskGenerator {
      */
     public static String generate(final CreditCardNetwork network, final char maskChar,
                                   final char separatorChar) {
-        final int numGroups = CreditCardValidator.getNumberOfGroupsForNetwork(
-                network);
-        final int lastGroupPos = numGroups - 1;
-        int groupLength;
-
-        // generate mask
-        final StringBuilder builder = new StringBuilder();
-        for (int i = 0; i < numGroups; i++) {
-            groupLength = CreditCardValidator.getMaxDigitsForGroupAndNetwork(i,
-                    network);
-
-            repeatMaskChar(builder, maskChar, groupLength);
-            if (i != lastGroupPos) {
-                // add separator between groups
-                builder.append(separatorChar);
-            }
-        }
-
-        return builder.toString();
+        return cache().get(network != null ? network : CreditCardNetwork.UNKNOWN,
+                maskChar, separatorChar);
     }
 
     /**
@@ -97,6 +100,53 @@ public class PanMaskGenerator {
         return generate(network, DEFAULT_MASK_CHAR);
     }
 
+    /**
+     * Returns cache of masks for current registry, replacing it if registry
+     * has changed.
+     *
+     * @return cache of masks.
+     */
+    private static MaskCache cache() {
+        final CardNetworkRegistry registry = CardNetworkRegistry.getInstance();
+        MaskCache cache = CACHE.get();
+        if (cache == null || cache.mRegistry != registry) {
+            cache = new MaskCache(registry);
+            CACHE.set(cache);
+        }
+        return cache;
+    }
+
+    /**
+     * Builds a mask having required grouping for provided network.
+     *
+     * @param registry      registry containing groupings of networks.
+     * @param network       a credit card network.
+     * @param maskChar      mask character to use.
+     * @param separatorChar group separator character to use.
+     * @return generated mask.
+     */
+    private static String build(final CardNetworkRegistry registry,
+                                final CreditCardNetwork network, final char maskChar,
+                                final char separatorChar) {
+        final int numGroups = registry.getNumberOfGroups(network);
+        final int lastGroupPos = numGroups - 1;
+        int groupLength;
+
+        // generate mask
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < numGroups; i++) {
+            groupLength = registry.getMaxDigitsForGroup(i, network);
+
+            repeatMaskChar(builder, maskChar, groupLength);
+            if (i != lastGroupPos) {
+                // add separator between groups
+                builder.append(separatorChar);
+            }
+        }
+
+        return builder.toString();
+    }
+
     /**
      * Repeats a mask character the number of provided times and appends it to
      * provided builder.
@@ -111,4 +161,119 @@ public class PanMaskGenerator {
             builder.append(maskChar);
         }
     }
+
+    /**
+     * Masks generated for a given registry.
+     * Masks using default characters are precomputed for all networks, while
+     * masks using custom characters are stored in a direct mapped table, where
+     * a colliding mask replaces the previous one. Because entries are
+     * immutable, the table can be read and written by several threads without
+     * locking, and at worst a mask is generated more than once.
+     */
+    private static class MaskCache {
+
+        /**
+         * Registry containing groupings used to generate masks.
+         */
+        private final CardNetworkRegistry mRegistry;
+
+        /**
+         * Masks using default characters for each network.
+         */
+        private final Map<CreditCardNetwork, String> mDefaultMasks =
+                new EnumMap<>(CreditCardNetwork.class);
+
+        /**
+         * Masks using custom characters.
+         */
+        private final CustomMask[] mCustomMasks = new CustomMask[CUSTOM_CACHE_SIZE];
+
+        /**
+         * Constructor.
+         *
+         * @param registry registry containing groupings used to generate
+         *                 masks.
+         */
+        private MaskCache(final CardNetworkRegistry registry) {
+            mRegistry = registry;
+            for (final CreditCardNetwork network : CreditCardNetwork.values()) {
+                mDefaultMasks.put(network, build(registry, network,
+                        DEFAULT_MASK_CHAR, DEFAULT_GROUP_SEPARATOR));
+            }
+        }
+
+        /**
+         * Gets mask for provided network and characters, generating it if
+         * needed.
+         *
+         * @param network       a credit card network.
+         * @param maskChar      mask character to use.
+         * @param separatorChar group separator character to use.
+         * @return mask.
+         */
+        private String get(final CreditCardNetwork network, final char maskChar,
+                           final char separatorChar) {
+            if (maskChar == DEFAULT_MASK_CHAR &&
+                    separatorChar == DEFAULT_GROUP_SEPARATOR) {
+                return mDefaultMasks.get(network);
+            }
+
+            final int hash = (network.ordinal() * 31 + maskChar) * 31 +
+                    separatorChar;
+            final int pos = (hash ^ (hash >>> 8)) & (CUSTOM_CACHE_SIZE - 1);
+            final CustomMask entry = mCustomMasks[pos];
+            if (entry != null && entry.mNetwork == network &&
+                    entry.mMaskChar == maskChar &&
+                    entry.mSeparatorChar == separatorChar) {
+                return entry.mMask;
+            }
+
+            final String mask = build(mRegistry, network, maskChar, separatorChar);
+            mCustomMasks[pos] = new CustomMask(network, maskChar, separatorChar,
+                    mask);
+            return mask;
+        }
+    }
+
+    /**
+     * Cached mask using custom characters.
+     */
+    private static class CustomMask {
+
+        /**
+         * Credit card network.
+         */
+        private final CreditCardNetwork mNetwork;
+
+        /**
+         * Mask character.
+         */
+        private final char mMaskChar;
+
+        /**
+         * Group separator character.
+         */
+        private final char mSeparatorChar;
+
+        /**
+         * Generated mask.
+         */
+        private final String mMask;
+
+        /**
+         * Constructor.
+         *
+         * @param network       credit card network.
+         * @param maskChar      mask character.
+         * @param separatorChar group separator character.
+         * @param mask          generated mask.
+         */
+        private CustomMask(final CreditCardNetwork network, final char maskChar,
+                           final char separatorChar, final String mask) {
+            mNetwork = network;
+            mMaskChar = maskChar;
+            mSeparatorChar = separatorChar;
+            mMask = mask;
+        }
+    }
 }
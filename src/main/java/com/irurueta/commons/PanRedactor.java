@@ -0,0 +1,523 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons;
+
+import com.irurueta.commons.validators.CreditCardNetwork;
+import com.irurueta.commons.validators.CreditCardValidator;
+import com.irurueta.commons.validators.PanAnalysis;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+
+/**
+ * Redacts credit card PANs found within arbitrary text (i.e. log lines or
+ * HTTP bodies).
+ * Text is scanned in a single pass looking for runs of digit groups separated
+ * by single spaces or dashes. Any sequence of consecutive groups having a
+ * known network, a valid length for such network and a valid checksum (when
+ * network uses Luhn validation) is masked in place following provided
+ * {@link MaskingPolicy}: only its visible leading and trailing digits are
+ * kept, the remaining digits are replaced by the mask character of the policy
+ * and separators are preserved, so that redacted text keeps its length.
+ * Grouping and separator character of policy are ignored.
+ * Text can be provided incrementally in chunks of any size, since only the
+ * last few characters that might still belong to a PAN are retained between
+ * calls, hence PANs split across chunks are also redacted. Once all text has
+ * been provided, {@link #finish(Appendable)} must be called to write any
+ * retained characters.
+ * Redacted text is written in bulk into provided {@link Appendable} without
+ * creating intermediate objects.
+ * Instances are not thread safe.
+ */
+public class PanRedactor {
+
+    /**
+     * Maximum number of characters that can be retained while looking for
+     * PANs, which is enough for a PAN of maximum length having a separator
+     * after each digit.
+     */
+    public static final int MAX_PENDING_LENGTH =
+            2 * (CreditCardValidator.MAX_LENGTH + 1);
+
+    /**
+     * Number of characters of redacted text written at once.
+     */
+    private static final int CHUNK_SIZE = 1024;
+
+    /**
+     * Maximum number of digits of a group of a PAN written with separators.
+     * Longer groups can only be PANs on their own, so that PANs are not
+     * combined with preceding or following numbers.
+     */
+    private static final int MAX_GROUP_LENGTH = 7;
+
+    /**
+     * Masking policy used to redact PANs.
+     */
+    private final MaskingPolicy mPolicy;
+
+    /**
+     * Analysis reused to validate candidate PANs.
+     */
+    private final PanAnalysis mAnalysis = new PanAnalysis();
+
+    /**
+     * Characters that might still belong to a PAN. Always starts with a digit.
+     */
+    private final char[] mPending = new char[MAX_PENDING_LENGTH];
+
+    /**
+     * Number of pending characters.
+     */
+    private int mPendingLength;
+
+    /**
+     * Number of digits within pending characters.
+     */
+    private int mPendingDigits;
+
+    /**
+     * Position within pending characters where last group of digits starts.
+     */
+    private int mGroupStart;
+
+    /**
+     * Indicates whether current group of digits is too long to be part of a
+     * PAN, in which case its digits are written without being retained.
+     */
+    private boolean mSkipping;
+
+    /**
+     * Redacted text not written yet.
+     */
+    private final char[] mOutput = new char[CHUNK_SIZE + MAX_PENDING_LENGTH + 1];
+
+    /**
+     * Number of characters of redacted text not written yet.
+     */
+    private int mOutputLength;
+
+    /**
+     * Constructor.
+     *
+     * @param policy masking policy used to redact PANs.
+     * @throws IllegalArgumentException if policy is null.
+     */
+    public PanRedactor(final MaskingPolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException();
+        }
+        mPolicy = policy;
+    }
+
+    /**
+     * Constructor keeping visible only the last digits of PANs, as
+     * {@link MaskedPanFormatter} does.
+     */
+    public PanRedactor() {
+        this(MaskingPolicy.LAST_4);
+    }
+
+    /**
+     * Redacts all PANs within provided text.
+     *
+     * @param text text to be redacted.
+     * @return redacted text or null if provided text is null.
+     */
+    public static String redact(final CharSequence text) {
+        if (text == null) {
+            return null;
+        }
+        final StringBuilder builder = new StringBuilder(text.length());
+        final PanRedactor redactor = new PanRedactor();
+        redactor.redact(text, 0, text.length(), builder);
+        redactor.finish(builder);
+        return builder.toString();
+    }
+
+    /**
+     * Gets masking policy used to redact PANs.
+     *
+     * @return masking policy.
+     */
+    public MaskingPolicy getPolicy() {
+        return mPolicy;
+    }
+
+    /**
+     * Redacts provided chunk of text and writes it into provided appendable.
+     * Characters that might still belong to a PAN are retained until more
+     * text is provided or {@link #finish(Appendable)} is called.
+     *
+     * @param text   text to be redacted.
+     * @param offset position of first character to be redacted.
+     * @param length number of characters to be redacted.
+     * @param out    appendable where redacted text is written.
+     * @throws IllegalArgumentException  if text or appendable are null.
+     * @throws IndexOutOfBoundsException if offset or length are not valid.
+     * @throws IOException               if writing fails.
+     */
+    public void redact(final char[] text, final int offset, final int length,
+                       final Appendable out) throws IOException {
+        if (text == null || out == null) {
+            throw new IllegalArgumentException();
+        }
+        if (offset < 0 || length < 0 || offset > text.length - length) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        final int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            accept(text[i]);
+            if (mOutputLength >= CHUNK_SIZE) {
+                drain(out);
+            }
+        }
+        drain(out);
+    }
+
+    /**
+     * Redacts provided chunk of text and writes it into provided appendable.
+     * Characters that might still belong to a PAN are retained until more
+     * text is provided or {@link #finish(Appendable)} is called.
+     *
+     * @param text  text to be redacted.
+     * @param start position of first character to be redacted.
+     * @param end   position after last character to be redacted.
+     * @param out   appendable where redacted text is written.
+     * @throws IllegalArgumentException  if text or appendable are null.
+     * @throws IndexOutOfBoundsException if start or end are not valid.
+     * @throws IOException               if writing fails.
+     */
+    public void redact(final CharSequence text, final int start, final int end,
+                       final Appendable out) throws IOException {
+        if (text == null || out == null) {
+            throw new IllegalArgumentException();
+        }
+        if (start < 0 || start > end || end > text.length()) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        for (int i = start; i < end; i++) {
+            accept(text.charAt(i));
+            if (mOutputLength >= CHUNK_SIZE) {
+                drain(out);
+            }
+        }
+        drain(out);
+    }
+
+    /**
+     * Redacts provided chunk of text and writes it into provided builder.
+     *
+     * @param text  text to be redacted.
+     * @param start position of first character to be redacted.
+     * @param end   position after last character to be redacted.
+     * @param out   builder where redacted text is written.
+     * @throws IllegalArgumentException  if text or builder are null.
+     * @throws IndexOutOfBoundsException if start or end are not valid.
+     */
+    public void redact(final CharSequence text, final int start, final int end,
+                       final StringBuilder out) {
+        try {
+            redact(text, start, end, (Appendable) out);
+        } catch (final IOException e) {
+            // never happens when writing into a StringBuilder
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Writes any retained characters once all text has been provided, and
+     * resets this instance so that it can be reused.
+     *
+     * @param out appendable where redacted text is written.
+     * @throws IllegalArgumentException if appendable is null.
+     * @throws IOException              if writing fails.
+     */
+    public void finish(final Appendable out) throws IOException {
+        if (out == null) {
+            throw new IllegalArgumentException();
+        }
+        endRun();
+        mSkipping = false;
+        drain(out);
+    }
+
+    /**
+     * Writes any retained characters into provided builder once all text has
+     * been provided, and resets this instance so that it can be reused.
+     *
+     * @param out builder where redacted text is written.
+     * @throws IllegalArgumentException if builder is null.
+     */
+    public void finish(final StringBuilder out) {
+        try {
+            finish((Appendable) out);
+        } catch (final IOException e) {
+            // never happens when writing into a StringBuilder
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Discards any retained characters so that this instance can be reused.
+     */
+    public void reset() {
+        mPendingLength = 0;
+        mPendingDigits = 0;
+        mGroupStart = 0;
+        mSkipping = false;
+        mOutputLength = 0;
+    }
+
+    /**
+     * Gets number of characters retained because they might still belong to
+     * a PAN.
+     *
+     * @return number of retained characters.
+     */
+    public int getPendingLength() {
+        return mPendingLength;
+    }
+
+    /**
+     * Processes a character of text.
+     *
+     * @param c character to be processed.
+     */
+    private void accept(final char c) {
+        if (c >= '0' && c <= '9') {
+            if (mSkipping) {
+                emit(c);
+                return;
+            }
+
+            if (mPendingLength == 0 || isSeparator(mPending[mPendingLength - 1])) {
+                mGroupStart = mPendingLength;
+            }
+            mPending[mPendingLength++] = c;
+            mPendingDigits++;
+
+            if (mPendingLength - mGroupStart > CreditCardValidator.MAX_LENGTH) {
+                // current group is too long to be part of a PAN
+                while (mGroupStart > 0) {
+                    resolveFirst(mGroupStart);
+                }
+                emit(mPending, 0, mPendingLength);
+                clear();
+                mSkipping = true;
+            } else {
+                // groups that cannot be extended any further are resolved
+                while (mPendingDigits > CreditCardValidator.MAX_LENGTH) {
+                    resolveFirst(mPendingLength);
+                }
+            }
+        } else if (isSeparator(c) && !mSkipping && mPendingLength > 0 &&
+                !isSeparator(mPending[mPendingLength - 1])) {
+            mPending[mPendingLength++] = c;
+        } else {
+            endRun();
+            mSkipping = false;
+            emit(c);
+        }
+    }
+
+    /**
+     * Resolves all pending characters, since no more digits can follow them.
+     */
+    private void endRun() {
+        while (mPendingLength > 0) {
+            resolveFirst(mPendingLength);
+        }
+    }
+
+    /**
+     * Resolves first group of pending characters by looking for the longest
+     * valid PAN starting on it and ending before provided limit.
+     * The PAN is masked if found, otherwise the first group is written
+     * unchanged. In both cases, written characters, along with any separator
+     * following them, are removed from pending ones.
+     *
+     * @param limit position of pending characters where search ends.
+     */
+    private void resolveFirst(final int limit) {
+        mAnalysis.reset();
+        int panEnd = -1;
+        int panDigits = 0;
+        int firstGroupEnd = -1;
+        int numDigits = 0;
+        int groupDigits = 0;
+        boolean longGroup = false;
+        for (int i = 0; i < limit; i++) {
+            final char c = mPending[i];
+            if (isSeparator(c)) {
+                groupDigits = 0;
+                continue;
+            }
+
+            mAnalysis.appendDigit(c - '0');
+            numDigits++;
+            groupDigits++;
+            if (i + 1 == limit || isSeparator(mPending[i + 1])) {
+                // end of group
+                final boolean first = firstGroupEnd < 0;
+                if (first) {
+                    firstGroupEnd = i + 1;
+                }
+                longGroup |= groupDigits > MAX_GROUP_LENGTH;
+                if (numDigits > CreditCardValidator.MAX_LENGTH ||
+                        (!first && longGroup)) {
+                    // long groups can only be PANs on their own
+                    break;
+                }
+                if (numDigits >= CreditCardValidator.MIN_LENGTH) {
+                    mAnalysis.finish();
+                    if (mAnalysis.isValid() &&
+                            mAnalysis.getNetwork() != CreditCardNetwork.UNKNOWN) {
+                        panEnd = i + 1;
+                        panDigits = numDigits;
+                    }
+                }
+            }
+        }
+
+        int consumed;
+        if (panEnd >= 0) {
+            emitMasked(panEnd, panDigits);
+            consumed = panEnd;
+        } else {
+            emit(mPending, 0, firstGroupEnd);
+            consumed = firstGroupEnd;
+        }
+        if (consumed < mPendingLength && isSeparator(mPending[consumed])) {
+            emit(mPending[consumed]);
+            consumed++;
+        }
+        remove(consumed);
+    }
+
+    /**
+     * Writes first pending characters masking the digits that are not
+     * visible.
+     *
+     * @param end       position after last pending character to be written.
+     * @param numDigits number of digits contained in written characters.
+     */
+    private void emitMasked(final int end, final int numDigits) {
+        final int numTrailingDigits = Math.min(mPolicy.getNumTrailingDigits(),
+                numDigits);
+        final int numLeadingDigits = Math.min(mPolicy.getNumLeadingDigits(),
+                numDigits - numTrailingDigits);
+        final int firstTrailingDigit = numDigits - numTrailingDigits;
+        final char maskChar = mPolicy.getMaskChar();
+        int digitPos = 0;
+        for (int i = 0; i < end; i++) {
+            final char c = mPending[i];
+            if (isSeparator(c)) {
+                emit(c);
+            } else {
+                emit(digitPos < numLeadingDigits || digitPos >= firstTrailingDigit ?
+                        c : maskChar);
+                digitPos++;
+            }
+        }
+    }
+
+    /**
+     * Removes first pending characters.
+     *
+     * @param count number of characters to be removed.
+     */
+    private void remove(final int count) {
+        final int remaining = mPendingLength - count;
+        System.arraycopy(mPending, count, mPending, 0, remaining);
+        mPendingLength = remaining;
+        mGroupStart = Math.max(0, mGroupStart - count);
+        mPendingDigits = 0;
+        for (int i = 0; i < remaining; i++) {
+            if (!isSeparator(mPending[i])) {
+                mPendingDigits++;
+            }
+        }
+    }
+
+    /**
+     * Discards all pending characters.
+     */
+    private void clear() {
+        mPendingLength = 0;
+        mPendingDigits = 0;
+        mGroupStart = 0;
+    }
+
+    /**
+     * Adds a character to redacted text.
+     *
+     * @param c character to be added.
+     */
+    private void emit(final char c) {
+        mOutput[mOutputLength++] = c;
+    }
+
+    /**
+     * Adds characters to redacted text.
+     *
+     * @param chars  array containing characters to be added.
+     * @param offset position of first character to be added.
+     * @param length number of characters to be added.
+     */
+    private void emit(final char[] chars, final int offset, final int length) {
+        System.arraycopy(chars, offset, mOutput, mOutputLength, length);
+        mOutputLength += length;
+    }
+
+    /**
+     * Writes redacted text into provided appendable.
+     *
+     * @param out appendable where redacted text is written.
+     * @throws IOException if writing fails.
+     */
+    private void drain(final Appendable out) throws IOException {
+        if (mOutputLength == 0) {
+            return;
+        }
+        if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(mOutput, 0, mOutputLength);
+        } else if (out instanceof Writer) {
+            ((Writer) out).write(mOutput, 0, mOutputLength);
+        } else if (out instanceof CharBuffer) {
+            ((CharBuffer) out).put(mOutput, 0, mOutputLength);
+        } else {
+            for (int i = 0; i < mOutputLength; i++) {
+                out.append(mOutput[i]);
+            }
+        }
+        mOutputLength = 0;
+    }
+
+    /**
+     * Indicates whether provided character can separate groups of PAN
+     * digits.
+     *
+     * @param c a character.
+     * @return true if character is a separator, false otherwise.
+     */
+    private static boolean isSeparator(final char c) {
+        return c == ' ' || c == '-';
+    }
+}
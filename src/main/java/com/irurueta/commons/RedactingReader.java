@@ -0,0 +1,252 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+
+/**
+ * Reader redacting any credit card PAN read from an underlying reader, using
+ * a {@link PanRedactor}.
+ * Text is read from the underlying reader in chunks, and characters that
+ * might still belong to a PAN are only returned once following characters
+ * have been read.
+ */
+public class RedactingReader extends FilterReader {
+
+    /**
+     * Default number of characters read at once from underlying reader.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    /**
+     * Redactor of read text.
+     */
+    private final PanRedactor mRedactor;
+
+    /**
+     * Buffer containing text read from underlying reader.
+     */
+    private final char[] mInput;
+
+    /**
+     * Buffer containing redacted text not returned yet.
+     */
+    private final CharBuffer mOutput;
+
+    /**
+     * Indicates whether underlying reader has been fully read.
+     */
+    private boolean mEndOfInput;
+
+    /**
+     * Constructor.
+     *
+     * @param in         underlying reader.
+     * @param redactor   redactor of read text.
+     * @param bufferSize number of characters read at once from underlying
+     *                   reader.
+     * @throws IllegalArgumentException if reader or redactor are null or
+     *                                  buffer size is not positive.
+     */
+    public RedactingReader(final Reader in, final PanRedactor redactor,
+                           final int bufferSize) {
+        super(checkNotNull(in));
+        if (redactor == null || bufferSize <= 0) {
+            throw new IllegalArgumentException();
+        }
+        mRedactor = redactor;
+        mInput = new char[bufferSize];
+        // redacted text can contain retained characters besides read ones
+        mOutput = CharBuffer.allocate(bufferSize +
+                PanRedactor.MAX_PENDING_LENGTH);
+        mOutput.flip();
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param in       underlying reader.
+     * @param redactor redactor of read text.
+     * @throws IllegalArgumentException if reader or redactor are null.
+     */
+    public RedactingReader(final Reader in, final PanRedactor redactor) {
+        this(in, redactor, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructor keeping visible only the last digits of PANs.
+     *
+     * @param in underlying reader.
+     * @throws IllegalArgumentException if reader is null.
+     */
+    public RedactingReader(final Reader in) {
+        this(in, new PanRedactor());
+    }
+
+    /**
+     * Reads a single character.
+     *
+     * @return read character or -1 if end of stream has been reached.
+     * @throws IOException if an I/O error occurs.
+     */
+    @Override
+    public int read() throws IOException {
+        synchronized (lock) {
+            return fill() ? mOutput.get() : -1;
+        }
+    }
+
+    /**
+     * Reads characters into a portion of an array.
+     *
+     * @param cbuf destination buffer.
+     * @param off  offset at which to start storing characters.
+     * @param len  maximum number of characters to read.
+     * @return number of characters read or -1 if end of stream has been
+     * reached.
+     * @throws IOException if an I/O error occurs.
+     */
+    @Override
+    public int read(final char[] cbuf, final int off, final int len)
+            throws IOException {
+        if (off < 0 || len < 0 || off > cbuf.length - len) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            return 0;
+        }
+        synchronized (lock) {
+            if (!fill()) {
+                return -1;
+            }
+            final int n = Math.min(len, mOutput.remaining());
+            mOutput.get(cbuf, off, n);
+            return n;
+        }
+    }
+
+    /**
+     * Skips characters of redacted text.
+     *
+     * @param n number of characters to skip.
+     * @return number of skipped characters.
+     * @throws IOException if an I/O error occurs.
+     */
+    @Override
+    public long skip(final long n) throws IOException {
+        if (n < 0L) {
+            throw new IllegalArgumentException();
+        }
+        synchronized (lock) {
+            long skipped = 0;
+            while (skipped < n && fill()) {
+                final int count = (int) Math.min(n - skipped, mOutput.remaining());
+                mOutput.position(mOutput.position() + count);
+                skipped += count;
+            }
+            return skipped;
+        }
+    }
+
+    /**
+     * Indicates whether this reader is ready to be read.
+     *
+     * @return true if redacted text is available or underlying reader is
+     * ready.
+     * @throws IOException if an I/O error occurs.
+     */
+    @Override
+    public boolean ready() throws IOException {
+        synchronized (lock) {
+            return mOutput.hasRemaining() || (!mEndOfInput && in.ready());
+        }
+    }
+
+    /**
+     * Indicates that mark is not supported.
+     *
+     * @return always false.
+     */
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    /**
+     * Mark is not supported.
+     *
+     * @param readAheadLimit limit of characters to read ahead.
+     * @throws IOException always.
+     */
+    @Override
+    public void mark(final int readAheadLimit) throws IOException {
+        throw new IOException();
+    }
+
+    /**
+     * Reset is not supported.
+     *
+     * @throws IOException always.
+     */
+    @Override
+    public void reset() throws IOException {
+        throw new IOException();
+    }
+
+    /**
+     * Reads from underlying reader until some redacted text is available or
+     * end of input is reached.
+     *
+     * @return true if redacted text is available, false if end of stream has
+     * been reached.
+     * @throws IOException if an I/O error occurs.
+     */
+    private boolean fill() throws IOException {
+        while (!mOutput.hasRemaining()) {
+            if (mEndOfInput) {
+                return false;
+            }
+
+            mOutput.clear();
+            final int n = in.read(mInput, 0, mInput.length);
+            if (n < 0) {
+                mEndOfInput = true;
+                mRedactor.finish(mOutput);
+            } else {
+                mRedactor.redact(mInput, 0, n, mOutput);
+            }
+            mOutput.flip();
+        }
+        return true;
+    }
+
+    /**
+     * Checks that provided reader is not null.
+     *
+     * @param in reader to be checked.
+     * @return provided reader.
+     * @throws IllegalArgumentException if reader is null.
+     */
+    private static Reader checkNotNull(final Reader in) {
+        if (in == null) {
+            throw new IllegalArgumentException();
+        }
+        return in;
+    }
+}
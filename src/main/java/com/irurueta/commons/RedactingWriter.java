@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writer redacting any credit card PAN written into it before passing text to
+ * an underlying writer, using a {@link PanRedactor}.
+ * Characters that might still belong to a PAN are retained until following
+ * characters are written, hence flushing this writer does not flush them
+ * (i.e. until a line break is written), whereas closing it does.
+ */
+public class RedactingWriter extends FilterWriter {
+
+    /**
+     * Redactor of written text.
+     */
+    private final PanRedactor mRedactor;
+
+    /**
+     * Array used to write single characters.
+     */
+    private final char[] mSingleChar = new char[1];
+
+    /**
+     * Constructor.
+     *
+     * @param out      underlying writer.
+     * @param redactor redactor of written text.
+     * @throws IllegalArgumentException if any parameter is null.
+     */
+    public RedactingWriter(final Writer out, final PanRedactor redactor) {
+        super(checkNotNull(out));
+        if (redactor == null) {
+            throw new IllegalArgumentException();
+        }
+        mRedactor = redactor;
+    }
+
+    /**
+     * Constructor keeping visible only the last digits of PANs.
+     *
+     * @param out underlying writer.
+     * @throws IllegalArgumentException if writer is null.
+     */
+    public RedactingWriter(final Writer out) {
+        this(out, new PanRedactor());
+    }
+
+    /**
+     * Writes a single character.
+     *
+     * @param c character to be written.
+     * @throws IOException if an I/O error occurs.
+     */
+    @Override
+    public void write(final int c) throws IOException {
+        synchronized (lock) {
+            mSingleChar[0] = (char) c;
+            mRedactor.redact(mSingleChar, 0, 1, out);
+        }
+    }
+
+    /**
+     * Writes a portion of an array of characters.
+     *
+     * @param cbuf buffer of characters to be written.
+     * @param off  offset from which to start writing characters.
+     * @param len  number of characters to be written.
+     * @throws IOException if an I/O error occurs.
+     */
+    @Override
+    public void write(final char[] cbuf, final int off, final int len)
+            throws IOException {
+        synchronized (lock) {
+            mRedactor.redact(cbuf, off, len, out);
+        }
+    }
+
+    /**
+     * Writes a portion of a string.
+     *
+     * @param str string to be written.
+     * @param off offset from which to start writing characters.
+     * @param len number of characters to be written.
+     * @throws IOException if an I/O error occurs.
+     */
+    @Override
+    public void write(final String str, final int off, final int len)
+            throws IOException {
+        synchronized (lock) {
+            mRedactor.redact(str, off, off + len, out);
+        }
+    }
+
+    /**
+     * Writes any retained characters and closes this writer along with the
+     * underlying one.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            try {
+                mRedactor.finish(out);
+            } finally {
+                super.close();
+            }
+        }
+    }
+
+    /**
+     * Checks that provided writer is not null.
+     *
+     * @param out writer to be checked.
+     * @return provided writer.
+     * @throws IllegalArgumentException if writer is null.
+     */
+    private static Writer checkNotNull(final Writer out) {
+        if (out == null) {
+            throw new IllegalArgumentException();
+        }
+        return out;
+    }
+}
@@ -0,0 +1,800 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons.validators;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Database of BIN (Bank Identification Number) ranges containing issuer
+ * metadata (network, issuer, country, card type and product).
+ * BIN ranges are compiled into a sorted interval index of non overlapping
+ * entries stored off-heap (either in a direct buffer or in a memory mapped
+ * file), so that large tables containing hundreds of thousands of ranges do
+ * not increase heap usage and are searched by binary search.
+ * Issuer, country and product strings are deduplicated, and decoded only once
+ * when a database is built or opened, so that lookups return shared instances.
+ * When ranges are nested, the innermost one takes precedence, which allows
+ * defining specific 8 digit ranges within broader 6 digit ones.
+ * Once built, a database is immutable and can be safely shared among
+ * threads. A database can be attached to a {@link CardNetworkRegistry} so
+ * that {@link CreditCardValidator} uses it to detect networks.
+ */
+public class BinDatabase {
+
+    /**
+     * Number of digits of BINs stored in a database. Shorter BINs are padded
+     * with zeros for the beginning of ranges and with nines for the end of
+     * ranges.
+     */
+    public static final int BIN_DIGITS = 8;
+
+    /**
+     * Minimum number of PAN digits required to look up a BIN.
+     */
+    public static final int MIN_BIN_DIGITS = 6;
+
+    /**
+     * Value identifying files containing a compiled database.
+     */
+    private static final int MAGIC = 0x42494E44;
+
+    /**
+     * Version of compiled database format.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Size of header in bytes, containing magic number, version, number of
+     * entries and number of strings.
+     */
+    private static final int HEADER_BYTES = 16;
+
+    /**
+     * Size of each entry in bytes, containing first and last BIN, indices of
+     * issuer, country and product strings, network and card type ordinals and
+     * two bytes of padding.
+     */
+    private static final int ENTRY_BYTES = 24;
+
+    /**
+     * Offset of last BIN within an entry.
+     */
+    private static final int HIGH_OFFSET = 4;
+
+    /**
+     * Offset of issuer string index within an entry.
+     */
+    private static final int ISSUER_OFFSET = 8;
+
+    /**
+     * Offset of country string index within an entry.
+     */
+    private static final int COUNTRY_OFFSET = 12;
+
+    /**
+     * Offset of product string index within an entry.
+     */
+    private static final int PRODUCT_OFFSET = 16;
+
+    /**
+     * Offset of network ordinal within an entry.
+     */
+    private static final int NETWORK_OFFSET = 20;
+
+    /**
+     * Offset of card type ordinal within an entry.
+     */
+    private static final int CARD_TYPE_OFFSET = 21;
+
+    /**
+     * Number of fields of each line of a text database.
+     */
+    private static final int NUM_FIELDS = 7;
+
+    /**
+     * Character starting comments on text databases.
+     */
+    private static final char COMMENT = '#';
+
+    /**
+     * Separator of fields of text databases.
+     */
+    private static final String FIELD_SEPARATOR = ",";
+
+    /**
+     * Known networks indexed by ordinal.
+     */
+    private static final CreditCardNetwork[] NETWORKS = CreditCardNetwork.values();
+
+    /**
+     * Known card types indexed by ordinal.
+     */
+    private static final CardType[] CARD_TYPES = CardType.values();
+
+    /**
+     * Buffer containing compiled database.
+     */
+    private final ByteBuffer mBuffer;
+
+    /**
+     * Number of entries.
+     */
+    private final int mNumEntries;
+
+    /**
+     * Number of strings.
+     */
+    private final int mNumStrings;
+
+    /**
+     * Position where string offsets start.
+     */
+    private final int mStringOffsetsStart;
+
+    /**
+     * Position where string data starts.
+     */
+    private final int mStringDataStart;
+
+    /**
+     * Decoded strings indexed by their position in the string table.
+     */
+    private final String[] mStrings;
+
+    /**
+     * Constructor.
+     *
+     * @param buffer buffer containing a compiled database.
+     * @throws IllegalArgumentException if buffer does not contain a valid
+     *                                  database.
+     */
+    private BinDatabase(final ByteBuffer buffer) {
+        mBuffer = buffer;
+        final int capacity = buffer.capacity();
+        if (capacity < HEADER_BYTES || buffer.getInt(0) != MAGIC ||
+                buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException();
+        }
+        mNumEntries = buffer.getInt(8);
+        mNumStrings = buffer.getInt(12);
+        if (mNumEntries < 0 || mNumStrings < 1) {
+            throw new IllegalArgumentException();
+        }
+        final long stringOffsetsStart = HEADER_BYTES + (long) mNumEntries * ENTRY_BYTES;
+        final long stringDataStart = stringOffsetsStart + 4L * (mNumStrings + 1);
+        if (stringDataStart > capacity) {
+            throw new IllegalArgumentException();
+        }
+        mStringOffsetsStart = (int) stringOffsetsStart;
+        mStringDataStart = (int) stringDataStart;
+        verify();
+        mStrings = decodeStrings();
+    }
+
+    /**
+     * Loads a database from a text source, where each line contains a BIN
+     * range with the following comma separated fields: first BIN, last BIN,
+     * network (name of a {@link CreditCardNetwork}), issuer, ISO 3166 country
+     * code, card type (name of a {@link CardType}) and product.
+     * Network, issuer, country, card type and product can be left empty when
+     * unknown, and lines starting with '#' are ignored.
+     * Reader is not closed.
+     *
+     * @param reader reader containing BIN ranges.
+     * @return loaded database, stored off-heap.
+     * @throws IllegalArgumentException if reader is null or any line is not
+     *                                  valid.
+     * @throws IOException              if reader cannot be read.
+     */
+    public static BinDatabase load(final Reader reader) throws IOException {
+        if (reader == null) {
+            throw new IllegalArgumentException();
+        }
+
+        final Builder builder = new Builder();
+        final BufferedReader bufferedReader = reader instanceof BufferedReader ?
+                (BufferedReader) reader : new BufferedReader(reader);
+        String line;
+        int lineNumber = 0;
+        while ((line = bufferedReader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.charAt(0) == COMMENT) {
+                continue;
+            }
+
+            final String[] fields = line.split(FIELD_SEPARATOR, -1);
+            if (fields.length != NUM_FIELDS) {
+                throw new IllegalArgumentException("line " + lineNumber);
+            }
+            try {
+                final String network = fields[2].trim();
+                final String cardType = fields[5].trim();
+                builder.add(fields[0].trim(), fields[1].trim(),
+                        network.isEmpty() ? CreditCardNetwork.UNKNOWN :
+                                CreditCardNetwork.valueOf(network),
+                        fields[3].trim(), fields[4].trim(),
+                        cardType.isEmpty() ? CardType.UNKNOWN :
+                                CardType.valueOf(cardType),
+                        fields[6].trim());
+            } catch (final IllegalArgumentException e) {
+                throw new IllegalArgumentException("line " + lineNumber, e);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Opens a compiled database previously stored with {@link #save(File)}.
+     * File is memory mapped so that its contents are not loaded into heap.
+     *
+     * @param file file containing a compiled database.
+     * @return opened database.
+     * @throws IllegalArgumentException if file is null or does not contain a
+     *                                  valid database.
+     * @throws IOException              if file cannot be read.
+     */
+    public static BinDatabase open(final File file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException();
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException();
+            }
+            return new BinDatabase(channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    size));
+        }
+    }
+
+    /**
+     * Stores this database into provided file in compiled form, so that it can
+     * be later opened with {@link #open(File)}.
+     *
+     * @param file file where database will be stored.
+     * @throws IllegalArgumentException if file is null.
+     * @throws IOException              if file cannot be written.
+     */
+    public void save(final File file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException();
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+             FileChannel channel = raf.getChannel()) {
+            channel.truncate(0);
+            final ByteBuffer buffer = mBuffer.duplicate();
+            buffer.clear();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Gets number of entries of interval index. This might be larger than the
+     * number of provided ranges, since nested ranges are split into non
+     * overlapping entries.
+     *
+     * @return number of entries.
+     */
+    public int getNumEntries() {
+        return mNumEntries;
+    }
+
+    /**
+     * Gets size in bytes of compiled database.
+     *
+     * @return size in bytes.
+     */
+    public int getSizeInBytes() {
+        return mBuffer.capacity();
+    }
+
+    /**
+     * Looks up issuer metadata of provided PAN or BIN.
+     * Any non digit character within provided value is skipped, and only its
+     * first {@link #BIN_DIGITS} digits are used. If less than
+     * {@link #BIN_DIGITS} digits are provided, a match is only found if all
+     * BINs starting with those digits belong to the same range.
+     *
+     * @param pan a credit card PAN or BIN.
+     * @return issuer metadata of range containing provided PAN or null if
+     * not found or if PAN has less than {@link #MIN_BIN_DIGITS} digits.
+     */
+    public BinInfo lookup(final CharSequence pan) {
+        if (pan == null) {
+            return null;
+        }
+
+        final int length = pan.length();
+        int bin = 0;
+        int numDigits = 0;
+        for (int i = 0; i < length && numDigits < BIN_DIGITS; i++) {
+            final char c = pan.charAt(i);
+            if (c >= '0' && c <= '9') {
+                bin = bin * 10 + (c - '0');
+                numDigits++;
+            }
+        }
+
+        final int entry = find(bin, numDigits);
+        if (entry < 0) {
+            return null;
+        }
+
+        final int pos = entryPosition(entry);
+        return new BinInfo(mBuffer.getInt(pos), mBuffer.getInt(pos + HIGH_OFFSET),
+                getNetwork(entry), mStrings[mBuffer.getInt(pos + ISSUER_OFFSET)],
+                mStrings[mBuffer.getInt(pos + COUNTRY_OFFSET)],
+                CARD_TYPES[mBuffer.get(pos + CARD_TYPE_OFFSET)],
+                mStrings[mBuffer.getInt(pos + PRODUCT_OFFSET)]);
+    }
+
+    /**
+     * Finds entry containing provided BIN prefix.
+     *
+     * @param prefix    value of first PAN digits.
+     * @param numDigits number of PAN digits contained in prefix, up to
+     *                  {@link #BIN_DIGITS}.
+     * @return position of entry or -1 if not found or if less than
+     * {@link #MIN_BIN_DIGITS} digits are provided.
+     */
+    int find(final int prefix, final int numDigits) {
+        if (numDigits < MIN_BIN_DIGITS) {
+            return -1;
+        }
+
+        int low = prefix;
+        int high = prefix;
+        for (int i = numDigits; i < BIN_DIGITS; i++) {
+            low *= 10;
+            high = high * 10 + 9;
+        }
+
+        // find last entry starting at or before low
+        int min = 0;
+        int max = mNumEntries - 1;
+        int result = -1;
+        while (min <= max) {
+            final int mid = (min + max) >>> 1;
+            if (mBuffer.getInt(entryPosition(mid)) <= low) {
+                result = mid;
+                min = mid + 1;
+            } else {
+                max = mid - 1;
+            }
+        }
+
+        if (result >= 0 && mBuffer.getInt(entryPosition(result) + HIGH_OFFSET) >= high) {
+            return result;
+        }
+        return -1;
+    }
+
+    /**
+     * Gets network of provided entry.
+     *
+     * @param entry position of entry.
+     * @return network of entry.
+     */
+    CreditCardNetwork getNetwork(final int entry) {
+        return NETWORKS[mBuffer.get(entryPosition(entry) + NETWORK_OFFSET)];
+    }
+
+    /**
+     * Gets position in buffer of provided entry.
+     *
+     * @param entry position of entry.
+     * @return position in buffer.
+     */
+    private static int entryPosition(final int entry) {
+        return HEADER_BYTES + entry * ENTRY_BYTES;
+    }
+
+    /**
+     * Decodes all strings of string table.
+     * String data is copied in bulk from a duplicate of the buffer, so that
+     * the shared buffer is never modified.
+     *
+     * @return decoded strings.
+     */
+    private String[] decodeStrings() {
+        final String[] strings = new String[mNumStrings];
+        final ByteBuffer data = mBuffer.duplicate();
+        int start = mBuffer.getInt(mStringOffsetsStart);
+        for (int i = 0; i < mNumStrings; i++) {
+            final int end = mBuffer.getInt(mStringOffsetsStart + 4 * (i + 1));
+            final byte[] bytes = new byte[end - start];
+            data.position(mStringDataStart + start);
+            data.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            start = end;
+        }
+        return strings;
+    }
+
+    /**
+     * Verifies that entries are sorted, do not overlap and only refer to
+     * existing strings, networks and card types, so that lookups never fail
+     * on corrupted files.
+     *
+     * @throws IllegalArgumentException if database is not valid.
+     */
+    private void verify() {
+        int previousOffset = 0;
+        for (int i = 0; i <= mNumStrings; i++) {
+            final int offset = mBuffer.getInt(mStringOffsetsStart + 4 * i);
+            if (offset < previousOffset) {
+                throw new IllegalArgumentException();
+            }
+            previousOffset = offset;
+        }
+        if ((long) mStringDataStart + previousOffset > mBuffer.capacity()) {
+            throw new IllegalArgumentException();
+        }
+
+        long previousHigh = -1;
+        for (int i = 0; i < mNumEntries; i++) {
+            final int pos = entryPosition(i);
+            final int low = mBuffer.getInt(pos);
+            final int high = mBuffer.getInt(pos + HIGH_OFFSET);
+            if (low <= previousHigh || low > high ||
+                    !isValidString(mBuffer.getInt(pos + ISSUER_OFFSET)) ||
+                    !isValidString(mBuffer.getInt(pos + COUNTRY_OFFSET)) ||
+                    !isValidString(mBuffer.getInt(pos + PRODUCT_OFFSET)) ||
+                    !isValidOrdinal(mBuffer.get(pos + NETWORK_OFFSET), NETWORKS.length) ||
+                    !isValidOrdinal(mBuffer.get(pos + CARD_TYPE_OFFSET), CARD_TYPES.length)) {
+                throw new IllegalArgumentException();
+            }
+            previousHigh = high;
+        }
+    }
+
+    /**
+     * Indicates whether provided string index exists.
+     *
+     * @param index index of string.
+     * @return true if string exists, false otherwise.
+     */
+    private boolean isValidString(final int index) {
+        return index >= 0 && index < mNumStrings;
+    }
+
+    /**
+     * Indicates whether provided ordinal is within range.
+     *
+     * @param ordinal ordinal to be checked.
+     * @param count   number of values.
+     * @return true if ordinal is valid, false otherwise.
+     */
+    private static boolean isValidOrdinal(final byte ordinal, final int count) {
+        return ordinal >= 0 && ordinal < count;
+    }
+
+    /**
+     * Builds a database from BIN ranges.
+     * Ranges can be nested, in which case the innermost one takes precedence
+     * (or the last added one if they are equal), but they cannot partially
+     * overlap.
+     */
+    public static class Builder {
+
+        /**
+         * Added ranges.
+         */
+        private final List<Range> mRanges = new ArrayList<>();
+
+        /**
+         * Indices of added strings.
+         */
+        private final Map<String, Integer> mStringIndices = new HashMap<>();
+
+        /**
+         * Added strings.
+         */
+        private final List<String> mStrings = new ArrayList<>();
+
+        /**
+         * Constructor.
+         */
+        public Builder() {
+            addString("");
+        }
+
+        /**
+         * Adds a BIN range.
+         * BINs having less than {@link #BIN_DIGITS} digits are padded with
+         * zeros for the first BIN and with nines for the last one, hence
+         * "411111" to "411111" contains all 8 digit BINs starting with 411111.
+         *
+         * @param lowBin   first BIN of range, having from 1 to
+         *                 {@link #BIN_DIGITS} digits.
+         * @param highBin  last BIN of range, having from 1 to
+         *                 {@link #BIN_DIGITS} digits.
+         * @param network  credit card network or null if unknown.
+         * @param issuer   name of issuer or null if unknown.
+         * @param country  ISO 3166 code of issuer country or null if unknown.
+         * @param cardType type of card or null if unknown.
+         * @param product  card product or null if unknown.
+         * @return this instance.
+         * @throws IllegalArgumentException if any BIN is not valid or first BIN
+         *                                  is greater than last one.
+         */
+        public Builder add(final String lowBin, final String highBin,
+                           final CreditCardNetwork network, final String issuer,
+                           final String country, final CardType cardType,
+                           final String product) {
+            final int low = parseBin(lowBin, 0);
+            final int high = parseBin(highBin, 9);
+            if (low > high) {
+                throw new IllegalArgumentException();
+            }
+
+            mRanges.add(new Range(low, high, mRanges.size(),
+                    network != null ? network : CreditCardNetwork.UNKNOWN,
+                    addString(issuer), addString(country),
+                    cardType != null ? cardType : CardType.UNKNOWN,
+                    addString(product)));
+            return this;
+        }
+
+        /**
+         * Builds database containing added ranges into a direct buffer.
+         *
+         * @return a new database.
+         * @throws IllegalArgumentException if any ranges partially overlap.
+         */
+        public BinDatabase build() {
+            final List<Range> entries = flatten();
+
+            final byte[][] strings = new byte[mStrings.size()][];
+            int stringBytes = 0;
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = mStrings.get(i).getBytes(StandardCharsets.UTF_8);
+                stringBytes += strings[i].length;
+            }
+
+            final ByteBuffer buffer = ByteBuffer.allocateDirect(HEADER_BYTES +
+                    entries.size() * ENTRY_BYTES + 4 * (strings.length + 1) +
+                    stringBytes);
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+            buffer.putInt(entries.size());
+            buffer.putInt(strings.length);
+            for (final Range entry : entries) {
+                buffer.putInt(entry.mLow);
+                buffer.putInt(entry.mHigh);
+                buffer.putInt(entry.mIssuer);
+                buffer.putInt(entry.mCountry);
+                buffer.putInt(entry.mProduct);
+                buffer.put((byte) entry.mNetwork.ordinal());
+                buffer.put((byte) entry.mCardType.ordinal());
+                buffer.putShort((short) 0);
+            }
+            int offset = 0;
+            buffer.putInt(offset);
+            for (final byte[] string : strings) {
+                offset += string.length;
+                buffer.putInt(offset);
+            }
+            for (final byte[] string : strings) {
+                buffer.put(string);
+            }
+            buffer.clear();
+            return new BinDatabase(buffer);
+        }
+
+        /**
+         * Splits nested ranges into sorted non overlapping entries, where the
+         * innermost range takes precedence.
+         *
+         * @return sorted non overlapping entries.
+         * @throws IllegalArgumentException if any ranges partially overlap.
+         */
+        private List<Range> flatten() {
+            final List<Range> ranges = new ArrayList<>(mRanges);
+            // outer ranges come first, and equal ranges keep insertion order
+            Collections.sort(ranges, new Comparator<Range>() {
+                @Override
+                public int compare(final Range r1, final Range r2) {
+                    if (r1.mLow != r2.mLow) {
+                        return Integer.compare(r1.mLow, r2.mLow);
+                    }
+                    if (r1.mHigh != r2.mHigh) {
+                        return Integer.compare(r2.mHigh, r1.mHigh);
+                    }
+                    return Integer.compare(r1.mIndex, r2.mIndex);
+                }
+            });
+
+            final List<Range> result = new ArrayList<>(ranges.size());
+            final List<Range> open = new ArrayList<>();
+            long pos = 0;
+            for (final Range range : ranges) {
+                // close ranges ending before current one
+                while (!open.isEmpty() && open.get(open.size() - 1).mHigh < range.mLow) {
+                    final Range top = open.remove(open.size() - 1);
+                    pos = emit(result, top, pos, top.mHigh);
+                }
+                if (!open.isEmpty()) {
+                    final Range top = open.get(open.size() - 1);
+                    if (top.mHigh < range.mHigh) {
+                        throw new IllegalArgumentException();
+                    }
+                    emit(result, top, pos, range.mLow - 1L);
+                }
+                pos = range.mLow;
+                open.add(range);
+            }
+            while (!open.isEmpty()) {
+                final Range top = open.remove(open.size() - 1);
+                pos = emit(result, top, pos, top.mHigh);
+            }
+            return result;
+        }
+
+        /**
+         * Adds an entry for provided range from provided start up to provided
+         * end, if not empty.
+         *
+         * @param result list where entry is added.
+         * @param range  range containing metadata of entry.
+         * @param start  first BIN of entry.
+         * @param end    last BIN of entry.
+         * @return first BIN after entry.
+         */
+        private static long emit(final List<Range> result, final Range range,
+                                 final long start, final long end) {
+            if (start > end) {
+                return start;
+            }
+            result.add(new Range((int) start, (int) end, range.mIndex,
+                    range.mNetwork, range.mIssuer, range.mCountry,
+                    range.mCardType, range.mProduct));
+            return end + 1;
+        }
+
+        /**
+         * Adds a string if not already added.
+         *
+         * @param value string to be added or null.
+         * @return index of string.
+         */
+        private int addString(final String value) {
+            final String s = value != null ? value : "";
+            Integer index = mStringIndices.get(s);
+            if (index == null) {
+                index = mStrings.size();
+                mStrings.add(s);
+                mStringIndices.put(s, index);
+            }
+            return index;
+        }
+
+        /**
+         * Parses a BIN, padding it up to {@link #BIN_DIGITS} digits.
+         *
+         * @param bin     BIN to be parsed.
+         * @param padding digit used for padding.
+         * @return parsed BIN.
+         * @throws IllegalArgumentException if BIN is not valid.
+         */
+        private static int parseBin(final String bin, final int padding) {
+            if (bin == null || bin.isEmpty() || bin.length() > BIN_DIGITS) {
+                throw new IllegalArgumentException();
+            }
+            int result = 0;
+            for (int i = 0; i < BIN_DIGITS; i++) {
+                int digit = padding;
+                if (i < bin.length()) {
+                    final char c = bin.charAt(i);
+                    if (c < '0' || c > '9') {
+                        throw new IllegalArgumentException(bin);
+                    }
+                    digit = c - '0';
+                }
+                result = result * 10 + digit;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * BIN range being built.
+     */
+    private static class Range {
+
+        /**
+         * First BIN.
+         */
+        private final int mLow;
+
+        /**
+         * Last BIN.
+         */
+        private final int mHigh;
+
+        /**
+         * Insertion order.
+         */
+        private final int mIndex;
+
+        /**
+         * Credit card network.
+         */
+        private final CreditCardNetwork mNetwork;
+
+        /**
+         * Index of issuer string.
+         */
+        private final int mIssuer;
+
+        /**
+         * Index of country string.
+         */
+        private final int mCountry;
+
+        /**
+         * Type of card.
+         */
+        private final CardType mCardType;
+
+        /**
+         * Index of product string.
+         */
+        private final int mProduct;
+
+        /**
+         * Constructor.
+         *
+         * @param low      first BIN.
+         * @param high     last BIN.
+         * @param index    insertion order.
+         * @param network  credit card network.
+         * @param issuer   index of issuer string.
+         * @param country  index of country string.
+         * @param cardType type of card.
+         * @param product  index of product string.
+         */
+        private Range(final int low, final int high, final int index,
+                      final CreditCardNetwork network, final int issuer,
+                      final int country, final CardType cardType, final int product) {
+            mLow = low;
+            mHigh = high;
+            mIndex = index;
+            mNetwork = network;
+            mIssuer = issuer;
+            mCountry = country;
+            mCardType = cardType;
+            mProduct = product;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons.validators;
+
+/**
+ * Contains issuer metadata of a range of BINs (Bank Identification Numbers)
+ * obtained from a {@link BinDatabase}.
+ * BINs are expressed with {@link BinDatabase#BIN_DIGITS} digits.
+ */
+public class BinInfo {
+
+    /**
+     * First BIN of range (inclusive).
+     */
+    private final int mLow;
+
+    /**
+     * Last BIN of range (inclusive).
+     */
+    private final int mHigh;
+
+    /**
+     * Credit card network.
+     */
+    private final CreditCardNetwork mNetwork;
+
+    /**
+     * Name of issuer.
+     */
+    private final String mIssuer;
+
+    /**
+     * ISO 3166 code of issuer country.
+     */
+    private final String mCountry;
+
+    /**
+     * Type of card.
+     */
+    private final CardType mCardType;
+
+    /**
+     * Card product (i.e. classic, gold, platinum, business).
+     */
+    private final String mProduct;
+
+    /**
+     * Constructor.
+     *
+     * @param low      first BIN of range (inclusive).
+     * @param high     last BIN of range (inclusive).
+     * @param network  credit card network.
+     * @param issuer   name of issuer.
+     * @param country  ISO 3166 code of issuer country.
+     * @param cardType type of card.
+     * @param product  card product.
+     */
+    BinInfo(final int low, final int high, final CreditCardNetwork network,
+            final String issuer, final String country, final CardType cardType,
+            final String product) {
+        mLow = low;
+        mHigh = high;
+        mNetwork = network;
+        mIssuer = issuer;
+        mCountry = country;
+        mCardType = cardType;
+        mProduct = product;
+    }
+
+    /**
+     * Gets first BIN of range (inclusive).
+     *
+     * @return first BIN of range.
+     */
+    public int getLow() {
+        return mLow;
+    }
+
+    /**
+     * Gets last BIN of range (inclusive).
+     *
+     * @return last BIN of range.
+     */
+    public int getHigh() {
+        return mHigh;
+    }
+
+    /**
+     * Gets credit card network.
+     *
+     * @return credit card network.
+     */
+    public CreditCardNetwork getNetwork() {
+        return mNetwork;
+    }
+
+    /**
+     * Gets name of issuer.
+     *
+     * @return name of issuer or empty if unknown.
+     */
+    public String getIssuer() {
+        return mIssuer;
+    }
+
+    /**
+     * Gets ISO 3166 code of issuer country.
+     *
+     * @return country code or empty if unknown.
+     */
+    public String getCountry() {
+        return mCountry;
+    }
+
+    /**
+     * Gets type of card.
+     *
+     * @return type of card.
+     */
+    public CardType getCardType() {
+        return mCardType;
+    }
+
+    /**
+     * Gets card product (i.e. classic, gold, platinum, business).
+     *
+     * @return card product or empty if unknown.
+     */
+    public String getProduct() {
+        return mProduct;
+    }
+}
@@ -0,0 +1,650 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons.validators;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Contains the definition of credit card networks (IIN ranges, valid lengths,
+ * digit groupings and whether they use Luhn validation or are still active)
+ * used by {@link CreditCardValidator}.
+ * Definitions are loaded from properties files and compiled into an immutable
+ * lookup structure. Built-in definitions are stored in resource
+ * card-networks.properties, which also documents the file format.
+ * The registry used by {@link CreditCardValidator} can be atomically replaced
+ * at runtime with {@link #setInstance(CardNetworkRegistry)} (i.e. to ship IIN
+ * updates without redeploying). Because registries are immutable, validation
+ * only needs to read the current instance once, without any locking, and any
+ * validation in progress keeps using the registry it started with.
+ * Optionally, a {@link BinDatabase} can be attached to a registry, in which
+ * case networks of PANs having at least {@link BinDatabase#MIN_BIN_DIGITS}
+ * digits are detected from the BIN database first, falling back to IIN
+ * ranges for BINs not contained in it.
+ */
+public class CardNetworkRegistry {
+
+    /**
+     * Location of resource containing built-in definitions.
+     */
+    private static final String BUILT_IN_PROPERTIES = "card-networks.properties";
+
+    /**
+     * Key containing networks in detection order.
+     */
+    private static final String NETWORKS_KEY = "networks";
+
+    /**
+     * Key containing default grouping for networks not having one.
+     */
+    private static final String DEFAULT_GROUPING_KEY = "default.grouping";
+
+    /**
+     * Suffix of keys containing IIN ranges of a network.
+     */
+    private static final String IIN_SUFFIX = ".iin";
+
+    /**
+     * Suffix of keys containing valid lengths of a network.
+     */
+    private static final String LENGTH_SUFFIX = ".length";
+
+    /**
+     * Suffix of keys containing grouping of a network.
+     */
+    private static final String GROUPING_SUFFIX = ".grouping";
+
+    /**
+     * Suffix of keys indicating whether a network uses Luhn validation.
+     */
+    private static final String VALIDATION_SUFFIX = ".validation";
+
+    /**
+     * Suffix of keys indicating whether a network is active.
+     */
+    private static final String ACTIVE_SUFFIX = ".active";
+
+    /**
+     * Separator of list elements.
+     */
+    private static final String LIST_SEPARATOR = ",";
+
+    /**
+     * Separator of start and end of ranges.
+     */
+    private static final char RANGE_SEPARATOR = '-';
+
+    /**
+     * Registry containing built-in definitions.
+     */
+    private static final CardNetworkRegistry BUILT_IN = loadBuiltIn();
+
+    /**
+     * Registry currently used by {@link CreditCardValidator}.
+     */
+    private static final AtomicReference<CardNetworkRegistry> INSTANCE =
+            new AtomicReference<>(BUILT_IN);
+
+    /**
+     * Networks in detection order.
+     */
+    private final CreditCardNetwork[] mNetworks;
+
+    /**
+     * Trie containing IIN ranges of all networks labeled following detection
+     * order.
+     */
+    private final IINPrefixTrie mTrie;
+
+    /**
+     * IIN ranges of each network indexed by network ordinal, or null if not
+     * defined.
+     */
+    private final String[][][] mIINs;
+
+    /**
+     * Mask containing the trie label of each network indexed by network
+     * ordinal, or zero if not defined.
+     */
+    private final int[] mLabelMasks;
+
+    /**
+     * Valid length ranges of each network indexed by network ordinal, or null
+     * if not defined.
+     */
+    private final byte[][][] mLengths;
+
+    /**
+     * Digit groupings of each network indexed by network ordinal.
+     */
+    private final byte[][][] mGroupings;
+
+    /**
+     * Indicates whether each network uses Luhn validation, indexed by network
+     * ordinal.
+     */
+    private final boolean[] mValidation;
+
+    /**
+     * Indicates whether each network is active, indexed by network ordinal.
+     */
+    private final boolean[] mActive;
+
+    /**
+     * Database of BIN ranges used to detect networks or null if not
+     * available.
+     */
+    private final BinDatabase mBinDatabase;
+
+    /**
+     * Constructor.
+     *
+     * @param properties properties containing network definitions.
+     * @throws IllegalArgumentException if definitions are not valid.
+     */
+    private CardNetworkRegistry(final Properties properties) {
+        final int numNetworks = CreditCardNetwork.values().length;
+        mIINs = new String[numNetworks][][];
+        mLabelMasks = new int[numNetworks];
+        mLengths = new byte[numNetworks][][];
+        mGroupings = new byte[numNetworks][][];
+        mValidation = new boolean[numNetworks];
+        mActive = new boolean[numNetworks];
+        Arrays.fill(mActive, true);
+
+        final byte[][] defaultGrouping = parseRanges(
+                required(properties, DEFAULT_GROUPING_KEY), 0);
+        Arrays.fill(mGroupings, defaultGrouping);
+
+        final String[] names = required(properties, NETWORKS_KEY).split(
+                LIST_SEPARATOR);
+        mNetworks = new CreditCardNetwork[names.length];
+        final String[][][] iins = new String[names.length][][];
+        for (int i = 0; i < names.length; i++) {
+            final String name = names[i].trim();
+            final CreditCardNetwork network = CreditCardNetwork.valueOf(name);
+            final int ordinal = network.ordinal();
+            if (network == CreditCardNetwork.UNKNOWN || mIINs[ordinal] != null) {
+                throw new IllegalArgumentException(name);
+            }
+
+            mNetworks[i] = network;
+            mLabelMasks[ordinal] = 1 << i;
+            iins[i] = mIINs[ordinal] = parseIINs(required(properties,
+                    name + IIN_SUFFIX));
+            mLengths[ordinal] = parseRanges(required(properties,
+                    name + LENGTH_SUFFIX), 1);
+
+            final String grouping = properties.getProperty(name + GROUPING_SUFFIX);
+            if (grouping != null) {
+                mGroupings[ordinal] = parseRanges(grouping, 0);
+            }
+            mValidation[ordinal] = Boolean.parseBoolean(properties.getProperty(
+                    name + VALIDATION_SUFFIX, Boolean.TRUE.toString()).trim());
+            mActive[ordinal] = Boolean.parseBoolean(properties.getProperty(
+                    name + ACTIVE_SUFFIX, Boolean.TRUE.toString()).trim());
+        }
+
+        mTrie = new IINPrefixTrie(iins);
+        mBinDatabase = null;
+    }
+
+    /**
+     * Constructor copying definitions of provided registry.
+     *
+     * @param registry    registry to copy definitions from.
+     * @param binDatabase database of BIN ranges or null if not available.
+     */
+    private CardNetworkRegistry(final CardNetworkRegistry registry,
+                                final BinDatabase binDatabase) {
+        mNetworks = registry.mNetworks;
+        mTrie = registry.mTrie;
+        mIINs = registry.mIINs;
+        mLabelMasks = registry.mLabelMasks;
+        mLengths = registry.mLengths;
+        mGroupings = registry.mGroupings;
+        mValidation = registry.mValidation;
+        mActive = registry.mActive;
+        mBinDatabase = binDatabase;
+    }
+
+    /**
+     * Gets registry currently used by {@link CreditCardValidator}.
+     *
+     * @return current registry.
+     */
+    public static CardNetworkRegistry getInstance() {
+        return INSTANCE.get();
+    }
+
+    /**
+     * Atomically replaces registry used by {@link CreditCardValidator}.
+     *
+     * @param registry new registry to be used.
+     * @return previously used registry.
+     * @throws IllegalArgumentException if provided registry is null.
+     */
+    public static CardNetworkRegistry setInstance(final CardNetworkRegistry registry) {
+        if (registry == null) {
+            throw new IllegalArgumentException();
+        }
+        return INSTANCE.getAndSet(registry);
+    }
+
+    /**
+     * Gets registry containing built-in definitions.
+     *
+     * @return built-in registry.
+     */
+    public static CardNetworkRegistry getBuiltIn() {
+        return BUILT_IN;
+    }
+
+    /**
+     * Loads a registry from provided properties.
+     *
+     * @param properties properties containing network definitions.
+     * @return loaded registry.
+     * @throws IllegalArgumentException if properties are null or definitions
+     *                                  are not valid.
+     */
+    public static CardNetworkRegistry load(final Properties properties) {
+        if (properties == null) {
+            throw new IllegalArgumentException();
+        }
+        return new CardNetworkRegistry(properties);
+    }
+
+    /**
+     * Loads a registry from provided stream containing properties.
+     * Stream is not closed.
+     *
+     * @param stream stream containing network definitions.
+     * @return loaded registry.
+     * @throws IllegalArgumentException if stream is null or definitions are not
+     *                                  valid.
+     * @throws IOException              if stream cannot be read.
+     */
+    public static CardNetworkRegistry load(final InputStream stream)
+            throws IOException {
+        if (stream == null) {
+            throw new IllegalArgumentException();
+        }
+        final Properties properties = new Properties();
+        properties.load(stream);
+        return load(properties);
+    }
+
+    /**
+     * Loads a registry from provided properties file.
+     *
+     * @param file file containing network definitions.
+     * @return loaded registry.
+     * @throws IllegalArgumentException if file is null or definitions are not
+     *                                  valid.
+     * @throws IOException              if file cannot be read.
+     */
+    public static CardNetworkRegistry load(final File file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException();
+        }
+        try (InputStream stream = new FileInputStream(file)) {
+            return load(stream);
+        }
+    }
+
+    /**
+     * Gets networks contained in this registry in detection order, where
+     * networks appearing first take precedence when IIN ranges overlap.
+     *
+     * @return networks in detection order.
+     */
+    public List<CreditCardNetwork> getNetworks() {
+        return Collections.unmodifiableList(Arrays.asList(mNetworks.clone()));
+    }
+
+    /**
+     * Gets database of BIN ranges used to detect networks.
+     *
+     * @return database of BIN ranges or null if not available.
+     */
+    public BinDatabase getBinDatabase() {
+        return mBinDatabase;
+    }
+
+    /**
+     * Returns a registry containing the same network definitions as this one
+     * and using provided database of BIN ranges to detect networks.
+     * This instance is not modified.
+     *
+     * @param binDatabase database of BIN ranges or null to only use IIN
+     *                    ranges.
+     * @return a new registry.
+     */
+    public CardNetworkRegistry withBinDatabase(final BinDatabase binDatabase) {
+        return new CardNetworkRegistry(this, binDatabase);
+    }
+
+    /**
+     * Indicates if provided network uses Luhn algorithm to validate PAN
+     * values. Networks not contained in this registry are assumed to have
+     * validation disabled.
+     *
+     * @param network a credit card network.
+     * @return true if provided network uses PAN validation, false otherwise.
+     */
+    public boolean isValidationEnabled(final CreditCardNetwork network) {
+        return network != null && mValidation[network.ordinal()];
+    }
+
+    /**
+     * Indicates if provided network is still being used commercially.
+     * Networks not contained in this registry are assumed to be active.
+     *
+     * @param network a credit card network.
+     * @return true if provided network is still being used, false otherwise.
+     */
+    public boolean isActive(final CreditCardNetwork network) {
+        return network == null || mActive[network.ordinal()];
+    }
+
+    /**
+     * Indicates if provided number of PAN digits is valid for provided
+     * network. Any length is assumed to be valid for networks not contained
+     * in this registry.
+     *
+     * @param numDigits number of PAN digits.
+     * @param network   a credit card network.
+     * @return true if length is valid, false otherwise.
+     */
+    public boolean isValidLength(final int numDigits, final CreditCardNetwork network) {
+        final byte[][] lengths = getLengths(network);
+        if (lengths == null) {
+            return true;
+        }
+        for (final byte[] l : lengths) {
+            if (numDigits >= l[0] && numDigits <= l[1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets minimum number of digits of a full PAN of provided network.
+     * For networks not contained in this registry, the minimum valid length
+     * among all contained networks is returned, since any full PAN has at
+     * least that many digits.
+     *
+     * @param network a credit card network.
+     * @return minimum valid number of PAN digits.
+     */
+    public int getMinLength(final CreditCardNetwork network) {
+        final byte[][] lengths = getLengths(network);
+        int result = CreditCardValidator.MAX_LENGTH;
+        if (lengths != null) {
+            for (final byte[] l : lengths) {
+                result = Math.min(result, l[0]);
+            }
+        } else {
+            for (final CreditCardNetwork n : mNetworks) {
+                result = Math.min(result, getMinLength(n));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns number of digit groups for provided credit card network.
+     *
+     * @param network a credit card network.
+     * @return number of digit groups, which are the default ones if network
+     * is null or has no grouping of its own.
+     */
+    public int getNumberOfGroups(final CreditCardNetwork network) {
+        return getGroupings(network).length;
+    }
+
+    /**
+     * Returns maximum number of allowed digits for provided group position
+     * (starting at zero until the number of groups minus one).
+     *
+     * @param groupPos position of group of digits.
+     * @param network  a credit card network.
+     * @return maximum number of allowed digits.
+     * @throws IllegalArgumentException if groupPos is negative or exceeds the
+     *                                  number of groups minus one for provided network.
+     */
+    public int getMaxDigitsForGroup(final int groupPos, final CreditCardNetwork network) {
+        final byte[][] groups = getGroupings(network);
+        if (groupPos < 0 || groupPos >= groups.length) {
+            throw new IllegalArgumentException();
+        }
+        return groups[groupPos][1];
+    }
+
+    /**
+     * Gets trie containing IIN ranges of all networks labeled following
+     * detection order.
+     *
+     * @return trie of IIN ranges.
+     */
+    IINPrefixTrie getTrie() {
+        return mTrie;
+    }
+
+    /**
+     * Returns network having the highest detection precedence among the ones
+     * contained in provided mask of labels of trie.
+     *
+     * @param mask mask of labels.
+     * @return detected network or {@link CreditCardNetwork#UNKNOWN} if mask is
+     * empty.
+     */
+    CreditCardNetwork networkFromMask(final int mask) {
+        if (mask == 0) {
+            return CreditCardNetwork.UNKNOWN;
+        }
+        // lowest matched label has precedence
+        return mNetworks[Integer.numberOfTrailingZeros(mask)];
+    }
+
+    /**
+     * Returns network of provided BIN if it is contained in the BIN database,
+     * or otherwise the network having the highest detection precedence among
+     * the ones contained in provided mask of labels of trie.
+     *
+     * @param mask      mask of labels.
+     * @param bin       value of first PAN digits.
+     * @param binDigits number of PAN digits contained in bin, up to
+     *                  {@link BinDatabase#BIN_DIGITS}.
+     * @return detected network or {@link CreditCardNetwork#UNKNOWN} if none
+     * is found.
+     */
+    CreditCardNetwork resolveNetwork(final int mask, final int bin,
+                                     final int binDigits) {
+        if (mBinDatabase != null) {
+            final int entry = mBinDatabase.find(bin, binDigits);
+            if (entry >= 0) {
+                final CreditCardNetwork network = mBinDatabase.getNetwork(entry);
+                if (network != CreditCardNetwork.UNKNOWN) {
+                    return network;
+                }
+            }
+        }
+        return networkFromMask(mask);
+    }
+
+    /**
+     * Indicates whether PAN digits up to {@link BinDatabase#BIN_DIGITS} must
+     * be collected to detect networks.
+     *
+     * @return true if a BIN database is available, false otherwise.
+     */
+    boolean hasBinDatabase() {
+        return mBinDatabase != null;
+    }
+
+    /**
+     * Gets IIN ranges of provided network.
+     *
+     * @param network a credit card network.
+     * @return IIN ranges or null if network is not contained in this registry.
+     */
+    String[][] getIINs(final CreditCardNetwork network) {
+        return network != null ? mIINs[network.ordinal()] : null;
+    }
+
+    /**
+     * Indicates whether provided PAN digits correspond to IIN ranges of
+     * provided network, as determined by the trie of this registry.
+     *
+     * @param panDigits an array containing credit card PAN digits.
+     * @param network   a credit card network.
+     * @return true if PAN matches IIN ranges of network, false otherwise or if
+     * network is not contained in this registry.
+     */
+    boolean isIIN(final byte[] panDigits, final CreditCardNetwork network) {
+        return network != null &&
+                (mTrie.match(panDigits) & mLabelMasks[network.ordinal()]) != 0;
+    }
+
+    /**
+     * Gets valid length ranges of provided network.
+     *
+     * @param network a credit card network.
+     * @return valid length ranges or null if network is not contained in this
+     * registry.
+     */
+    byte[][] getLengths(final CreditCardNetwork network) {
+        return network != null ? mLengths[network.ordinal()] : null;
+    }
+
+    /**
+     * Gets digit groupings of provided network.
+     *
+     * @param network a credit card network.
+     * @return digit groupings, which are the default ones if network is null
+     * or has no grouping of its own.
+     */
+    byte[][] getGroupings(final CreditCardNetwork network) {
+        return mGroupings[network != null ? network.ordinal() :
+                CreditCardNetwork.UNKNOWN.ordinal()];
+    }
+
+    /**
+     * Loads built-in definitions.
+     *
+     * @return built-in registry.
+     * @throws IllegalStateException if built-in definitions cannot be loaded.
+     */
+    private static CardNetworkRegistry loadBuiltIn() {
+        try (InputStream stream = CardNetworkRegistry.class.getResourceAsStream(
+                BUILT_IN_PROPERTIES)) {
+            if (stream == null) {
+                throw new IllegalStateException(BUILT_IN_PROPERTIES);
+            }
+            return load(stream);
+        } catch (final IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Gets a required property.
+     *
+     * @param properties properties to read from.
+     * @param key        key of property.
+     * @return value of property.
+     * @throws IllegalArgumentException if property is not defined.
+     */
+    private static String required(final Properties properties, final String key) {
+        final String value = properties.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            throw new IllegalArgumentException(key);
+        }
+        return value;
+    }
+
+    /**
+     * Parses a list of IIN prefixes or ranges of prefixes.
+     *
+     * @param value value to be parsed.
+     * @return IIN ranges.
+     */
+    private static String[][] parseIINs(final String value) {
+        final String[] items = value.split(LIST_SEPARATOR);
+        final String[][] result = new String[items.length][];
+        for (int i = 0; i < items.length; i++) {
+            final String item = items[i].trim();
+            final int pos = item.indexOf(RANGE_SEPARATOR);
+            result[i] = pos < 0 ? new String[]{item, item} :
+                    new String[]{item.substring(0, pos).trim(),
+                            item.substring(pos + 1).trim()};
+        }
+        return result;
+    }
+
+    /**
+     * Parses a list of numbers or ranges of numbers.
+     *
+     * @param value    value to be parsed.
+     * @param minValue minimum allowed value.
+     * @return ranges containing minimum and maximum values.
+     * @throws IllegalArgumentException if any number is not valid.
+     */
+    private static byte[][] parseRanges(final String value, final int minValue) {
+        final String[] items = value.split(LIST_SEPARATOR);
+        final byte[][] result = new byte[items.length][];
+        for (int i = 0; i < items.length; i++) {
+            final String item = items[i].trim();
+            final int pos = item.indexOf(RANGE_SEPARATOR);
+            final int min = parseNumber(pos < 0 ? item : item.substring(0, pos),
+                    minValue);
+            final int max = pos < 0 ? min : parseNumber(item.substring(pos + 1),
+                    minValue);
+            if (min > max) {
+                throw new IllegalArgumentException(item);
+            }
+            result[i] = new byte[]{(byte) min, (byte) max};
+        }
+        return result;
+    }
+
+    /**
+     * Parses a number between provided minimum value and the maximum PAN
+     * length.
+     *
+     * @param value    value to be parsed.
+     * @param minValue minimum allowed value.
+     * @return parsed number.
+     * @throws IllegalArgumentException if number is not valid.
+     */
+    private static int parseNumber(final String value, final int minValue) {
+        final int result = Integer.parseInt(value.trim());
+        if (result < minValue || result > CreditCardValidator.MAX_LENGTH) {
+            throw new IllegalArgumentException(value);
+        }
+        return result;
+    }
+}
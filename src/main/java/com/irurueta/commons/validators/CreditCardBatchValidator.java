@@ -0,0 +1,444 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons.validators;
+
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+
+/**
+ * Validates large amounts of credit card PANs at once.
+ * PANs can be provided as arrays of char sequences, as ASCII records packed
+ * into a single array or buffer, or as numbers. Validation results are written
+ * into caller provided arrays or bit sets, and a single {@link PanAnalysis} is
+ * reused for all records, so that no memory is allocated per record.
+ * Validation is equivalent to {@link CreditCardValidator#isValid(CharSequence)}.
+ */
+public class CreditCardBatchValidator {
+
+    /**
+     * Powers of 10 that can be represented with a long.
+     */
+    private static final long[] POW10 = new long[]{
+            1L,
+            10L,
+            100L,
+            1000L,
+            10000L,
+            100000L,
+            1000000L,
+            10000000L,
+            100000000L,
+            1000000000L,
+            10000000000L,
+            100000000000L,
+            1000000000000L,
+            10000000000000L,
+            100000000000000L,
+            1000000000000000L,
+            10000000000000000L,
+            100000000000000000L,
+            1000000000000000000L
+    };
+
+    /**
+     * Constructor.
+     */
+    protected CreditCardBatchValidator() {
+    }
+
+    /**
+     * Validates provided PANs.
+     *
+     * @param pans     PANs to be validated. Null elements are treated as empty
+     *                 PANs.
+     * @param valid    array where position i will be set to true if PAN i is
+     *                 valid. Must have at least the same length as pans.
+     * @param networks array where detected network of each PAN will be stored
+     *                 or null if networks are not needed.
+     * @return number of valid PANs.
+     * @throws IllegalArgumentException if any array is null (except networks)
+     *                                  or result arrays are too short.
+     */
+    public static int validate(final CharSequence[] pans, final boolean[] valid,
+                               final CreditCardNetwork[] networks) {
+        if (valid == null) {
+            throw new IllegalArgumentException();
+        }
+        return validate(pans, valid, null, networks);
+    }
+
+    /**
+     * Validates provided PANs.
+     *
+     * @param pans     PANs to be validated. Null elements are treated as empty
+     *                 PANs.
+     * @param valid    bit set where bit i will be set if PAN i is valid and
+     *                 cleared otherwise.
+     * @param networks array where detected network of each PAN will be stored
+     *                 or null if networks are not needed.
+     * @return number of valid PANs.
+     * @throws IllegalArgumentException if pans or valid are null or networks
+     *                                  array is too short.
+     */
+    public static int validate(final CharSequence[] pans, final BitSet valid,
+                               final CreditCardNetwork[] networks) {
+        if (valid == null) {
+            throw new IllegalArgumentException();
+        }
+        return validate(pans, null, valid, networks);
+    }
+
+    /**
+     * Validates PANs stored as ASCII records packed into provided array.
+     * Record i spans from position offsets[i] (inclusive) to offsets[i + 1]
+     * (exclusive), hence the number of records is offsets.length - 1.
+     * Any non digit character within a record (i.e. separators or line
+     * terminators) is ignored.
+     *
+     * @param records  array containing ASCII records.
+     * @param offsets  positions where each record starts, followed by the
+     *                 position where the last record ends.
+     * @param valid    array where position i will be set to true if record i
+     *                 is valid. Must have at least as many elements as records.
+     * @param networks array where detected network of each record will be
+     *                 stored or null if networks are not needed.
+     * @return number of valid records.
+     * @throws IllegalArgumentException  if any array is null (except networks)
+     *                                   or result arrays are too short.
+     * @throws IndexOutOfBoundsException if offsets are out of bounds or not
+     *                                   sorted.
+     */
+    public static int validate(final byte[] records, final int[] offsets,
+                               final boolean[] valid, final CreditCardNetwork[] networks) {
+        if (valid == null) {
+            throw new IllegalArgumentException();
+        }
+        return validate(records, offsets, valid, null, networks);
+    }
+
+    /**
+     * Validates PANs stored as ASCII records packed into provided array.
+     * Record i spans from position offsets[i] (inclusive) to offsets[i + 1]
+     * (exclusive), hence the number of records is offsets.length - 1.
+     * Any non digit character within a record (i.e. separators or line
+     * terminators) is ignored.
+     *
+     * @param records  array containing ASCII records.
+     * @param offsets  positions where each record starts, followed by the
+     *                 position where the last record ends.
+     * @param valid    bit set where bit i will be set if record i is valid and
+     *                 cleared otherwise.
+     * @param networks array where detected network of each record will be
+     *                 stored or null if networks are not needed.
+     * @return number of valid records.
+     * @throws IllegalArgumentException  if any parameter is null (except
+     *                                   networks) or networks array is too
+     *                                   short.
+     * @throws IndexOutOfBoundsException if offsets are out of bounds or not
+     *                                   sorted.
+     */
+    public static int validate(final byte[] records, final int[] offsets,
+                               final BitSet valid, final CreditCardNetwork[] networks) {
+        if (valid == null) {
+            throw new IllegalArgumentException();
+        }
+        return validate(records, offsets, null, valid, networks);
+    }
+
+    /**
+     * Validates PANs stored as ASCII records packed into provided buffer.
+     * Record i spans from absolute position offsets[i] (inclusive) to
+     * offsets[i + 1] (exclusive), hence the number of records is
+     * offsets.length - 1. Position and limit of buffer are not modified.
+     * Any non digit character within a record (i.e. separators or line
+     * terminators) is ignored.
+     *
+     * @param records  buffer containing ASCII records.
+     * @param offsets  positions where each record starts, followed by the
+     *                 position where the last record ends.
+     * @param valid    array where position i will be set to true if record i
+     *                 is valid. Must have at least as many elements as records.
+     * @param networks array where detected network of each record will be
+     *                 stored or null if networks are not needed.
+     * @return number of valid records.
+     * @throws IllegalArgumentException  if any parameter is null (except
+     *                                   networks) or result arrays are too
+     *                                   short.
+     * @throws IndexOutOfBoundsException if offsets are out of bounds or not
+     *                                   sorted.
+     */
+    public static int validate(final ByteBuffer records, final int[] offsets,
+                               final boolean[] valid, final CreditCardNetwork[] networks) {
+        if (valid == null) {
+            throw new IllegalArgumentException();
+        }
+        return validate(records, offsets, valid, null, networks);
+    }
+
+    /**
+     * Validates PANs stored as ASCII records packed into provided buffer.
+     * Record i spans from absolute position offsets[i] (inclusive) to
+     * offsets[i + 1] (exclusive), hence the number of records is
+     * offsets.length - 1. Position and limit of buffer are not modified.
+     * Any non digit character within a record (i.e. separators or line
+     * terminators) is ignored.
+     *
+     * @param records  buffer containing ASCII records.
+     * @param offsets  positions where each record starts, followed by the
+     *                 position where the last record ends.
+     * @param valid    bit set where bit i will be set if record i is valid and
+     *                 cleared otherwise.
+     * @param networks array where detected network of each record will be
+     *                 stored or null if networks are not needed.
+     * @return number of valid records.
+     * @throws IllegalArgumentException  if any parameter is null (except
+     *                                   networks) or networks array is too
+     *                                   short.
+     * @throws IndexOutOfBoundsException if offsets are out of bounds or not
+     *                                   sorted.
+     */
+    public static int validate(final ByteBuffer records, final int[] offsets,
+                               final BitSet valid, final CreditCardNetwork[] networks) {
+        if (valid == null) {
+            throw new IllegalArgumentException();
+        }
+        return validate(records, offsets, null, valid, networks);
+    }
+
+    /**
+     * Validates PANs represented as numbers.
+     * Notice that PANs starting with zero or having 19 digits and being
+     * greater than {@link Long#MAX_VALUE} cannot be represented this way.
+     * Zero or negative values are treated as empty PANs.
+     *
+     * @param pans     PANs to be validated.
+     * @param valid    array where position i will be set to true if PAN i is
+     *                 valid. Must have at least the same length as pans.
+     * @param networks array where detected network of each PAN will be stored
+     *                 or null if networks are not needed.
+     * @return number of valid PANs.
+     * @throws IllegalArgumentException if any array is null (except networks)
+     *                                  or result arrays are too short.
+     */
+    public static int validate(final long[] pans, final boolean[] valid,
+                               final CreditCardNetwork[] networks) {
+        if (valid == null) {
+            throw new IllegalArgumentException();
+        }
+        return validate(pans, valid, null, networks);
+    }
+
+    /**
+     * Validates PANs represented as numbers.
+     * Notice that PANs starting with zero or having 19 digits and being
+     * greater than {@link Long#MAX_VALUE} cannot be represented this way.
+     * Zero or negative values are treated as empty PANs.
+     *
+     * @param pans     PANs to be validated.
+     * @param valid    bit set where bit i will be set if PAN i is valid and
+     *                 cleared otherwise.
+     * @param networks array where detected network of each PAN will be stored
+     *                 or null if networks are not needed.
+     * @return number of valid PANs.
+     * @throws IllegalArgumentException if pans or valid are null or networks
+     *                                  array is too short.
+     */
+    public static int validate(final long[] pans, final BitSet valid,
+                               final CreditCardNetwork[] networks) {
+        if (valid == null) {
+            throw new IllegalArgumentException();
+        }
+        return validate(pans, null, valid, networks);
+    }
+
+    /**
+     * Internal method to validate PANs stored in an array of char sequences.
+     *
+     * @param pans     PANs to be validated.
+     * @param valid    array where validity is stored or null.
+     * @param validSet bit set where validity is stored or null.
+     * @param networks array where networks are stored or null.
+     * @return number of valid PANs.
+     * @throws IllegalArgumentException if pans is null or result arrays are
+     *                                  too short.
+     */
+    private static int validate(final CharSequence[] pans, final boolean[] valid,
+                                final BitSet validSet, final CreditCardNetwork[] networks) {
+        if (pans == null) {
+            throw new IllegalArgumentException();
+        }
+        final int numRecords = pans.length;
+        checkResultLengths(numRecords, valid, networks);
+
+        final PanAnalysis analysis = new PanAnalysis();
+        int numValid = 0;
+        for (int i = 0; i < numRecords; i++) {
+            CreditCardValidator.analyze(pans[i], analysis);
+            numValid += store(i, analysis, valid, validSet, networks);
+        }
+        return numValid;
+    }
+
+    /**
+     * Internal method to validate ASCII records packed into an array.
+     *
+     * @param records  array containing ASCII records.
+     * @param offsets  positions where each record starts, followed by the
+     *                 position where the last record ends.
+     * @param valid    array where validity is stored or null.
+     * @param validSet bit set where validity is stored or null.
+     * @param networks array where networks are stored or null.
+     * @return number of valid records.
+     * @throws IllegalArgumentException  if records or offsets are null or
+     *                                   result arrays are too short.
+     * @throws IndexOutOfBoundsException if offsets are out of bounds or not
+     *                                   sorted.
+     */
+    private static int validate(final byte[] records, final int[] offsets,
+                                final boolean[] valid, final BitSet validSet,
+                                final CreditCardNetwork[] networks) {
+        if (records == null || offsets == null) {
+            throw new IllegalArgumentException();
+        }
+        final int numRecords = Math.max(0, offsets.length - 1);
+        checkResultLengths(numRecords, valid, networks);
+
+        final PanAnalysis analysis = new PanAnalysis();
+        int numValid = 0;
+        for (int i = 0; i < numRecords; i++) {
+            CreditCardValidator.analyze(records, offsets[i],
+                    offsets[i + 1] - offsets[i], analysis);
+            numValid += store(i, analysis, valid, validSet, networks);
+        }
+        return numValid;
+    }
+
+    /**
+     * Internal method to validate ASCII records packed into a buffer.
+     *
+     * @param records  buffer containing ASCII records.
+     * @param offsets  positions where each record starts, followed by the
+     *                 position where the last record ends.
+     * @param valid    array where validity is stored or null.
+     * @param validSet bit set where validity is stored or null.
+     * @param networks array where networks are stored or null.
+     * @return number of valid records.
+     * @throws IllegalArgumentException  if records or offsets are null or
+     *                                   result arrays are too short.
+     * @throws IndexOutOfBoundsException if offsets are out of bounds or not
+     *                                   sorted.
+     */
+    private static int validate(final ByteBuffer records, final int[] offsets,
+                                final boolean[] valid, final BitSet validSet,
+                                final CreditCardNetwork[] networks) {
+        if (records == null || offsets == null) {
+            throw new IllegalArgumentException();
+        }
+        final int numRecords = Math.max(0, offsets.length - 1);
+        checkResultLengths(numRecords, valid, networks);
+
+        final PanAnalysis analysis = new PanAnalysis();
+        int numValid = 0;
+        for (int i = 0; i < numRecords; i++) {
+            CreditCardValidator.analyze(records, offsets[i],
+                    offsets[i + 1] - offsets[i], analysis);
+            numValid += store(i, analysis, valid, validSet, networks);
+        }
+        return numValid;
+    }
+
+    /**
+     * Internal method to validate PANs represented as numbers.
+     *
+     * @param pans     PANs to be validated.
+     * @param valid    array where validity is stored or null.
+     * @param validSet bit set where validity is stored or null.
+     * @param networks array where networks are stored or null.
+     * @return number of valid PANs.
+     * @throws IllegalArgumentException if pans is null or result arrays are
+     *                                  too short.
+     */
+    private static int validate(final long[] pans, final boolean[] valid,
+                                final BitSet validSet, final CreditCardNetwork[] networks) {
+        if (pans == null) {
+            throw new IllegalArgumentException();
+        }
+        final int numRecords = pans.length;
+        checkResultLengths(numRecords, valid, networks);
+
+        final PanAnalysis analysis = new PanAnalysis();
+        int numValid = 0;
+        for (int i = 0; i < numRecords; i++) {
+            final long pan = pans[i];
+            analysis.reset();
+            if (pan > 0) {
+                // find most significant digit and append digits from left to
+                // right
+                int pos = POW10.length - 1;
+                while (POW10[pos] > pan) {
+                    pos--;
+                }
+                for (; pos >= 0; pos--) {
+                    analysis.appendDigit((int) (pan / POW10[pos] % 10));
+                }
+            }
+            analysis.finish();
+            numValid += store(i, analysis, valid, validSet, networks);
+        }
+        return numValid;
+    }
+
+    /**
+     * Checks that result arrays are large enough.
+     *
+     * @param numRecords number of records to be validated.
+     * @param valid      array where validity is stored or null.
+     * @param networks   array where networks are stored or null.
+     * @throws IllegalArgumentException if any array is too short.
+     */
+    private static void checkResultLengths(final int numRecords, final boolean[] valid,
+                                           final CreditCardNetwork[] networks) {
+        if ((valid != null && valid.length < numRecords) ||
+                (networks != null && networks.length < numRecords)) {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    /**
+     * Stores result of an analysis.
+     *
+     * @param pos      position of analyzed record.
+     * @param analysis analysis of record.
+     * @param valid    array where validity is stored or null.
+     * @param validSet bit set where validity is stored or null.
+     * @param networks array where networks are stored or null.
+     * @return 1 if record is valid, 0 otherwise.
+     */
+    private static int store(final int pos, final PanAnalysis analysis,
+                             final boolean[] valid, final BitSet validSet,
+                             final CreditCardNetwork[] networks) {
+        final boolean isValid = analysis.isValid();
+        if (valid != null) {
+            valid[pos] = isValid;
+        } else {
+            validSet.set(pos, isValid);
+        }
+        if (networks != null) {
+            networks[pos] = analysis.getNetwork();
+        }
+        return isValid ? 1 : 0;
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.irurueta.commons.validators;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
@@ -25,6 +26,9 @@ import java.util.Arrays;
  * to a MII (Major Industry Identifier).
  * This class also provides functionality to detect network of a given credit
  * card PAN number.
+ * IIN ranges, valid lengths and any other network definition used by this
+ * class, including the ones of per-network methods, are obtained from current
+ * {@link CardNetworkRegistry}.
  * Notice that network detection and validation is not 100% accurate, hence it
  * is suggested to never prevent users from completing payments if validation
  * does not pass or network cannot be detected. In those cases simply a warning
@@ -46,545 +50,316 @@ public class CreditCardValidator {
     /**
      * Constant indicating whether American Express uses Luhn validation to
      * ensure that PAN is valid.
+     * Value is obtained from the built-in {@link CardNetworkRegistry}.
      */
-    protected static final boolean AMEX_HAS_VALIDATION = true;
+    protected static final boolean AMEX_HAS_VALIDATION =
+            CardNetworkRegistry.getBuiltIn().isValidationEnabled(
+                    CreditCardNetwork.AMERICAN_EXPRESS);
 
     /**
      * Constant indicating whether American Express network is still being used.
+     * Value is obtained from the built-in {@link CardNetworkRegistry}.
      */
-    protected static final boolean AMEX_IS_ACTIVE = true;
+    protected static final boolean AMEX_IS_ACTIVE =
+            CardNetworkRegistry.getBuiltIn().isActive(
+                    CreditCardNetwork.AMERICAN_EXPRESS);
 
     /**
      * Constant indicating whether Bankcard uses Luhn validation to ensure that
      * PAN is valid.
+     * Value is obtained from the built-in {@link CardNetworkRegistry}.
      */
-    protected static final boolean BANKCARD_HAS_VALIDATION = true;
+    protected static final boolean BANKCARD_HAS_VALIDATION =
+            CardNetworkRegistry.getBuiltIn().isValidationEnabled(
+                    CreditCardNetwork.BANKCARD);
 
     /**
      * Constant indicating whether Bankcard network is still being used.
+     * Value is obtained from the built-in {@link CardNetworkRegistry}.
      */
-    protected static final boolean BANKCARD_IS_ACTIVE = false;
+    protected static final boolean BANKCARD_IS_ACTIVE =
+            CardNetworkRegistry.getBuiltIn().isActive(
+                    CreditCardNetwork.BANKCARD);
 
     /**
      * Constant indicating whether China UnionPay uses Luhn validation to ensure
      * that PAN is valid.
+     * Value is obtained from the built-in {@link CardNetworkRegistry}.
      */
-    protected static final boolean CHINA_UNIONPAY_HAS_VALIDATION = false;
+    protected static final boolean CHINA_UNIONPAY_HAS_VALIDATION =
+            CardNetworkRegistry.getBuiltIn().isValidationEnabled(
+                    CreditCardNetwork.CHINA_UNIONPAY);
 
     /**
      * Constant indicating whether China UnionPay network is still being used.
+     * Value is obtained from the built-in {@link CardNetworkRegistry}.
      */
-    protected static final boolean CHINA_UNIONPAY_IS_ACTIVE = true;
+    protected static final boolean CHINA_UNIONPAY_IS_ACTIVE =
+            CardNetworkRegistry.getBuiltIn().isActive(
+                    CreditCardNetwork.CHINA_UNIONPAY);
 
     /**
      * Constant indicating whether Diners Club Carte Blanche uses Luhn
      * validation to ensure that PAN is valid.
+     * Value is obtained from the built-in {@link CardNetworkRegistry}.
      */
     protected static final boolean DINERS_CLUB_CARTE_BLANCHE_HAS_VALIDATION =
-            true;
+            CardNetworkRegistry.getBuiltIn().isValidationEnabled(
+                    CreditCardNetwork.DINERS_CLUB_CARTE_BLANCHE);
 
     /**
      * Constant indicating whether Diners Club Carte Blanche network is still
      * being used.
+     * Value is obtained from the built-in {@link CardNetworkRegistry}.
      */
-    protected static final boolean DINERS_CLUB_CARTE_BLANCHE_IS_ACTIVE = true;
+    protected static final boolean DINERS_CLUB_CARTE_BLANCHE_IS_ACTIVE =
+            CardNetworkRegistry.getBuiltIn().isActive(
+                    CreditCardNetwork.DINERS_CLUB_CARTE_BLANCHE);
 
     /**
      * Constant indicating whether Diners Club enRoute uses Luhn validation to
      * ensure that PAN is valid.
+     * Value is obtained from the built-in {@link CardNetworkRegistry}.
      */
-    protected static final boolean DINERS_CLUB_ENROUTE_HAS_VALIDATION = false;
+    protected static final boolean DINERS_CLUB_ENROUTE_HAS_VALIDATION =
+            CardNetworkRegistry.getBuiltIn().isValidationEnabled(
+                    CreditCardNetwork.DINERS_CLUB_ENROUTE);
 
     /**
      * Constant indicating whether Diners Club enRoute network is still being
      * used.
+     * Value is obtained from the built-in {@link CardNetworkRegistry}.
      */
-    protected static final boolean DINERS_CLUB_ENROUTE_IS_ACTIVE = false;
+    protected static final boolean DINERS_CLUB_ENROUTE_IS_ACTIVE =
+            CardNetworkRegistry.getBuiltIn().isActive(
+                    CreditCardNetwork.DINERS_CLUB_ENROUTE);
 
     /**
      * Constant indicating whether Diners Club International uses Luhn
      * validation to ensure that PAN is valid.
+     * Value is obtained from the built-in {@link CardNetworkRegistry}.
      */
     protected static final boolean DINERS_CLUB_INTERATIONAL_HAS_VALIDATION =
-            true;
+            CardNetworkRegistry.getBuiltIn().isValidationEnabled(
+                    CreditCardNetwork.DINERS_CLUB_INTERNATIONAL);
 
     /**
      * Constant indicating whether Diners Club International network is still
      * being used.
+     * Value is obtained from the built-in {@link CardNetworkRegistry}.
      */
-    protected static final boolean DINERS_CLUB_INTERATIONAL_IS_ACTIVE = true;
+    protected static final boolean DINERS_CLUB_INTERATIONAL_IS_ACTIVE =
+            CardNetworkRegistry.getBuiltIn().isActive(
+                    CreditCardNetwork.DINERS_CLUB_INTERNATIONAL);
 
     /**
      * Constant indicating whether Diners Club USA and Canada uses Luhn
      * validation to ensure that PAN is valid.
+     * Value is obtained from the built-in {@link CardNetworkRegistry}.
      */
-    protected static final boolean DINERS_CLUB_USA_CA_HAS_VALIDATION = true;
+    protected static final boolean DINERS_CLUB_USA_CA_HAS_VALIDATION =
+            CardNetworkRegistry.getBuiltIn().isValidationEnabled(
+                    CreditCardNetwork.DINERS_CLUB_USA_CANADA);
 
     /**
      * Constant indicating whether Diners Club USA and Canada network is still
      * being used.
+     * Value is obtained from the built-in {@link CardNetworkRegistry}.
      */
-    protected static final boolean DINERS_CLUB_USA_CA_IS_ACTIVE = true;
+    protected static final boolean DINERS_CLUB_USA_CA_IS_ACTIVE =
+            CardNetworkRegistry.getBuiltIn().isActive(
+                    CreditCardNetwork.DINERS_CLUB_USA_CANADA);
 
     /**
      * Constant indicating whether Discover uses Luhn validation to ensure that
      * PAN is valid.
+     * Value is obtained from the built-in {@link CardNetworkRegistry}.
      */
-    protected static final boolean DISCOVER_HAS_VALIDATION = true;
+    protected static final boolean DISCOVER_HAS_VALIDATION =
+            CardNetworkRegistry.getBuiltIn().isValidationEnabled(
+                    CreditCardNetwork.DISCOVER);
 
     /**
      * Constant indicating whether Discover network is still being used.
+     * Value is obtained from the built-in {@link CardNetworkRegistry}.
      */
-    protected static final boolean DISCOVER_IS_ACTIVE = true;
+    protected static final boolean DISCOVER_IS_ACTIVE =
+            CardNetworkRegistry.getBuiltIn().isActive(
+                    CreditCardNetwork.DISCOVER);
 
     /**
      * Constant indicating whether InstaPayment uses Luhn validation to ensure
      * that PAN is valid.
+     * Value is obtained from the built-in {@link CardNetworkRegistry}.
      */
-    protected static final boolean INSTAPAYMENT_HAS_VALIDATION = true;
+    protected static final boolean INSTAPAYMENT_HAS_VALIDATION =
+            CardNetworkRegistry.getBuiltIn().isValidationEnabled(
+                    CreditCardNetwork.INSTAPAYMENT);
 
     /**
      * Constant indicating whether InstaPayment network is still being used.
+     * Value is obtained from the built-in {@link CardNetworkRegistry}.
      */
-    protected static final boolean INSTAPAYMENT_IS_ACTIVE = true;
+    protected static final boolean INSTAPAYMENT_IS_ACTIVE =
+            CardNetworkRegistry.getBuiltIn().isActive(
+                    CreditCardNetwork.INSTAPAYMENT);
 
     /**
      * Constant indicating whether JCB uses Luhn validation to ensure that PAN
      * is valid.
+     * Value is obtained from the built-in {@link CardNetworkRegistry}.
      */
-    protected static final boolean JCB_HAS_VALIDATION = true;
+    protected static final boolean JCB_HAS_VALIDATION =
+            CardNetworkRegistry.getBuiltIn().isValidationEnabled(
+                    CreditCardNetwork.JCB);
 
     /**
      * Constant indicating whether JCB network is still being used.
+     * Value is obtained from the built-in {@link CardNetworkRegistry}.
      */
-    protected static final boolean JCB_IS_ACTIVE = true;
+    protected static final boolean JCB_IS_ACTIVE =
+            CardNetworkRegistry.getBuiltIn().isActive(
+                    CreditCardNetwork.JCB);
 
     /**
      * Constant indicating whether Laser uses Luhn validation to ensure that PAN
      * is valid.
+     * Value is obtained from the built-in {@link CardNetworkRegistry}.
      */
-    protected static final boolean LASER_HAS_VALIDATION = true;
+    protected static final boolean LASER_HAS_VALIDATION =
+            CardNetworkRegistry.getBuiltIn().isValidationEnabled(
+                    CreditCardNetwork.LASER);
 
     /**
      * Constant indicating whether Laser network is still being used.
+     * Value is obtained from the built-in {@link CardNetworkRegistry}.
      */
-    protected static final boolean LASER_IS_ACTIVE = true;
+    protected static final boolean LASER_IS_ACTIVE =
+            CardNetworkRegistry.getBuiltIn().isActive(
+                    CreditCardNetwork.LASER);
 
     /**
      * Constant indicating whether Maestro uses Luhn validation to ensure
      * that PAN is valid.
+     * Value is obtained from the built-in {@link CardNetworkRegistry}.
      */
-    protected static final boolean MAESTRO_HAS_VALIDATION = true;
+    protected static final boolean MAESTRO_HAS_VALIDATION =
+            CardNetworkRegistry.getBuiltIn().isValidationEnabled(
+                    CreditCardNetwork.MAESTRO);
 
     /**
      * Constant indicating whether Maestro network is still being used.
+     * Value is obtained from the built-in {@link CardNetworkRegistry}.
      */
-    protected static final boolean MAESTRO_IS_ACTIVE = true;
+    protected static final boolean MAESTRO_IS_ACTIVE =
+            CardNetworkRegistry.getBuiltIn().isActive(
+                    CreditCardNetwork.MAESTRO);
 
     /**
      * Constant indicating whether MasterCard uses Luhn validation to ensure
      * that PAN is valid.
+     * Value is obtained from the built-in {@link CardNetworkRegistry}.
      */
-    protected static final boolean MASTERCARD_HAS_VALIDATION = true;
+    protected static final boolean MASTERCARD_HAS_VALIDATION =
+            CardNetworkRegistry.getBuiltIn().isValidationEnabled(
+                    CreditCardNetwork.MASTERCARD);
 
     /**
      * Constant indicating whether MasterCard network is still being used.
+     * Value is obtained from the built-in {@link CardNetworkRegistry}.
      */
-    protected static final boolean MASTERCARD_IS_ACTIVE = true;
+    protected static final boolean MASTERCARD_IS_ACTIVE =
+            CardNetworkRegistry.getBuiltIn().isActive(
+                    CreditCardNetwork.MASTERCARD);
 
     /**
      * Constant indicating whether Solo uses Luhn validation to ensure
      * that PAN is valid.
+     * Value is obtained from the built-in {@link CardNetworkRegistry}.
      */
-    protected static final boolean SOLO_HAS_VALIDATION = true;
+    protected static final boolean SOLO_HAS_VALIDATION =
+            CardNetworkRegistry.getBuiltIn().isValidationEnabled(
+                    CreditCardNetwork.SOLO);
 
     /**
      * Constant indicating whether Solo network is still being used.
+     * Value is obtained from the built-in {@link CardNetworkRegistry}.
      */
-    protected static final boolean SOLO_IS_ACTIVE = false;
+    protected static final boolean SOLO_IS_ACTIVE =
+            CardNetworkRegistry.getBuiltIn().isActive(
+                    CreditCardNetwork.SOLO);
 
     /**
      * Constant indicating whether Switch uses Luhn validation to ensure
      * that PAN is valid.
+     * Value is obtained from the built-in {@link CardNetworkRegistry}.
      */
-    protected static final boolean SWITCH_HAS_VALIDATION = true;
+    protected static final boolean SWITCH_HAS_VALIDATION =
+            CardNetworkRegistry.getBuiltIn().isValidationEnabled(
+                    CreditCardNetwork.SWITCH);
 
     /**
      * Constant indicating whether Switch network is still being used.
+     * Value is obtained from the built-in {@link CardNetworkRegistry}.
      */
-    protected static final boolean SWITCH_IS_ACTIVE = false;
+    protected static final boolean SWITCH_IS_ACTIVE =
+            CardNetworkRegistry.getBuiltIn().isActive(
+                    CreditCardNetwork.SWITCH);
 
     /**
      * Constant indicating whether VISA uses Luhn validation to ensure
      * that PAN is valid.
+     * Value is obtained from the built-in {@link CardNetworkRegistry}.
      */
-    protected static final boolean VISA_HAS_VALIDATION = true;
+    protected static final boolean VISA_HAS_VALIDATION =
+            CardNetworkRegistry.getBuiltIn().isValidationEnabled(
+                    CreditCardNetwork.VISA);
 
     /**
      * Constant indicating whether VISA network is still being used.
+     * Value is obtained from the built-in {@link CardNetworkRegistry}.
      */
-    protected static final boolean VISA_IS_ACTIVE = true;
+    protected static final boolean VISA_IS_ACTIVE =
+            CardNetworkRegistry.getBuiltIn().isActive(
+                    CreditCardNetwork.VISA);
 
     /**
      * Constant indicating whether VISA Electron uses Luhn validation to
      * ensure that PAN is valid.
+     * Value is obtained from the built-in {@link CardNetworkRegistry}.
      */
-    protected static final boolean VISA_ELECTRON_HAS_VALIDATION = true;
+    protected static final boolean VISA_ELECTRON_HAS_VALIDATION =
+            CardNetworkRegistry.getBuiltIn().isValidationEnabled(
+                    CreditCardNetwork.VISA_ELECTRON);
 
     /**
      * Constant indicating whether VISA Electron network is still being used.
+     * Value is obtained from the built-in {@link CardNetworkRegistry}.
      */
-    protected static final boolean VISA_ELECTRON_IS_ACTIVE = true;
+    protected static final boolean VISA_ELECTRON_IS_ACTIVE =
+            CardNetworkRegistry.getBuiltIn().isActive(
+                    CreditCardNetwork.VISA_ELECTRON);
 
     /**
-     * Constant containing IIN ranges reserved for American Express.
+     * Sum of digits of each digit multiplied by two, as used by Luhn
+     * algorithm, indexed by digit.
      */
-    private static final String[][] AMEX_IIN = new String[][]{
-            new String[]{"34", "34"},
-            new String[]{"37", "37"}
+    private static final byte[] LUHN_DOUBLED_DIGITS = new byte[]{
+            0, 2, 4, 6, 8, 1, 3, 5, 7, 9
     };
 
     /**
-     * Constant containing valid lengths for American Express.
+     * Luhn contribution of each pair of consecutive digits, where the first
+     * digit (tens) is doubled and the second one (units) is not, indexed by
+     * the value of the pair between 0 and 99.
      */
-    private static final byte[][] AMEX_LENGTH = new byte[][]{
-            new byte[]{15, 15}
-    };
-
-    /**
-     * Constant defining digit groups for American Express.
-     */
-    private static final byte[][] AMEX_GROUPING = new byte[][]{
-            new byte[]{4, 4},
-            new byte[]{6, 6},
-            new byte[]{5, 5}
-    };
-
-    /**
-     * Constant containing IIN ranges reserved for Bankcard.
-     */
-    private static final String[][] BANKCARD_IIN = new String[][]{
-            new String[]{"5610", "5610"},
-            new String[]{"560221", "560225"}
-    };
-
-    /**
-     * Constant containing valid lengths for Bankcard.
-     */
-    private static final byte[][] BANKCARD_LENGTH = new byte[][]{
-            new byte[]{16, 16}
-    };
-
-    /**
-     * Constant containing IIN ranges reserved for China UnionPay.
-     */
-    private static final String[][] CHINA_UNIONPAY_IIN = new String[][]{
-            new String[]{"62", "62"}
-    };
-
-    /**
-     * Constant containing valid lengths for China UnionPay.
-     */
-    private static final byte[][] CHINA_UNIONPAY_LENGTH = new byte[][]{
-            new byte[]{16, 19}
-    };
-
-    /**
-     * Constant containing IIN ranges reserved for Diners Club Carte Blanche.
-     */
-    private static final String[][] DINERS_CLUB_CARTE_BLANCHE_IIN = new String[][]{
-            new String[]{"300", "305"}
-    };
-
-    /**
-     * Constant containing valid lengths for Diners Club Carte Blanche.
-     */
-    private static final byte[][] DINERS_CLUB_CARTE_BLANCHE_LENGTH = new byte[][]{
-            new byte[]{14, 14}
-    };
-
-    /**
-     * Constant containing IIN ranges reserved for Diners Club enRoute.
-     */
-    private static final String[][] DINERS_CLUB_ENROUTE_IIN = new String[][]{
-            new String[]{"2014", "2014"},
-            new String[]{"2149", "2149"}
-    };
-
-    /**
-     * Constant containing valid lengths for Diners Club enRoute.
-     */
-    private static final byte[][] DINERS_CLUB_ENROUTE_LENGTH = new byte[][]{
-            new byte[]{15, 15}
-    };
-
-    /**
-     * Constant defining digit groups for Dinners club enroute.
-     */
-    private static final byte[][] DINERS_CLUB_ENROUTE_GROUPING = new byte[][]{
-            new byte[]{4, 4},
-            new byte[]{7, 7},
-            new byte[]{4, 4}
-    };
-
-    /**
-     * Constant containing IIN ranges reserved for Diners Club International.
-     */
-    private static final String[][] DINERS_CLUB_INTERNATIONAL_IIN = new String[][]{
-            new String[]{"36", "36"}
-    };
-
-    /**
-     * Constant containing valid lengths for Diners Club International.
-     */
-    private static final byte[][] DINERS_CLUB_INTERNATIONAL_LENGTH = new byte[][]{
-            new byte[]{14, 14}
-    };
-
-    /**
-     * Constant defining digit groups for Dinners club internacional. This
-     * grouping is also used for DINERS_CLUB_CARTE_BLANCHE.
-     */
-    private static final byte[][] DINERS_CLUB_INTERATIONAL_GROUPING = new byte[][]{
-            new byte[]{4, 4},
-            new byte[]{6, 6},
-            new byte[]{4, 4}};
-
-    /**
-     * Constant containing IIN ranges reserved for Diners Club USA and Canada.
-     */
-    private static final String[][] DINERS_CLUB_USA_CA_IIN = new String[][]{
-            new String[]{"54", "55"}
-    };
-
-    /**
-     * Constant containing valid lengths for Diners Club USA and Canada.
-     */
-    private static final byte[][] DINERS_CLUB_USA_CA_LENGTH = new byte[][]{
-            new byte[]{16, 16}
-    };
-
-    /**
-     * Constant containing IIN ranges reserved for Discover.
-     */
-    private static final String[][] DISCOVER_IIN = new String[][]{
-            new String[]{"6011", "6011"},
-            new String[]{"622126", "62295"},
-            new String[]{"644", "649"},
-            new String[]{"65", "65"}
-    };
-
-    /**
-     * Constant containing valid lengths for Discover.
-     */
-    private static final byte[][] DISCOVER_LENGTH = new byte[][]{
-            new byte[]{16, 16}
-    };
-
-    /**
-     * Constant defining digit groups for Discover. This grouping is also used
-     * for all Diners Club cards.
-     */
-    private static final byte[][] DISCOVER_GROUPING = new byte[][]{
-            new byte[]{4, 4},
-            new byte[]{4, 4},
-            new byte[]{4, 4},
-            new byte[]{4, 4}
-    };
-
-    /**
-     * Constant containing IIN ranges reserved for InstaPayment.
-     */
-    private static final String[][] INSTAPAYMENT_IIN = new String[][]{
-            new String[]{"637", "639"}
-    };
+    private static final byte[] LUHN_PAIRS = new byte[100];
 
-    /**
-     * Constant containing valid lengths for InstaPayment.
-     */
-    private static final byte[][] INSTAPAYMENT_LENGTH = new byte[][]{
-            new byte[]{16, 16}
-    };
-
-    /**
-     * Constant containing IIN ranges reserved for JCB.
-     */
-    private static final String[][] JCB_IIN = new String[][]{
-            new String[]{"3528", "3589"}
-    };
-
-    /**
-     * Constant containing valid lengths for JCB.
-     */
-    private static final byte[][] JCB_LENGTH = new byte[][]{
-            new byte[]{16, 16}
-    };
-
-    /**
-     * Constant containing IIN ranges reserved for Laser.
-     */
-    private static final String[][] LASER_IIN = new String[][]{
-            new String[]{"6304", "6304"},
-            new String[]{"6706", "6706"},
-            new String[]{"6771", "6771"},
-            new String[]{"6709", "6709"}
-    };
-
-    /**
-     * Constant containing valid lengths for Laser.
-     */
-    private static final byte[][] LASER_LENGTH = new byte[][]{
-            new byte[]{16, 19}
-    };
-
-    /**
-     * Constant containing IIN ranges reserved for Maestro.
-     */
-    private static final String[][] MAESTRO_IIN = new String[][]{
-            new String[]{"5018", "5018"},
-            new String[]{"5020", "5020"},
-            new String[]{"5038", "5038"},
-            new String[]{"5893", "5893"},
-            new String[]{"6304", "6304"},
-            new String[]{"6759", "6759"},
-            new String[]{"6761", "6763"},
-            new String[]{"0604", "0604"}
-    };
-
-    /**
-     * Constant containing valid lengths for Maestro.
-     */
-    private static final byte[][] MAESTRO_LENGTH = new byte[][]{
-            new byte[]{12, 19}
-    };
-
-    /**
-     * Constant containing IIN ranges reserved for MasterCard.
-     */
-    private static final String[][] MASTERCARD_IIN = new String[][]{
-            new String[]{"222100", "272099"},
-            new String[]{"51", "55"}
-    };
-
-    /**
-     * Constant containing valid lengths for MasterCard.
-     */
-    private static final byte[][] MASTERCARD_LENGTH = new byte[][]{
-            new byte[]{16, 16}
-    };
-
-    /**
-     * Constant defining digit groups for Mastercard.
-     */
-    private static final byte[][] MASTERCARD_GROUPING = new byte[][]{
-            new byte[]{4, 4},
-            new byte[]{4, 4},
-            new byte[]{4, 4},
-            new byte[]{4, 4}
-    };
-
-    /**
-     * Constant containing IIN ranges reserved for Solo.
-     */
-    private static final String[][] SOLO_IIN = new String[][]{
-            new String[]{"6334", "6334"},
-            new String[]{"6767", "6767"}
-    };
-
-    /**
-     * Constant containing valid lengths for Solo.
-     */
-    private static final byte[][] SOLO_LENGTH = new byte[][]{
-            new byte[]{16, 16},
-            new byte[]{18, 19}
-    };
-
-    /**
-     * Constant containing IIN ranges reserved for Switch.
-     */
-    private static final String[][] SWITCH_IIN = new String[][]{
-            new String[]{"4903", "4903"},
-            new String[]{"4905", "4905"},
-            new String[]{"4911", "4911"},
-            new String[]{"4936", "4936"},
-            new String[]{"564182", "564182"},
-            new String[]{"633110", "633110"},
-            new String[]{"6333", "6333"},
-            new String[]{"6759", "6759"}
-    };
-
-    /**
-     * Constant containing valid lengths for Switch.
-     */
-    private static final byte[][] SWITCH_LENGTH = new byte[][]{
-            new byte[]{16, 16},
-            new byte[]{18, 19}
-    };
-
-    /**
-     * Constant containing IIN ranges reserved for VISA.
-     */
-    private static final String[][] VISA_IIN = new String[][]{
-            new String[]{"4", "4"}
-    };
-
-    /**
-     * Constant containing valid lengths for VISA.
-     */
-    private static final byte[][] VISA_LENGTH = new byte[][]{
-            new byte[]{13, 13},
-            new byte[]{16, 16}
-    };
-
-    /**
-     * Constant defining digit groups for VISA.
-     */
-    private static final byte[][] VISA_GROUPING = new byte[][]{
-            new byte[]{4, 4},
-            new byte[]{4, 4},
-            new byte[]{4, 4},
-            new byte[]{1, 4}
-    };
-
-    /**
-     * Constant containing IIN ranges reserved for VISA Electron.
-     */
-    private static final String[][] VISA_ELECTRON_IIN = new String[][]{
-            new String[]{"4026", "4026"},
-            new String[]{"417500", "417500"},
-            new String[]{"4405", "4405"},
-            new String[]{"4508", "4508"},
-            new String[]{"4844", "4844"},
-            new String[]{"4913", "4913"},
-            new String[]{"4917", "4917"}
-    };
-
-    /**
-     * Constant containing valid lengths for VISA Electron.
-     */
-    private static final byte[][] VISA_ELECTRON_LENGTH = new byte[][]{
-            new byte[]{16, 16}
-    };
-
-    /**
-     * Constant defining digit groups for VISA Electron.
-     */
-    private static final byte[][] VISA_ELECTRON_GROUPING = new byte[][]{
-            new byte[]{4, 4},
-            new byte[]{4, 4},
-            new byte[]{4, 4},
-            new byte[]{4, 4}
-    };
-
-    /**
-     * Constant defining digit groups for any other network or unknown networks.
-     */
-    private static final byte[][] DEFAULT_GROUPING = new byte[][]{
-            new byte[]{4, 4},
-            new byte[]{4, 4},
-            new byte[]{4, 4},
-            new byte[]{0, 7}
-    };
+    static {
+        for (int i = 0; i < LUHN_PAIRS.length; i++) {
+            LUHN_PAIRS[i] = (byte) (LUHN_DOUBLED_DIGITS[i / 10] + i % 10);
+        }
+    }
 
     /**
      * Constructor.
@@ -624,108 +399,26 @@ public class CreditCardValidator {
     /**
      * Indicates if a given credit card network uses Luhn algorithm to validate
      * PAN values. For unknown networks validation is assumed to be disabled.
+     * Value is obtained from current {@link CardNetworkRegistry}.
      *
      * @param network a credit card network.
      * @return true if provided network uses PAN validation, false otherwise.
      */
     public static boolean isValidationEnabledForNetwork(final CreditCardNetwork network) {
-        if (network == null) {
-            return false;
-        }
-
-        switch (network) {
-            case AMERICAN_EXPRESS:
-                return AMEX_HAS_VALIDATION;
-            case BANKCARD:
-                return BANKCARD_HAS_VALIDATION;
-            case CHINA_UNIONPAY:
-                return CHINA_UNIONPAY_HAS_VALIDATION;
-            case DINERS_CLUB_CARTE_BLANCHE:
-                return DINERS_CLUB_CARTE_BLANCHE_HAS_VALIDATION;
-            case DINERS_CLUB_ENROUTE:
-                return DINERS_CLUB_ENROUTE_HAS_VALIDATION;
-            case DINERS_CLUB_INTERNATIONAL:
-                return DINERS_CLUB_INTERATIONAL_HAS_VALIDATION;
-            case DINERS_CLUB_USA_CANADA:
-                return DINERS_CLUB_USA_CA_HAS_VALIDATION;
-            case DISCOVER:
-                return DISCOVER_HAS_VALIDATION;
-            case INSTAPAYMENT:
-                return INSTAPAYMENT_HAS_VALIDATION;
-            case JCB:
-                return JCB_HAS_VALIDATION;
-            case LASER:
-                return LASER_HAS_VALIDATION;
-            case MAESTRO:
-                return MAESTRO_HAS_VALIDATION;
-            case MASTERCARD:
-                return MASTERCARD_HAS_VALIDATION;
-            case SOLO:
-                return SOLO_HAS_VALIDATION;
-            case SWITCH:
-                return SWITCH_HAS_VALIDATION;
-            case VISA:
-                return VISA_HAS_VALIDATION;
-            case VISA_ELECTRON:
-                return VISA_ELECTRON_HAS_VALIDATION;
-            case UNKNOWN:
-            default:
-                return false;
-        }
+        return CardNetworkRegistry.getInstance().isValidationEnabled(network);
     }
 
     /**
      * Indicates if provided credit card network is still being used
      * commercially.
      * Unknown networks are assumed to be active.
+     * Value is obtained from current {@link CardNetworkRegistry}.
      *
      * @param network a credit card network.
      * @return true if provided network is still being used, false otherwise.
      */
     public static boolean isNetworkActive(final CreditCardNetwork network) {
-        if (network == null) {
-            return true;
-        }
-
-        switch (network) {
-            case AMERICAN_EXPRESS:
-                return AMEX_IS_ACTIVE;
-            case BANKCARD:
-                return BANKCARD_IS_ACTIVE;
-            case CHINA_UNIONPAY:
-                return CHINA_UNIONPAY_IS_ACTIVE;
-            case DINERS_CLUB_CARTE_BLANCHE:
-                return DINERS_CLUB_CARTE_BLANCHE_IS_ACTIVE;
-            case DINERS_CLUB_ENROUTE:
-                return DINERS_CLUB_ENROUTE_IS_ACTIVE;
-            case DINERS_CLUB_INTERNATIONAL:
-                return DINERS_CLUB_INTERATIONAL_IS_ACTIVE;
-            case DINERS_CLUB_USA_CANADA:
-                return DINERS_CLUB_USA_CA_IS_ACTIVE;
-            case DISCOVER:
-                return DISCOVER_IS_ACTIVE;
-            case INSTAPAYMENT:
-                return INSTAPAYMENT_IS_ACTIVE;
-            case JCB:
-                return JCB_IS_ACTIVE;
-            case LASER:
-                return LASER_IS_ACTIVE;
-            case MAESTRO:
-                return MAESTRO_IS_ACTIVE;
-            case MASTERCARD:
-                return MASTERCARD_IS_ACTIVE;
-            case SOLO:
-                return SOLO_IS_ACTIVE;
-            case SWITCH:
-                return SWITCH_IS_ACTIVE;
-            case VISA:
-                return VISA_IS_ACTIVE;
-            case VISA_ELECTRON:
-                return VISA_ELECTRON_IS_ACTIVE;
-            case UNKNOWN:
-            default:
-                return true;
-        }
+        return CardNetworkRegistry.getInstance().isActive(network);
     }
 
     /**
@@ -738,73 +431,85 @@ public class CreditCardValidator {
      * @return detected credit card network.
      */
     public static CreditCardNetwork detectNetworkFromPAN(final String pan) {
-        return detectNetworkFromPAN(toDigits(pan));
+        return detectNetworkFromPAN((CharSequence) pan);
     }
 
     /**
-     * Detects credit card network by using provided credit card PAN digits.
-     * Detection is done by checking all known registered credit card IINs
-     * (Issuer Identification Number) against provided PAN digits until a match
-     * is found.
+     * Detects credit card network by using provided credit card PAN value.
+     * Any non digit character within provided PAN is skipped, and detection
+     * stops as soon as remaining digits cannot change the detected network,
+     * hence no memory is allocated.
+     * If current {@link CardNetworkRegistry} has a {@link BinDatabase}, the
+     * network of the BIN range containing provided PAN takes precedence over
+     * IIN ranges.
      *
-     * @param panDigits an array containing a credit card PAN digits.
+     * @param pan a credit card PAN number.
      * @return detected credit card network.
      */
-    protected static CreditCardNetwork detectNetworkFromPAN(final byte[] panDigits) {
-        if (isAmericanExpressIIN(panDigits)) {
-            return CreditCardNetwork.AMERICAN_EXPRESS;
-        }
-        if (isBankcardIIN(panDigits)) {
-            return CreditCardNetwork.BANKCARD;
-        }
-        if (isDinersClubCarteBlancheIIN(panDigits)) {
-            return CreditCardNetwork.DINERS_CLUB_CARTE_BLANCHE;
-        }
-        if (isDinersClubEnrouteIIN(panDigits)) {
-            return CreditCardNetwork.DINERS_CLUB_ENROUTE;
-        }
-        if (isDinersClubInternationalIIN(panDigits)) {
-            return CreditCardNetwork.DINERS_CLUB_INTERNATIONAL;
-        }
-        if (isDinersClubUSACanadaIIN(panDigits)) {
-            return CreditCardNetwork.DINERS_CLUB_USA_CANADA;
-        }
-        // Discover lies within China UnionPay range, so we check it first
-        if (isDiscoverIIN(panDigits)) {
-            return CreditCardNetwork.DISCOVER;
-        }
-        if (isChinaUnionPayIIN(panDigits)) {
-            return CreditCardNetwork.CHINA_UNIONPAY;
-        }
-        if (isInstaPaymentIIN(panDigits)) {
-            return CreditCardNetwork.INSTAPAYMENT;
-        }
-        if (isJCBIIN(panDigits)) {
-            return CreditCardNetwork.JCB;
-        }
-        if (isLaserIIN(panDigits)) {
-            return CreditCardNetwork.LASER;
-        }
-        if (isMaestroIIN(panDigits)) {
-            return CreditCardNetwork.MAESTRO;
-        }
-        if (isMastercardIIN(panDigits)) {
-            return CreditCardNetwork.MASTERCARD;
-        }
-        if (isSoloIIN(panDigits)) {
-            return CreditCardNetwork.SOLO;
-        }
-        if (isSwitchIIN(panDigits)) {
-            return CreditCardNetwork.SWITCH;
+    public static CreditCardNetwork detectNetworkFromPAN(final CharSequence pan) {
+        if (pan == null) {
+            return CreditCardNetwork.UNKNOWN;
         }
-        // VISA Electron is contained within VISA IIN, so we check it first
-        if (isVISAElectronIIN(panDigits)) {
-            return CreditCardNetwork.VISA_ELECTRON;
+
+        final CardNetworkRegistry registry = CardNetworkRegistry.getInstance();
+        final IINPrefixTrie trie = registry.getTrie();
+        final int maxBinDigits = registry.hasBinDatabase() ?
+                BinDatabase.BIN_DIGITS : 0;
+        final int length = pan.length();
+        long state = IINPrefixTrie.ROOT;
+        int bin = 0;
+        int numDigits = 0;
+        for (int i = 0; i < length; i++) {
+            final int digit = digitValue(pan.charAt(i));
+            if (digit < 0) {
+                continue;
+            }
+
+            state = trie.step(state, digit);
+            if (numDigits < maxBinDigits) {
+                bin = bin * 10 + digit;
+            }
+            numDigits++;
+            if (IINPrefixTrie.isResolved(state) && numDigits >= maxBinDigits) {
+                break;
+            }
         }
-        if (isVISAIIN(panDigits)) {
-            return CreditCardNetwork.VISA;
+
+        if (numDigits == 0) {
+            return CreditCardNetwork.UNKNOWN;
         }
-        return CreditCardNetwork.UNKNOWN;
+        return registry.resolveNetwork(trie.mask(state), bin,
+                Math.min(numDigits, maxBinDigits));
+    }
+
+    /**
+     * Detects credit card network by using provided credit card PAN digits.
+     * Detection is done by walking the precompiled trie of current
+     * {@link CardNetworkRegistry} containing all known registered credit card
+     * IINs (Issuer Identification Number), so that only
+     * as many digits as the longest IIN has need to be checked.
+     *
+     * @param panDigits an array containing a credit card PAN digits.
+     * @return detected credit card network.
+     */
+    protected static CreditCardNetwork detectNetworkFromPAN(final byte[] panDigits) {
+        final CardNetworkRegistry registry = CardNetworkRegistry.getInstance();
+        return registry.resolveNetwork(registry.getTrie().match(panDigits),
+                binValue(panDigits), binDigits(panDigits));
+    }
+
+    /**
+     * Looks up issuer metadata of provided PAN in the {@link BinDatabase} of
+     * current {@link CardNetworkRegistry}.
+     *
+     * @param pan a credit card PAN or BIN.
+     * @return issuer metadata or null if no BIN database is available or PAN
+     * is not found.
+     */
+    public static BinInfo lookupBin(final CharSequence pan) {
+        final BinDatabase database = CardNetworkRegistry.getInstance()
+                .getBinDatabase();
+        return database != null ? database.lookup(pan) : null;
     }
 
     /**
@@ -815,7 +520,42 @@ public class CreditCardValidator {
      * @return true if PAN has a valid length, false otherwise.
      */
     public static boolean isValidLength(final String pan) {
-        return isValidLength(toDigits(pan));
+        return isValidLength((CharSequence) pan);
+    }
+
+    /**
+     * Detects network for provided PAN and indicates if provided credit card
+     * PAN has an appropriate length for provided credit card network.
+     * Any non digit character within provided PAN is skipped, and both
+     * network detection and digit counting are done in a single pass without
+     * allocating memory.
+     * PAN for unknown network is assumed to always have a valid length.
+     *
+     * @param pan a credit card PAN.
+     * @return true if PAN has a valid length, false otherwise.
+     */
+    public static boolean isValidLength(final CharSequence pan) {
+        final CardNetworkRegistry registry = CardNetworkRegistry.getInstance();
+        final IINPrefixTrie trie = registry.getTrie();
+        final int length = pan != null ? pan.length() : 0;
+        long state = IINPrefixTrie.ROOT;
+        int bin = 0;
+        int numDigits = 0;
+        for (int i = 0; i < length; i++) {
+            final int digit = digitValue(pan.charAt(i));
+            if (digit < 0) {
+                continue;
+            }
+
+            state = trie.step(state, digit);
+            if (numDigits < BinDatabase.BIN_DIGITS) {
+                bin = bin * 10 + digit;
+            }
+            numDigits++;
+        }
+
+        return registry.isValidLength(numDigits, registry.resolveNetwork(
+                trie.mask(state), bin, Math.min(numDigits, BinDatabase.BIN_DIGITS)));
     }
 
     /**
@@ -841,7 +581,30 @@ public class CreditCardValidator {
      * @return true if PAN has a valid length, false otherwise.
      */
     public static boolean isValidLength(final String pan, final CreditCardNetwork network) {
-        return isValidLength(toDigits(pan), network);
+        return isValidLength((CharSequence) pan, network);
+    }
+
+    /**
+     * Indicates if provided credit card PAN has an appropriate length for
+     * provided credit card network.
+     * Any non digit character within provided PAN is skipped without
+     * allocating memory.
+     * PAN for unknown network is assumed to always have a valid length.
+     *
+     * @param pan     a credit card PAN.
+     * @param network a credit card network.
+     * @return true if PAN has a valid length, false otherwise.
+     */
+    public static boolean isValidLength(final CharSequence pan,
+                                        final CreditCardNetwork network) {
+        final int length = pan != null ? pan.length() : 0;
+        int numDigits = 0;
+        for (int i = 0; i < length; i++) {
+            if (digitValue(pan.charAt(i)) >= 0) {
+                numDigits++;
+            }
+        }
+        return isValidLength(numDigits, network);
     }
 
     /**
@@ -855,49 +618,25 @@ public class CreditCardValidator {
      */
     protected static boolean isValidLength(final byte[] panDigits,
                                            final CreditCardNetwork network) {
-        if (network == null) {
+        final byte[][] lengths = lengthsForNetwork(network);
+        if (lengths == null) {
             return true;
         }
+        return isValidLength(panDigits, lengths);
+    }
 
-        switch (network) {
-            case AMERICAN_EXPRESS:
-                return isAmericanExpressValidLength(panDigits);
-            case BANKCARD:
-                return isBankcardValidLength(panDigits);
-            case CHINA_UNIONPAY:
-                return isChinaUnionPayValidLength(panDigits);
-            case DINERS_CLUB_CARTE_BLANCHE:
-                return isDinersClubCarteBlancheValidLength(panDigits);
-            case DINERS_CLUB_ENROUTE:
-                return isDinersClubEnrouteValidLength(panDigits);
-            case DINERS_CLUB_INTERNATIONAL:
-                return isDinersClubInternationalValidLength(panDigits);
-            case DINERS_CLUB_USA_CANADA:
-                return isDinersClubUSACanadaValidLength(panDigits);
-            case DISCOVER:
-                return isDiscoverValidLength(panDigits);
-            case INSTAPAYMENT:
-                return isInstaPaymentValidLength(panDigits);
-            case JCB:
-                return isJCBValidLength(panDigits);
-            case LASER:
-                return isLaserValidLength(panDigits);
-            case MAESTRO:
-                return isMaestroValidLength(panDigits);
-            case MASTERCARD:
-                return isMastercardValidLength(panDigits);
-            case SOLO:
-                return isSoloValidLength(panDigits);
-            case SWITCH:
-                return isSwitchValidLength(panDigits);
-            case VISA:
-                return isVISAValidLength(panDigits);
-            case VISA_ELECTRON:
-                return isVISAElectronValidLength(panDigits);
-            case UNKNOWN:
-            default:
-                return true;
-        }
+    /**
+     * Indicates if provided number of credit card PAN digits is appropriate
+     * for provided credit card network.
+     * PAN for unknown networks is assumed to always have a valid length.
+     *
+     * @param numDigits number of credit card PAN digits.
+     * @param network   a credit card network.
+     * @return true if PAN has a valid length, false otherwise.
+     */
+    protected static boolean isValidLength(final int numDigits,
+                                           final CreditCardNetwork network) {
+        return CardNetworkRegistry.getInstance().isValidLength(numDigits, network);
     }
 
     /**
@@ -909,7 +648,49 @@ public class CreditCardValidator {
      * @return true if credit card PAN appears to be valid, false otherwise.
      */
     public static boolean isValid(final String pan) {
-        return isValid(toDigits(pan));
+        return isValid((CharSequence) pan);
+    }
+
+    /**
+     * Indicates if provided credit card PAN is valid by detecting its assigned
+     * credit card network, checking its length and validating its checksum if
+     * network supports validation.
+     * Any non digit character within provided PAN is skipped, and network
+     * detection, digit counting and checksum computation are done in a single
+     * pass without allocating memory.
+     *
+     * @param pan a credit card pan.
+     * @return true if credit card PAN appears to be valid, false otherwise.
+     */
+    public static boolean isValid(final CharSequence pan) {
+        final CardNetworkRegistry registry = CardNetworkRegistry.getInstance();
+        final IINPrefixTrie trie = registry.getTrie();
+        final int length = pan != null ? pan.length() : 0;
+        long state = IINPrefixTrie.ROOT;
+        int bin = 0;
+        int numDigits = 0;
+        long luhnSums = 0;
+        for (int i = 0; i < length; i++) {
+            final int digit = digitValue(pan.charAt(i));
+            if (digit < 0) {
+                continue;
+            }
+
+            state = trie.step(state, digit);
+            if (numDigits < BinDatabase.BIN_DIGITS) {
+                bin = bin * 10 + digit;
+            }
+            luhnSums = addLuhnDigit(luhnSums, numDigits, digit);
+            numDigits++;
+        }
+
+        final CreditCardNetwork network = registry.resolveNetwork(
+                trie.mask(state), bin, Math.min(numDigits, BinDatabase.BIN_DIGITS));
+        boolean valid = registry.isValidLength(numDigits, network);
+        if (valid && registry.isValidationEnabled(network)) {
+            valid = isValidLuhnSum(numDigits, luhnSums);
+        }
+        return valid;
     }
 
     /**
@@ -921,14 +702,119 @@ public class CreditCardValidator {
      * @return true if credit card PAN appears to be valid, false otherwise.
      */
     protected static boolean isValid(final byte[] panDigits) {
-        final CreditCardNetwork network = detectNetworkFromPAN(panDigits);
-        boolean valid = isValidLength(panDigits, network);
-        if (valid && isValidationEnabledForNetwork(network)) {
+        final CardNetworkRegistry registry = CardNetworkRegistry.getInstance();
+        final CreditCardNetwork network = registry.resolveNetwork(
+                registry.getTrie().match(panDigits), binValue(panDigits),
+                binDigits(panDigits));
+        boolean valid = panDigits == null || registry.isValidLength(
+                panDigits.length, network);
+        if (valid && registry.isValidationEnabled(network)) {
             valid = isValidChecksumForPAN(panDigits);
         }
         return valid;
     }
 
+    /**
+     * Analyzes provided credit card PAN by detecting its network, MII, number
+     * of digits, length validity and checksum validity.
+     *
+     * @param pan a credit card PAN.
+     * @return result of analysis.
+     */
+    public static PanAnalysis analyze(final CharSequence pan) {
+        return analyze(pan, new PanAnalysis());
+    }
+
+    /**
+     * Analyzes provided credit card PAN by detecting its network, MII, number
+     * of digits, length validity and checksum validity.
+     * Any non digit character within provided PAN is skipped, and all values
+     * are computed in a single pass without allocating memory, so that
+     * provided result instance can be reused to analyze large amounts of PANs.
+     *
+     * @param pan    a credit card PAN.
+     * @param result instance where result of analysis will be stored.
+     * @return provided result instance.
+     * @throws IllegalArgumentException if provided result is null.
+     */
+    public static PanAnalysis analyze(final CharSequence pan, final PanAnalysis result) {
+        if (result == null) {
+            throw new IllegalArgumentException();
+        }
+
+        result.reset();
+        final int length = pan != null ? pan.length() : 0;
+        for (int i = 0; i < length; i++) {
+            result.append(pan.charAt(i));
+        }
+        return result.finish();
+    }
+
+    /**
+     * Analyzes a credit card PAN stored as ASCII characters within provided
+     * array by detecting its network, MII, number of digits, length validity
+     * and checksum validity.
+     * Any non digit character is skipped, and all values are computed in a
+     * single pass without allocating memory.
+     *
+     * @param ascii  array containing ASCII characters.
+     * @param offset position of first character of PAN.
+     * @param length number of characters of PAN.
+     * @param result instance where result of analysis will be stored.
+     * @return provided result instance.
+     * @throws IllegalArgumentException  if provided array or result is null.
+     * @throws IndexOutOfBoundsException if offset or length are out of bounds.
+     */
+    public static PanAnalysis analyze(final byte[] ascii, final int offset, final int length,
+                                      final PanAnalysis result) {
+        if (ascii == null || result == null) {
+            throw new IllegalArgumentException();
+        }
+        if (offset < 0 || length < 0 || offset + length > ascii.length) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        result.reset();
+        final int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            result.append((char) (ascii[i] & 0xFF));
+        }
+        return result.finish();
+    }
+
+    /**
+     * Analyzes a credit card PAN stored as ASCII characters within provided
+     * buffer by detecting its network, MII, number of digits, length validity
+     * and checksum validity.
+     * Buffer is read using absolute positions, hence its position and limit
+     * are not modified. Any non digit character is skipped, and all values are
+     * computed in a single pass without allocating memory.
+     *
+     * @param ascii  buffer containing ASCII characters.
+     * @param offset absolute position of first character of PAN.
+     * @param length number of characters of PAN.
+     * @param result instance where result of analysis will be stored.
+     * @return provided result instance.
+     * @throws IllegalArgumentException  if provided buffer or result is null.
+     * @throws IndexOutOfBoundsException if offset or length are out of bounds.
+     */
+    public static PanAnalysis analyze(final ByteBuffer ascii, final int offset,
+                                      final int length, final PanAnalysis result) {
+        if (ascii == null || result == null) {
+            throw new IllegalArgumentException();
+        }
+        if (offset < 0 || length < 0 || offset + length > ascii.limit()) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        result.reset();
+        final int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            result.append((char) (ascii.get(i) & 0xFF));
+        }
+        return result.finish();
+    }
+
     /**
      * Indicates if provided credit card PAN corresponds to American Express
      * IIN (Issuer Identification Number).
@@ -938,7 +824,7 @@ public class CreditCardValidator {
      * otherwise.
      */
     public static boolean isAmericanExpressIIN(final String pan) {
-        return isValidIIN(pan, AMEX_IIN);
+        return isNetworkIIN(pan, CreditCardNetwork.AMERICAN_EXPRESS);
     }
 
     /**
@@ -950,7 +836,7 @@ public class CreditCardValidator {
      * otherwise.
      */
     protected static boolean isAmericanExpressIIN(final byte[] panDigits) {
-        return isValidIIN(panDigits, AMEX_IIN);
+        return isNetworkIIN(panDigits, CreditCardNetwork.AMERICAN_EXPRESS);
     }
 
     /**
@@ -961,7 +847,7 @@ public class CreditCardValidator {
      * @return true if PAN has a valid American Express length, false otherwise.
      */
     public static boolean isAmericanExpressValidLength(final String pan) {
-        return isValidLength(pan, AMEX_LENGTH);
+        return isValidLength(pan, lengthsForNetwork(CreditCardNetwork.AMERICAN_EXPRESS));
     }
 
     /**
@@ -972,7 +858,8 @@ public class CreditCardValidator {
      * @return true if PAN has a valid American Express length, false otherwise.
      */
     protected static boolean isAmericanExpressValidLength(final byte[] panDigits) {
-        return isValidLength(panDigits, AMEX_LENGTH);
+        return isValidLength(panDigits,
+                lengthsForNetwork(CreditCardNetwork.AMERICAN_EXPRESS));
     }
 
     /**
@@ -983,7 +870,7 @@ public class CreditCardValidator {
      * @return true if provided PAN corresponds to BankCard, false otherwise.
      */
     public static boolean isBankcardIIN(final String pan) {
-        return isValidIIN(pan, BANKCARD_IIN);
+        return isNetworkIIN(pan, CreditCardNetwork.BANKCARD);
     }
 
     /**
@@ -994,7 +881,7 @@ public class CreditCardValidator {
      * @return true if provided PAN corresponds to BankCard, false otherwise.
      */
     protected static boolean isBankcardIIN(final byte[] panDigits) {
-        return isValidIIN(panDigits, BANKCARD_IIN);
+        return isNetworkIIN(panDigits, CreditCardNetwork.BANKCARD);
     }
 
     /**
@@ -1005,7 +892,7 @@ public class CreditCardValidator {
      * @return true if PAN has a valid BankCard length, false otherwise.
      */
     public static boolean isBankcardValidLength(final String pan) {
-        return isValidLength(pan, BANKCARD_LENGTH);
+        return isValidLength(pan, lengthsForNetwork(CreditCardNetwork.BANKCARD));
     }
 
     /**
@@ -1016,7 +903,7 @@ public class CreditCardValidator {
      * @return true if PAN has a valid BankCard length, false otherwise.
      */
     protected static boolean isBankcardValidLength(final byte[] panDigits) {
-        return isValidLength(panDigits, BANKCARD_LENGTH);
+        return isValidLength(panDigits, lengthsForNetwork(CreditCardNetwork.BANKCARD));
     }
 
     /**
@@ -1028,7 +915,7 @@ public class CreditCardValidator {
      * otherwise.
      */
     public static boolean isChinaUnionPayIIN(final String pan) {
-        return isValidIIN(pan, CHINA_UNIONPAY_IIN);
+        return isNetworkIIN(pan, CreditCardNetwork.CHINA_UNIONPAY);
     }
 
     /**
@@ -1040,7 +927,7 @@ public class CreditCardValidator {
      * otherwise.
      */
     protected static boolean isChinaUnionPayIIN(final byte[] panDigits) {
-        return isValidIIN(panDigits, CHINA_UNIONPAY_IIN);
+        return isNetworkIIN(panDigits, CreditCardNetwork.CHINA_UNIONPAY);
     }
 
     /**
@@ -1051,7 +938,7 @@ public class CreditCardValidator {
      * @return true if PAN has a valid China UnionPay length, false otherwise.
      */
     public static boolean isChinaUnionPayValidLength(final String pan) {
-        return isValidLength(pan, CHINA_UNIONPAY_LENGTH);
+        return isValidLength(pan, lengthsForNetwork(CreditCardNetwork.CHINA_UNIONPAY));
     }
 
     /**
@@ -1062,7 +949,8 @@ public class CreditCardValidator {
      * @return true if PAN has a valid China UnionPay length, false otherwise.
      */
     protected static boolean isChinaUnionPayValidLength(final byte[] panDigits) {
-        return isValidLength(panDigits, CHINA_UNIONPAY_LENGTH);
+        return isValidLength(panDigits,
+                lengthsForNetwork(CreditCardNetwork.CHINA_UNIONPAY));
     }
 
     /**
@@ -1074,7 +962,7 @@ public class CreditCardValidator {
      * false otherwise.
      */
     public static boolean isDinersClubCarteBlancheIIN(final String pan) {
-        return isValidIIN(pan, DINERS_CLUB_CARTE_BLANCHE_IIN);
+        return isNetworkIIN(pan, CreditCardNetwork.DINERS_CLUB_CARTE_BLANCHE);
     }
 
     /**
@@ -1086,7 +974,7 @@ public class CreditCardValidator {
      * false otherwise.
      */
     protected static boolean isDinersClubCarteBlancheIIN(final byte[] panDigits) {
-        return isValidIIN(panDigits, DINERS_CLUB_CARTE_BLANCHE_IIN);
+        return isNetworkIIN(panDigits, CreditCardNetwork.DINERS_CLUB_CARTE_BLANCHE);
     }
 
     /**
@@ -1098,7 +986,8 @@ public class CreditCardValidator {
      * otherwise.
      */
     public static boolean isDinersClubCarteBlancheValidLength(final String pan) {
-        return isValidLength(pan, DINERS_CLUB_CARTE_BLANCHE_LENGTH);
+        return isValidLength(pan,
+                lengthsForNetwork(CreditCardNetwork.DINERS_CLUB_CARTE_BLANCHE));
     }
 
     /**
@@ -1111,7 +1000,8 @@ public class CreditCardValidator {
      */
     protected static boolean isDinersClubCarteBlancheValidLength(
             final byte[] panDigits) {
-        return isValidLength(panDigits, DINERS_CLUB_CARTE_BLANCHE_LENGTH);
+        return isValidLength(panDigits,
+                lengthsForNetwork(CreditCardNetwork.DINERS_CLUB_CARTE_BLANCHE));
     }
 
     /**
@@ -1123,7 +1013,7 @@ public class CreditCardValidator {
      * otherwise.
      */
     public static boolean isDinersClubEnrouteIIN(final String pan) {
-        return isValidIIN(pan, DINERS_CLUB_ENROUTE_IIN);
+        return isNetworkIIN(pan, CreditCardNetwork.DINERS_CLUB_ENROUTE);
     }
 
     /**
@@ -1135,7 +1025,7 @@ public class CreditCardValidator {
      * otherwise.
      */
     protected static boolean isDinersClubEnrouteIIN(final byte[] panDigits) {
-        return isValidIIN(panDigits, DINERS_CLUB_ENROUTE_IIN);
+        return isNetworkIIN(panDigits, CreditCardNetwork.DINERS_CLUB_ENROUTE);
     }
 
     /**
@@ -1147,7 +1037,8 @@ public class CreditCardValidator {
      * otherwise.
      */
     public static boolean isDinersClubEnrouteValidLength(final String pan) {
-        return isValidLength(pan, DINERS_CLUB_ENROUTE_LENGTH);
+        return isValidLength(pan,
+                lengthsForNetwork(CreditCardNetwork.DINERS_CLUB_ENROUTE));
     }
 
     /**
@@ -1159,7 +1050,8 @@ public class CreditCardValidator {
      * otherwise.
      */
     protected static boolean isDinersClubEnrouteValidLength(final byte[] panDigits) {
-        return isValidLength(panDigits, DINERS_CLUB_ENROUTE_LENGTH);
+        return isValidLength(panDigits,
+                lengthsForNetwork(CreditCardNetwork.DINERS_CLUB_ENROUTE));
     }
 
     /**
@@ -1171,7 +1063,7 @@ public class CreditCardValidator {
      * false otherwise.
      */
     public static boolean isDinersClubInternationalIIN(final String pan) {
-        return isValidIIN(pan, DINERS_CLUB_INTERNATIONAL_IIN);
+        return isNetworkIIN(pan, CreditCardNetwork.DINERS_CLUB_INTERNATIONAL);
     }
 
     /**
@@ -1183,7 +1075,7 @@ public class CreditCardValidator {
      * false otherwise.
      */
     protected static boolean isDinersClubInternationalIIN(final byte[] panDigits) {
-        return isValidIIN(panDigits, DINERS_CLUB_INTERNATIONAL_IIN);
+        return isNetworkIIN(panDigits, CreditCardNetwork.DINERS_CLUB_INTERNATIONAL);
     }
 
     /**
@@ -1195,7 +1087,8 @@ public class CreditCardValidator {
      * otherwise.
      */
     public static boolean isDinersClubInternationalValidLength(final String pan) {
-        return isValidLength(pan, DINERS_CLUB_INTERNATIONAL_LENGTH);
+        return isValidLength(pan,
+                lengthsForNetwork(CreditCardNetwork.DINERS_CLUB_INTERNATIONAL));
     }
 
     /**
@@ -1208,7 +1101,8 @@ public class CreditCardValidator {
      */
     protected static boolean isDinersClubInternationalValidLength(
             final byte[] panDigits) {
-        return isValidLength(panDigits, DINERS_CLUB_INTERNATIONAL_LENGTH);
+        return isValidLength(panDigits,
+                lengthsForNetwork(CreditCardNetwork.DINERS_CLUB_INTERNATIONAL));
     }
 
     /**
@@ -1220,7 +1114,7 @@ public class CreditCardValidator {
      * false otherwise.
      */
     public static boolean isDinersClubUSACanadaIIN(final String pan) {
-        return isValidIIN(pan, DINERS_CLUB_USA_CA_IIN);
+        return isNetworkIIN(pan, CreditCardNetwork.DINERS_CLUB_USA_CANADA);
     }
 
     /**
@@ -1232,7 +1126,7 @@ public class CreditCardValidator {
      * false otherwise.
      */
     protected static boolean isDinersClubUSACanadaIIN(final byte[] panDigits) {
-        return isValidIIN(panDigits, DINERS_CLUB_USA_CA_IIN);
+        return isNetworkIIN(panDigits, CreditCardNetwork.DINERS_CLUB_USA_CANADA);
     }
 
     /**
@@ -1244,7 +1138,8 @@ public class CreditCardValidator {
      * otherwise.
      */
     public static boolean isDinersClubUSACanadaValidLength(final String pan) {
-        return isValidLength(pan, DINERS_CLUB_USA_CA_LENGTH);
+        return isValidLength(pan,
+                lengthsForNetwork(CreditCardNetwork.DINERS_CLUB_USA_CANADA));
     }
 
     /**
@@ -1257,7 +1152,8 @@ public class CreditCardValidator {
      */
     protected static boolean isDinersClubUSACanadaValidLength(
             final byte[] panDigits) {
-        return isValidLength(panDigits, DINERS_CLUB_USA_CA_LENGTH);
+        return isValidLength(panDigits,
+                lengthsForNetwork(CreditCardNetwork.DINERS_CLUB_USA_CANADA));
     }
 
     /**
@@ -1268,7 +1164,7 @@ public class CreditCardValidator {
      * @return true if provided PAN corresponds to Discover, false otherwise.
      */
     public static boolean isDiscoverIIN(final String pan) {
-        return isValidIIN(pan, DISCOVER_IIN);
+        return isNetworkIIN(pan, CreditCardNetwork.DISCOVER);
     }
 
     /**
@@ -1279,7 +1175,7 @@ public class CreditCardValidator {
      * @return true if provided PAN corresponds to Discover, false otherwise.
      */
     protected static boolean isDiscoverIIN(final byte[] panDigits) {
-        return isValidIIN(panDigits, DISCOVER_IIN);
+        return isNetworkIIN(panDigits, CreditCardNetwork.DISCOVER);
     }
 
     /**
@@ -1290,7 +1186,7 @@ public class CreditCardValidator {
      * @return true if PAN has a valid Discover length, false otherwise.
      */
     public static boolean isDiscoverValidLength(final String pan) {
-        return isValidLength(pan, DISCOVER_LENGTH);
+        return isValidLength(pan, lengthsForNetwork(CreditCardNetwork.DISCOVER));
     }
 
     /**
@@ -1301,7 +1197,7 @@ public class CreditCardValidator {
      * @return true if PAN has a valid Discover length, false otherwise.
      */
     protected static boolean isDiscoverValidLength(final byte[] panDigits) {
-        return isValidLength(panDigits, DISCOVER_LENGTH);
+        return isValidLength(panDigits, lengthsForNetwork(CreditCardNetwork.DISCOVER));
     }
 
     /**
@@ -1313,7 +1209,7 @@ public class CreditCardValidator {
      * otherwise.
      */
     public static boolean isInstaPaymentIIN(final String pan) {
-        return isValidIIN(pan, INSTAPAYMENT_IIN);
+        return isNetworkIIN(pan, CreditCardNetwork.INSTAPAYMENT);
     }
 
     /**
@@ -1325,7 +1221,7 @@ public class CreditCardValidator {
      * otherwise.
      */
     protected static boolean isInstaPaymentIIN(final byte[] panDigits) {
-        return isValidIIN(panDigits, INSTAPAYMENT_IIN);
+        return isNetworkIIN(panDigits, CreditCardNetwork.INSTAPAYMENT);
     }
 
     /**
@@ -1336,7 +1232,7 @@ public class CreditCardValidator {
      * @return true if PAN has a valid InstaPayment length, false otherwise.
      */
     public static boolean isInstaPaymentValidLength(final String pan) {
-        return isValidLength(pan, INSTAPAYMENT_LENGTH);
+        return isValidLength(pan, lengthsForNetwork(CreditCardNetwork.INSTAPAYMENT));
     }
 
     /**
@@ -1347,7 +1243,8 @@ public class CreditCardValidator {
      * @return true if PAN has a valid InstaPayment length, false otherwise.
      */
     protected static boolean isInstaPaymentValidLength(final byte[] panDigits) {
-        return isValidLength(panDigits, INSTAPAYMENT_LENGTH);
+        return isValidLength(panDigits,
+                lengthsForNetwork(CreditCardNetwork.INSTAPAYMENT));
     }
 
     /**
@@ -1358,7 +1255,7 @@ public class CreditCardValidator {
      * @return true if provided PAN corresponds to JCB, false otherwise.
      */
     public static boolean isJCBIIN(final String pan) {
-        return isValidIIN(pan, JCB_IIN);
+        return isNetworkIIN(pan, CreditCardNetwork.JCB);
     }
 
     /**
@@ -1369,7 +1266,7 @@ public class CreditCardValidator {
      * @return true if provided PAN corresponds to JCB, false otherwise.
      */
     protected static boolean isJCBIIN(final byte[] panDigits) {
-        return isValidIIN(panDigits, JCB_IIN);
+        return isNetworkIIN(panDigits, CreditCardNetwork.JCB);
     }
 
     /**
@@ -1380,7 +1277,7 @@ public class CreditCardValidator {
      * @return true if PAN has a valid JCB length, false otherwise.
      */
     public static boolean isJCBValidLength(final String pan) {
-        return isValidLength(pan, JCB_LENGTH);
+        return isValidLength(pan, lengthsForNetwork(CreditCardNetwork.JCB));
     }
 
     /**
@@ -1391,7 +1288,7 @@ public class CreditCardValidator {
      * @return true if PAN has a valid JCB length, false otherwise.
      */
     protected static boolean isJCBValidLength(final byte[] panDigits) {
-        return isValidLength(panDigits, JCB_LENGTH);
+        return isValidLength(panDigits, lengthsForNetwork(CreditCardNetwork.JCB));
     }
 
     /**
@@ -1402,7 +1299,7 @@ public class CreditCardValidator {
      * @return true if provided PAN corresponds to Laser, false otherwise.
      */
     public static boolean isLaserIIN(final String pan) {
-        return isValidIIN(pan, LASER_IIN);
+        return isNetworkIIN(pan, CreditCardNetwork.LASER);
     }
 
     /**
@@ -1413,7 +1310,7 @@ public class CreditCardValidator {
      * @return true if provided PAN corresponds to Laser, false otherwise.
      */
     protected static boolean isLaserIIN(final byte[] panDigits) {
-        return isValidIIN(panDigits, LASER_IIN);
+        return isNetworkIIN(panDigits, CreditCardNetwork.LASER);
     }
 
     /**
@@ -1424,7 +1321,7 @@ public class CreditCardValidator {
      * @return true if PAN has a valid Laser length, false otherwise.
      */
     public static boolean isLaserValidLength(final String pan) {
-        return isValidLength(pan, LASER_LENGTH);
+        return isValidLength(pan, lengthsForNetwork(CreditCardNetwork.LASER));
     }
 
     /**
@@ -1435,7 +1332,7 @@ public class CreditCardValidator {
      * @return true if PAN has a valid Laser length, false otherwise.
      */
     protected static boolean isLaserValidLength(final byte[] panDigits) {
-        return isValidLength(panDigits, LASER_LENGTH);
+        return isValidLength(panDigits, lengthsForNetwork(CreditCardNetwork.LASER));
     }
 
     /**
@@ -1446,7 +1343,7 @@ public class CreditCardValidator {
      * @return true if provided PAN corresponds to Maestro, false otherwise.
      */
     public static boolean isMaestroIIN(final String pan) {
-        return isValidIIN(pan, MAESTRO_IIN);
+        return isNetworkIIN(pan, CreditCardNetwork.MAESTRO);
     }
 
     /**
@@ -1457,7 +1354,7 @@ public class CreditCardValidator {
      * @return true if provided PAN corresponds to Maestro, false otherwise.
      */
     protected static boolean isMaestroIIN(final byte[] panDigits) {
-        return isValidIIN(panDigits, MAESTRO_IIN);
+        return isNetworkIIN(panDigits, CreditCardNetwork.MAESTRO);
     }
 
     /**
@@ -1468,7 +1365,7 @@ public class CreditCardValidator {
      * @return true if PAN has a valid Maestro length, false otherwise.
      */
     public static boolean isMaestroValidLength(final String pan) {
-        return isValidLength(pan, MAESTRO_LENGTH);
+        return isValidLength(pan, lengthsForNetwork(CreditCardNetwork.MAESTRO));
     }
 
     /**
@@ -1479,7 +1376,7 @@ public class CreditCardValidator {
      * @return true if PAN has a valid Maestro length, false otherwise.
      */
     protected static boolean isMaestroValidLength(final byte[] panDigits) {
-        return isValidLength(panDigits, MAESTRO_LENGTH);
+        return isValidLength(panDigits, lengthsForNetwork(CreditCardNetwork.MAESTRO));
     }
 
     /**
@@ -1490,7 +1387,7 @@ public class CreditCardValidator {
      * @return true if provided PAN corresponds to Mastercard, false otherwise.
      */
     public static boolean isMastercardIIN(final String pan) {
-        return isValidIIN(pan, MASTERCARD_IIN);
+        return isNetworkIIN(pan, CreditCardNetwork.MASTERCARD);
     }
 
     /**
@@ -1501,7 +1398,7 @@ public class CreditCardValidator {
      * @return true if provided PAN corresponds to Mastercard, false otherwise.
      */
     protected static boolean isMastercardIIN(final byte[] panDigits) {
-        return isValidIIN(panDigits, MASTERCARD_IIN);
+        return isNetworkIIN(panDigits, CreditCardNetwork.MASTERCARD);
     }
 
     /**
@@ -1512,7 +1409,7 @@ public class CreditCardValidator {
      * @return true if PAN has a valid Mastercard length, false otherwise.
      */
     public static boolean isMastercardValidLength(final String pan) {
-        return isValidLength(pan, MASTERCARD_LENGTH);
+        return isValidLength(pan, lengthsForNetwork(CreditCardNetwork.MASTERCARD));
     }
 
     /**
@@ -1523,7 +1420,7 @@ public class CreditCardValidator {
      * @return true if PAN has a valid Mastercard length, false otherwise.
      */
     protected static boolean isMastercardValidLength(final byte[] panDigits) {
-        return isValidLength(panDigits, MASTERCARD_LENGTH);
+        return isValidLength(panDigits, lengthsForNetwork(CreditCardNetwork.MASTERCARD));
     }
 
     /**
@@ -1534,7 +1431,7 @@ public class CreditCardValidator {
      * @return true if provided PAN corresponds to Solo, false otherwise.
      */
     public static boolean isSoloIIN(final String pan) {
-        return isValidIIN(pan, SOLO_IIN);
+        return isNetworkIIN(pan, CreditCardNetwork.SOLO);
     }
 
     /**
@@ -1545,7 +1442,7 @@ public class CreditCardValidator {
      * @return true if provided PAN corresponds to Solo, false otherwise.
      */
     protected static boolean isSoloIIN(final byte[] panDigits) {
-        return isValidIIN(panDigits, SOLO_IIN);
+        return isNetworkIIN(panDigits, CreditCardNetwork.SOLO);
     }
 
     /**
@@ -1556,7 +1453,7 @@ public class CreditCardValidator {
      * @return true if PAN has a valid Solo length, false otherwise.
      */
     public static boolean isSoloValidLength(final String pan) {
-        return isValidLength(pan, SOLO_LENGTH);
+        return isValidLength(pan, lengthsForNetwork(CreditCardNetwork.SOLO));
     }
 
     /**
@@ -1567,7 +1464,7 @@ public class CreditCardValidator {
      * @return true if PAN has a valid Solo length, false otherwise.
      */
     protected static boolean isSoloValidLength(final byte[] panDigits) {
-        return isValidLength(panDigits, SOLO_LENGTH);
+        return isValidLength(panDigits, lengthsForNetwork(CreditCardNetwork.SOLO));
     }
 
     /**
@@ -1578,7 +1475,7 @@ public class CreditCardValidator {
      * @return true if provided PAN corresponds to Switch, false otherwise.
      */
     public static boolean isSwitchIIN(final String pan) {
-        return isValidIIN(pan, SWITCH_IIN);
+        return isNetworkIIN(pan, CreditCardNetwork.SWITCH);
     }
 
     /**
@@ -1589,7 +1486,7 @@ public class CreditCardValidator {
      * @return true if provided PAN corresponds to Switch, false otherwise.
      */
     protected static boolean isSwitchIIN(final byte[] panDigits) {
-        return isValidIIN(panDigits, SWITCH_IIN);
+        return isNetworkIIN(panDigits, CreditCardNetwork.SWITCH);
     }
 
     /**
@@ -1600,7 +1497,7 @@ public class CreditCardValidator {
      * @return true if PAN has a valid Switch length, false otherwise.
      */
     public static boolean isSwitchValidLength(final String pan) {
-        return isValidLength(pan, SWITCH_LENGTH);
+        return isValidLength(pan, lengthsForNetwork(CreditCardNetwork.SWITCH));
     }
 
     /**
@@ -1611,7 +1508,7 @@ public class CreditCardValidator {
      * @return true if PAN has a valid Switch length, false otherwise.
      */
     protected static boolean isSwitchValidLength(final byte[] panDigits) {
-        return isValidLength(panDigits, SWITCH_LENGTH);
+        return isValidLength(panDigits, lengthsForNetwork(CreditCardNetwork.SWITCH));
     }
 
     /**
@@ -1622,7 +1519,7 @@ public class CreditCardValidator {
      * @return true if provided PAN corresponds to VISA, false otherwise.
      */
     public static boolean isVISAIIN(final String pan) {
-        return isValidIIN(pan, VISA_IIN);
+        return isNetworkIIN(pan, CreditCardNetwork.VISA);
     }
 
     /**
@@ -1633,7 +1530,7 @@ public class CreditCardValidator {
      * @return true if provided PAN corresponds to VISA, false otherwise.
      */
     protected static boolean isVISAIIN(final byte[] panDigits) {
-        return isValidIIN(panDigits, VISA_IIN);
+        return isNetworkIIN(panDigits, CreditCardNetwork.VISA);
     }
 
     /**
@@ -1643,7 +1540,7 @@ public class CreditCardValidator {
      * @return true if PAN has a valid VISA length, false otherwise.
      */
     public static boolean isVISAValidLength(final String pan) {
-        return isValidLength(pan, VISA_LENGTH);
+        return isValidLength(pan, lengthsForNetwork(CreditCardNetwork.VISA));
     }
 
     /**
@@ -1654,7 +1551,7 @@ public class CreditCardValidator {
      * @return true if PAN has a valid VISA length, false otherwise.
      */
     protected static boolean isVISAValidLength(final byte[] panDigits) {
-        return isValidLength(panDigits, VISA_LENGTH);
+        return isValidLength(panDigits, lengthsForNetwork(CreditCardNetwork.VISA));
     }
 
     /**
@@ -1666,7 +1563,7 @@ public class CreditCardValidator {
      * otherwise.
      */
     public static boolean isVISAElectronIIN(final String pan) {
-        return isValidIIN(pan, VISA_ELECTRON_IIN);
+        return isNetworkIIN(pan, CreditCardNetwork.VISA_ELECTRON);
     }
 
     /**
@@ -1678,7 +1575,7 @@ public class CreditCardValidator {
      * otherwise.
      */
     protected static boolean isVISAElectronIIN(final byte[] panDigits) {
-        return isValidIIN(panDigits, VISA_ELECTRON_IIN);
+        return isNetworkIIN(panDigits, CreditCardNetwork.VISA_ELECTRON);
     }
 
     /**
@@ -1689,7 +1586,7 @@ public class CreditCardValidator {
      * @return true if PAN has a valid VISA Electron length, false otherwise.
      */
     public static boolean isVISAElectronValidLength(final String pan) {
-        return isValidLength(pan, VISA_ELECTRON_LENGTH);
+        return isValidLength(pan, lengthsForNetwork(CreditCardNetwork.VISA_ELECTRON));
     }
 
     /**
@@ -1700,7 +1597,8 @@ public class CreditCardValidator {
      * @return true if PAN has a valid VISA Electron length, false otherwise.
      */
     protected static boolean isVISAElectronValidLength(final byte[] panDigits) {
-        return isValidLength(panDigits, VISA_ELECTRON_LENGTH);
+        return isValidLength(panDigits,
+                lengthsForNetwork(CreditCardNetwork.VISA_ELECTRON));
     }
 
     /**
@@ -1714,7 +1612,29 @@ public class CreditCardValidator {
      * @return true if checksum is valid, false otherwise.
      */
     public static boolean isValidChecksumForPAN(final String pan) {
-        return isValidChecksumForPAN(toDigits(pan));
+        return isValidChecksumForPAN((CharSequence) pan);
+    }
+
+    /**
+     * Validates provided credit card PAN using Luhn algorithm assuming that
+     * the last digit of provided PAN corresponds to its checksum value.
+     * Any non digit character within provided PAN is skipped, and checksum is
+     * computed in a single pass without allocating memory.
+     *
+     * @param pan a credit card PAN to validate its checksum.
+     * @return true if checksum is valid, false otherwise.
+     */
+    public static boolean isValidChecksumForPAN(final CharSequence pan) {
+        final int length = pan != null ? pan.length() : 0;
+        int numDigits = 0;
+        long luhnSums = 0;
+        for (int i = 0; i < length; i++) {
+            final int digit = digitValue(pan.charAt(i));
+            if (digit >= 0) {
+                luhnSums = addLuhnDigit(luhnSums, numDigits++, digit);
+            }
+        }
+        return isValidLuhnSum(numDigits, luhnSums);
     }
 
     /**
@@ -1738,13 +1658,9 @@ public class CreditCardValidator {
             return false; //we need at least two digits (digits + checksum)
         }
 
-        final byte check = panDigits[length - 1];
-
-        // copy digits without check into new array
-        final byte[] digitsWithoutCheck = Arrays.copyOf(panDigits, length - 1);
-
         // compare checksums
-        final byte computedCheck = computeCheck(digitsWithoutCheck);
+        final byte check = panDigits[length - 1];
+        final byte computedCheck = computeCheck(panDigits, length - 1);
         return check == computedCheck;
     }
 
@@ -1817,6 +1733,34 @@ public class CreditCardValidator {
         }
     }
 
+    /**
+     * Internal method to check whether provided credit card PAN corresponds
+     * to IIN ranges of provided network in current {@link CardNetworkRegistry}.
+     *
+     * @param pan     a credit card PAN.
+     * @param network a credit card network.
+     * @return true if PAN corresponds to network IIN ranges, false otherwise.
+     */
+    private static boolean isNetworkIIN(final String pan,
+                                        final CreditCardNetwork network) {
+        // remove hyphens, spaces or any punctuation mark from pan string
+        return pan != null && isNetworkIIN(toDigits(pan), network);
+    }
+
+    /**
+     * Internal method to check whether provided array of PAN digits
+     * corresponds to IIN ranges of provided network in current
+     * {@link CardNetworkRegistry}.
+     *
+     * @param panDigits array containing credit card PAN digits.
+     * @param network   a credit card network.
+     * @return true if PAN corresponds to network IIN ranges, false otherwise.
+     */
+    private static boolean isNetworkIIN(final byte[] panDigits,
+                                        final CreditCardNetwork network) {
+        return CardNetworkRegistry.getInstance().isIIN(panDigits, network);
+    }
+
     /**
      * Internal method to check whether provided credit card PAN corresponds
      * to a valid IIN by checking the array of valid IIN ranges.
@@ -1848,19 +1792,13 @@ public class CreditCardValidator {
         if (panDigits == null || panDigits.length == 0) {
             return false;
         }
-        final StringBuilder panBuilder = new StringBuilder();
-        for (final byte panDigit : panDigits) {
-            panBuilder.append(panDigit);
-        }
-        final String pan2 = panBuilder.toString();
 
         String iinStartStr;
         String iinEndStr;
-        String iinStr;
-        int iinStart;
-        int iinEnd;
-        int leadingZeros;
-        StringBuilder iinBuilder;
+        int iinLength;
+        int numDigits;
+        long divisor;
+        long prefix;
         // try for all possible IIN ranges
         for (final String[] iin : iins) {
             iinStartStr = iin[0];
@@ -1869,44 +1807,27 @@ public class CreditCardValidator {
                 return false;
             }
 
-            leadingZeros = numLeadingZeros(iinStartStr);
-            if (iinStartStr.length() < iinEndStr.length()) {
-                // add 0's to start of range until both start and end have the
-                // same length
-                iinBuilder = new StringBuilder();
-                iinBuilder.append(iinStartStr);
-                final int diff = iinEndStr.length() - iinStartStr.length();
-                for (int j = 0; j < diff; j++) {
-                    iinBuilder.append('0');
-                }
-                iinStartStr = iinBuilder.toString();
+            // start is padded with 0's and end with 9's until both have the
+            // same length
+            iinLength = Math.max(iinStartStr.length(), iinEndStr.length());
+
+            // PAN matches if its first digits (or the whole PAN if it is
+            // shorter than the IIN) are within the range truncated to the same
+            // number of digits. This way there is no need to check every IIN
+            // within the range
+            numDigits = Math.min(panDigits.length, iinLength);
+            divisor = 1;
+            for (int j = numDigits; j < iinLength; j++) {
+                divisor *= 10;
             }
-            if (iinStartStr.length() > iinEndStr.length()) {
-                // add 9's to end of range until both start and end have the same
-                // length
-                iinBuilder = new StringBuilder();
-                iinBuilder.append(iinEndStr);
-                final int diff = iinStartStr.length() - iinEndStr.length();
-                for (int j = 0; j < diff; j++) {
-                    iinBuilder.append('9');
-                }
-                iinEndStr = iinBuilder.toString();
+            prefix = 0;
+            for (int j = 0; j < numDigits; j++) {
+                prefix = prefix * 10 + panDigits[j];
             }
-            iinStart = Integer.parseInt(iinStartStr);
-            iinEnd = Integer.parseInt(iinEndStr);
-            for (int j = iinStart; j <= iinEnd; j++) {
-                // try for all values within a range
-                iinBuilder = new StringBuilder();
-                for (int m = 0; m < leadingZeros; m++) {
-                    iinBuilder.append('0');
-                }
-                iinBuilder.append(j);
-
-                // check if pan starts with computed IIN
-                iinStr = iinBuilder.toString();
-                if (pan2.startsWith(iinStr) || iinStr.startsWith(pan2)) {
-                    return true;
-                }
+
+            if (parseIIN(iinStartStr, iinLength, 0) / divisor <= prefix &&
+                    prefix <= parseIIN(iinEndStr, iinLength, 9) / divisor) {
+                return true;
             }
         }
 
@@ -1940,8 +1861,18 @@ public class CreditCardValidator {
         if (panDigits == null || lengths == null) {
             return false;
         }
-        final int length = panDigits.length;
+        return isValidLength(panDigits.length, lengths);
+    }
 
+    /**
+     * Internal method to determine whether provided number of credit card PAN
+     * digits is valid based on array of valid length ranges.
+     *
+     * @param length  number of credit card PAN digits.
+     * @param lengths array of valid length ranges.
+     * @return true if PAN length is valid, false otherwise.
+     */
+    private static boolean isValidLength(final int length, final byte[][] lengths) {
         int minLength;
         int maxLength;
         for (final byte[] l : lengths) {
@@ -1974,41 +1905,210 @@ public class CreditCardValidator {
         return length;
     }
 
+    /**
+     * Parses the numerical value of an IIN after padding it with provided
+     * digit until it has provided length.
+     *
+     * @param iin      a given IIN in string format.
+     * @param length   length of padded IIN.
+     * @param padDigit digit used to pad IIN.
+     * @return numerical value of padded IIN.
+     * @throws NumberFormatException if IIN contains non digit characters.
+     */
+    private static long parseIIN(final String iin, final int length, final int padDigit) {
+        final int iinLength = iin.length();
+        long value = 0;
+        int digit;
+        for (int i = 0; i < length; i++) {
+            digit = i < iinLength ? Character.digit(iin.charAt(i), 10) : padDigit;
+            if (digit < 0) {
+                throw new NumberFormatException();
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
     /**
      * Computes checksum using Luhn algorithm.
-     * Notice that this method will modify the values in provided array of
-     * digits.
+     * Provided array is not modified.
      *
      * @param digitsWithoutCheck array containing a credit card PAN number
      *                           without its checksum value (which is the last digit).
      * @return computed checksum value.
      */
     protected static byte computeCheck(final byte[] digitsWithoutCheck) {
-        // multiply by two even digits
-        final int length = digitsWithoutCheck.length;
-        for (int i = length - 1; i >= 0; i -= 2) {
-            digitsWithoutCheck[i] *= 2;
+        return computeCheck(digitsWithoutCheck, digitsWithoutCheck.length);
+    }
+
+    /**
+     * Computes checksum using Luhn algorithm for the first digits of provided
+     * array.
+     * Digits are processed from right to left in pairs, where the rightmost
+     * digit of the pair is doubled, so that the contribution of each pair is
+     * obtained from a lookup table without branches nor divisions.
+     * Provided array is not modified.
+     *
+     * @param digits array containing a credit card PAN number.
+     * @param length number of digits to take into account, excluding the
+     *               checksum.
+     * @return computed checksum value.
+     */
+    protected static byte computeCheck(final byte[] digits, final int length) {
+        int sum = 0;
+        int i = length - 1;
+        for (; i >= 1; i -= 2) {
+            // digit at i is doubled, digit at i - 1 is not
+            sum += LUHN_PAIRS[10 * digits[i] + digits[i - 1]];
+        }
+        if (i == 0) {
+            sum += LUHN_DOUBLED_DIGITS[digits[0]];
         }
 
-        // sum digits of multiplied digits
-        byte value;
-        byte unit;
-        byte ten;
+        // multiply by 9 and pick last digit (modulus 10)
+        return (byte) ((sum * 9) % 10);
+    }
+
+    /**
+     * Computes the Luhn check digit that must be appended to provided partial
+     * PAN to make it valid, which is useful to generate PANs.
+     * Any non digit character is ignored.
+     *
+     * @param panWithoutCheck credit card PAN without its check digit.
+     * @return check digit between 0 and 9.
+     * @throws IllegalArgumentException if provided PAN is null.
+     */
+    public static int computeCheckDigit(final CharSequence panWithoutCheck) {
+        if (panWithoutCheck == null) {
+            throw new IllegalArgumentException();
+        }
+
+        final int length = panWithoutCheck.length();
+        int numDigits = 0;
+        long luhnSums = 0;
         for (int i = 0; i < length; i++) {
-            value = digitsWithoutCheck[i];
-            unit = (byte) (value % 10); //a unit
-            ten = (byte) ((value - unit) / 10); //a ten
-            digitsWithoutCheck[i] = (byte) (unit + ten);
+            final int digit = digitValue(panWithoutCheck.charAt(i));
+            if (digit >= 0) {
+                luhnSums = addLuhnDigit(luhnSums, numDigits++, digit);
+            }
         }
+        return luhnCheckDigit(numDigits, luhnSums);
+    }
 
-        // sum all values
-        int sum = 0;
-        for (final byte digitWithoutCheck : digitsWithoutCheck) {
-            sum += digitWithoutCheck;
+    /**
+     * Returns value of provided character if it is a digit.
+     *
+     * @param c a character.
+     * @return value of digit between 0 and 9, or -1 if character is not a
+     * digit.
+     */
+    private static int digitValue(final char c) {
+        return c >= '0' && c <= '9' ? c - '0' : -1;
+    }
+
+    /**
+     * Returns value of the first {@link BinDatabase#BIN_DIGITS} digits of
+     * provided PAN digits.
+     *
+     * @param panDigits an array containing credit card PAN digits.
+     * @return value of BIN digits.
+     */
+    private static int binValue(final byte[] panDigits) {
+        final int numDigits = binDigits(panDigits);
+        int bin = 0;
+        for (int i = 0; i < numDigits; i++) {
+            bin = bin * 10 + panDigits[i];
         }
+        return bin;
+    }
 
-        // multiply by 9 and pick last digit (modulus 10)
-        return (byte) ((sum * 9) % 10);
+    /**
+     * Returns number of provided PAN digits that belong to its BIN.
+     *
+     * @param panDigits an array containing credit card PAN digits.
+     * @return number of BIN digits.
+     */
+    private static int binDigits(final byte[] panDigits) {
+        return panDigits != null ? Math.min(panDigits.length,
+                BinDatabase.BIN_DIGITS) : 0;
+    }
+
+    /**
+     * Adds a PAN digit to both possible Luhn sums of the digits scanned from
+     * left to right.
+     * Luhn algorithm doubles every second digit starting from the rightmost
+     * digit before the checksum, hence digits at even positions (starting at
+     * zero) are doubled when the total number of digits is even, and digits at
+     * odd positions are doubled otherwise. Since the total number of digits is
+     * not known until the end, both sums are kept within a single value: the
+     * sum doubling digits at even positions in the lower 32 bits and the sum
+     * doubling digits at odd positions in the upper 32 bits.
+     *
+     * @param sums     current Luhn sums, initially zero.
+     * @param position position of digit starting at zero.
+     * @param digit    a digit between 0 and 9.
+     * @return updated Luhn sums.
+     */
+    static long addLuhnDigit(final long sums, final int position, final int digit) {
+        final int doubled = LUHN_DOUBLED_DIGITS[digit];
+        if ((position & 1) == 0) {
+            return sums + doubled + ((long) digit << Integer.SIZE);
+        } else {
+            return sums + digit + ((long) doubled << Integer.SIZE);
+        }
+    }
+
+    /**
+     * Gets Luhn sum of a PAN having provided total number of digits (including
+     * checksum), which doubles every second digit starting from the rightmost
+     * digit before the checksum.
+     *
+     * @param numDigits total number of PAN digits.
+     * @param sums      Luhn sums of scanned digits.
+     * @return Luhn sum.
+     */
+    private static int luhnSum(final int numDigits, final long sums) {
+        return (numDigits & 1) == 0 ? (int) sums : (int) (sums >>> Integer.SIZE);
+    }
+
+    /**
+     * Indicates whether Luhn sums of scanned PAN digits correspond to a valid
+     * checksum.
+     *
+     * @param numDigits total number of PAN digits, including checksum.
+     * @param sums      Luhn sums obtained with
+     *                  {@link #addLuhnDigit(long, int, int)}.
+     * @return true if checksum is valid, false otherwise.
+     */
+    static boolean isValidLuhnSum(final int numDigits, final long sums) {
+        if (numDigits < 2) {
+            return false; //we need at least two digits (digits + checksum)
+        }
+        return luhnSum(numDigits, sums) % 10 == 0;
+    }
+
+    /**
+     * Computes the Luhn check digit that must be appended to scanned PAN
+     * digits to make them valid.
+     *
+     * @param numDigits number of scanned digits, excluding check digit.
+     * @param sums      Luhn sums obtained with
+     *                  {@link #addLuhnDigit(long, int, int)}.
+     * @return check digit between 0 and 9.
+     */
+    static int luhnCheckDigit(final int numDigits, final long sums) {
+        // PAN has one more digit once check digit is appended
+        return (luhnSum(numDigits + 1, sums) * 9) % 10;
+    }
+
+    /**
+     * Returns valid length ranges for provided credit card network.
+     *
+     * @param network a credit card network.
+     * @return valid length ranges or null if network is unknown.
+     */
+    protected static byte[][] lengthsForNetwork(final CreditCardNetwork network) {
+        return CardNetworkRegistry.getInstance().getLengths(network);
     }
 
     /**
@@ -2018,30 +2118,7 @@ public class CreditCardValidator {
      * @return digit groupings.
      */
     protected static byte[][] groupingsForNetwork(final CreditCardNetwork network) {
-        if (network == null) {
-            return DEFAULT_GROUPING;
-        }
-
-        switch (network) {
-            case AMERICAN_EXPRESS:
-                return AMEX_GROUPING;
-            case VISA:
-                return VISA_GROUPING;
-            case VISA_ELECTRON:
-                return VISA_ELECTRON_GROUPING;
-            case MASTERCARD:
-                return MASTERCARD_GROUPING;
-            case DINERS_CLUB_INTERNATIONAL:
-            case DINERS_CLUB_CARTE_BLANCHE:
-                return DINERS_CLUB_INTERATIONAL_GROUPING;
-            case DINERS_CLUB_ENROUTE:
-                return DINERS_CLUB_ENROUTE_GROUPING;
-            case DINERS_CLUB_USA_CANADA:
-            case DISCOVER:
-                return DISCOVER_GROUPING;
-            default:
-                return DEFAULT_GROUPING;
-        }
+        return CardNetworkRegistry.getInstance().getGroupings(network);
     }
 
     /**
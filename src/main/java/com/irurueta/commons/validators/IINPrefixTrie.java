@@ -0,0 +1,416 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons.validators;
+
+import java.util.Arrays;
+
+/**
+ * Digit trie containing IIN (Issuer Identification Number) ranges for up to
+ * 32 labels (i.e. credit card networks).
+ * Each IIN range is decomposed into the minimum set of digit prefixes covering
+ * it, so that once the trie has been built, the labels matching a given PAN
+ * can be resolved by walking at most as many nodes as digits the longest IIN
+ * has, without allocating any memory.
+ * Labels are returned as bit masks where bit i is set if label i matches.
+ * Matching follows the same rules as
+ * {@link CreditCardValidator#isValidIIN(byte[], String[][])}: a PAN matches an
+ * IIN range if the PAN starts with any IIN within the range, or if the PAN is
+ * shorter and any IIN within the range starts with the PAN.
+ * Instances of this class are immutable and thread safe.
+ */
+public class IINPrefixTrie {
+
+    /**
+     * Maximum number of labels that can be stored.
+     */
+    public static final int MAX_LABELS = Integer.SIZE;
+
+    /**
+     * Position of root node.
+     */
+    public static final int ROOT = 0;
+
+    /**
+     * Value returned when a node has no child for a given digit.
+     */
+    public static final int NO_NODE = -1;
+
+    /**
+     * Maximum number of digits supported on IIN ranges.
+     */
+    private static final int MAX_IIN_DIGITS = 18;
+
+    /**
+     * Number of possible children of a node (one for each decimal digit).
+     */
+    private static final int RADIX = 10;
+
+    /**
+     * Children of each node. Position node * 10 + digit contains the child
+     * node for such digit, or {@link #NO_NODE} if there is none.
+     */
+    private final int[] mChildren;
+
+    /**
+     * Masks containing labels whose IIN range fully contains the prefix
+     * represented by each node.
+     */
+    private final int[] mPathMasks;
+
+    /**
+     * Masks containing labels that match the prefix represented by each node
+     * either fully or partially (i.e. some IIN of the label starts with the
+     * prefix represented by the node).
+     */
+    private final int[] mPartialMasks;
+
+    /**
+     * Constructor.
+     *
+     * @param iins IIN ranges for each label. Position i contains the IIN ranges
+     *             of label i, where each range is an array containing start and
+     *             end IIN (both inclusive). If start and end have different
+     *             lengths, the shorter one is padded with 0's (start) or 9's
+     *             (end).
+     * @throws IllegalArgumentException if more than 32 labels are provided or
+     *                                  if any range is null, empty, contains
+     *                                  non digit characters or starts after it
+     *                                  ends.
+     */
+    public IINPrefixTrie(final String[][]... iins) {
+        if (iins == null || iins.length > MAX_LABELS) {
+            throw new IllegalArgumentException();
+        }
+
+        final Builder builder = new Builder();
+        for (int label = 0; label < iins.length; label++) {
+            final String[][] ranges = iins[label];
+            if (ranges == null) {
+                throw new IllegalArgumentException();
+            }
+            for (final String[] range : ranges) {
+                builder.add(range, label);
+            }
+        }
+
+        final int numNodes = builder.mNumNodes;
+        mChildren = Arrays.copyOf(builder.mChildren, numNodes * RADIX);
+        mPathMasks = new int[numNodes];
+        mPartialMasks = new int[numNodes];
+
+        // children are always created after their parents, hence path masks
+        // can be propagated forward and subtree masks backward
+        mPathMasks[ROOT] = builder.mMarks[ROOT];
+        for (int node = 0; node < numNodes; node++) {
+            for (int digit = 0; digit < RADIX; digit++) {
+                final int child = mChildren[node * RADIX + digit];
+                if (child != NO_NODE) {
+                    mPathMasks[child] = mPathMasks[node] | builder.mMarks[child];
+                }
+            }
+        }
+
+        final int[] subtreeMasks = Arrays.copyOf(builder.mMarks, numNodes);
+        for (int node = numNodes - 1; node >= 0; node--) {
+            for (int digit = 0; digit < RADIX; digit++) {
+                final int child = mChildren[node * RADIX + digit];
+                if (child != NO_NODE) {
+                    subtreeMasks[node] |= subtreeMasks[child];
+                }
+            }
+            mPartialMasks[node] = mPathMasks[node] | subtreeMasks[node];
+        }
+    }
+
+    /**
+     * Gets number of nodes in this trie.
+     *
+     * @return number of nodes.
+     */
+    public int getNumberOfNodes() {
+        return mPathMasks.length;
+    }
+
+    /**
+     * Gets child of provided node for provided digit.
+     *
+     * @param node  a node.
+     * @param digit a digit.
+     * @return child node or {@link #NO_NODE} if there is no child for provided
+     * digit or digit is not between 0 and 9.
+     */
+    public int child(final int node, final int digit) {
+        if (digit < 0 || digit >= RADIX) {
+            return NO_NODE;
+        }
+        return mChildren[node * RADIX + digit];
+    }
+
+    /**
+     * Gets mask of labels whose IIN ranges fully contain the prefix
+     * represented by provided node. This is the result of a match when a PAN
+     * continues with a digit having no child on provided node.
+     *
+     * @param node a node.
+     * @return mask of labels.
+     */
+    public int pathMask(final int node) {
+        return mPathMasks[node];
+    }
+
+    /**
+     * Gets mask of labels whose IIN ranges either contain or start with the
+     * prefix represented by provided node. This is the result of a match when
+     * a PAN ends at provided node.
+     *
+     * @param node a node.
+     * @return mask of labels.
+     */
+    public int partialMask(final int node) {
+        return mPartialMasks[node];
+    }
+
+    /**
+     * Finds labels whose IIN ranges match provided PAN digits.
+     *
+     * @param panDigits array containing credit card PAN digits.
+     * @return mask of matched labels, where bit i is set if label i matches.
+     * Zero is returned if no label matches or if no digits are provided.
+     */
+    public int match(final byte[] panDigits) {
+        if (panDigits == null || panDigits.length == 0) {
+            return 0;
+        }
+
+        int node = ROOT;
+        for (final byte digit : panDigits) {
+            final int next = child(node, digit);
+            if (next == NO_NODE) {
+                return mPathMasks[node];
+            }
+            node = next;
+        }
+        return mPartialMasks[node];
+    }
+
+    /**
+     * Advances a walk over this trie by one PAN digit. The state of a walk is
+     * the current node while digits keep matching nodes, which starts at
+     * {@link #ROOT}, or the complement of the path mask of the last matched
+     * node (hence negative) once a digit has no child, after which further
+     * digits cannot change the state.
+     * This allows walking the trie while digits are read from any source
+     * without allocating memory.
+     *
+     * @param state current state of walk.
+     * @param digit next PAN digit between 0 and 9.
+     * @return new state of walk.
+     */
+    long step(final long state, final int digit) {
+        if (state < 0) {
+            return state;
+        }
+        final int node = (int) state;
+        final int next = mChildren[node * RADIX + digit];
+        return next != NO_NODE ? next : ~(mPathMasks[node] & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Indicates whether a walk has left this trie, so that further digits
+     * cannot change its matched labels.
+     *
+     * @param state state of walk.
+     * @return true if walk has left the trie, false otherwise.
+     */
+    static boolean isResolved(final long state) {
+        return state < 0;
+    }
+
+    /**
+     * Gets mask of labels matched by the digits of a walk. A walk that has
+     * not consumed any digit matches no label.
+     *
+     * @param state state of walk.
+     * @return mask of matched labels, as returned by {@link #match(byte[])}.
+     */
+    int mask(final long state) {
+        if (state < 0) {
+            return (int) ~state;
+        }
+        return state != ROOT ? mPartialMasks[(int) state] : 0;
+    }
+
+    /**
+     * Helper to build trie nodes.
+     */
+    private static class Builder {
+        /**
+         * Initial capacity in number of nodes.
+         */
+        private static final int INITIAL_CAPACITY = 64;
+
+        /**
+         * Children of each node.
+         */
+        private int[] mChildren = newChildren(INITIAL_CAPACITY);
+
+        /**
+         * Labels whose range fully covers each node.
+         */
+        private int[] mMarks = new int[INITIAL_CAPACITY];
+
+        /**
+         * Number of created nodes.
+         */
+        private int mNumNodes = 1;
+
+        /**
+         * Adds an IIN range for provided label.
+         *
+         * @param range array containing start and end IIN.
+         * @param label label to be added.
+         * @throws IllegalArgumentException if range is not valid.
+         */
+        private void add(final String[] range, final int label) {
+            if (range == null || range.length != 2 || range[0] == null ||
+                    range[1] == null) {
+                throw new IllegalArgumentException();
+            }
+
+            final int length = Math.max(range[0].length(), range[1].length());
+            if (length == 0 || length > MAX_IIN_DIGITS) {
+                throw new IllegalArgumentException();
+            }
+
+            final long start = parse(range[0], length, 0);
+            final long end = parse(range[1], length, 9);
+            if (start > end) {
+                throw new IllegalArgumentException();
+            }
+            cover(ROOT, length, 0L, start, end, 1 << label);
+        }
+
+        /**
+         * Marks all nodes fully covered by provided range, creating them if
+         * needed.
+         *
+         * @param node      current node.
+         * @param remaining number of IIN digits below current node.
+         * @param prefix    numerical value of prefix represented by current
+         *                  node.
+         * @param start     start of range.
+         * @param end       end of range.
+         * @param mask      mask of label being added.
+         */
+        private void cover(final int node, final int remaining, final long prefix,
+                           final long start, final long end, final int mask) {
+            final long span = pow10(remaining);
+            final long low = prefix * span;
+            final long high = low + span - 1;
+            if (start <= low && high <= end) {
+                mMarks[node] |= mask;
+                return;
+            }
+
+            final long childSpan = span / RADIX;
+            for (int digit = 0; digit < RADIX; digit++) {
+                final long childPrefix = prefix * RADIX + digit;
+                final long childLow = childPrefix * childSpan;
+                final long childHigh = childLow + childSpan - 1;
+                if (childHigh >= start && childLow <= end) {
+                    cover(getOrCreateChild(node, digit), remaining - 1,
+                            childPrefix, start, end, mask);
+                }
+            }
+        }
+
+        /**
+         * Gets child of a node or creates it if it does not exist.
+         *
+         * @param node  a node.
+         * @param digit digit of child.
+         * @return child node.
+         */
+        private int getOrCreateChild(final int node, final int digit) {
+            final int pos = node * RADIX + digit;
+            if (mChildren[pos] != NO_NODE) {
+                return mChildren[pos];
+            }
+
+            if (mNumNodes == mMarks.length) {
+                final int capacity = 2 * mMarks.length;
+                final int[] children = newChildren(capacity);
+                System.arraycopy(mChildren, 0, children, 0, mChildren.length);
+                mChildren = children;
+                mMarks = Arrays.copyOf(mMarks, capacity);
+            }
+
+            final int child = mNumNodes++;
+            mChildren[pos] = child;
+            return child;
+        }
+
+        /**
+         * Creates array of children for provided number of nodes.
+         *
+         * @param capacity number of nodes.
+         * @return array of children without any child.
+         */
+        private static int[] newChildren(final int capacity) {
+            final int[] result = new int[capacity * RADIX];
+            Arrays.fill(result, NO_NODE);
+            return result;
+        }
+
+        /**
+         * Parses an IIN padding it to provided length.
+         *
+         * @param iin      IIN to be parsed.
+         * @param length   length of padded IIN.
+         * @param padDigit digit to pad IIN with.
+         * @return numerical value of padded IIN.
+         * @throws IllegalArgumentException if IIN contains non digit
+         *                                  characters.
+         */
+        private static long parse(final String iin, final int length, final int padDigit) {
+            final int iinLength = iin.length();
+            long value = 0;
+            for (int i = 0; i < length; i++) {
+                final int digit = i < iinLength ? Character.digit(iin.charAt(i), RADIX) :
+                        padDigit;
+                if (digit < 0) {
+                    throw new IllegalArgumentException();
+                }
+                value = value * RADIX + digit;
+            }
+            return value;
+        }
+
+        /**
+         * Computes power of 10.
+         *
+         * @param exponent exponent.
+         * @return 10 raised to provided exponent.
+         */
+        private static long pow10(final int exponent) {
+            long result = 1;
+            for (int i = 0; i < exponent; i++) {
+                result *= RADIX;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons.validators;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads records of a file containing one PAN per line, encoded in ASCII,
+ * directly from memory mapped bytes.
+ * File is mapped in windows of limited size, and records may span across
+ * windows. Bytes of each record are fed into a provided {@link PanAnalysis}
+ * without decoding them into strings.
+ * Empty lines are treated as empty PANs, except for the end of the last line.
+ * A file can also be read in blocks of complete lines, so that several readers
+ * created on each block read disjoint ranges of it concurrently.
+ * Provided channel is not closed by this class.
+ * Instances of this class are not thread safe.
+ */
+class MappedLineReader {
+
+    /**
+     * Default maximum number of bytes of a file being mapped into memory at
+     * once.
+     */
+    static final int DEFAULT_WINDOW_BYTES = 1 << 28;
+
+    /**
+     * Line separator of files.
+     */
+    static final byte LINE_SEPARATOR = '\n';
+
+    /**
+     * Channel to read file or null if reading an already mapped block.
+     */
+    private final FileChannel mChannel;
+
+    /**
+     * Size of file or block in bytes.
+     */
+    private final long mSize;
+
+    /**
+     * Maximum number of bytes being mapped into memory at once.
+     */
+    private final int mWindowBytes;
+
+    /**
+     * Currently mapped window or null if no window has been mapped yet.
+     */
+    private ByteBuffer mWindow;
+
+    /**
+     * Position within file where current window starts.
+     */
+    private long mWindowStart;
+
+    /**
+     * Length of current window.
+     */
+    private int mWindowLength;
+
+    /**
+     * Position of next byte to be read within current window.
+     */
+    private int mWindowPosition;
+
+    /**
+     * Position within file where last read record starts or -1 if no record
+     * has been read yet.
+     */
+    private long mOffset = -1;
+
+    /**
+     * Length in bytes of last read record, excluding line separator.
+     */
+    private int mLength;
+
+    /**
+     * Constructor.
+     *
+     * @param channel     channel to read file.
+     * @param size        size of file in bytes.
+     * @param windowBytes maximum number of bytes being mapped into memory at
+     *                    once.
+     */
+    MappedLineReader(final FileChannel channel, final long size,
+                     final int windowBytes) {
+        mChannel = channel;
+        mSize = size;
+        mWindowBytes = windowBytes;
+    }
+
+    /**
+     * Constructor to read a block of complete lines already mapped into
+     * memory.
+     * Positions are relative to the start of the block.
+     *
+     * @param block  mapped block.
+     * @param length length of block in bytes.
+     */
+    MappedLineReader(final ByteBuffer block, final int length) {
+        mChannel = null;
+        mSize = length;
+        mWindowBytes = length;
+        mWindow = block;
+        mWindowLength = length;
+    }
+
+    /**
+     * Gets position within file where next record starts.
+     *
+     * @return position of next record.
+     */
+    long getPosition() {
+        return mWindowStart + mWindowPosition;
+    }
+
+    /**
+     * Moves to the first record starting at or after provided position.
+     *
+     * @param position position within file.
+     * @throws IOException if file cannot be read.
+     */
+    void seek(final long position) throws IOException {
+        final long previous = position > 0 ? position - 1 : 0;
+        if (mWindow != null && previous >= mWindowStart &&
+                previous < mWindowStart + mWindowLength) {
+            // reuse current window
+            mWindowPosition = (int) (previous - mWindowStart);
+        } else {
+            mWindowStart = previous;
+            mWindowLength = 0;
+            mWindowPosition = 0;
+        }
+        if (position <= 0) {
+            return;
+        }
+
+        // skip remainder of the record containing the byte before provided
+        // position
+        while (mWindowPosition < mWindowLength || mapNextWindow()) {
+            final ByteBuffer window = mWindow;
+            final int limit = mWindowLength;
+            int pos = mWindowPosition;
+            while (pos < limit) {
+                if (window.get(pos++) == LINE_SEPARATOR) {
+                    mWindowPosition = pos;
+                    return;
+                }
+            }
+            mWindowPosition = pos;
+        }
+    }
+
+    /**
+     * Reads next record and feeds its bytes into provided analysis, which is
+     * reset before and finished after reading the record.
+     *
+     * @param analysis analysis where record is fed.
+     * @return true if a record was read, false if end of file was reached.
+     * @throws IOException if file cannot be read.
+     */
+    boolean next(final PanAnalysis analysis) throws IOException {
+        final long start = getPosition();
+        if (start >= mSize) {
+            return false;
+        }
+
+        analysis.reset();
+        boolean found = false;
+        while (!found) {
+            if (mWindowPosition == mWindowLength && !mapNextWindow()) {
+                break;
+            }
+
+            final ByteBuffer window = mWindow;
+            final int limit = mWindowLength;
+            int position = mWindowPosition;
+            while (position < limit) {
+                final byte b = window.get(position++);
+                if (b == LINE_SEPARATOR) {
+                    found = true;
+                    break;
+                }
+                analysis.append((char) (b & 0xFF));
+            }
+            mWindowPosition = position;
+        }
+
+        mOffset = start;
+        mLength = (int) (getPosition() - start - (found ? 1 : 0));
+        analysis.finish();
+        return true;
+    }
+
+    /**
+     * Gets position in bytes where last read record starts within the file.
+     *
+     * @return position of last read record or -1 if no record has been read.
+     */
+    long getOffset() {
+        return mOffset;
+    }
+
+    /**
+     * Gets length in bytes of last read record, excluding line separator.
+     *
+     * @return length of last read record.
+     */
+    int getLength() {
+        return mLength;
+    }
+
+    /**
+     * Maps next block of complete lines of file, which starts where previous
+     * block ended and ends right after a line separator, unless it reaches
+     * the end of the file.
+     * Reader is left at the start of the block.
+     *
+     * @return true if a block was mapped, false if end of file was reached.
+     * @throws IOException if file cannot be mapped or contains a line longer
+     *                     than the maximum mapped window.
+     */
+    boolean mapNextBlock() throws IOException {
+        if (!mapNextWindow()) {
+            return false;
+        }
+        if (mWindowStart + mWindowLength < mSize) {
+            int end = mWindowLength;
+            while (end > 0 && mWindow.get(end - 1) != LINE_SEPARATOR) {
+                end--;
+            }
+            if (end == 0) {
+                throw new IOException("line at position " + mWindowStart +
+                        " exceeds " + mWindowBytes + " bytes");
+            }
+            mWindowLength = end;
+        }
+        return true;
+    }
+
+    /**
+     * Gets currently mapped block.
+     *
+     * @return mapped block or null if no block has been mapped.
+     */
+    ByteBuffer getBlock() {
+        return mWindow;
+    }
+
+    /**
+     * Gets length in bytes of currently mapped block.
+     *
+     * @return length of mapped block.
+     */
+    int getBlockLength() {
+        return mWindowLength;
+    }
+
+    /**
+     * Releases currently mapped window.
+     */
+    void release() {
+        mWindow = null;
+    }
+
+    /**
+     * Maps next window of file.
+     *
+     * @return true if a window was mapped, false if end of file was reached.
+     * @throws IOException if file cannot be mapped.
+     */
+    private boolean mapNextWindow() throws IOException {
+        final long start = mWindowStart + mWindowLength;
+        if (start >= mSize || mChannel == null) {
+            return false;
+        }
+        final int length = (int) Math.min(mWindowBytes, mSize - start);
+        mWindow = mChannel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        mWindowStart = start;
+        mWindowLength = length;
+        mWindowPosition = 0;
+        return true;
+    }
+}
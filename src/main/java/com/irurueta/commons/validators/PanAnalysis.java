@@ -0,0 +1,239 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons.validators;
+
+/**
+ * Contains the result of analyzing a credit card PAN with
+ * {@link CreditCardValidator#analyze(CharSequence, PanAnalysis)}.
+ * Instances of this class are mutable so that they can be reused when
+ * analyzing large amounts of PANs to avoid allocating a new result for each of
+ * them. Because of this, instances of this class are not thread safe.
+ * PAN characters can also be fed one at a time by calling {@link #reset()},
+ * then {@link #append(char)} for each character and finally
+ * {@link #finish()}, which allows analyzing PANs coming from any source (i.e.
+ * byte buffers or streams) without converting them into strings.
+ */
+public class PanAnalysis {
+
+    /**
+     * Detected credit card network.
+     */
+    private CreditCardNetwork mNetwork = CreditCardNetwork.UNKNOWN;
+
+    /**
+     * Number of digits found on PAN.
+     */
+    private int mNumDigits;
+
+    /**
+     * Indicates whether PAN starts with a valid MII (Major Industry
+     * Identifier).
+     */
+    private boolean mValidMII;
+
+    /**
+     * Indicates whether PAN has a valid length for detected network.
+     */
+    private boolean mValidLength = true;
+
+    /**
+     * Indicates whether PAN has a valid Luhn checksum.
+     */
+    private boolean mValidChecksum;
+
+    /**
+     * Indicates whether PAN is valid.
+     */
+    private boolean mValid = true;
+
+    /**
+     * Registry of card networks used to analyze current PAN, which is obtained
+     * each time this instance is reset so that a PAN is analyzed with a
+     * consistent registry even if it is replaced meanwhile.
+     */
+    private CardNetworkRegistry mRegistry;
+
+    /**
+     * Number of leading digits required to look up the BIN database of
+     * current registry, or zero if it has no BIN database.
+     */
+    private int mMaxBinDigits;
+
+    /**
+     * State of IIN trie walk of appended digits, as returned by
+     * {@link IINPrefixTrie#step(long, int)}.
+     */
+    private long mIINState = IINPrefixTrie.ROOT;
+
+    /**
+     * Value of first appended digits belonging to BIN.
+     */
+    private int mBin;
+
+    /**
+     * First appended digit or -1 if no digit has been appended.
+     */
+    private int mFirstDigit = -1;
+
+    /**
+     * Both possible Luhn sums of appended digits, as returned by
+     * {@link CreditCardValidator#addLuhnDigit(long, int, int)}.
+     */
+    private long mLuhnSums;
+
+    /**
+     * Constructor.
+     */
+    public PanAnalysis() {
+        reset();
+    }
+
+    /**
+     * Gets detected credit card network.
+     *
+     * @return detected credit card network.
+     */
+    public CreditCardNetwork getNetwork() {
+        return mNetwork;
+    }
+
+    /**
+     * Gets number of digits found on PAN, ignoring any non digit character.
+     *
+     * @return number of digits.
+     */
+    public int getNumDigits() {
+        return mNumDigits;
+    }
+
+    /**
+     * Indicates whether PAN starts with a valid MII (Major Industry
+     * Identifier).
+     *
+     * @return true if PAN has a valid MII, false otherwise.
+     */
+    public boolean isValidMII() {
+        return mValidMII;
+    }
+
+    /**
+     * Indicates whether PAN has a valid length for detected network.
+     * PAN for unknown network is assumed to always have a valid length.
+     *
+     * @return true if PAN has a valid length, false otherwise.
+     */
+    public boolean isValidLength() {
+        return mValidLength;
+    }
+
+    /**
+     * Indicates whether PAN has a valid Luhn checksum, regardless of detected
+     * network using Luhn validation or not.
+     *
+     * @return true if checksum is valid, false otherwise.
+     */
+    public boolean isValidChecksum() {
+        return mValidChecksum;
+    }
+
+    /**
+     * Indicates whether PAN is valid, which means that it has a valid length
+     * for detected network and a valid checksum if detected network uses
+     * Luhn validation.
+     * This is equivalent to {@link CreditCardValidator#isValid(CharSequence)}.
+     *
+     * @return true if PAN appears to be valid, false otherwise.
+     */
+    public boolean isValid() {
+        return mValid;
+    }
+
+    /**
+     * Resets this instance so that a new PAN can be analyzed by appending its
+     * characters.
+     */
+    public void reset() {
+        mRegistry = CardNetworkRegistry.getInstance();
+        mMaxBinDigits = mRegistry.hasBinDatabase() ? BinDatabase.BIN_DIGITS : 0;
+        mIINState = IINPrefixTrie.ROOT;
+        mBin = 0;
+        mFirstDigit = -1;
+        mNumDigits = 0;
+        mLuhnSums = 0;
+    }
+
+    /**
+     * Appends a character of the PAN being analyzed. Any non digit character
+     * is ignored.
+     *
+     * @param c character to be appended.
+     */
+    public void append(final char c) {
+        if (c >= '0' && c <= '9') {
+            addDigit(c - '0');
+        }
+    }
+
+    /**
+     * Appends a digit of the PAN being analyzed.
+     *
+     * @param digit digit to be appended.
+     * @throws IllegalArgumentException if digit is not between 0 and 9.
+     */
+    public void appendDigit(final int digit) {
+        if (digit < 0 || digit > 9) {
+            throw new IllegalArgumentException();
+        }
+        addDigit(digit);
+    }
+
+    /**
+     * Computes all values of this analysis for the characters appended since
+     * last reset.
+     * More characters can still be appended afterwards, so that prefixes of
+     * increasing length of a PAN can be analyzed in a single pass.
+     *
+     * @return this instance.
+     */
+    public PanAnalysis finish() {
+        mNetwork = mRegistry.resolveNetwork(mRegistry.getTrie().mask(mIINState),
+                mBin, Math.min(mNumDigits, mMaxBinDigits));
+        mValidMII = mFirstDigit >= 3 && mFirstDigit <= 6;
+        mValidLength = mRegistry.isValidLength(mNumDigits, mNetwork);
+        mValidChecksum = CreditCardValidator.isValidLuhnSum(mNumDigits, mLuhnSums);
+        mValid = mValidLength && (mValidChecksum ||
+                !mRegistry.isValidationEnabled(mNetwork));
+        return this;
+    }
+
+    /**
+     * Appends a digit, walking IIN trie and updating both possible Luhn sums,
+     * since the total number of digits is not known until the end.
+     *
+     * @param digit digit between 0 and 9.
+     */
+    private void addDigit(final int digit) {
+        mIINState = mRegistry.getTrie().step(mIINState, digit);
+        if (mNumDigits < mMaxBinDigits) {
+            mBin = mBin * 10 + digit;
+        }
+        mLuhnSums = CreditCardValidator.addLuhnDigit(mLuhnSums, mNumDigits, digit);
+        if (mNumDigits == 0) {
+            mFirstDigit = digit;
+        }
+        mNumDigits++;
+    }
+}
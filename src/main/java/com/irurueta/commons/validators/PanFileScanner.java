@@ -0,0 +1,233 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons.validators;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Scans files containing one PAN per line, encoded in ASCII, and validates
+ * each line directly on memory mapped bytes without decoding them into
+ * strings.
+ * File is mapped in windows of limited size, and a single
+ * {@link PanAnalysis} is reused for all records, so that files of any size
+ * are scanned in constant memory. Records may span across windows.
+ * Records are obtained either one at a time by calling {@link #next()} and
+ * then reading the properties of current record, or by providing a
+ * {@link PanScanListener} to {@link #scan(PanScanListener)}.
+ * Any non digit character (i.e. separators or carriage returns) is ignored.
+ * Empty lines are treated as empty PANs, except for the end of the last line.
+ * Instances of this class are not thread safe.
+ */
+public class PanFileScanner implements Closeable {
+
+    /**
+     * Default maximum number of bytes of a file being mapped into memory at
+     * once.
+     */
+    public static final int DEFAULT_WINDOW_BYTES =
+            MappedLineReader.DEFAULT_WINDOW_BYTES;
+
+    /**
+     * Channel to read file.
+     */
+    private final FileChannel mChannel;
+
+    /**
+     * Size of file in bytes.
+     */
+    private final long mSize;
+
+    /**
+     * Reader of records, which maps file in windows.
+     */
+    private final MappedLineReader mReader;
+
+    /**
+     * Analysis of current record, which is reused for all records.
+     */
+    private final PanAnalysis mAnalysis = new PanAnalysis();
+
+    /**
+     * Zero based index of current record or -1 if no record has been read
+     * yet.
+     */
+    private long mIndex = -1;
+
+    /**
+     * Constructor.
+     *
+     * @param file file to be scanned.
+     * @throws IllegalArgumentException if file is null.
+     * @throws IOException              if file cannot be opened.
+     */
+    public PanFileScanner(final File file) throws IOException {
+        this(file, DEFAULT_WINDOW_BYTES);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param file        file to be scanned.
+     * @param windowBytes maximum number of bytes being mapped into memory at
+     *                    once.
+     * @throws IllegalArgumentException if file is null or window size is not
+     *                                  positive.
+     * @throws IOException              if file cannot be opened.
+     */
+    public PanFileScanner(final File file, final int windowBytes)
+            throws IOException {
+        if (file == null || windowBytes <= 0) {
+            throw new IllegalArgumentException();
+        }
+        mChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        mSize = mChannel.size();
+        mReader = new MappedLineReader(mChannel, mSize, windowBytes);
+    }
+
+    /**
+     * Scans all records of provided file.
+     *
+     * @param file     file to be scanned.
+     * @param listener listener receiving each record.
+     * @return number of scanned records.
+     * @throws IllegalArgumentException if file or listener are null.
+     * @throws IOException              if file cannot be read.
+     */
+    public static long scan(final File file, final PanScanListener listener)
+            throws IOException {
+        if (listener == null) {
+            throw new IllegalArgumentException();
+        }
+        try (PanFileScanner scanner = new PanFileScanner(file)) {
+            return scanner.scan(listener);
+        }
+    }
+
+    /**
+     * Scans remaining records of file.
+     *
+     * @param listener listener receiving each record.
+     * @return number of scanned records.
+     * @throws IllegalArgumentException if listener is null.
+     * @throws IOException              if file cannot be read.
+     */
+    public long scan(final PanScanListener listener) throws IOException {
+        if (listener == null) {
+            throw new IllegalArgumentException();
+        }
+        long count = 0;
+        while (next()) {
+            listener.onRecord(mReader.getOffset(), mAnalysis.getNetwork(),
+                    mAnalysis.isValid());
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Reads and validates next record of file.
+     *
+     * @return true if a record was read, false if end of file was reached.
+     * @throws IOException if file cannot be read.
+     */
+    public boolean next() throws IOException {
+        if (!mReader.next(mAnalysis)) {
+            return false;
+        }
+        mIndex++;
+        return true;
+    }
+
+    /**
+     * Gets position in bytes where current record starts within the file.
+     *
+     * @return position of current record or -1 if no record has been read.
+     */
+    public long getOffset() {
+        return mReader.getOffset();
+    }
+
+    /**
+     * Gets length in bytes of current record, excluding line separator.
+     *
+     * @return length of current record.
+     */
+    public int getLength() {
+        return mReader.getLength();
+    }
+
+    /**
+     * Gets zero based index (i.e. line number minus one) of current record.
+     *
+     * @return index of current record or -1 if no record has been read.
+     */
+    public long getIndex() {
+        return mIndex;
+    }
+
+    /**
+     * Gets detected credit card network of current record.
+     *
+     * @return detected network.
+     */
+    public CreditCardNetwork getNetwork() {
+        return mAnalysis.getNetwork();
+    }
+
+    /**
+     * Indicates whether current record contains a valid PAN.
+     *
+     * @return true if current record is valid, false otherwise.
+     */
+    public boolean isValid() {
+        return mAnalysis.isValid();
+    }
+
+    /**
+     * Gets full analysis of current record.
+     * Returned instance is reused for all records, hence it is modified each
+     * time {@link #next()} is called.
+     *
+     * @return analysis of current record.
+     */
+    public PanAnalysis getAnalysis() {
+        return mAnalysis;
+    }
+
+    /**
+     * Gets size of scanned file in bytes.
+     *
+     * @return size of file.
+     */
+    public long getSize() {
+        return mSize;
+    }
+
+    /**
+     * Closes scanned file.
+     *
+     * @throws IOException if file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        mReader.release();
+        mChannel.close();
+    }
+}
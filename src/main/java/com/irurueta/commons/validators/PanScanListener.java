@@ -0,0 +1,32 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons.validators;
+
+/**
+ * Receives records found by a {@link PanFileScanner}.
+ */
+public interface PanScanListener {
+
+    /**
+     * Called for each record of a scanned file, in order.
+     *
+     * @param offset  position in bytes where record starts within the file.
+     * @param network detected credit card network.
+     * @param valid   true if record contains a valid PAN, false otherwise.
+     */
+    void onRecord(final long offset, final CreditCardNetwork network,
+                  final boolean valid);
+}
@@ -0,0 +1,721 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons.validators;
+
+import com.irurueta.commons.CommonsException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Validates large datasets of credit card PANs in parallel.
+ * Input is split into chunks that are validated concurrently, either using
+ * fork/join when a {@link ForkJoinPool} is used, or by submitting one task per
+ * chunk to any other executor service. Results of all chunks are merged in
+ * order, so that indexes of invalid records are reported in ascending order.
+ * Each record is validated as in {@link CreditCardValidator#isValid(CharSequence)}.
+ * Instances of this class are thread safe as long as provided executor is.
+ */
+public class ParallelPanValidator {
+
+    /**
+     * Default number of records validated by each task when validating
+     * arrays or lists.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 16384;
+
+    /**
+     * Default number of bytes validated by each task when validating files.
+     */
+    public static final int DEFAULT_FILE_CHUNK_BYTES = 1 << 20;
+
+    /**
+     * Default maximum number of bytes of a file being mapped into memory at
+     * once.
+     */
+    public static final int DEFAULT_WINDOW_BYTES =
+            MappedLineReader.DEFAULT_WINDOW_BYTES;
+
+    /**
+     * Number of networks.
+     */
+    private static final int NUM_NETWORKS = CreditCardNetwork.values().length;
+
+    /**
+     * Executor service used to validate chunks.
+     */
+    private final ExecutorService mExecutor;
+
+    /**
+     * Number of records validated by each task when validating arrays or
+     * lists.
+     */
+    private final int mChunkSize;
+
+    /**
+     * Number of bytes validated by each task when validating files.
+     */
+    private final int mFileChunkBytes;
+
+    /**
+     * Maximum number of bytes of a file being mapped into memory at once.
+     */
+    private final int mWindowBytes;
+
+    /**
+     * Constructor.
+     * A fork/join pool shared by all instances using default parallelism is
+     * used.
+     */
+    public ParallelPanValidator() {
+        this(DefaultPoolHolder.POOL);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param executor executor service used to validate chunks. If a
+     *                 {@link ForkJoinPool} is provided, chunks are recursively
+     *                 split using fork/join.
+     * @throws IllegalArgumentException if executor is null.
+     */
+    public ParallelPanValidator(final ExecutorService executor) {
+        this(executor, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param executor  executor service used to validate chunks. If a
+     *                  {@link ForkJoinPool} is provided, chunks are
+     *                  recursively split using fork/join.
+     * @param chunkSize number of records validated by each task when
+     *                  validating arrays or lists.
+     * @throws IllegalArgumentException if executor is null or chunk size is
+     *                                  not positive.
+     */
+    public ParallelPanValidator(final ExecutorService executor,
+                                final int chunkSize) {
+        this(executor, chunkSize, DEFAULT_FILE_CHUNK_BYTES,
+                DEFAULT_WINDOW_BYTES);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param executor       executor service used to validate chunks.
+     * @param chunkSize      number of records validated by each task when
+     *                       validating arrays or lists.
+     * @param fileChunkBytes number of bytes validated by each task when
+     *                       validating files.
+     * @param windowBytes    maximum number of bytes of a file being mapped
+     *                       into memory at once.
+     * @throws IllegalArgumentException if executor is null or any size is not
+     *                                  positive.
+     */
+    ParallelPanValidator(final ExecutorService executor, final int chunkSize,
+                         final int fileChunkBytes, final int windowBytes) {
+        if (executor == null || chunkSize <= 0 || fileChunkBytes <= 0 ||
+                windowBytes <= 0) {
+            throw new IllegalArgumentException();
+        }
+        mExecutor = executor;
+        mChunkSize = chunkSize;
+        mFileChunkBytes = fileChunkBytes;
+        mWindowBytes = windowBytes;
+    }
+
+    /**
+     * Gets executor service used to validate chunks.
+     *
+     * @return executor service.
+     */
+    public ExecutorService getExecutor() {
+        return mExecutor;
+    }
+
+    /**
+     * Gets number of records validated by each task when validating arrays or
+     * lists.
+     *
+     * @return number of records of each chunk.
+     */
+    public int getChunkSize() {
+        return mChunkSize;
+    }
+
+    /**
+     * Validates provided PANs.
+     *
+     * @param pans PANs to be validated. Null elements are treated as empty
+     *             PANs.
+     * @return validation result.
+     * @throws IllegalArgumentException if provided array is null.
+     * @throws CommonsException         if validation of any chunk fails or
+     *                                  current thread is interrupted.
+     */
+    public ParallelValidationResult validate(final CharSequence[] pans)
+            throws CommonsException {
+        if (pans == null) {
+            throw new IllegalArgumentException();
+        }
+
+        final long startNanos = System.nanoTime();
+        final Accumulator accumulator = new Accumulator();
+        accumulator.add(execute(new ArrayChunkSource(pans, mChunkSize)));
+        return accumulator.toResult(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Validates provided PANs.
+     * Lists not supporting fast random access are copied into an array
+     * before being validated.
+     *
+     * @param pans PANs to be validated. Null elements are treated as empty
+     *             PANs.
+     * @return validation result.
+     * @throws IllegalArgumentException if provided list is null.
+     * @throws CommonsException         if validation of any chunk fails or
+     *                                  current thread is interrupted.
+     */
+    public ParallelValidationResult validate(final List<? extends CharSequence> pans)
+            throws CommonsException {
+        if (pans == null) {
+            throw new IllegalArgumentException();
+        }
+
+        final long startNanos = System.nanoTime();
+        final Accumulator accumulator = new Accumulator();
+        if (pans instanceof RandomAccess) {
+            accumulator.add(execute(new ListChunkSource(pans, mChunkSize)));
+        } else {
+            accumulator.add(execute(new ArrayChunkSource(
+                    pans.toArray(new CharSequence[pans.size()]), mChunkSize)));
+        }
+        return accumulator.toResult(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Validates a file containing one PAN per line, encoded in ASCII.
+     * File is mapped in blocks of complete lines, and each block is split into
+     * chunks of bytes validating the lines starting within them directly on
+     * mapped bytes without decoding them into strings, as done by
+     * {@link PanFileScanner}. Any non digit
+     * character (i.e. separators or carriage returns) is ignored. Empty lines
+     * are treated as empty PANs, except for the end of the last line.
+     *
+     * @param file file to be validated.
+     * @return validation result, where indexes of invalid records correspond
+     * to zero based line numbers.
+     * @throws IllegalArgumentException if provided file is null.
+     * @throws IOException              if file cannot be read or contains a
+     *                                  line longer than the maximum mapped
+     *                                  window.
+     * @throws CommonsException         if validation of any chunk fails or
+     *                                  current thread is interrupted.
+     */
+    public ParallelValidationResult validate(final File file)
+            throws IOException, CommonsException {
+        if (file == null) {
+            throw new IllegalArgumentException();
+        }
+
+        final long startNanos = System.nanoTime();
+        final Accumulator accumulator = new Accumulator();
+        try (FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.READ)) {
+            final MappedLineReader reader = new MappedLineReader(channel,
+                    channel.size(), mWindowBytes);
+            while (reader.mapNextBlock()) {
+                accumulator.add(execute(new BlockChunkSource(reader.getBlock(),
+                        reader.getBlockLength(), mFileChunkBytes)));
+            }
+            reader.release();
+        }
+        return accumulator.toResult(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Validates all chunks of provided source using the executor of this
+     * instance.
+     *
+     * @param source source of chunks.
+     * @return results of each chunk, in order.
+     * @throws CommonsException if validation of any chunk fails or current
+     *                          thread is interrupted.
+     */
+    private ChunkResult[] execute(final ChunkSource source) throws CommonsException {
+        final int numChunks = source.getNumChunks();
+        final ChunkResult[] results = new ChunkResult[numChunks];
+        if (numChunks == 0) {
+            return results;
+        }
+
+        if (mExecutor instanceof ForkJoinPool) {
+            try {
+                ((ForkJoinPool) mExecutor).invoke(
+                        new ChunkAction(source, results, 0, numChunks));
+            } catch (final RuntimeException e) {
+                throw new CommonsException(e);
+            }
+            return results;
+        }
+
+        final List<Callable<ChunkResult>> tasks = new ArrayList<>(numChunks);
+        for (int i = 0; i < numChunks; i++) {
+            final int chunk = i;
+            tasks.add(new Callable<ChunkResult>() {
+                @Override
+                public ChunkResult call() {
+                    return source.validate(chunk);
+                }
+            });
+        }
+        try {
+            final List<Future<ChunkResult>> futures = mExecutor.invokeAll(tasks);
+            for (int i = 0; i < numChunks; i++) {
+                results[i] = futures.get(i).get();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CommonsException(e);
+        } catch (final ExecutionException e) {
+            throw new CommonsException(e.getCause());
+        }
+        return results;
+    }
+
+    /**
+     * Holder of fork/join pool shared by all instances created with default
+     * constructor, which is lazily created on first use.
+     */
+    private static class DefaultPoolHolder {
+        /**
+         * Shared fork/join pool.
+         */
+        private static final ForkJoinPool POOL = new ForkJoinPool();
+    }
+
+    /**
+     * Source of chunks of records to be validated.
+     */
+    private abstract static class ChunkSource {
+
+        /**
+         * Gets number of chunks.
+         *
+         * @return number of chunks.
+         */
+        abstract int getNumChunks();
+
+        /**
+         * Validates records of provided chunk.
+         *
+         * @param chunk position of chunk.
+         * @return result of chunk.
+         */
+        abstract ChunkResult validate(int chunk);
+    }
+
+    /**
+     * Source of chunks of records stored in an array.
+     */
+    private static class ArrayChunkSource extends ChunkSource {
+
+        /**
+         * PANs to be validated.
+         */
+        private final CharSequence[] mPans;
+
+        /**
+         * Number of records of each chunk.
+         */
+        private final int mChunkSize;
+
+        /**
+         * Constructor.
+         *
+         * @param pans      PANs to be validated.
+         * @param chunkSize number of records of each chunk.
+         */
+        ArrayChunkSource(final CharSequence[] pans, final int chunkSize) {
+            mPans = pans;
+            mChunkSize = chunkSize;
+        }
+
+        /**
+         * Gets number of chunks.
+         *
+         * @return number of chunks.
+         */
+        @Override
+        int getNumChunks() {
+            return (int) (((long) mPans.length + mChunkSize - 1) / mChunkSize);
+        }
+
+        /**
+         * Validates records of provided chunk.
+         *
+         * @param chunk position of chunk.
+         * @return result of chunk.
+         */
+        @Override
+        ChunkResult validate(final int chunk) {
+            final int start = chunk * mChunkSize;
+            final int end = Math.min(mPans.length, start + mChunkSize);
+            final PanAnalysis analysis = new PanAnalysis();
+            final ChunkResult result = new ChunkResult();
+            for (int i = start; i < end; i++) {
+                result.add(CreditCardValidator.analyze(mPans[i], analysis));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Source of chunks of records stored in a list supporting random access.
+     */
+    private static class ListChunkSource extends ChunkSource {
+
+        /**
+         * PANs to be validated.
+         */
+        private final List<? extends CharSequence> mPans;
+
+        /**
+         * Number of records of each chunk.
+         */
+        private final int mChunkSize;
+
+        /**
+         * Constructor.
+         *
+         * @param pans      PANs to be validated.
+         * @param chunkSize number of records of each chunk.
+         */
+        ListChunkSource(final List<? extends CharSequence> pans,
+                        final int chunkSize) {
+            mPans = pans;
+            mChunkSize = chunkSize;
+        }
+
+        /**
+         * Gets number of chunks.
+         *
+         * @return number of chunks.
+         */
+        @Override
+        int getNumChunks() {
+            return (int) (((long) mPans.size() + mChunkSize - 1) / mChunkSize);
+        }
+
+        /**
+         * Validates records of provided chunk.
+         *
+         * @param chunk position of chunk.
+         * @return result of chunk.
+         */
+        @Override
+        ChunkResult validate(final int chunk) {
+            final int start = chunk * mChunkSize;
+            final int end = Math.min(mPans.size(), start + mChunkSize);
+            final PanAnalysis analysis = new PanAnalysis();
+            final ChunkResult result = new ChunkResult();
+            for (int i = start; i < end; i++) {
+                result.add(CreditCardValidator.analyze(mPans.get(i), analysis));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Source of chunks of lines stored in a mapped block of complete lines.
+     * Each chunk covers a fixed range of bytes and contains the lines starting
+     * within that range, so that chunks can be read independently without
+     * scanning the block for line separators beforehand.
+     */
+    private static class BlockChunkSource extends ChunkSource {
+
+        /**
+         * Mapped block containing ASCII lines.
+         */
+        private final ByteBuffer mBlock;
+
+        /**
+         * Length of block in bytes.
+         */
+        private final int mLength;
+
+        /**
+         * Number of bytes of each chunk.
+         */
+        private final int mChunkBytes;
+
+        /**
+         * Constructor.
+         *
+         * @param block      mapped block containing ASCII lines.
+         * @param length     length of block in bytes.
+         * @param chunkBytes number of bytes of each chunk.
+         */
+        BlockChunkSource(final ByteBuffer block, final int length,
+                         final int chunkBytes) {
+            mBlock = block;
+            mLength = length;
+            mChunkBytes = chunkBytes;
+        }
+
+        /**
+         * Gets number of chunks.
+         *
+         * @return number of chunks.
+         */
+        @Override
+        int getNumChunks() {
+            return (int) (((long) mLength + mChunkBytes - 1) / mChunkBytes);
+        }
+
+        /**
+         * Validates lines starting within provided chunk.
+         *
+         * @param chunk position of chunk.
+         * @return result of chunk.
+         */
+        @Override
+        ChunkResult validate(final int chunk) {
+            final long start = (long) chunk * mChunkBytes;
+            final long end = Math.min(mLength, start + mChunkBytes);
+            final MappedLineReader reader = new MappedLineReader(mBlock, mLength);
+            final PanAnalysis analysis = new PanAnalysis();
+            final ChunkResult result = new ChunkResult();
+            try {
+                reader.seek(start);
+                while (reader.getPosition() < end && reader.next(analysis)) {
+                    result.add(analysis);
+                }
+            } catch (final IOException e) {
+                // block is already mapped, so it is never read from file
+                throw new IllegalStateException(e);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Fork/join action recursively splitting a range of chunks until a
+     * single chunk remains.
+     */
+    private static class ChunkAction extends RecursiveAction {
+
+        /**
+         * Serialization version.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Source of chunks.
+         */
+        private final ChunkSource mSource;
+
+        /**
+         * Array where results of each chunk are stored.
+         */
+        private final ChunkResult[] mResults;
+
+        /**
+         * First chunk of range (inclusive).
+         */
+        private final int mStart;
+
+        /**
+         * Last chunk of range (exclusive).
+         */
+        private final int mEnd;
+
+        /**
+         * Constructor.
+         *
+         * @param source  source of chunks.
+         * @param results array where results of each chunk are stored.
+         * @param start   first chunk of range (inclusive).
+         * @param end     last chunk of range (exclusive).
+         */
+        ChunkAction(final ChunkSource source, final ChunkResult[] results,
+                    final int start, final int end) {
+            mSource = source;
+            mResults = results;
+            mStart = start;
+            mEnd = end;
+        }
+
+        /**
+         * Validates range of chunks.
+         */
+        @Override
+        protected void compute() {
+            if (mEnd - mStart == 1) {
+                mResults[mStart] = mSource.validate(mStart);
+            } else {
+                final int middle = (mStart + mEnd) >>> 1;
+                invokeAll(new ChunkAction(mSource, mResults, mStart, middle),
+                        new ChunkAction(mSource, mResults, middle, mEnd));
+            }
+        }
+    }
+
+    /**
+     * Result of validating a single chunk.
+     */
+    private static class ChunkResult {
+
+        /**
+         * Number of records.
+         */
+        private int mNumRecords;
+
+        /**
+         * Number of valid records.
+         */
+        private int mNumValid;
+
+        /**
+         * Number of records of each network.
+         */
+        private final int[] mNetworkCounts = new int[NUM_NETWORKS];
+
+        /**
+         * Number of valid records of each network.
+         */
+        private final int[] mValidNetworkCounts = new int[NUM_NETWORKS];
+
+        /**
+         * Indexes of invalid records relative to the start of the chunk.
+         */
+        private int[] mInvalidIndexes = new int[16];
+
+        /**
+         * Adds the analysis of next record.
+         *
+         * @param analysis analysis of record.
+         */
+        void add(final PanAnalysis analysis) {
+            final int ordinal = analysis.getNetwork().ordinal();
+            mNetworkCounts[ordinal]++;
+            if (analysis.isValid()) {
+                mValidNetworkCounts[ordinal]++;
+                mNumValid++;
+            } else {
+                final int numInvalid = mNumRecords - mNumValid;
+                if (numInvalid == mInvalidIndexes.length) {
+                    final int[] indexes = new int[2 * numInvalid];
+                    System.arraycopy(mInvalidIndexes, 0, indexes, 0, numInvalid);
+                    mInvalidIndexes = indexes;
+                }
+                mInvalidIndexes[numInvalid] = mNumRecords;
+            }
+            mNumRecords++;
+        }
+    }
+
+    /**
+     * Merges results of chunks in order.
+     */
+    private static class Accumulator {
+
+        /**
+         * Number of records.
+         */
+        private long mNumRecords;
+
+        /**
+         * Number of valid records.
+         */
+        private long mNumValid;
+
+        /**
+         * Number of records of each network.
+         */
+        private final long[] mNetworkCounts = new long[NUM_NETWORKS];
+
+        /**
+         * Number of valid records of each network.
+         */
+        private final long[] mValidNetworkCounts = new long[NUM_NETWORKS];
+
+        /**
+         * Indexes of invalid records.
+         */
+        private long[] mInvalidIndexes = new long[16];
+
+        /**
+         * Number of invalid records.
+         */
+        private int mNumInvalid;
+
+        /**
+         * Adds results of consecutive chunks.
+         *
+         * @param results results to be added, in order.
+         */
+        void add(final ChunkResult[] results) {
+            for (final ChunkResult result : results) {
+                final int numInvalid = result.mNumRecords - result.mNumValid;
+                if (mNumInvalid + numInvalid > mInvalidIndexes.length) {
+                    final long[] indexes = new long[Math.max(
+                            2 * mInvalidIndexes.length, mNumInvalid + numInvalid)];
+                    System.arraycopy(mInvalidIndexes, 0, indexes, 0, mNumInvalid);
+                    mInvalidIndexes = indexes;
+                }
+                for (int i = 0; i < numInvalid; i++) {
+                    mInvalidIndexes[mNumInvalid++] =
+                            mNumRecords + result.mInvalidIndexes[i];
+                }
+                for (int i = 0; i < NUM_NETWORKS; i++) {
+                    mNetworkCounts[i] += result.mNetworkCounts[i];
+                    mValidNetworkCounts[i] += result.mValidNetworkCounts[i];
+                }
+                mNumRecords += result.mNumRecords;
+                mNumValid += result.mNumValid;
+            }
+        }
+
+        /**
+         * Builds final result.
+         *
+         * @param elapsedNanos time spent validating, in nanoseconds.
+         * @return validation result.
+         */
+        ParallelValidationResult toResult(final long elapsedNanos) {
+            final long[] invalidIndexes = new long[mNumInvalid];
+            System.arraycopy(mInvalidIndexes, 0, invalidIndexes, 0, mNumInvalid);
+            return new ParallelValidationResult(mNumRecords, mNumValid,
+                    mNetworkCounts, mValidNetworkCounts, invalidIndexes,
+                    elapsedNanos);
+        }
+    }
+}
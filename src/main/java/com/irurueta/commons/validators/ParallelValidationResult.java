@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons.validators;
+
+/**
+ * Contains the result of validating a dataset of PANs with
+ * {@link ParallelPanValidator}.
+ */
+public class ParallelValidationResult {
+
+    /**
+     * Number of nanoseconds in a millisecond.
+     */
+    private static final long NANOS_PER_MILLI = 1000000L;
+
+    /**
+     * Number of validated records.
+     */
+    private final long mNumRecords;
+
+    /**
+     * Number of valid records.
+     */
+    private final long mNumValid;
+
+    /**
+     * Number of records detected for each network, indexed by network ordinal.
+     */
+    private final long[] mNetworkCounts;
+
+    /**
+     * Number of valid records detected for each network, indexed by network
+     * ordinal.
+     */
+    private final long[] mValidNetworkCounts;
+
+    /**
+     * Zero based indexes of invalid records, sorted in ascending order.
+     */
+    private final long[] mInvalidIndexes;
+
+    /**
+     * Time spent validating, expressed in nanoseconds.
+     */
+    private final long mElapsedNanos;
+
+    /**
+     * Constructor.
+     *
+     * @param numRecords         number of validated records.
+     * @param numValid           number of valid records.
+     * @param networkCounts      number of records for each network.
+     * @param validNetworkCounts number of valid records for each network.
+     * @param invalidIndexes     indexes of invalid records.
+     * @param elapsedNanos       time spent validating, in nanoseconds.
+     */
+    ParallelValidationResult(final long numRecords, final long numValid,
+                             final long[] networkCounts,
+                             final long[] validNetworkCounts,
+                             final long[] invalidIndexes,
+                             final long elapsedNanos) {
+        mNumRecords = numRecords;
+        mNumValid = numValid;
+        mNetworkCounts = networkCounts;
+        mValidNetworkCounts = validNetworkCounts;
+        mInvalidIndexes = invalidIndexes;
+        mElapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Gets number of validated records.
+     *
+     * @return number of validated records.
+     */
+    public long getNumRecords() {
+        return mNumRecords;
+    }
+
+    /**
+     * Gets number of valid records.
+     *
+     * @return number of valid records.
+     */
+    public long getNumValid() {
+        return mNumValid;
+    }
+
+    /**
+     * Gets number of invalid records.
+     *
+     * @return number of invalid records.
+     */
+    public long getNumInvalid() {
+        return mNumRecords - mNumValid;
+    }
+
+    /**
+     * Gets number of records detected as belonging to provided network.
+     *
+     * @param network a credit card network.
+     * @return number of records of provided network or 0 if network is null.
+     */
+    public long getCount(final CreditCardNetwork network) {
+        return network != null ? mNetworkCounts[network.ordinal()] : 0;
+    }
+
+    /**
+     * Gets number of valid records detected as belonging to provided network.
+     *
+     * @param network a credit card network.
+     * @return number of valid records of provided network or 0 if network is
+     * null.
+     */
+    public long getValidCount(final CreditCardNetwork network) {
+        return network != null ? mValidNetworkCounts[network.ordinal()] : 0;
+    }
+
+    /**
+     * Gets zero based indexes (i.e. line numbers minus one when validating a
+     * file) of invalid records, sorted in ascending order.
+     * Returned array is not copied to avoid duplicating large results, hence
+     * it should not be modified.
+     *
+     * @return indexes of invalid records.
+     */
+    public long[] getInvalidIndexes() {
+        return mInvalidIndexes;
+    }
+
+    /**
+     * Gets time spent validating, expressed in nanoseconds.
+     *
+     * @return elapsed time in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return mElapsedNanos;
+    }
+
+    /**
+     * Gets time spent validating, expressed in milliseconds.
+     *
+     * @return elapsed time in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return mElapsedNanos / NANOS_PER_MILLI;
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons;
+
+import org.junit.*;
+
+import static org.junit.Assert.*;
+
+public class ClockTest {
+
+    @Test
+    public void testSystem() {
+        final long before = System.currentTimeMillis();
+        final long now = Clock.SYSTEM.currentTimeMillis();
+        final long after = System.currentTimeMillis();
+
+        assertTrue(before <= now);
+        assertTrue(now <= after);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons;
+
+import com.irurueta.commons.validators.CreditCardNetwork;
+import org.junit.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+
+import static org.junit.Assert.*;
+
+public class CompiledPanFormatterTest {
+
+    private static final String PAN = "4111-1111-1111-1111";
+
+    private static final String EXPECTED = "4111 11** **** 1111";
+
+    @Test
+    public void testFormat() throws IOException {
+        final CompiledPanFormatter formatter = MaskingPolicy.FIRST_6_LAST_4
+                .getFormatter(CreditCardNetwork.VISA);
+        final int length = EXPECTED.length();
+        assertEquals(length, formatter.getLength());
+
+        // string
+        assertEquals(EXPECTED, formatter.format(PAN));
+        assertEquals("**** **** **** ****", formatter.format(null));
+
+        // builder
+        final StringBuilder builder = new StringBuilder("pan=");
+        assertEquals(length, formatter.format(PAN, builder));
+        assertEquals("pan=" + EXPECTED, builder.toString());
+
+        // writer
+        final StringWriter writer = new StringWriter();
+        assertEquals(length, formatter.format(PAN, writer));
+        assertEquals(EXPECTED, writer.toString());
+
+        // array
+        final char[] array = new char[length + 2];
+        assertEquals(length, formatter.format(PAN, array, 2));
+        assertEquals(EXPECTED, new String(array, 2, length));
+
+        // heap buffer
+        CharBuffer buffer = CharBuffer.allocate(length + 1);
+        buffer.put('>');
+        assertEquals(length, formatter.format(PAN, buffer));
+        assertEquals(length + 1, buffer.position());
+        buffer.flip();
+        assertEquals(">" + EXPECTED, buffer.toString());
+
+        // direct buffer
+        buffer = ByteBuffer.allocateDirect(2 * length).asCharBuffer();
+        assertEquals(length, formatter.format(PAN, buffer));
+        buffer.flip();
+        assertEquals(EXPECTED, buffer.toString());
+
+        // Force IllegalArgumentException
+        try {
+            formatter.format(PAN, (Appendable) null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            formatter.format(PAN, (StringBuilder) null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            formatter.format(PAN, new char[length], 1);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            formatter.format(PAN, (char[]) null, 0);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            formatter.format(PAN, CharBuffer.allocate(length - 1));
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            formatter.format(PAN, (CharBuffer) null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+}
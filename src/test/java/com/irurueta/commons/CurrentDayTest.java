@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons;
+
+import org.junit.*;
+
+import java.util.Date;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+public class CurrentDayTest {
+
+    private static final long MILLIS_PER_HOUR = 3600000L;
+
+    @Test
+    public void testConstructor() {
+        CurrentDay today = new CurrentDay();
+        assertEquals(DateUtils.todayMillis(), today.getStart());
+
+        final TimeZone zone = TimeZone.getTimeZone("Asia/Tokyo");
+        today = new CurrentDay(zone);
+        assertEquals(DateUtils.startOfDay(System.currentTimeMillis(), zone),
+                today.getStart());
+
+        // Force IllegalArgumentException
+        try {
+            new CurrentDay(null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            new CurrentDay(null, zone);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            new CurrentDay(Clock.SYSTEM, (TimeZone) null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+
+    @Test
+    public void testRollover() {
+        final TimeZone zone = TimeZone.getTimeZone("Europe/Madrid");
+        final ManualClock clock = new ManualClock(
+                DateUtils.parseMillis("2015-04-29T17:31:15+0200"));
+        final CurrentDay today = new CurrentDay(clock, zone);
+
+        final long start = DateUtils.parseMillis("2015-04-29T00:00:00+0200");
+        final long end = DateUtils.parseMillis("2015-04-30T00:00:00+0200");
+        assertEquals(start, today.getStart());
+        assertEquals(end, today.getEnd());
+        assertEquals(16554, today.getEpochDay());
+        assertTrue(today.isToday(start));
+        assertTrue(today.isToday(new Date(end - 1)));
+        assertFalse(today.isToday(start - 1));
+        assertFalse(today.isToday(end));
+
+        // day changes once clock reaches midnight
+        clock.mMillis = end - 1;
+        assertTrue(today.isToday(start));
+        clock.mMillis = end;
+        assertFalse(today.isToday(start));
+        assertTrue(today.isToday(end));
+        assertEquals(end, today.getStart());
+        assertEquals(16555, today.getEpochDay());
+
+        // and also when clock goes back
+        clock.mMillis = start - 1;
+        assertEquals(16553, today.getEpochDay());
+        assertTrue(today.isToday(start - 1));
+        assertEquals(start - 24 * MILLIS_PER_HOUR, today.getStart());
+    }
+
+    @Test
+    public void testDaylightSavingChange() {
+        // clocks went forward from 02:00 to 03:00 on 2015-03-29
+        final TimeZone zone = TimeZone.getTimeZone("Europe/Madrid");
+        final ManualClock clock = new ManualClock(
+                DateUtils.parseMillis("2015-03-29T12:00:00+0200"));
+        final CurrentDay today = new CurrentDay(clock, zone);
+
+        assertEquals(DateUtils.parseMillis("2015-03-29T00:00:00+0100"),
+                today.getStart());
+        assertEquals(DateUtils.parseMillis("2015-03-30T00:00:00+0200"),
+                today.getEnd());
+        assertEquals(23 * MILLIS_PER_HOUR, today.getEnd() - today.getStart());
+    }
+
+    @Test
+    public void testIsToday() {
+        final CurrentDay today = new CurrentDay();
+        assertTrue(today.isToday(System.currentTimeMillis()));
+        assertTrue(today.isToday(new Date()));
+        assertFalse(today.isToday(0));
+        assertFalse(today.isToday(new Date(0)));
+
+        // Force IllegalArgumentException
+        try {
+            today.isToday(null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+
+    private static class ManualClock implements Clock {
+
+        private long mMillis;
+
+        ManualClock(final long millis) {
+            mMillis = millis;
+        }
+
+        @Override
+        public long currentTimeMillis() {
+            return mMillis;
+        }
+    }
+}
@@ -18,9 +18,16 @@ package com.irurueta.commons;
 import org.junit.*;
 
 import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
 import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.Assert.*;
 
@@ -107,6 +114,207 @@ public class DateUtilsTest {
         assertNull(DateUtils.parse(null));
     }
 
+    @Test
+    public void testParseMatchesFormatters() {
+        final List<String> values = new ArrayList<>();
+        values.add("");
+        values.add("Z");
+        values.add("2015");
+        values.add("20150229");
+        values.add("20161301");
+        values.add("2015042");
+        values.add("2015042a");
+        values.add("15820101");
+        values.add("20150429T173115");
+        values.add("20150429T173115+02:00");
+        values.add("20150429T173115+2400");
+        values.add("20150429T173115-0000");
+        values.add("20150429T173115+0200xyz");
+        values.add("20150429T253115+0200");
+        values.add("20150429T173160Z");
+        values.add("20150429 173115Z");
+        values.add("2015-04-29T17:31:15");
+        values.add("2015-04-29T17:31:15 0200");
+        values.add("2015-04-29 17:31:15Z");
+        values.add("2015-02-30T17:31:15Z");
+        values.add("2015-04-29T17:31:15+0200Z");
+        values.add("2000-02-29T23:59:59-1130");
+        values.add("1970-01-01T00:00:00Z");
+        values.add("19691231T235959Z");
+
+        final Random random = new Random(7654);
+        for (int i = 0; i < 1000; i++) {
+            final int year = 1900 + random.nextInt(300);
+            final int month = 1 + random.nextInt(12);
+            final int day = 1 + random.nextInt(31);
+            final int hour = random.nextInt(24);
+            final int minute = random.nextInt(60);
+            final int second = random.nextInt(60);
+            final String zone;
+            if (random.nextBoolean()) {
+                zone = "Z";
+            } else {
+                zone = String.format("%s%02d%02d",
+                        random.nextBoolean() ? "+" : "-",
+                        random.nextInt(15), random.nextInt(60));
+            }
+            values.add(String.format("%04d%02d%02d", year, month, day));
+            values.add(String.format("%04d%02d%02dT%02d%02d%02d%s", year,
+                    month, day, hour, minute, second, zone));
+            values.add(String.format("%04d-%02d-%02dT%02d:%02d:%02d%s", year,
+                    month, day, hour, minute, second, zone));
+        }
+
+        for (final String value : values) {
+            assertEquals(value, parseWithFormatters(value),
+                    DateUtils.parse(value));
+        }
+
+        assertNull(DateUtils.parse(""));
+        assertNull(DateUtils.parse("abc"));
+        assertNull(DateUtils.parse("T173115Z"));
+    }
+
+    @Test
+    public void testParseMillis() {
+        final String[] values = {"20150429T173115+0200", "20150429T173115Z",
+                "2015-04-29T17:31:15+0200", "2015-04-29T17:31:15Z", "20150429",
+                "20150429T253115+0200", "20150429T173115+0200xyz"};
+        for (final String value : values) {
+            assertEquals(DateUtils.parse(value).getTime(),
+                    DateUtils.parseMillis(value));
+        }
+
+        assertEquals(DateUtils.INVALID_TIMESTAMP, DateUtils.parseMillis(null));
+        assertEquals(DateUtils.INVALID_TIMESTAMP, DateUtils.parseMillis(""));
+        assertEquals(DateUtils.INVALID_TIMESTAMP,
+                DateUtils.parseMillis("abc"));
+    }
+
+    @Test
+    public void testDaysMatchCalendar() {
+        final String[] zoneIds = {"UTC", "Europe/Madrid", "America/Sao_Paulo",
+                "Asia/Kolkata", "Pacific/Apia", "America/St_Johns"};
+        final Random random = new Random(2468);
+        for (final String zoneId : zoneIds) {
+            final TimeZone zone = TimeZone.getTimeZone(zoneId);
+            final Calendar cal1 = Calendar.getInstance(zone, Locale.US);
+            final Calendar cal2 = Calendar.getInstance(zone, Locale.US);
+            for (int i = 0; i < 2000; i++) {
+                // timestamps between 1900 and 2100, half of them close to
+                // each other
+                final long millis1 = -2208988800000L +
+                        (long) (random.nextDouble() * 6311433600000L);
+                final long millis2 = random.nextBoolean() ?
+                        millis1 + random.nextInt(2 * 24 * MILLIS_PER_HOUR) -
+                                24 * MILLIS_PER_HOUR :
+                        millis1 + random.nextInt(1000) * 24L * MILLIS_PER_HOUR;
+
+                cal1.setTimeInMillis(millis1);
+                cal2.setTimeInMillis(millis2);
+                assertEquals(DateUtils.isSameDay(cal1, cal2),
+                        DateUtils.isSameDay(millis1, millis2, zone));
+
+                // start of day is the first instant having the same date
+                final long start = DateUtils.startOfDay(millis1, zone);
+                assertTrue(start <= millis1);
+                cal2.setTimeInMillis(start);
+                assertTrue(DateUtils.isSameDay(cal1, cal2));
+                cal2.setTimeInMillis(start - 1);
+                assertFalse(DateUtils.isSameDay(cal1, cal2));
+
+                // consecutive days have consecutive epoch days
+                final long epochDay = DateUtils.epochDay(millis1, zone);
+                assertEquals(epochDay, DateUtils.epochDay(start, zone));
+                assertEquals(epochDay - 1, DateUtils.epochDay(start - 1, zone));
+            }
+        }
+
+        assertEquals(0, DateUtils.epochDay(0, TimeZone.getTimeZone("UTC")));
+        assertEquals(-1, DateUtils.epochDay(-1, TimeZone.getTimeZone("UTC")));
+        assertEquals(16554, DateUtils.epochDay(
+                DateUtils.parseMillis("2015-04-29T00:30:00+0200"),
+                TimeZone.getTimeZone("Europe/Madrid")));
+
+        // Force IllegalArgumentException
+        try {
+            DateUtils.epochDay(0, null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            DateUtils.startOfDay(0, null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            DateUtils.isSameDay(0, 0, null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+
+    @Test
+    public void testDaysOfDefaultTimezone() {
+        final TimeZone zone = TimeZone.getDefault();
+        try {
+            final long millis = DateUtils.parseMillis("2015-04-29T17:31:15Z");
+
+            // 2015-04-30T02:31:15+0900
+            TimeZone.setDefault(TimeZone.getTimeZone("Asia/Tokyo"));
+            assertEquals(16555, DateUtils.epochDay(millis));
+            assertEquals(DateUtils.parseMillis("2015-04-30T00:00:00+0900"),
+                    DateUtils.startOfDay(millis + 10 * MILLIS_PER_HOUR));
+            assertFalse(DateUtils.isSameDay(millis,
+                    millis - 3 * MILLIS_PER_HOUR));
+
+            // 2015-04-29T13:31:15-0400
+            TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+            assertEquals(16554, DateUtils.epochDay(millis));
+            assertTrue(DateUtils.isSameDay(millis,
+                    millis + 6 * MILLIS_PER_HOUR));
+        } finally {
+            TimeZone.setDefault(zone);
+        }
+    }
+
+    @Test
+    public void testParseAndFormatConcurrently() throws InterruptedException {
+        // canonical layouts and a trailing text only accepted leniently
+        final String[] values = {"2015-04-29T17:31:15+0200",
+                "20150429T153115Z", "20150429T173115+0200xyz"};
+        final Date expected = DateUtils.parse(values[0]);
+        final String expectedDate = DateUtils.formatDate(expected);
+        final String expectedDateAndTime =
+                DateUtils.formatDateAndTime(expected);
+
+        final AtomicBoolean failed = new AtomicBoolean(false);
+        final Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 1000; i++) {
+                        final Date date = DateUtils.parse(
+                                values[i % values.length]);
+                        if (!expected.equals(date) ||
+                                !expectedDate.equals(
+                                        DateUtils.formatDate(date)) ||
+                                !expectedDateAndTime.equals(
+                                        DateUtils.formatDateAndTime(date))) {
+                            failed.set(true);
+                        }
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertFalse(failed.get());
+    }
+
     @Test
     public void testFormatDate() {
         final Date date = new Date();
@@ -125,6 +333,34 @@ public class DateUtilsTest {
         assertEquals(DateUtils.formatDateAndTime(date), value);
     }
 
+    @Test
+    public void testFormatAfterChangingDefaults() {
+        final Locale locale = Locale.getDefault();
+        final TimeZone zone = TimeZone.getDefault();
+        try {
+            final Date date = new Date();
+            DateUtils.formatDate(date);
+            DateUtils.formatDateAndTime(date);
+
+            Locale.setDefault(Locale.FRANCE);
+            TimeZone.setDefault(TimeZone.getTimeZone("Asia/Tokyo"));
+            assertEquals(DateFormat.getDateInstance(DateFormat.MEDIUM).
+                    format(date), DateUtils.formatDate(date));
+            assertEquals(DateFormat.getDateTimeInstance(DateFormat.SHORT,
+                    DateFormat.SHORT).format(date),
+                    DateUtils.formatDateAndTime(date));
+
+            // dates are parsed at midnight of new timezone
+            final Calendar cal = Calendar.getInstance();
+            cal.setTime(DateUtils.parse("20150429"));
+            assertEquals(29, cal.get(Calendar.DAY_OF_MONTH));
+            assertEquals(0, cal.get(Calendar.HOUR_OF_DAY));
+        } finally {
+            Locale.setDefault(locale);
+            TimeZone.setDefault(zone);
+        }
+    }
+
     @Test
     public void testTodayIsToday() {
         final Date someDate = new Date(0);
@@ -132,6 +368,68 @@ public class DateUtilsTest {
 
         assertFalse(DateUtils.isToday(someDate));
         assertTrue(DateUtils.isToday(today));
+
+        final long todayMillis = DateUtils.todayMillis();
+        assertEquals(today.getTime(), todayMillis);
+        assertTrue(DateUtils.isToday(todayMillis));
+        assertTrue(DateUtils.isToday(System.currentTimeMillis()));
+        assertFalse(DateUtils.isToday(todayMillis - 1));
+        assertFalse(DateUtils.isToday(0));
+        assertEquals(todayMillis,
+                DateUtils.startOfDay(System.currentTimeMillis()));
+    }
+
+    @Test
+    public void testSetCurrentDay() {
+        final TimeZone zone = TimeZone.getTimeZone("Asia/Tokyo");
+        final ManualClock clock = new ManualClock(
+                DateUtils.parseMillis("2015-04-29T17:31:15+0900"));
+        final CurrentDay currentDay = new CurrentDay(clock, zone);
+        try {
+            DateUtils.setCurrentDay(currentDay);
+            assertSame(currentDay, DateUtils.getCurrentDay());
+
+            final long start = DateUtils.parseMillis("2015-04-29T00:00:00+0900");
+            final long end = DateUtils.parseMillis("2015-04-30T00:00:00+0900");
+            assertEquals(start, DateUtils.todayMillis());
+            assertEquals(new Date(start), DateUtils.today());
+            assertTrue(DateUtils.isToday(start));
+            assertTrue(DateUtils.isToday(new Date(end - 1)));
+            assertFalse(DateUtils.isToday(end));
+            assertFalse(DateUtils.isToday(System.currentTimeMillis()));
+
+            // day changes with clock
+            clock.mMillis = end;
+            assertFalse(DateUtils.isToday(start));
+            assertTrue(DateUtils.isToday(end));
+            assertEquals(end, DateUtils.todayMillis());
+        } finally {
+            DateUtils.setCurrentDay(null);
+        }
+
+        // current day of default timezone is used again
+        assertNotSame(currentDay, DateUtils.getCurrentDay());
+        assertTrue(DateUtils.isToday(System.currentTimeMillis()));
+        assertSame(DateUtils.getCurrentDay(), DateUtils.getCurrentDay());
+    }
+
+    @Test
+    public void testModifiedDefaultTimezone() {
+        final TimeZone zone = TimeZone.getDefault();
+        try {
+            final long millis = DateUtils.parseMillis("2015-04-29T17:31:15Z");
+            final TimeZone modified = TimeZone.getTimeZone("Asia/Tokyo");
+            TimeZone.setDefault(modified);
+            assertEquals(16555, DateUtils.epochDay(millis));
+
+            // changes of a copy sharing the same ID are noticed
+            final TimeZone copy = (TimeZone) modified.clone();
+            copy.setRawOffset(-12 * MILLIS_PER_HOUR);
+            TimeZone.setDefault(copy);
+            assertEquals(16554, DateUtils.epochDay(millis));
+        } finally {
+            TimeZone.setDefault(zone);
+        }
     }
 
     @Test
@@ -143,6 +441,10 @@ public class DateUtilsTest {
         assertTrue(DateUtils.isSameDay(someDate, someDate));
         assertTrue(DateUtils.isSameDay(now, now));
         assertTrue(DateUtils.isSameDay(now, DateUtils.today()));
+        assertFalse(DateUtils.isSameDay(someDate.getTime(), now.getTime()));
+        assertTrue(DateUtils.isSameDay(now.getTime(), now.getTime()));
+        assertTrue(DateUtils.isSameDay(now.getTime(),
+                DateUtils.todayMillis()));
 
         final Calendar cal1 = Calendar.getInstance();
         final Calendar cal2 = Calendar.getInstance();
@@ -163,4 +465,32 @@ public class DateUtilsTest {
         cal2.setTime(DateUtils.today());
         assertTrue(DateUtils.isSameDay(cal1, cal2));
     }
+
+    private static class ManualClock implements Clock {
+
+        private long mMillis;
+
+        ManualClock(final long millis) {
+            mMillis = millis;
+        }
+
+        @Override
+        public long currentTimeMillis() {
+            return mMillis;
+        }
+    }
+
+    private static Date parseWithFormatters(final String value) {
+        final String date = value.endsWith("Z") ?
+                value.substring(0, value.length() - 1) + "+0000" : value;
+        final String[] patterns = {"yyyyMMdd'T'HHmmssZ",
+                "yyyy-MM-dd'T'HH:mm:ssZ", "yyyyMMdd"};
+        for (final String pattern : patterns) {
+            try {
+                return new SimpleDateFormat(pattern, Locale.US).parse(date);
+            } catch (final ParseException ignore) {
+            }
+        }
+        return null;
+    }
 }
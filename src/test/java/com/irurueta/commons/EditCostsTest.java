@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons;
+
+import org.junit.*;
+
+import static org.junit.Assert.*;
+
+public class EditCostsTest {
+
+    @Test
+    public void testUnit() {
+        assertEquals(1.0, EditCosts.UNIT.getInsertionCost(), 0.0);
+        assertEquals(1.0, EditCosts.UNIT.getDeletionCost(), 0.0);
+        assertEquals(1.0, EditCosts.UNIT.getDefaultSubstitutionCost(), 0.0);
+        assertEquals(1.0, EditCosts.UNIT.getSubstitutionCost('a', 'b'), 0.0);
+        assertEquals(0.0, EditCosts.UNIT.getSubstitutionCost('a', 'a'), 0.0);
+    }
+
+    @Test
+    public void testBuilder() {
+        final EditCosts costs = new EditCosts.Builder()
+                .setInsertionCost(2.0)
+                .setDeletionCost(3.0)
+                .setDefaultSubstitutionCost(4.0)
+                .setSubstitutionCost('a', 'b', 0.5)
+                .setSubstitutionCostFrom('x', 'y', 0.25)
+                .setSubstitutionCost('ñ', '￿', 0.75)
+                .build();
+
+        assertEquals(2.0, costs.getInsertionCost(), 0.0);
+        assertEquals(3.0, costs.getDeletionCost(), 0.0);
+        assertEquals(4.0, costs.getDefaultSubstitutionCost(), 0.0);
+        assertEquals(0.5, costs.getSubstitutionCost('a', 'b'), 0.0);
+        assertEquals(0.5, costs.getSubstitutionCost('b', 'a'), 0.0);
+        assertEquals(0.25, costs.getSubstitutionCost('x', 'y'), 0.0);
+        assertEquals(4.0, costs.getSubstitutionCost('y', 'x'), 0.0);
+        assertEquals(0.75, costs.getSubstitutionCost('￿', 'ñ'), 0.0);
+        assertEquals(4.0, costs.getSubstitutionCost('a', 'c'), 0.0);
+        assertEquals(0.0, costs.getSubstitutionCost('a', 'a'), 0.0);
+
+        // Force IllegalArgumentException
+        final EditCosts.Builder builder = new EditCosts.Builder();
+        try {
+            builder.setInsertionCost(-1.0);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            builder.setDeletionCost(Double.NaN);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            builder.setDefaultSubstitutionCost(Double.POSITIVE_INFINITY);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            builder.setSubstitutionCost('a', 'a', 1.0);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+
+    @Test
+    public void testQwertyAdjacency() {
+        final EditCosts costs = EditCosts.qwertyAdjacency(0.5);
+        assertEquals(0.5, costs.getSubstitutionCost('q', 'w'), 0.0);
+        assertEquals(0.5, costs.getSubstitutionCost('w', 'q'), 0.0);
+        assertEquals(0.5, costs.getSubstitutionCost('q', 'a'), 0.0);
+        assertEquals(0.5, costs.getSubstitutionCost('w', 'a'), 0.0);
+        assertEquals(0.5, costs.getSubstitutionCost('s', 'x'), 0.0);
+        assertEquals(0.5, costs.getSubstitutionCost('1', 'q'), 0.0);
+        assertEquals(0.5, costs.getSubstitutionCost('M', 'N'), 0.0);
+        assertEquals(1.0, costs.getSubstitutionCost('q', 'p'), 0.0);
+        assertEquals(1.0, costs.getSubstitutionCost('q', 's'), 0.0);
+        assertEquals(1.0, costs.getSubstitutionCost('m', 'N'), 0.0);
+
+        // Force IllegalArgumentException
+        try {
+            EditCosts.qwertyAdjacency(-0.5);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons;
+
+import org.junit.*;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class EditDistanceCalculatorTest {
+
+    @Test
+    public void testConstructor() {
+        EditDistanceCalculator calculator = new EditDistanceCalculator();
+        assertEquals(0, calculator.getCapacity());
+
+        calculator = new EditDistanceCalculator(10);
+        assertEquals(10, calculator.getCapacity());
+
+        // Force IllegalArgumentException
+        try {
+            new EditDistanceCalculator(-1);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+
+    @Test
+    public void testGetThreadInstance() throws InterruptedException {
+        final EditDistanceCalculator calculator =
+                EditDistanceCalculator.getThreadInstance();
+        assertNotNull(calculator);
+        assertSame(calculator, EditDistanceCalculator.getThreadInstance());
+
+        final AtomicReference<EditDistanceCalculator> other =
+                new AtomicReference<>();
+        final Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                other.set(EditDistanceCalculator.getThreadInstance());
+            }
+        });
+        thread.start();
+        thread.join();
+        assertNotNull(other.get());
+        assertNotSame(calculator, other.get());
+    }
+
+    @Test
+    public void testDistance() {
+        final EditDistanceCalculator calculator = new EditDistanceCalculator();
+        final Random random = new Random(3456);
+        final String alphabet = "abcdefñ€";
+
+        // strings of decreasing and increasing lengths reuse buffers
+        final int[] lengths = {200, 10, 64, 0, 65, 3, 130, 1};
+        for (final int length1 : lengths) {
+            for (final int length2 : lengths) {
+                final String str1 = randomString(random, length1, alphabet);
+                final String str2 = randomString(random, length2, alphabet);
+                final int expected = EditDistance.stringDistance(str1, str2);
+
+                assertEquals(expected, calculator.stringDistance(str1, str2));
+                assertEquals(expected, calculator.distance(str1,
+                        (CharSequence) str2));
+                assertEquals(expected, calculator.distance(toArray(str1),
+                        toArray(str2)));
+                assertEquals(expected, calculator.distance(
+                        str1.toCharArray(), str2.toCharArray()));
+                assertEquals(expected, calculator.distance(toInts(str1),
+                        toInts(str2)));
+                assertEquals(expected, calculator.distance(toBytes(str1),
+                        toBytes(str2)));
+                assertEquals(expected, calculator.distance(toLongs(str1),
+                        toLongs(str2)));
+                assertEquals(Math.min(expected, 6),
+                        calculator.distanceAtMost(str1, str2, 5));
+            }
+        }
+        assertEquals(201, calculator.getCapacity());
+
+        // Force IllegalArgumentException
+        try {
+            calculator.stringDistance(null, "a");
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            calculator.distanceAtMost("a", "b", -1);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+
+    @Test
+    public void testOtherMetrics() {
+        final EditDistanceCalculator calculator = new EditDistanceCalculator();
+        assertEquals(1, calculator.osaDistance("receive", "recieve"));
+        assertEquals(1, calculator.osaDistance(new int[]{1, 2}, new int[]{2, 1}));
+        assertEquals(0.5, calculator.weightedDistance("cat", "cay",
+                EditCosts.qwertyAdjacency(0.5)), 0.0);
+        assertEquals(0.944444, calculator.jaroSimilarity("MARTHA", "MARHTA"),
+                1e-6);
+        assertEquals(0.961111, calculator.jaroWinklerSimilarity("MARTHA",
+                "MARHTA"), 1e-6);
+    }
+
+    private static String randomString(final Random random, final int length,
+                                       final String alphabet) {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return builder.toString();
+    }
+
+    private static Character[] toArray(final String str) {
+        final Character[] result = new Character[str.length()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = str.charAt(i);
+        }
+        return result;
+    }
+
+    private static int[] toInts(final String str) {
+        final int[] result = new int[str.length()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = str.charAt(i);
+        }
+        return result;
+    }
+
+    private static byte[] toBytes(final String str) {
+        final byte[] result = new byte[str.length()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (byte) str.charAt(i);
+        }
+        return result;
+    }
+
+    private static long[] toLongs(final String str) {
+        final long[] result = new long[str.length()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = str.charAt(i);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons;
+
+import org.junit.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class EditDistanceIndexTest {
+
+    @Test
+    public void testConstructor() {
+        EditDistanceIndex index = new EditDistanceIndex();
+        assertEquals(0, index.size());
+        assertTrue(index.search("dog", 5).isEmpty());
+        assertFalse(index.contains("dog"));
+
+        index = new EditDistanceIndex(0);
+        assertEquals(0, index.size());
+
+        // Force IllegalArgumentException
+        try {
+            new EditDistanceIndex(-1);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+
+    @Test
+    public void testAddAndSearch() {
+        final EditDistanceIndex index = new EditDistanceIndex(0);
+        assertTrue(index.add("dog"));
+        assertTrue(index.add("dogs"));
+        assertTrue(index.add("cat"));
+        assertFalse(index.add("dog"));
+        assertEquals(2, index.addAll(Arrays.asList("dot", "cat", "frog")));
+        assertEquals(5, index.size());
+        assertEquals("frog", index.getTerm(4));
+
+        assertTrue(index.contains("dog"));
+        assertTrue(index.contains("frog"));
+        assertFalse(index.contains("fog"));
+
+        List<EditDistanceMatch> matches = index.search("dog", 1);
+        assertEquals(3, matches.size());
+        assertEquals(new EditDistanceMatch(0, "dog", 0), matches.get(0));
+        assertEquals(new EditDistanceMatch(1, "dogs", 1), matches.get(1));
+        assertEquals(new EditDistanceMatch(3, "dot", 1), matches.get(2));
+
+        matches = index.search("fog", 1);
+        assertEquals(2, matches.size());
+        assertEquals("dog", matches.get(0).getCandidate());
+        assertEquals("frog", matches.get(1).getCandidate());
+
+        assertEquals(5, index.search("", 4).size());
+        assertTrue(index.search("elephant", 2).isEmpty());
+
+        // large maximum distances match every term
+        assertEquals(5, index.search("abd", 1000).size());
+        assertEquals(5, index.search("abd", Integer.MAX_VALUE).size());
+        assertEquals(5, index.search("", Integer.MAX_VALUE).size());
+
+        // Force IllegalArgumentException
+        try {
+            index.add(null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            index.addAll(null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            index.contains(null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            index.search(null, 1);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            index.search("dog", -1);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+
+        // Force IndexOutOfBoundsException
+        try {
+            index.getTerm(5);
+            fail("IndexOutOfBoundsException expected but not thrown");
+        } catch (final IndexOutOfBoundsException ignore) {
+        }
+    }
+
+    @Test
+    public void testBuild() {
+        final Random random = new Random(2468);
+        final String alphabet = "abcdefgh";
+        final LinkedHashSet<String> distinctTerms = new LinkedHashSet<>();
+        while (distinctTerms.size() < 5000) {
+            final StringBuilder builder = new StringBuilder();
+            final int length = 3 + random.nextInt(15);
+            for (int j = 0; j < length; j++) {
+                builder.append(alphabet.charAt(random.nextInt(
+                        alphabet.length())));
+            }
+            distinctTerms.add(builder.toString());
+        }
+        final List<String> terms = new ArrayList<>(distinctTerms);
+
+        final EditDistanceIndex index = EditDistanceIndex.build(terms);
+        assertEquals(terms.size(), index.size());
+        for (int i = 0; i < terms.size(); i++) {
+            assertEquals(terms.get(i), index.getTerm(i));
+        }
+
+        // compare with exhaustive search
+        for (int q = 0; q < 20; q++) {
+            final String query = terms.get(random.nextInt(terms.size()))
+                    .substring(1);
+            assertEquals(terms.contains(query), index.contains(query));
+            for (int maxDistance = 0; maxDistance <= 3; maxDistance++) {
+                final List<EditDistanceMatch> expected = new ArrayList<>();
+                for (int i = 0; i < terms.size(); i++) {
+                    final int distance = EditDistance.stringDistance(query,
+                            terms.get(i));
+                    if (distance <= maxDistance) {
+                        expected.add(new EditDistanceMatch(i, terms.get(i),
+                                distance));
+                    }
+                }
+                Collections.sort(expected);
+                assertEquals(expected, index.search(query, maxDistance));
+            }
+        }
+
+        // Force IllegalArgumentException
+        try {
+            EditDistanceIndex.build(null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons;
+
+import org.junit.*;
+
+import static org.junit.Assert.*;
+
+public class EditDistanceMatchTest {
+
+    @Test
+    public void testMatch() {
+        final EditDistanceMatch match = new EditDistanceMatch(3, "dogs", 1);
+        assertEquals(3, match.getIndex());
+        assertEquals("dogs", match.getCandidate());
+        assertEquals(1, match.getDistance());
+        assertEquals("dogs (3): 1", match.toString());
+
+        final EditDistanceMatch equal = new EditDistanceMatch(3, "dogs", 1);
+        assertEquals(match, equal);
+        assertEquals(match.hashCode(), equal.hashCode());
+        assertEquals(0, match.compareTo(equal));
+        assertNotEquals(match, new EditDistanceMatch(4, "dogs", 1));
+        assertNotEquals(match, new Object());
+
+        // closer matches go first, then by position
+        assertTrue(match.compareTo(new EditDistanceMatch(0, "dot", 2)) < 0);
+        assertTrue(match.compareTo(new EditDistanceMatch(0, "dot", 1)) > 0);
+        assertTrue(match.compareTo(new EditDistanceMatch(5, "doge", 1)) < 0);
+    }
+}
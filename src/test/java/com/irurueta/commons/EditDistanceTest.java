@@ -17,8 +17,19 @@ package com.irurueta.commons;
 
 import org.junit.Test;
 
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class EditDistanceTest {
 
@@ -65,4 +76,533 @@ public class EditDistanceTest {
         assertEquals(EditDistance.stringDistance(str1, str2), 3);
         assertEquals(EditDistance.distance(array1, array2), 3);
     }
+
+    @Test
+    public void testStringEditDistanceMatchesGenericDistance() {
+        assertEquals(0, EditDistance.stringDistance("", ""));
+        assertEquals(5, EditDistance.stringDistance("", "hello"));
+        assertEquals(5, EditDistance.stringDistance("hello", ""));
+        assertEquals(0, EditDistance.stringDistance("hello", "hello"));
+        assertEquals(2, EditDistance.stringDistance("añoñ", "ano"));
+
+        final Random random = new Random(1234);
+        // lengths cover single word, exact word and several blocks
+        final int[] lengths = {1, 2, 10, 63, 64, 65, 100, 128, 129, 200};
+        final String alphabet = "abcdñ€";
+        for (final int length1 : lengths) {
+            for (final int length2 : lengths) {
+                final String str1 = randomString(random, length1, alphabet);
+                final String str2 = mutate(random, str1, length2, alphabet);
+                final int expected = EditDistance.distance(toArray(str1),
+                        toArray(str2));
+                assertEquals(expected, EditDistance.stringDistance(str1, str2));
+                assertEquals(expected, EditDistance.stringDistance(str2, str1));
+            }
+        }
+
+        // Force IllegalArgumentException
+        try {
+            EditDistance.stringDistance(null, "a");
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            EditDistance.stringDistance("a", null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+
+    @Test
+    public void testDistanceAtMost() {
+        assertEquals(1, EditDistance.distanceAtMost("dog", "dogs", 1));
+        assertEquals(1, EditDistance.distanceAtMost("dog", "dogs", 5));
+        assertEquals(1, EditDistance.distanceAtMost("dog", "dogs", 0));
+        assertEquals(3, EditDistance.distanceAtMost("puppy", "lucky", 3));
+        assertEquals(3, EditDistance.distanceAtMost("puppy", "lucky", 2));
+        assertEquals(0, EditDistance.distanceAtMost("", "", 0));
+        assertEquals(2, EditDistance.distanceAtMost("", "ab", 2));
+        assertEquals(3, EditDistance.distanceAtMost("abc", "", 2));
+        assertEquals(4, EditDistance.distanceAtMost("abcd", "efgh",
+                Integer.MAX_VALUE));
+
+        final Random random = new Random(5678);
+        final int[] lengths = {1, 5, 20, 64, 100};
+        final String alphabet = "abcdñ";
+        for (final int length1 : lengths) {
+            for (final int length2 : lengths) {
+                final String str1 = randomString(random, length1, alphabet);
+                final String str2 = mutate(random, str1, length2, alphabet);
+                final int distance = EditDistance.stringDistance(str1, str2);
+                for (int k = 0; k <= 10; k++) {
+                    final int expected = distance <= k ? distance : k + 1;
+                    assertEquals(expected,
+                            EditDistance.distanceAtMost(str1, str2, k));
+                    assertEquals(expected,
+                            EditDistance.distanceAtMost(str2, str1, k));
+                }
+                assertEquals(distance, EditDistance.distanceAtMost(str1, str2,
+                        distance));
+            }
+        }
+
+        // Force IllegalArgumentException
+        try {
+            EditDistance.distanceAtMost(null, "a", 1);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            EditDistance.distanceAtMost("a", null, 1);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            EditDistance.distanceAtMost("a", "b", -1);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+
+    @Test
+    public void testPrimitiveDistance() {
+        final EditDistance.Workspace workspace = new EditDistance.Workspace();
+        assertEquals(0, workspace.getCapacity());
+
+        final Random random = new Random(9012);
+        final int[] lengths = {0, 1, 5, 20, 100};
+        final String alphabet = "abcdñ";
+        for (final int length1 : lengths) {
+            for (final int length2 : lengths) {
+                final String str1 = randomString(random, length1, alphabet);
+                final String str2 = mutate(random, str1, length2, alphabet);
+                final int expected = EditDistance.distance(toArray(str1),
+                        toArray(str2));
+
+                final char[] chars1 = str1.toCharArray();
+                final char[] chars2 = str2.toCharArray();
+                final int[] ints1 = new int[chars1.length];
+                final int[] ints2 = new int[chars2.length];
+                final byte[] bytes1 = new byte[chars1.length];
+                final byte[] bytes2 = new byte[chars2.length];
+                final long[] longs1 = new long[chars1.length];
+                final long[] longs2 = new long[chars2.length];
+                for (int i = 0; i < chars1.length; i++) {
+                    ints1[i] = chars1[i] * 100000;
+                    bytes1[i] = (byte) chars1[i];
+                    longs1[i] = chars1[i] * 10000000000L;
+                }
+                for (int i = 0; i < chars2.length; i++) {
+                    ints2[i] = chars2[i] * 100000;
+                    bytes2[i] = (byte) chars2[i];
+                    longs2[i] = chars2[i] * 10000000000L;
+                }
+
+                assertEquals(expected, EditDistance.distance(chars1, chars2));
+                assertEquals(expected, EditDistance.distance(chars1, chars2,
+                        workspace));
+                assertEquals(expected, EditDistance.distance(ints1, ints2));
+                assertEquals(expected, EditDistance.distance(ints1, ints2,
+                        workspace));
+                assertEquals(expected, EditDistance.distance(bytes1, bytes2));
+                assertEquals(expected, EditDistance.distance(bytes1, bytes2,
+                        workspace));
+                assertEquals(expected, EditDistance.distance(longs1, longs2));
+                assertEquals(expected, EditDistance.distance(longs1, longs2,
+                        workspace));
+                assertEquals(expected, EditDistance.distance(
+                        new StringBuilder(str1), str2));
+                assertEquals(expected, EditDistance.distance(str1,
+                        new StringBuilder(str2), workspace));
+                assertEquals(expected, EditDistance.distance(
+                        CharBuffer.wrap(chars1), CharBuffer.wrap(chars2)));
+            }
+        }
+
+        // workspace grows to fit shortest sequence
+        assertEquals(101, workspace.getCapacity());
+
+        // Force IllegalArgumentException
+        try {
+            EditDistance.distance((int[]) null, new int[0]);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            EditDistance.distance("a", (CharSequence) null, workspace);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            new EditDistance.Workspace(-1);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+
+    @Test
+    public void testClosestMatches() {
+        final List<String> candidates = Arrays.asList("dog", "dogs", "cat",
+                "dot", "doge", "frog", "dog");
+
+        List<EditDistanceMatch> matches = EditDistance.closestMatches("dog",
+                candidates, 1, 3);
+        assertEquals(3, matches.size());
+        assertEquals(0, matches.get(0).getIndex());
+        assertEquals(0, matches.get(0).getDistance());
+        assertEquals(6, matches.get(1).getIndex());
+        assertEquals(0, matches.get(1).getDistance());
+        assertEquals("dogs", matches.get(2).getCandidate());
+        assertEquals(1, matches.get(2).getDistance());
+
+        matches = EditDistance.closestMatches("dog", candidates, 0, 10);
+        assertEquals(2, matches.size());
+        matches = EditDistance.closestMatches("dog", new LinkedList<>(candidates),
+                Integer.MAX_VALUE, 10);
+        assertEquals(7, matches.size());
+        assertEquals("cat", matches.get(6).getCandidate());
+        assertTrue(EditDistance.closestMatches("dog",
+                Collections.<String>emptyList(), 1, 1).isEmpty());
+
+        // large lists are searched in parallel
+        final Random random = new Random(7890);
+        final String alphabet = "abcdef";
+        final List<String> dictionary = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            dictionary.add(randomString(random, 4 + random.nextInt(8),
+                    alphabet));
+        }
+        final List<String> queries = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            queries.add(mutate(random, dictionary.get(random.nextInt(
+                    dictionary.size())), 8, alphabet));
+        }
+
+        final ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            final List<List<EditDistanceMatch>> allMatches =
+                    EditDistance.closestMatches(queries, dictionary, 3, 20, pool);
+            assertEquals(queries.size(), allMatches.size());
+            for (int q = 0; q < queries.size(); q++) {
+                final String query = queries.get(q);
+
+                // compare with exhaustive search
+                final List<EditDistanceMatch> expected = new ArrayList<>();
+                for (int i = 0; i < dictionary.size(); i++) {
+                    final int distance = EditDistance.stringDistance(query,
+                            dictionary.get(i));
+                    if (distance <= 3) {
+                        expected.add(new EditDistanceMatch(i, dictionary.get(i),
+                                distance));
+                    }
+                }
+                Collections.sort(expected);
+                final List<EditDistanceMatch> top = expected.subList(0,
+                        Math.min(20, expected.size()));
+
+                assertEquals(top, allMatches.get(q));
+                assertEquals(top, EditDistance.closestMatches(query,
+                        dictionary, 3, 20));
+                assertEquals(top, EditDistance.closestMatches(query,
+                        dictionary, 3, 20, pool));
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertTrue(EditDistance.closestMatches(Collections.<String>emptyList(),
+                dictionary, 1, 1).isEmpty());
+
+        // Force IllegalArgumentException
+        try {
+            EditDistance.closestMatches((String) null, candidates, 1, 1);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            EditDistance.closestMatches("dog", null, 1, 1);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            EditDistance.closestMatches("dog", Arrays.asList("a", null), 1, 1);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            EditDistance.closestMatches("dog", candidates, -1, 1);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            EditDistance.closestMatches("dog", candidates, 1, 0);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            EditDistance.closestMatches("dog", candidates, 1, 1, null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            EditDistance.closestMatches((List<String>) null, candidates, 1, 1);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            EditDistance.closestMatches(Arrays.asList("a", null), candidates,
+                    1, 1);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+
+    @Test
+    public void testOsaDistance() {
+        final EditDistance.Workspace workspace = new EditDistance.Workspace();
+        assertEquals(1, EditDistance.osaDistance("ab", "ba"));
+        assertEquals(2, EditDistance.distance("ab", (CharSequence) "ba"));
+        assertEquals(1, EditDistance.osaDistance("receive", "recieve",
+                workspace));
+        assertEquals(3, EditDistance.osaDistance("ca", "abc"));
+        assertEquals(3, EditDistance.osaDistance("", "abc"));
+        assertEquals(3, EditDistance.osaDistance("abc", "", workspace));
+        assertEquals(1, EditDistance.osaDistance(new int[]{1, 2, 3},
+                new int[]{1, 3, 2}));
+        assertEquals(2, EditDistance.osaDistance(new int[]{1, 2, 3, 4},
+                new int[]{2, 1, 4, 3}, workspace));
+
+        // never exceeds Levenshtein distance
+        final Random random = new Random(1357);
+        for (int t = 0; t < 50; t++) {
+            final String str1 = randomString(random, random.nextInt(30), "abc");
+            final String str2 = mutate(random, str1, random.nextInt(30), "abc");
+            final int osa = EditDistance.osaDistance(str1, str2, workspace);
+            assertTrue(osa <= EditDistance.stringDistance(str1, str2));
+            assertEquals(osa, EditDistance.osaDistance(str2, str1));
+        }
+
+        // Force IllegalArgumentException
+        try {
+            EditDistance.osaDistance(null, "a");
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            EditDistance.osaDistance(new int[0], null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+
+    @Test
+    public void testWeightedDistance() {
+        final EditDistance.Workspace workspace = new EditDistance.Workspace();
+
+        // unit costs give Levenshtein distance
+        final Random random = new Random(2468);
+        for (int t = 0; t < 50; t++) {
+            final String str1 = randomString(random, random.nextInt(30), "abcñ");
+            final String str2 = mutate(random, str1, random.nextInt(30), "abcñ");
+            assertEquals(EditDistance.stringDistance(str1, str2),
+                    EditDistance.weightedDistance(str1, str2, EditCosts.UNIT,
+                            workspace), 0.0);
+        }
+
+        final EditCosts keyboard = EditCosts.qwertyAdjacency(0.5);
+        assertEquals(0.5, EditDistance.weightedDistance("cat", "cay",
+                keyboard), 0.0);
+        assertEquals(1.0, EditDistance.weightedDistance("cat", "cap",
+                keyboard), 0.0);
+        assertEquals(0.5, EditDistance.weightedDistance("CAT", "CAY",
+                keyboard, workspace), 0.0);
+
+        final EditCosts costs = new EditCosts.Builder()
+                .setInsertionCost(2.0)
+                .setDeletionCost(0.5)
+                .build();
+        assertEquals(4.0, EditDistance.weightedDistance("", "ab", costs), 0.0);
+        assertEquals(1.0, EditDistance.weightedDistance("ab", "", costs), 0.0);
+        assertEquals(2.0, EditDistance.weightedDistance("dog", "dogs", costs),
+                0.0);
+        assertEquals(0.5, EditDistance.weightedDistance("dogs", "dog", costs),
+                0.0);
+        // substitution is more expensive than deleting and inserting
+        assertEquals(1.0, EditDistance.weightedDistance("a", "b", costs), 0.0);
+
+        // Force IllegalArgumentException
+        try {
+            EditDistance.weightedDistance("a", "b", null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            EditDistance.weightedDistance(null, "b", costs);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+
+    @Test
+    public void testJaroWinklerSimilarity() {
+        final EditDistance.Workspace workspace = new EditDistance.Workspace();
+        assertEquals(1.0, EditDistance.jaroSimilarity("", ""), 0.0);
+        assertEquals(0.0, EditDistance.jaroSimilarity("", "a"), 0.0);
+        assertEquals(0.0, EditDistance.jaroSimilarity("abc", "xyz"), 0.0);
+        assertEquals(1.0, EditDistance.jaroSimilarity("martha", "martha"), 0.0);
+        assertEquals(0.944444, EditDistance.jaroSimilarity("MARTHA", "MARHTA",
+                workspace), 1e-6);
+        assertEquals(0.822222, EditDistance.jaroSimilarity("DWAYNE", "DUANE"),
+                1e-6);
+        assertEquals(0.766667, EditDistance.jaroSimilarity("DIXON",
+                "DICKSONX"), 1e-6);
+
+        assertEquals(0.961111, EditDistance.jaroWinklerSimilarity("MARTHA",
+                "MARHTA"), 1e-6);
+        assertEquals(0.84, EditDistance.jaroWinklerSimilarity("DWAYNE",
+                "DUANE", workspace), 1e-6);
+        assertEquals(0.813333, EditDistance.jaroWinklerSimilarity("DIXON",
+                "DICKSONX"), 1e-6);
+        assertEquals(EditDistance.jaroWinklerSimilarity("DUANE", "DWAYNE"),
+                EditDistance.jaroWinklerSimilarity("DWAYNE", "DUANE"), 1e-12);
+        assertEquals(1.0, EditDistance.jaroWinklerSimilarity("", ""), 0.0);
+
+        // Force IllegalArgumentException
+        try {
+            EditDistance.jaroSimilarity(null, "a");
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            EditDistance.jaroWinklerSimilarity("a", null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+
+    @Test
+    public void testEditScript() {
+        List<EditOperation> script = EditDistance.editScript("dog", "dogs");
+        assertEquals(1, script.size());
+        assertEquals(new EditOperation(EditOperation.Type.INSERTION, 3, 3),
+                script.get(0));
+
+        script = EditDistance.editScript("dogs", "dog");
+        assertEquals(1, script.size());
+        assertEquals(new EditOperation(EditOperation.Type.DELETION, 3, 3),
+                script.get(0));
+
+        script = EditDistance.editScript("puppy", "lucky");
+        assertEquals(3, script.size());
+        assertEquals(new EditOperation(EditOperation.Type.SUBSTITUTION, 0, 0),
+                script.get(0));
+        assertEquals(new EditOperation(EditOperation.Type.SUBSTITUTION, 2, 2),
+                script.get(1));
+        assertEquals(new EditOperation(EditOperation.Type.SUBSTITUTION, 3, 3),
+                script.get(2));
+
+        assertTrue(EditDistance.editScript("", "").isEmpty());
+        assertTrue(EditDistance.editScript("same", "same").isEmpty());
+        assertEquals(2, EditDistance.editScript("", "ab").size());
+        assertEquals(2, EditDistance.editScript(new int[]{1, 2},
+                new int[0]).size());
+
+        final Random random = new Random(1122);
+        final int[] lengths = {1, 2, 7, 50, 300};
+        for (final int length1 : lengths) {
+            for (final int length2 : lengths) {
+                final String str1 = randomString(random, length1, "abcd");
+                final String str2 = mutate(random, str1, length2, "abcd");
+                script = EditDistance.editScript(str1, str2);
+                assertEquals(EditDistance.stringDistance(str1, str2),
+                        script.size());
+                assertEquals(str2, applyScript(str1, str2, script));
+            }
+        }
+
+        // Force IllegalArgumentException
+        try {
+            EditDistance.editScript(null, "a");
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            EditDistance.editScript(new int[0], null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+
+    private static String applyScript(final String source, final String target,
+                                      final List<EditOperation> script) {
+        final StringBuilder builder = new StringBuilder();
+        int pos = 0;
+        int prevSource = -1;
+        int prevTarget = -1;
+        for (final EditOperation operation : script) {
+            final int sourcePos = operation.getSourcePosition();
+            final int targetPos = operation.getTargetPosition();
+            // operations are sorted
+            assertTrue(sourcePos >= prevSource && targetPos >= prevTarget);
+            prevSource = sourcePos;
+            prevTarget = targetPos;
+
+            // unmodified elements
+            builder.append(source, pos, sourcePos);
+            pos = sourcePos;
+            assertEquals(builder.length(), targetPos);
+
+            switch (operation.getType()) {
+                case INSERTION:
+                    builder.append(target.charAt(targetPos));
+                    break;
+                case DELETION:
+                    pos++;
+                    break;
+                case SUBSTITUTION:
+                default:
+                    assertTrue(source.charAt(sourcePos) !=
+                            target.charAt(targetPos));
+                    builder.append(target.charAt(targetPos));
+                    pos++;
+                    break;
+            }
+        }
+        builder.append(source, pos, source.length());
+        return builder.toString();
+    }
+
+    private static String randomString(final Random random, final int length,
+                                       final String alphabet) {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return builder.toString();
+    }
+
+    private static String mutate(final Random random, final String str,
+                                 final int length, final String alphabet) {
+        // keep part of provided string so that both strings are similar
+        final StringBuilder builder = new StringBuilder(str);
+        while (builder.length() > length) {
+            builder.deleteCharAt(random.nextInt(builder.length()));
+        }
+        while (builder.length() < length) {
+            builder.insert(random.nextInt(builder.length() + 1),
+                    alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        for (int i = 0; i < length / 10; i++) {
+            builder.setCharAt(random.nextInt(length),
+                    alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return builder.toString();
+    }
+
+    private static Character[] toArray(final String str) {
+        final Character[] result = new Character[str.length()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = str.charAt(i);
+        }
+        return result;
+    }
 }
@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons;
+
+import org.junit.*;
+
+import static org.junit.Assert.*;
+
+public class EditOperationTest {
+
+    @Test
+    public void testOperation() {
+        final EditOperation operation = new EditOperation(
+                EditOperation.Type.SUBSTITUTION, 2, 3);
+        assertEquals(EditOperation.Type.SUBSTITUTION, operation.getType());
+        assertEquals(2, operation.getSourcePosition());
+        assertEquals(3, operation.getTargetPosition());
+        assertEquals("SUBSTITUTION 2 -> 3", operation.toString());
+
+        final EditOperation equal = new EditOperation(
+                EditOperation.Type.SUBSTITUTION, 2, 3);
+        assertEquals(operation, equal);
+        assertEquals(operation.hashCode(), equal.hashCode());
+        assertNotEquals(operation, new EditOperation(
+                EditOperation.Type.INSERTION, 2, 3));
+        assertNotEquals(operation, new EditOperation(
+                EditOperation.Type.SUBSTITUTION, 2, 4));
+        assertNotEquals(operation, new Object());
+    }
+}
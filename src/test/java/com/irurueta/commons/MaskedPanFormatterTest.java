@@ -18,7 +18,13 @@ package com.irurueta.commons;
 import com.irurueta.commons.validators.CreditCardNetwork;
 import org.junit.Test;
 
-import static org.junit.Assert.assertEquals;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
 
 public class MaskedPanFormatterTest {
 
@@ -495,4 +501,95 @@ public class MaskedPanFormatterTest {
         assertEquals(MaskedPanFormatter.format("wrong"),
                 "**** **** **** *******");
     }
+
+    @Test
+    public void testFormatInto() throws IOException {
+        final String pan = "3782 82246 310005";
+        final String expected = "····_······_·0005";
+        final int length = expected.length();
+        assertEquals(length, MaskedPanFormatter.getFormattedLength(
+                CreditCardNetwork.AMERICAN_EXPRESS));
+        assertEquals(19, MaskedPanFormatter.getFormattedLength(
+                CreditCardNetwork.VISA));
+
+        // StringBuilder
+        final StringBuilder builder = new StringBuilder("pan=");
+        assertEquals(length, MaskedPanFormatter.format(pan,
+                CreditCardNetwork.AMERICAN_EXPRESS, '·', '_', builder));
+        assertEquals("pan=" + expected, builder.toString());
+        builder.setLength(0);
+        assertEquals(length, MaskedPanFormatter.format(pan, '·', '_', builder));
+        assertEquals(expected, builder.toString());
+
+        // Writer
+        final StringWriter writer = new StringWriter();
+        assertEquals(length, MaskedPanFormatter.format(pan, '·', '_',
+                (Appendable) writer));
+        assertEquals(expected, writer.toString());
+
+        // generic Appendable
+        final Appendable appendable = CharBuffer.allocate(length);
+        assertEquals(length, MaskedPanFormatter.format(pan,
+                CreditCardNetwork.AMERICAN_EXPRESS, '·', '_', appendable));
+        assertEquals(expected, ((CharBuffer) appendable).flip().toString());
+
+        // char array at an offset
+        final char[] array = new char[length + 4];
+        Arrays.fill(array, '-');
+        assertEquals(length, MaskedPanFormatter.format(pan, '·', '_', array, 2));
+        assertEquals("--" + expected + "--", new String(array));
+
+        // heap char buffer
+        CharBuffer buffer = CharBuffer.allocate(length + 2);
+        buffer.put('[');
+        assertEquals(length, MaskedPanFormatter.format(pan, '·', '_', buffer));
+        buffer.put(']');
+        buffer.flip();
+        assertEquals("[" + expected + "]", buffer.toString());
+
+        // direct char buffer
+        buffer = ByteBuffer.allocateDirect(2 * length).asCharBuffer();
+        assertFalse(buffer.hasArray());
+        assertEquals(length, MaskedPanFormatter.format(pan,
+                CreditCardNetwork.AMERICAN_EXPRESS, '·', '_', buffer));
+        buffer.flip();
+        assertEquals(expected, buffer.toString());
+
+        // less digits than visible ones and null PAN
+        builder.setLength(0);
+        MaskedPanFormatter.format("0-5", CreditCardNetwork.VISA, '*', ' ',
+                builder);
+        assertEquals("**** **** **** **05", builder.toString());
+        final char[] visaArray = new char[19];
+        assertEquals(19, MaskedPanFormatter.format(null, CreditCardNetwork.VISA,
+                '*', ' ', visaArray, 0));
+        assertEquals("**** **** **** ****", new String(visaArray));
+
+        // Force IllegalArgumentException
+        try {
+            MaskedPanFormatter.format(pan, '·', '_', (StringBuilder) null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            MaskedPanFormatter.format(pan, '·', '_', (char[]) null, 0);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            MaskedPanFormatter.format(pan, '·', '_', new char[length], 1);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            MaskedPanFormatter.format(pan, '·', '_', new char[length], -1);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            MaskedPanFormatter.format(pan, '·', '_', CharBuffer.allocate(length - 1));
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
 }
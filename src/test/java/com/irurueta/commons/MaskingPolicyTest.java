@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons;
+
+import com.irurueta.commons.validators.CardNetworkRegistry;
+import com.irurueta.commons.validators.CreditCardNetwork;
+import org.junit.*;
+
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+public class MaskingPolicyTest {
+
+    @After
+    public void tearDown() {
+        CardNetworkRegistry.setInstance(CardNetworkRegistry.getBuiltIn());
+    }
+
+    @Test
+    public void testConstructor() {
+        MaskingPolicy policy = new MaskingPolicy(6, 4);
+
+        // check
+        assertEquals(6, policy.getNumLeadingDigits());
+        assertEquals(4, policy.getNumTrailingDigits());
+        assertNull(policy.getGrouping());
+        assertEquals(MaskedPanFormatter.DEFAULT_MASK_CHAR, policy.getMaskChar());
+        assertEquals(MaskedPanFormatter.DEFAULT_SEPARATOR_CHAR,
+                policy.getSeparatorChar());
+
+        final int[] grouping = new int[]{4, 4, 4, 4};
+        policy = new MaskingPolicy(8, 0, grouping, 'x', '-');
+
+        // check
+        assertEquals(8, policy.getNumLeadingDigits());
+        assertEquals(0, policy.getNumTrailingDigits());
+        assertArrayEquals(grouping, policy.getGrouping());
+        assertNotSame(grouping, policy.getGrouping());
+        assertEquals('x', policy.getMaskChar());
+        assertEquals('-', policy.getSeparatorChar());
+
+        policy = policy.withChars('#', '.');
+        assertEquals('#', policy.getMaskChar());
+        assertEquals('.', policy.getSeparatorChar());
+        assertArrayEquals(grouping, policy.getGrouping());
+
+        policy = policy.withGrouping(null);
+        assertNull(policy.getGrouping());
+        assertEquals(8, policy.getNumLeadingDigits());
+
+        // Force IllegalArgumentException
+        try {
+            new MaskingPolicy(-1, 4);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            new MaskingPolicy(9, 4);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            new MaskingPolicy(6, -1);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            new MaskingPolicy(6, 5);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            new MaskingPolicy(6, 4, new int[0], '*', ' ');
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            new MaskingPolicy(6, 4, new int[]{4, 0}, '*', ' ');
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+
+    @Test
+    public void testFormat() {
+        // last 4 policy matches MaskedPanFormatter
+        final String[] pans = new String[]{"4111 1111 1111 1111",
+                "3782 82246 310005", "3530111333300000", "111", "", null,
+                "wrong"};
+        for (final String pan : pans) {
+            for (final CreditCardNetwork network : CreditCardNetwork.values()) {
+                assertEquals(MaskedPanFormatter.format(pan, network),
+                        MaskingPolicy.LAST_4.format(pan, network));
+            }
+        }
+
+        final MaskingPolicy policy = MaskingPolicy.FIRST_6_LAST_4;
+        assertEquals("4111 11** **** 1111", policy.format("4111 1111 1111 1111"));
+        assertEquals("3782 82**** *0005", policy.format("378282246310005"));
+        assertEquals("3530 11** **** ***0000", policy.format("3530111333300000",
+                CreditCardNetwork.JCB));
+
+        // only last digits are available
+        assertEquals("**** **** **** 1111", policy.format("1111",
+                CreditCardNetwork.VISA));
+        assertEquals("**** **** **** 1111", policy.format("41111",
+                CreditCardNetwork.VISA));
+        assertEquals("**** **** **** 6789", policy.format("123456789",
+                CreditCardNetwork.VISA));
+        assertEquals("**** **** **** 1111", policy.format("411111111111",
+                CreditCardNetwork.VISA));
+
+        // leading digits are visible from the shortest valid length
+        assertEquals("4111 11** **** 1111", policy.format("4111111111111",
+                CreditCardNetwork.VISA));
+        assertEquals("**** **** **** ***6789", policy.format("123456789"));
+        assertEquals("**** **** **** ***6789", policy.format("123456789",
+                CreditCardNetwork.UNKNOWN));
+
+        assertEquals("**** **** **** ****", MaskingPolicy.FULLY_MASKED.format(
+                "4111111111111111"));
+
+        // grouping override and custom characters
+        final MaskingPolicy custom = new MaskingPolicy(8, 4,
+                new int[]{8, 8}, '#', '-');
+        assertEquals("41111111-####1111", custom.format("4111111111111111"));
+
+        // short custom grouping does not overlap leading and trailing digits
+        final MaskingPolicy tiny = new MaskingPolicy(6, 4, new int[]{6}, '*', ' ');
+        assertEquals("411111", tiny.format("4111111111111111"));
+    }
+
+    @Test
+    public void testGetFormatter() {
+        final MaskingPolicy policy = new MaskingPolicy(6, 4);
+        final CompiledPanFormatter formatter = policy.getFormatter(
+                CreditCardNetwork.VISA);
+
+        // formatters are cached
+        assertSame(formatter, policy.getFormatter(CreditCardNetwork.VISA));
+        assertSame(policy.getFormatter(null),
+                policy.getFormatter(CreditCardNetwork.UNKNOWN));
+        assertSame(policy, formatter.getPolicy());
+        assertEquals(CreditCardNetwork.VISA, formatter.getNetwork());
+
+        // formatters are compiled again when registry is replaced
+        final Properties properties = new Properties();
+        properties.setProperty("networks", "VISA");
+        properties.setProperty("default.grouping", "4,4,4,4");
+        properties.setProperty("VISA.iin", "4");
+        properties.setProperty("VISA.length", "16");
+        properties.setProperty("VISA.grouping", "8,8");
+        CardNetworkRegistry.setInstance(CardNetworkRegistry.load(properties));
+
+        final CompiledPanFormatter formatter2 = policy.getFormatter(
+                CreditCardNetwork.VISA);
+        assertNotSame(formatter, formatter2);
+        assertEquals("411111** ****1111", formatter2.format("4111111111111111"));
+    }
+}
@@ -15,13 +15,21 @@
  */
 package com.irurueta.commons;
 
+import com.irurueta.commons.validators.CardNetworkRegistry;
 import com.irurueta.commons.validators.CreditCardNetwork;
 import org.junit.*;
 
-import static org.junit.Assert.assertEquals;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
 
 public class PanMaskGeneratorTest {
 
+    @After
+    public void tearDown() {
+        CardNetworkRegistry.setInstance(CardNetworkRegistry.getBuiltIn());
+    }
+
     @Test
     public void testGenerate() {
         // cards with known grouping
@@ -94,4 +102,39 @@ public class PanMaskGeneratorTest {
         assertEquals(PanMaskGenerator.generate(null),
                 "#### #### #### #######");        
     }
+
+    @Test
+    public void testCache() {
+        // masks are cached both for default and custom characters
+        assertSame(PanMaskGenerator.generate(CreditCardNetwork.VISA),
+                PanMaskGenerator.generate(CreditCardNetwork.VISA));
+        assertSame(PanMaskGenerator.generate(CreditCardNetwork.VISA, '*', '-'),
+                PanMaskGenerator.generate(CreditCardNetwork.VISA, '*', '-'));
+        assertSame(PanMaskGenerator.generate(null, 'x', '-'),
+                PanMaskGenerator.generate(CreditCardNetwork.UNKNOWN, 'x', '-'));
+
+        // colliding custom characters still produce the right masks
+        for (char c = 'a'; c <= 'z'; c++) {
+            for (final CreditCardNetwork network : CreditCardNetwork.values()) {
+                final String mask = PanMaskGenerator.generate(network, c, '-');
+                assertEquals(PanMaskGenerator.generate(network).replace('#', c)
+                        .replace(' ', '-'), mask);
+            }
+        }
+
+        // replacing registry discards cached masks
+        final Properties properties = new Properties();
+        properties.setProperty("networks", "VISA");
+        properties.setProperty("default.grouping", "4,4,4,4");
+        properties.setProperty("VISA.iin", "4");
+        properties.setProperty("VISA.length", "16");
+        properties.setProperty("VISA.grouping", "8,8");
+        CardNetworkRegistry.setInstance(CardNetworkRegistry.load(properties));
+
+        assertEquals("######## ########",
+                PanMaskGenerator.generate(CreditCardNetwork.VISA));
+        assertEquals("********_********",
+                PanMaskGenerator.generate(CreditCardNetwork.VISA, '*', '_'));
+        assertEquals("#### #### #### ####", PanMaskGenerator.generate(null));
+    }
 }
@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons;
+
+import org.junit.*;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class PanRedactorTest {
+
+    @Test
+    public void testConstructor() {
+        PanRedactor redactor = new PanRedactor();
+        assertSame(MaskingPolicy.LAST_4, redactor.getPolicy());
+        assertEquals(0, redactor.getPendingLength());
+
+        redactor = new PanRedactor(MaskingPolicy.FIRST_6_LAST_4);
+        assertSame(MaskingPolicy.FIRST_6_LAST_4, redactor.getPolicy());
+
+        // Force IllegalArgumentException
+        try {
+            new PanRedactor(null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+
+    @Test
+    public void testRedact() {
+        assertNull(PanRedactor.redact(null));
+        assertEquals("", PanRedactor.redact(""));
+        assertEquals("no digits here", PanRedactor.redact("no digits here"));
+
+        // PANs with and without separators
+        assertEquals("card=************1111;",
+                PanRedactor.redact("card=4111111111111111;"));
+        assertEquals("card ****-****-****-1111 used",
+                PanRedactor.redact("card 4111-1111-1111-1111 used"));
+        assertEquals("**** ****** *0005.",
+                PanRedactor.redact("3782 822463 10005."));
+        assertEquals("a ************5100 b ************1117 c",
+                PanRedactor.redact("a 5105105105105100 b 6011111111111117 c"));
+
+        // invalid checksum, unknown network or too short numbers are kept
+        assertEquals("4111111111111112", PanRedactor.redact("4111111111111112"));
+        assertEquals("9111111111111111", PanRedactor.redact("9111111111111111"));
+        assertEquals("order 12345 id 411111", PanRedactor.redact(
+                "order 12345 id 411111"));
+
+        // too long digit runs are not PANs
+        assertEquals("41111111111111111111111",
+                PanRedactor.redact("41111111111111111111111"));
+
+        // PAN adjacent to other digit groups
+        assertEquals("id 1234 ****-****-****-1111 end", PanRedactor.redact(
+                "id 1234 4111-1111-1111-1111 end"));
+        assertEquals("************1111 ************1111", PanRedactor.redact(
+                "4111111111111111 4111111111111111"));
+        assertEquals("line 123 ************1111", PanRedactor.redact(
+                "line 123 4111111111111111"));
+
+        // double separators and trailing separators end runs
+        assertEquals("4111  1111 1111 1111", PanRedactor.redact(
+                "4111  1111 1111 1111"));
+        assertEquals("****-****-****-1111- x", PanRedactor.redact(
+                "4111-1111-1111-1111- x"));
+    }
+
+    @Test
+    public void testRedactWithPolicy() throws IOException {
+        final PanRedactor redactor = new PanRedactor(
+                MaskingPolicy.FIRST_6_LAST_4.withChars('#', ' '));
+        final StringBuilder builder = new StringBuilder();
+        final String text = "pay 4111 1111 1111 1111\n";
+        redactor.redact(text, 0, text.length(), builder);
+        redactor.finish(builder);
+        assertEquals("pay 4111 11## #### 1111\n", builder.toString());
+    }
+
+    @Test
+    public void testRedactInChunks() throws IOException {
+        final String text = "first 4111-1111-1111-1111, second 5105105105105100 " +
+                "and 3782 822463 10005 plus 41111111111111111111111 done 4111";
+        final String expected = PanRedactor.redact(text);
+        assertEquals("first ****-****-****-1111, second ************5100 " +
+                "and **** ****** *0005 plus 41111111111111111111111 done 4111",
+                expected);
+
+        // any chunk size gives the same result
+        final PanRedactor redactor = new PanRedactor();
+        final char[] chars = text.toCharArray();
+        for (int chunk = 1; chunk <= chars.length; chunk++) {
+            final StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < chars.length; i += chunk) {
+                redactor.redact(chars, i, Math.min(chunk, chars.length - i),
+                        builder);
+                assertTrue(redactor.getPendingLength() <=
+                        PanRedactor.MAX_PENDING_LENGTH);
+            }
+            redactor.finish(builder);
+            assertEquals(0, redactor.getPendingLength());
+            assertEquals(expected, builder.toString());
+        }
+
+        // retained characters are discarded on reset
+        final StringBuilder builder = new StringBuilder();
+        redactor.redact("x 4111", 0, 6, builder);
+        assertEquals("x ", builder.toString());
+        assertEquals(4, redactor.getPendingLength());
+        redactor.reset();
+        assertEquals(0, redactor.getPendingLength());
+
+        // large text
+        final StringBuilder large = new StringBuilder();
+        final StringBuilder largeExpected = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            large.append("line ").append(i).append(" 4111111111111111\n");
+            largeExpected.append("line ").append(i).append(" ************1111\n");
+        }
+        assertEquals(largeExpected.toString(), PanRedactor.redact(large));
+
+        // Force IllegalArgumentException
+        try {
+            redactor.redact((char[]) null, 0, 0, builder);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            redactor.redact("text", 0, 4, (StringBuilder) null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            redactor.finish((StringBuilder) null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+
+        // Force IndexOutOfBoundsException
+        try {
+            redactor.redact(chars, -1, 1, builder);
+            fail("IndexOutOfBoundsException expected but not thrown");
+        } catch (final IndexOutOfBoundsException ignore) {
+        }
+        try {
+            redactor.redact(text, 2, 1, builder);
+            fail("IndexOutOfBoundsException expected but not thrown");
+        } catch (final IndexOutOfBoundsException ignore) {
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons;
+
+import org.junit.*;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+public class RedactingReaderTest {
+
+    private static final String TEXT = "first 4111-1111-1111-1111\n" +
+            "second 5105105105105100 and 3782 822463 10005";
+
+    private static final String EXPECTED = "first ****-****-****-1111\n" +
+            "second ************5100 and **** ****** *0005";
+
+    @Test
+    public void testRead() throws IOException {
+        // small buffers split PANs across reads
+        for (int bufferSize = 1; bufferSize <= 16; bufferSize++) {
+            try (Reader reader = new RedactingReader(new StringReader(TEXT),
+                    new PanRedactor(), bufferSize)) {
+                assertFalse(reader.markSupported());
+                final StringBuilder builder = new StringBuilder();
+                final char[] buffer = new char[7];
+                int n;
+                while ((n = reader.read(buffer, 0, buffer.length)) >= 0) {
+                    builder.append(buffer, 0, n);
+                }
+                assertEquals(EXPECTED, builder.toString());
+                assertEquals(-1, reader.read());
+            }
+        }
+
+        // single characters
+        try (Reader reader = new RedactingReader(new StringReader(TEXT))) {
+            assertTrue(reader.ready());
+            final StringBuilder builder = new StringBuilder();
+            int c;
+            while ((c = reader.read()) >= 0) {
+                builder.append((char) c);
+            }
+            assertEquals(EXPECTED, builder.toString());
+            assertEquals(0, reader.read(new char[1], 0, 0));
+        }
+
+        // skip
+        try (Reader reader = new RedactingReader(new StringReader(TEXT))) {
+            assertEquals(6, reader.skip(6));
+            assertEquals('*', reader.read());
+            assertEquals(EXPECTED.length() - 7, reader.skip(1000));
+            assertEquals(-1, reader.read());
+        }
+
+        // Force IllegalArgumentException
+        try {
+            new RedactingReader(null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            new RedactingReader(new StringReader(TEXT), null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            new RedactingReader(new StringReader(TEXT), new PanRedactor(), 0);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+}
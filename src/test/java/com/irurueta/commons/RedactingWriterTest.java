@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons;
+
+import org.junit.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+
+import static org.junit.Assert.*;
+
+public class RedactingWriterTest {
+
+    @Test
+    public void testWrite() throws IOException {
+        final StringWriter out = new StringWriter();
+        try (Writer writer = new RedactingWriter(out)) {
+            writer.write("card 4111");
+            writer.write('-');
+            writer.write("1111-1111-1111".toCharArray());
+            writer.flush();
+            // last group is retained until run ends
+            assertEquals("card ", out.toString());
+            writer.write(" end\n");
+            writer.write("other 5105105105105100");
+        }
+        assertEquals("card ****-****-****-1111 end\nother ************5100",
+                out.toString());
+
+        final StringWriter out2 = new StringWriter();
+        try (Writer writer = new RedactingWriter(out2,
+                new PanRedactor(MaskingPolicy.FIRST_6_LAST_4))) {
+            writer.append("x=4111111111111111;");
+        }
+        assertEquals("x=411111******1111;", out2.toString());
+
+        // Force IllegalArgumentException
+        try {
+            new RedactingWriter(null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            new RedactingWriter(out, null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+}
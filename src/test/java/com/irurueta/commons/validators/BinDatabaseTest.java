@@ -0,0 +1,250 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons.validators;
+
+import org.junit.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+public class BinDatabaseTest {
+
+    private static final String DATABASE =
+            "# low,high,network,issuer,country,type,product\n" +
+            "411111,411111,VISA,Test Bank,US,CREDIT,Classic\n" +
+            "41111150,41111159,VISA,Test Bank,US,DEBIT,Gold\n" +
+            "\n" +
+            "510510,510599,MASTERCARD,Banco Ñandú,ES,PREPAID,\n" +
+            "620000,620099,,,,,\n";
+
+    @After
+    public void tearDown() {
+        CardNetworkRegistry.setInstance(CardNetworkRegistry.getBuiltIn());
+    }
+
+    @Test
+    public void testLoad() throws IOException {
+        final BinDatabase database = BinDatabase.load(new StringReader(DATABASE));
+
+        // nested range splits outer range
+        assertEquals(5, database.getNumEntries());
+        assertTrue(database.getSizeInBytes() > 0);
+        checkDatabase(database);
+
+        // Force IllegalArgumentException
+        try {
+            BinDatabase.load((Reader) null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        checkInvalid("411111,411111,VISA,Test Bank,US,CREDIT\n");
+        checkInvalid("41111a,411111,VISA,,,,\n");
+        checkInvalid("411111,4111111111,VISA,,,,\n");
+        checkInvalid("411112,411111,VISA,,,,\n");
+        checkInvalid("411111,411111,NOT_A_NETWORK,,,,\n");
+        checkInvalid("411111,411111,VISA,,,NOT_A_TYPE,\n");
+        // partial overlap
+        checkInvalid("411111,411113,VISA,,,,\n411112,411115,VISA,,,,\n");
+    }
+
+    @Test
+    public void testSaveAndOpen() throws IOException {
+        final BinDatabase database = BinDatabase.load(new StringReader(DATABASE));
+
+        final File file = File.createTempFile("bins", ".bin");
+        try {
+            database.save(file);
+            assertEquals(database.getSizeInBytes(), file.length());
+
+            final BinDatabase opened = BinDatabase.open(file);
+            assertEquals(database.getNumEntries(), opened.getNumEntries());
+            checkDatabase(opened);
+
+            // corrupted file
+            try (OutputStream stream = new FileOutputStream(file)) {
+                stream.write(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12,
+                        13, 14, 15, 16});
+            }
+            try {
+                BinDatabase.open(file);
+                fail("IllegalArgumentException expected but not thrown");
+            } catch (final IllegalArgumentException ignore) {
+            }
+        } finally {
+            assertTrue(file.delete());
+        }
+
+        // Force IllegalArgumentException
+        try {
+            BinDatabase.open(null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            database.save(null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+
+    @Test
+    public void testBuilder() {
+        final BinDatabase database = new BinDatabase.Builder()
+                .add("4", "4", CreditCardNetwork.VISA, null, null, null, null)
+                .add("45", "45", CreditCardNetwork.VISA, "Outer", "GB", null, null)
+                .add("45", "45", CreditCardNetwork.VISA, "Inner", "GB", null, null)
+                .build();
+
+        assertEquals(3, database.getNumEntries());
+
+        BinInfo info = database.lookup("4000000000000002");
+        assertEquals(40000000, info.getLow());
+        assertEquals(44999999, info.getHigh());
+        assertEquals("", info.getIssuer());
+        assertEquals("", info.getCountry());
+        assertEquals("", info.getProduct());
+        assertEquals(CardType.UNKNOWN, info.getCardType());
+
+        // last added equal range takes precedence
+        info = database.lookup("4500000000000000");
+        assertEquals("Inner", info.getIssuer());
+        assertEquals(45000000, info.getLow());
+        assertEquals(45999999, info.getHigh());
+
+        // strings are decoded once and shared among lookups
+        assertSame(info.getIssuer(),
+                database.lookup("4500000000000001").getIssuer());
+        assertSame(info.getCountry(),
+                database.lookup("4500000000000001").getCountry());
+
+        info = database.lookup("4999999999999999");
+        assertEquals(46000000, info.getLow());
+        assertEquals(49999999, info.getHigh());
+
+        assertNull(database.lookup("5000000000000000"));
+
+        // empty database
+        assertNull(new BinDatabase.Builder().build().lookup("4111111111111111"));
+
+        // Force IllegalArgumentException
+        try {
+            new BinDatabase.Builder().add(null, "4", null, null, null, null, null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            new BinDatabase.Builder().add("", "4", null, null, null, null, null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+
+    @Test
+    public void testDetectNetworkFromPAN() throws IOException {
+        // BIN database overrides IIN ranges for contained BINs
+        final BinDatabase database = new BinDatabase.Builder()
+                .add("555555", "555555", CreditCardNetwork.MASTERCARD,
+                        "Test Bank", "US", CardType.CREDIT, "World")
+                .add("650000", "650000", null, "Unknown network", null, null, null)
+                .build();
+        final String pan = "5555 5555 5555 4444";
+        assertEquals(CreditCardNetwork.DINERS_CLUB_USA_CANADA,
+                CreditCardValidator.detectNetworkFromPAN(pan));
+        assertNull(CreditCardValidator.lookupBin(pan));
+
+        CardNetworkRegistry.setInstance(CardNetworkRegistry.getBuiltIn()
+                .withBinDatabase(database));
+
+        assertEquals(CreditCardNetwork.MASTERCARD,
+                CreditCardValidator.detectNetworkFromPAN(pan));
+        assertEquals(CreditCardNetwork.MASTERCARD,
+                CreditCardValidator.detectNetworkFromPAN(
+                        CreditCardValidator.toDigits(pan)));
+        assertEquals(CreditCardNetwork.MASTERCARD,
+                CreditCardValidator.analyze(pan).getNetwork());
+        assertTrue(CreditCardValidator.isValid(pan));
+        assertTrue(CreditCardValidator.isValidLength(pan));
+        assertEquals("World", CreditCardValidator.lookupBin(pan).getProduct());
+
+        // less than 6 digits fall back to IIN ranges
+        assertEquals(CreditCardNetwork.DINERS_CLUB_USA_CANADA,
+                CreditCardValidator.detectNetworkFromPAN("55555"));
+
+        // BINs without network or not contained fall back to IIN ranges
+        assertEquals(CreditCardNetwork.DISCOVER,
+                CreditCardValidator.detectNetworkFromPAN("6500000000000002"));
+        assertEquals(CreditCardNetwork.VISA,
+                CreditCardValidator.detectNetworkFromPAN("4111111111111111"));
+        assertEquals(CreditCardNetwork.UNKNOWN,
+                CreditCardValidator.detectNetworkFromPAN("abc"));
+    }
+
+    private static void checkDatabase(final BinDatabase database) {
+        BinInfo info = database.lookup("4111 1111 1111 1111");
+        assertEquals(41111100, info.getLow());
+        assertEquals(41111149, info.getHigh());
+        assertEquals(CreditCardNetwork.VISA, info.getNetwork());
+        assertEquals("Test Bank", info.getIssuer());
+        assertEquals("US", info.getCountry());
+        assertEquals(CardType.CREDIT, info.getCardType());
+        assertEquals("Classic", info.getProduct());
+
+        info = database.lookup("4111115511111111");
+        assertEquals(41111150, info.getLow());
+        assertEquals(41111159, info.getHigh());
+        assertEquals(CardType.DEBIT, info.getCardType());
+        assertEquals("Gold", info.getProduct());
+
+        info = database.lookup("4111116");
+        assertEquals(41111160, info.getLow());
+        assertEquals(41111199, info.getHigh());
+        assertEquals("Classic", info.getProduct());
+
+        info = database.lookup("5105105105105100");
+        assertEquals(CreditCardNetwork.MASTERCARD, info.getNetwork());
+        assertEquals("Banco Ñandú", info.getIssuer());
+        assertEquals("ES", info.getCountry());
+        assertEquals(CardType.PREPAID, info.getCardType());
+        assertEquals("", info.getProduct());
+
+        info = database.lookup("620012");
+        assertEquals(CreditCardNetwork.UNKNOWN, info.getNetwork());
+        assertEquals(CardType.UNKNOWN, info.getCardType());
+
+        // prefix spanning several entries is ambiguous
+        assertNull(database.lookup("411111"));
+        // too short
+        assertNull(database.lookup("41111"));
+        // not found
+        assertNull(database.lookup("3700000000000002"));
+        assertNull(database.lookup("9999999999999999"));
+        assertNull(database.lookup(null));
+    }
+
+    private static void checkInvalid(final String content) throws IOException {
+        try {
+            BinDatabase.load(new StringReader(content));
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+}
@@ -0,0 +1,380 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons.validators;
+
+import org.junit.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+public class CardNetworkRegistryTest {
+
+    @After
+    public void tearDown() {
+        CardNetworkRegistry.setInstance(CardNetworkRegistry.getBuiltIn());
+    }
+
+    @Test
+    public void testGetBuiltIn() {
+        final CardNetworkRegistry registry = CardNetworkRegistry.getBuiltIn();
+
+        // check
+        assertNotNull(registry);
+        assertSame(registry, CardNetworkRegistry.getInstance());
+
+        final List<CreditCardNetwork> networks = registry.getNetworks();
+        assertEquals(CreditCardNetwork.values().length - 1, networks.size());
+        assertEquals(CreditCardNetwork.AMERICAN_EXPRESS, networks.get(0));
+        assertEquals(CreditCardNetwork.VISA, networks.get(networks.size() - 1));
+        assertFalse(networks.contains(CreditCardNetwork.UNKNOWN));
+        assertTrue(networks.indexOf(CreditCardNetwork.DISCOVER) <
+                networks.indexOf(CreditCardNetwork.CHINA_UNIONPAY));
+        assertTrue(networks.indexOf(CreditCardNetwork.VISA_ELECTRON) <
+                networks.indexOf(CreditCardNetwork.VISA));
+        try {
+            networks.clear();
+            fail("UnsupportedOperationException expected but not thrown");
+        } catch (final UnsupportedOperationException ignore) {
+        }
+
+        // built-in definitions keep the values the validator was released with
+        for (final CreditCardNetwork network : networks) {
+            assertEquals(network != CreditCardNetwork.CHINA_UNIONPAY &&
+                            network != CreditCardNetwork.DINERS_CLUB_ENROUTE,
+                    registry.isValidationEnabled(network));
+            assertEquals(network != CreditCardNetwork.BANKCARD &&
+                            network != CreditCardNetwork.DINERS_CLUB_ENROUTE &&
+                            network != CreditCardNetwork.SOLO &&
+                            network != CreditCardNetwork.SWITCH,
+                    registry.isActive(network));
+        }
+        assertTrue(CreditCardValidator.AMEX_HAS_VALIDATION);
+        assertFalse(CreditCardValidator.CHINA_UNIONPAY_HAS_VALIDATION);
+        assertFalse(CreditCardValidator.DINERS_CLUB_ENROUTE_HAS_VALIDATION);
+        assertFalse(CreditCardValidator.BANKCARD_IS_ACTIVE);
+        assertFalse(CreditCardValidator.SOLO_IS_ACTIVE);
+        assertTrue(CreditCardValidator.VISA_IS_ACTIVE);
+        assertFalse(registry.isValidationEnabled(CreditCardNetwork.UNKNOWN));
+        assertFalse(registry.isValidationEnabled(null));
+        assertTrue(registry.isActive(CreditCardNetwork.UNKNOWN));
+        assertTrue(registry.isActive(null));
+
+        // per-network methods agree with generic ones
+        for (final CreditCardNetwork network : CreditCardNetwork.values()) {
+            for (int numDigits = 0; numDigits <= 25; numDigits++) {
+                assertEquals(perNetworkValidLength(new byte[numDigits], network),
+                        registry.isValidLength(numDigits, network));
+            }
+        }
+        assertTrue(registry.isValidLength(3, null));
+        assertNull(registry.getLengths(CreditCardNetwork.UNKNOWN));
+        assertNull(registry.getIINs(CreditCardNetwork.UNKNOWN));
+        assertNull(registry.getIINs(null));
+        assertArrayEquals(new String[][]{{"34", "34"}, {"37", "37"}},
+                registry.getIINs(CreditCardNetwork.AMERICAN_EXPRESS));
+        assertArrayEquals(new byte[][]{{4, 4}, {6, 6}, {5, 5}},
+                registry.getGroupings(CreditCardNetwork.AMERICAN_EXPRESS));
+        assertArrayEquals(new byte[][]{{4, 4}, {4, 4}, {4, 4}, {0, 7}},
+                registry.getGroupings(null));
+        assertSame(registry.getGroupings(null),
+                registry.getGroupings(CreditCardNetwork.JCB));
+    }
+
+    @Test
+    public void testSetInstance() {
+        final CardNetworkRegistry builtIn = CardNetworkRegistry.getBuiltIn();
+        final CardNetworkRegistry registry = CardNetworkRegistry.load(
+                visaOnlyProperties());
+
+        assertSame(builtIn, CardNetworkRegistry.setInstance(registry));
+        assertSame(registry, CardNetworkRegistry.getInstance());
+
+        // validator uses new registry
+        final String visa = "4111111111111111";
+        final String mastercard = "5105105105105100";
+        assertEquals(CreditCardNetwork.VISA,
+                CreditCardValidator.detectNetworkFromPAN(visa));
+        assertEquals(CreditCardNetwork.UNKNOWN,
+                CreditCardValidator.detectNetworkFromPAN(mastercard));
+        assertFalse(CreditCardValidator.isValidationEnabledForNetwork(
+                CreditCardNetwork.VISA));
+        assertTrue(CreditCardValidator.isValid("4111111111111112"));
+        assertFalse(CreditCardValidator.isValid("411111111111112"));
+        assertFalse(CreditCardValidator.isValidLength("4111111111111"));
+        assertFalse(CreditCardValidator.isNetworkActive(CreditCardNetwork.VISA));
+        assertEquals(2, CreditCardValidator.getNumberOfGroupsForNetwork(
+                CreditCardNetwork.VISA));
+        assertEquals(8, CreditCardValidator.getMaxDigitsForGroupAndNetwork(1,
+                CreditCardNetwork.VISA));
+        assertEquals(3, CreditCardValidator.getNumberOfGroupsForNetwork(
+                CreditCardNetwork.MASTERCARD));
+        assertTrue(CreditCardValidator.analyze("4111111111111112").isValid());
+        assertTrue(CreditCardValidator.isVISAIIN(visa));
+        assertFalse(CreditCardValidator.isMastercardIIN(mastercard));
+        assertFalse(CreditCardValidator.isVISAValidLength("4111111111111"));
+        assertTrue(CreditCardValidator.isVISAValidLength(visa));
+        assertFalse(CreditCardValidator.isMastercardValidLength(mastercard));
+
+        // analysis in progress keeps using registry it was reset with
+        final PanAnalysis analysis = new PanAnalysis();
+        analysis.reset();
+        analysis.append('4');
+        assertSame(registry, CardNetworkRegistry.setInstance(builtIn));
+        for (int i = 0; i < 11; i++) {
+            analysis.append('1');
+        }
+        analysis.append('2');
+        analysis.finish();
+        assertEquals(13, analysis.getNumDigits());
+        assertFalse(analysis.isValidLength());
+        assertTrue(CreditCardValidator.isValidLength("4111111111112"));
+
+        // validator uses built-in registry again
+        assertEquals(CreditCardNetwork.MASTERCARD,
+                CreditCardValidator.detectNetworkFromPAN(mastercard));
+        assertTrue(CreditCardValidator.isMastercardIIN(mastercard));
+        assertTrue(CreditCardValidator.isVISAValidLength("4111111111111"));
+        assertTrue(CreditCardValidator.isValidationEnabledForNetwork(
+                CreditCardNetwork.VISA));
+
+        // Force IllegalArgumentException
+        try {
+            CardNetworkRegistry.setInstance(null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+
+    @Test
+    public void testGetMinLength() {
+        final CardNetworkRegistry registry = CardNetworkRegistry.getBuiltIn();
+
+        assertEquals(13, registry.getMinLength(CreditCardNetwork.VISA));
+        assertEquals(15, registry.getMinLength(
+                CreditCardNetwork.AMERICAN_EXPRESS));
+        assertEquals(16, registry.getMinLength(CreditCardNetwork.SOLO));
+
+        // shortest length of any network (MAESTRO)
+        assertEquals(12, registry.getMinLength(CreditCardNetwork.UNKNOWN));
+        assertEquals(12, registry.getMinLength(null));
+    }
+
+    @Test
+    public void testGroups() {
+        final CardNetworkRegistry registry = CardNetworkRegistry.getBuiltIn();
+
+        assertEquals(3, registry.getNumberOfGroups(
+                CreditCardNetwork.AMERICAN_EXPRESS));
+        assertEquals(4, registry.getMaxDigitsForGroup(0,
+                CreditCardNetwork.AMERICAN_EXPRESS));
+        assertEquals(6, registry.getMaxDigitsForGroup(1,
+                CreditCardNetwork.AMERICAN_EXPRESS));
+        assertEquals(5, registry.getMaxDigitsForGroup(2,
+                CreditCardNetwork.AMERICAN_EXPRESS));
+        assertEquals(4, registry.getNumberOfGroups(null));
+        assertEquals(7, registry.getMaxDigitsForGroup(3, null));
+
+        // Force IllegalArgumentException
+        try {
+            registry.getMaxDigitsForGroup(-1, CreditCardNetwork.VISA);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            registry.getMaxDigitsForGroup(4, CreditCardNetwork.VISA);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+
+    @Test
+    public void testWithBinDatabase() {
+        final CardNetworkRegistry builtIn = CardNetworkRegistry.getBuiltIn();
+        assertNull(builtIn.getBinDatabase());
+
+        final BinDatabase database = new BinDatabase.Builder().build();
+        final CardNetworkRegistry registry = builtIn.withBinDatabase(database);
+
+        // check
+        assertNotSame(builtIn, registry);
+        assertNull(builtIn.getBinDatabase());
+        assertSame(database, registry.getBinDatabase());
+        assertEquals(builtIn.getNetworks(), registry.getNetworks());
+        assertSame(builtIn.getTrie(), registry.getTrie());
+        assertNull(registry.withBinDatabase(null).getBinDatabase());
+    }
+
+    @Test
+    public void testLoad() throws IOException {
+        final Properties properties = visaOnlyProperties();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        properties.store(out, null);
+
+        CardNetworkRegistry registry = CardNetworkRegistry.load(
+                new ByteArrayInputStream(out.toByteArray()));
+        checkVisaOnly(registry);
+
+        final File file = File.createTempFile("networks", ".properties");
+        try {
+            try (OutputStream stream = new FileOutputStream(file)) {
+                properties.store(stream, null);
+            }
+            registry = CardNetworkRegistry.load(file);
+            checkVisaOnly(registry);
+        } finally {
+            assertTrue(file.delete());
+        }
+
+        // validation and active flags default to true
+        properties.remove("VISA.validation");
+        properties.remove("VISA.active");
+        registry = CardNetworkRegistry.load(properties);
+        assertTrue(registry.isValidationEnabled(CreditCardNetwork.VISA));
+        assertTrue(registry.isActive(CreditCardNetwork.VISA));
+
+        // Force IllegalArgumentException
+        try {
+            CardNetworkRegistry.load((Properties) null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            CardNetworkRegistry.load((File) null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            CardNetworkRegistry.load((ByteArrayInputStream) null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+
+        checkInvalid("networks", null);
+        checkInvalid("networks", "VISA,UNKNOWN");
+        checkInvalid("networks", "VISA,VISA");
+        checkInvalid("networks", "VISA,NOT_A_NETWORK");
+        checkInvalid("networks", "VISA,MASTERCARD");
+        checkInvalid("default.grouping", null);
+        checkInvalid("default.grouping", "4,x");
+        checkInvalid("VISA.iin", null);
+        checkInvalid("VISA.iin", "4a");
+        checkInvalid("VISA.iin", "5-4");
+        checkInvalid("VISA.length", " ");
+        checkInvalid("VISA.length", "0");
+        checkInvalid("VISA.length", "16-13");
+        checkInvalid("VISA.length", "20");
+        checkInvalid("VISA.grouping", "-1");
+    }
+
+    private static Properties visaOnlyProperties() {
+        final Properties properties = new Properties();
+        properties.setProperty("networks", "VISA");
+        properties.setProperty("default.grouping", "4,4,4");
+        properties.setProperty("VISA.iin", "4");
+        properties.setProperty("VISA.length", "16");
+        properties.setProperty("VISA.grouping", "8, 8");
+        properties.setProperty("VISA.validation", "false");
+        properties.setProperty("VISA.active", "false");
+        return properties;
+    }
+
+    private static void checkVisaOnly(final CardNetworkRegistry registry) {
+        assertEquals(1, registry.getNetworks().size());
+        assertEquals(CreditCardNetwork.VISA, registry.getNetworks().get(0));
+        assertFalse(registry.isValidationEnabled(CreditCardNetwork.VISA));
+        assertFalse(registry.isActive(CreditCardNetwork.VISA));
+        assertTrue(registry.isValidLength(16, CreditCardNetwork.VISA));
+        assertFalse(registry.isValidLength(13, CreditCardNetwork.VISA));
+        assertTrue(registry.isValidLength(13, CreditCardNetwork.MASTERCARD));
+        assertFalse(registry.isValidationEnabled(CreditCardNetwork.MASTERCARD));
+        assertTrue(registry.isActive(CreditCardNetwork.MASTERCARD));
+        assertArrayEquals(new byte[][]{{8, 8}, {8, 8}},
+                registry.getGroupings(CreditCardNetwork.VISA));
+        assertArrayEquals(new byte[][]{{4, 4}, {4, 4}, {4, 4}},
+                registry.getGroupings(CreditCardNetwork.MASTERCARD));
+        assertEquals(CreditCardNetwork.VISA, registry.networkFromMask(
+                registry.getTrie().match(new byte[]{4, 1})));
+        assertEquals(CreditCardNetwork.UNKNOWN, registry.networkFromMask(
+                registry.getTrie().match(new byte[]{5, 1})));
+    }
+
+    private static void checkInvalid(final String key, final String value) {
+        final Properties properties = visaOnlyProperties();
+        if (value != null) {
+            properties.setProperty(key, value);
+        } else {
+            properties.remove(key);
+        }
+        try {
+            CardNetworkRegistry.load(properties);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+
+    private static boolean perNetworkValidLength(final byte[] digits,
+                                                final CreditCardNetwork network) {
+        switch (network) {
+            case AMERICAN_EXPRESS:
+                return CreditCardValidator.isAmericanExpressValidLength(digits);
+            case BANKCARD:
+                return CreditCardValidator.isBankcardValidLength(digits);
+            case CHINA_UNIONPAY:
+                return CreditCardValidator.isChinaUnionPayValidLength(digits);
+            case DINERS_CLUB_CARTE_BLANCHE:
+                return CreditCardValidator.isDinersClubCarteBlancheValidLength(
+                        digits);
+            case DINERS_CLUB_ENROUTE:
+                return CreditCardValidator.isDinersClubEnrouteValidLength(digits);
+            case DINERS_CLUB_INTERNATIONAL:
+                return CreditCardValidator.isDinersClubInternationalValidLength(
+                        digits);
+            case DINERS_CLUB_USA_CANADA:
+                return CreditCardValidator.isDinersClubUSACanadaValidLength(digits);
+            case DISCOVER:
+                return CreditCardValidator.isDiscoverValidLength(digits);
+            case INSTAPAYMENT:
+                return CreditCardValidator.isInstaPaymentValidLength(digits);
+            case JCB:
+                return CreditCardValidator.isJCBValidLength(digits);
+            case LASER:
+                return CreditCardValidator.isLaserValidLength(digits);
+            case MAESTRO:
+                return CreditCardValidator.isMaestroValidLength(digits);
+            case MASTERCARD:
+                return CreditCardValidator.isMastercardValidLength(digits);
+            case SOLO:
+                return CreditCardValidator.isSoloValidLength(digits);
+            case SWITCH:
+                return CreditCardValidator.isSwitchValidLength(digits);
+            case VISA:
+                return CreditCardValidator.isVISAValidLength(digits);
+            case VISA_ELECTRON:
+                return CreditCardValidator.isVISAElectronValidLength(digits);
+            case UNKNOWN:
+            default:
+                return true;
+        }
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons.validators;
+
+import org.junit.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class CreditCardBatchValidatorTest {
+
+    private static final int NUM_PANS = 1000;
+
+    private static final String[] PREFIXES = new String[]{
+            "4", "51", "2221", "34", "37", "6011", "65", "3528", "36", "300",
+            "6759", "62", "6304", "637", "99"
+    };
+
+    @Test
+    public void testValidateCharSequences() {
+        final String[] pans = generatePANs(new Random());
+        final boolean[] valid = new boolean[NUM_PANS];
+        final BitSet validSet = new BitSet();
+        final CreditCardNetwork[] networks = new CreditCardNetwork[NUM_PANS];
+
+        final int numValid = CreditCardBatchValidator.validate(pans, valid,
+                networks);
+        assertEquals(numValid, CreditCardBatchValidator.validate(pans,
+                validSet, null));
+
+        // check
+        int expectedNumValid = 0;
+        for (int i = 0; i < NUM_PANS; i++) {
+            final boolean expectedValid = CreditCardValidator.isValid(pans[i]);
+            assertEquals(expectedValid, valid[i]);
+            assertEquals(expectedValid, validSet.get(i));
+            assertEquals(CreditCardValidator.detectNetworkFromPAN(pans[i]),
+                    networks[i]);
+            if (expectedValid) {
+                expectedNumValid++;
+            }
+        }
+        assertEquals(expectedNumValid, numValid);
+
+        // null elements are treated as empty PANs
+        final String[] nullPans = new String[]{null};
+        assertEquals(1, CreditCardBatchValidator.validate(nullPans, valid,
+                networks));
+        assertTrue(valid[0]);
+        assertEquals(CreditCardNetwork.UNKNOWN, networks[0]);
+
+        // Force IllegalArgumentException
+        try {
+            CreditCardBatchValidator.validate((CharSequence[]) null, valid,
+                    networks);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            CreditCardBatchValidator.validate(pans, (boolean[]) null, networks);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            CreditCardBatchValidator.validate(pans, (BitSet) null, networks);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            CreditCardBatchValidator.validate(pans, new boolean[1], networks);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            CreditCardBatchValidator.validate(pans, valid,
+                    new CreditCardNetwork[1]);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+
+    @Test
+    public void testValidateRecords() {
+        final String[] pans = generatePANs(new Random());
+
+        // pack PANs into a single array of lines
+        final StringBuilder builder = new StringBuilder();
+        final int[] offsets = new int[NUM_PANS + 1];
+        for (int i = 0; i < NUM_PANS; i++) {
+            offsets[i] = builder.length();
+            builder.append(pans[i]).append('\n');
+        }
+        offsets[NUM_PANS] = builder.length();
+        final byte[] records = builder.toString().getBytes(
+                Charset.forName("US-ASCII"));
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(records.length);
+        buffer.put(records);
+
+        final boolean[] valid = new boolean[NUM_PANS];
+        final boolean[] validBuffer = new boolean[NUM_PANS];
+        final BitSet validSet = new BitSet();
+        final BitSet validBufferSet = new BitSet();
+        final CreditCardNetwork[] networks = new CreditCardNetwork[NUM_PANS];
+        final CreditCardNetwork[] networksBuffer =
+                new CreditCardNetwork[NUM_PANS];
+
+        final int numValid = CreditCardBatchValidator.validate(records,
+                offsets, valid, networks);
+        assertEquals(numValid, CreditCardBatchValidator.validate(records,
+                offsets, validSet, null));
+        assertEquals(numValid, CreditCardBatchValidator.validate(buffer,
+                offsets, validBuffer, networksBuffer));
+        assertEquals(numValid, CreditCardBatchValidator.validate(buffer,
+                offsets, validBufferSet, null));
+
+        // check
+        int expectedNumValid = 0;
+        for (int i = 0; i < NUM_PANS; i++) {
+            final boolean expectedValid = CreditCardValidator.isValid(pans[i]);
+            final CreditCardNetwork expectedNetwork =
+                    CreditCardValidator.detectNetworkFromPAN(pans[i]);
+            assertEquals(expectedValid, valid[i]);
+            assertEquals(expectedValid, validBuffer[i]);
+            assertEquals(expectedValid, validSet.get(i));
+            assertEquals(expectedValid, validBufferSet.get(i));
+            assertEquals(expectedNetwork, networks[i]);
+            assertEquals(expectedNetwork, networksBuffer[i]);
+            if (expectedValid) {
+                expectedNumValid++;
+            }
+        }
+        assertEquals(expectedNumValid, numValid);
+
+        // empty offsets contain no records
+        assertEquals(0, CreditCardBatchValidator.validate(records, new int[0],
+                valid, null));
+        assertEquals(0, CreditCardBatchValidator.validate(buffer, new int[1],
+                valid, null));
+
+        // Force IllegalArgumentException
+        try {
+            CreditCardBatchValidator.validate((byte[]) null, offsets, valid,
+                    networks);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            CreditCardBatchValidator.validate(records, null, valid, networks);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            CreditCardBatchValidator.validate((ByteBuffer) null, offsets,
+                    valid, networks);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            CreditCardBatchValidator.validate(buffer, offsets,
+                    (BitSet) null, networks);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            CreditCardBatchValidator.validate(buffer, offsets, new boolean[1],
+                    networks);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+
+        // Force IndexOutOfBoundsException
+        try {
+            CreditCardBatchValidator.validate(records, new int[]{5, 0}, valid,
+                    networks);
+            fail("IndexOutOfBoundsException expected but not thrown");
+        } catch (final IndexOutOfBoundsException ignore) {
+        }
+        try {
+            CreditCardBatchValidator.validate(buffer,
+                    new int[]{0, records.length + 1}, valid, networks);
+            fail("IndexOutOfBoundsException expected but not thrown");
+        } catch (final IndexOutOfBoundsException ignore) {
+        }
+    }
+
+    @Test
+    public void testValidateNumbers() {
+        final Random random = new Random();
+        final String[] strPans = generatePANs(random);
+        final long[] pans = new long[NUM_PANS];
+        for (int i = 0; i < NUM_PANS; i++) {
+            // keep at most 18 digits so that PAN fits into a long
+            String digits = strPans[i].replaceAll("[^0-9]", "");
+            if (digits.length() > 18) {
+                digits = digits.substring(0, 18);
+            }
+            pans[i] = Long.parseLong(digits);
+        }
+        pans[0] = Long.MAX_VALUE;
+        pans[1] = -1;
+
+        final boolean[] valid = new boolean[NUM_PANS];
+        final BitSet validSet = new BitSet();
+        final CreditCardNetwork[] networks = new CreditCardNetwork[NUM_PANS];
+
+        final int numValid = CreditCardBatchValidator.validate(pans, valid,
+                networks);
+        assertEquals(numValid, CreditCardBatchValidator.validate(pans,
+                validSet, null));
+
+        // check
+        int expectedNumValid = 0;
+        for (int i = 0; i < NUM_PANS; i++) {
+            final String pan = pans[i] > 0 ? String.valueOf(pans[i]) : "";
+            final boolean expectedValid = CreditCardValidator.isValid(pan);
+            assertEquals(expectedValid, valid[i]);
+            assertEquals(expectedValid, validSet.get(i));
+            assertEquals(CreditCardValidator.detectNetworkFromPAN(pan),
+                    networks[i]);
+            if (expectedValid) {
+                expectedNumValid++;
+            }
+        }
+        assertEquals(expectedNumValid, numValid);
+
+        // Force IllegalArgumentException
+        try {
+            CreditCardBatchValidator.validate((long[]) null, valid, networks);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            CreditCardBatchValidator.validate(pans, (boolean[]) null, networks);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            CreditCardBatchValidator.validate(pans, validSet,
+                    new CreditCardNetwork[1]);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+
+    private static String[] generatePANs(final Random random) {
+        final String[] pans = new String[NUM_PANS];
+        for (int i = 0; i < NUM_PANS; i++) {
+            final StringBuilder builder = new StringBuilder(
+                    PREFIXES[random.nextInt(PREFIXES.length)]);
+            final int length = 12 + random.nextInt(7);
+            while (builder.length() < length) {
+                builder.append((char) ('0' + random.nextInt(10)));
+            }
+            // make PAN valid half of the times by appending its check digit
+            if (random.nextBoolean()) {
+                builder.append(checkDigit(builder));
+            } else {
+                builder.append((char) ('0' + random.nextInt(10)));
+            }
+            if (random.nextBoolean()) {
+                builder.insert(4, ' ');
+            }
+            pans[i] = builder.toString();
+        }
+        return pans;
+    }
+
+    private static char checkDigit(final CharSequence digits) {
+        for (char c = '0'; c <= '9'; c++) {
+            if (CreditCardValidator.isValidChecksumForPAN(digits.toString() + c)) {
+                return c;
+            }
+        }
+        return '0';
+    }
+}
@@ -17,6 +17,12 @@ package com.irurueta.commons.validators;
 
 import org.junit.*;
 
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Random;
+
 import static org.junit.Assert.*;
 
 public class CreditCardValidatorTest {
@@ -148,6 +154,11 @@ public class CreditCardValidatorTest {
         assertEquals(CreditCardValidator.isValidationEnabledForNetwork(
                 CreditCardNetwork.VISA_ELECTRON),
                 CreditCardValidator.VISA_ELECTRON_HAS_VALIDATION);
+        for (final CreditCardNetwork network : CreditCardNetwork.values()) {
+            assertEquals(CardNetworkRegistry.getInstance().isValidationEnabled(
+                    network), CreditCardValidator.isValidationEnabledForNetwork(
+                    network));
+        }
         assertFalse(CreditCardValidator.isValidationEnabledForNetwork(
                 CreditCardNetwork.UNKNOWN));
         //noinspection all
@@ -207,6 +218,10 @@ public class CreditCardValidatorTest {
         assertEquals(CreditCardValidator.isNetworkActive(
                 CreditCardNetwork.VISA_ELECTRON),
                 CreditCardValidator.VISA_ELECTRON_IS_ACTIVE);
+        for (final CreditCardNetwork network : CreditCardNetwork.values()) {
+            assertEquals(CardNetworkRegistry.getInstance().isActive(network),
+                    CreditCardValidator.isNetworkActive(network));
+        }
         assertTrue(CreditCardValidator.isNetworkActive(CreditCardNetwork.UNKNOWN));
         //noinspection all
         assertTrue(CreditCardValidator.isNetworkActive(null));
@@ -585,6 +600,29 @@ public class CreditCardValidatorTest {
                 CreditCardNetwork.UNKNOWN);
     }
 
+    @Test
+    public void testDetectNetworkFromPANIsEquivalentToIINChecks() {
+        // check every PAN prefix having up to 6 digits against checking each
+        // network IIN in detection order
+        for (int length = 1; length <= 6; length++) {
+            final byte[] digits = new byte[length];
+            int end = 1;
+            for (int i = 0; i < length; i++) {
+                end *= 10;
+            }
+            for (int value = 0; value < end; value++) {
+                int v = value;
+                for (int i = length - 1; i >= 0; i--) {
+                    digits[i] = (byte) (v % 10);
+                    v /= 10;
+                }
+
+                assertEquals(detectNetworkFromIINChecks(digits),
+                        CreditCardValidator.detectNetworkFromPAN(digits));
+            }
+        }
+    }
+
     @Test
     public void testIsValidLength() {
         // test for typical credit card test PANs
@@ -1476,6 +1514,335 @@ public class CreditCardValidatorTest {
         assertFalse(CreditCardValidator.isValidChecksumForPAN(pan));
     }
 
+    @Test
+    public void testComputeCheck() {
+        final Random random = new Random();
+        for (int t = 0; t < 1000; t++) {
+            final byte[] digits = new byte[random.nextInt(20)];
+            for (int i = 0; i < digits.length; i++) {
+                digits[i] = (byte) random.nextInt(10);
+            }
+            final byte[] copy = Arrays.copyOf(digits, digits.length);
+
+            // check against straightforward implementation of Luhn algorithm
+            int sum = 0;
+            for (int i = digits.length - 1, j = 0; i >= 0; i--, j++) {
+                int value = digits[i];
+                if (j % 2 == 0) {
+                    value *= 2;
+                }
+                sum += value / 10 + value % 10;
+            }
+            final byte expected = (byte) ((10 - sum % 10) % 10);
+
+            assertEquals(expected, CreditCardValidator.computeCheck(digits));
+
+            // input is not modified
+            assertArrayEquals(copy, digits);
+
+            // appending check makes PAN valid, unless there are not enough
+            // digits
+            final byte[] withCheck = Arrays.copyOf(digits, digits.length + 1);
+            withCheck[digits.length] = expected;
+            assertEquals(digits.length > 0,
+                    CreditCardValidator.isValidChecksumForPAN(withCheck));
+            assertEquals(expected, CreditCardValidator.computeCheck(withCheck,
+                    digits.length));
+            assertArrayEquals(copy, digits);
+        }
+    }
+
+    @Test
+    public void testComputeCheckDigit() {
+        assertEquals(1, CreditCardValidator.computeCheckDigit("411111111111111"));
+        assertEquals(1, CreditCardValidator.computeCheckDigit(
+                "4111-1111-1111-111"));
+        assertEquals(5, CreditCardValidator.computeCheckDigit("37828224631000"));
+        assertEquals(4, CreditCardValidator.computeCheckDigit("555555555555444"));
+        assertEquals(0, CreditCardValidator.computeCheckDigit(""));
+
+        final Random random = new Random();
+        for (int t = 0; t < 1000; t++) {
+            final StringBuilder builder = new StringBuilder();
+            final int numDigits = 1 + random.nextInt(19);
+            for (int i = 0; i < numDigits; i++) {
+                builder.append((char) ('0' + random.nextInt(10)));
+                if (random.nextInt(5) == 0) {
+                    builder.append(' ');
+                }
+            }
+            final int check = CreditCardValidator.computeCheckDigit(builder);
+            assertEquals(CreditCardValidator.computeCheck(
+                    CreditCardValidator.toDigits(builder.toString())), check);
+
+            builder.append((char) ('0' + check));
+            assertTrue(CreditCardValidator.isValidChecksumForPAN(builder));
+        }
+
+        // Force IllegalArgumentException
+        try {
+            CreditCardValidator.computeCheckDigit(null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+
+    @Test
+    public void testCharSequenceMethodsAreEquivalentToDigitMethods() {
+        final Random random = new Random(42);
+        final String[] prefixes = new String[]{"", "0604", "2221", "2720",
+                "30", "34", "36", "37", "3528", "4", "417500", "4913", "51",
+                "5610", "560221", "6011", "62", "622126", "6304", "637", "65",
+                "6759", "9"};
+        final char[] separators = new char[]{' ', '-', '/', '.'};
+        final PanAnalysis analysis = new PanAnalysis();
+
+        for (int t = 0; t < 10000; t++) {
+            final StringBuilder builder = new StringBuilder(
+                    prefixes[random.nextInt(prefixes.length)]);
+            final int numDigits = random.nextInt(22);
+            for (int i = 0; i < numDigits; i++) {
+                builder.append((char) ('0' + random.nextInt(10)));
+            }
+            // fix checksum of half of the PANs
+            final byte[] digits = CreditCardValidator.toDigits(builder.toString());
+            if (digits.length > 1 && random.nextBoolean()) {
+                final byte check = CreditCardValidator.computeCheck(
+                        Arrays.copyOf(digits, digits.length - 1));
+                builder.setCharAt(builder.length() - 1, (char) ('0' + check));
+                digits[digits.length - 1] = check;
+            }
+            // add random separators
+            final int numSeparators = random.nextInt(5);
+            for (int i = 0; i < numSeparators; i++) {
+                builder.insert(random.nextInt(builder.length() + 1),
+                        separators[random.nextInt(separators.length)]);
+            }
+
+            final CreditCardNetwork network =
+                    CreditCardValidator.detectNetworkFromPAN(digits);
+            assertEquals(network, CreditCardValidator.detectNetworkFromPAN(builder));
+            assertEquals(CreditCardValidator.isValidLength(digits),
+                    CreditCardValidator.isValidLength(builder));
+            assertEquals(CreditCardValidator.isValidLength(digits, network),
+                    CreditCardValidator.isValidLength(builder, network));
+            assertEquals(CreditCardValidator.isValidChecksumForPAN(digits),
+                    CreditCardValidator.isValidChecksumForPAN(builder));
+            assertEquals(CreditCardValidator.isValid(digits),
+                    CreditCardValidator.isValid(builder));
+
+            // analysis reusing the same result instance
+            assertSame(analysis, CreditCardValidator.analyze(builder, analysis));
+            assertEquals(network, analysis.getNetwork());
+            assertEquals(digits.length, analysis.getNumDigits());
+            assertEquals(CreditCardValidator.isValidMII(digits),
+                    analysis.isValidMII());
+            assertEquals(CreditCardValidator.isValidLength(digits, network),
+                    analysis.isValidLength());
+            assertEquals(CreditCardValidator.isValidChecksumForPAN(digits),
+                    analysis.isValidChecksum());
+            assertEquals(CreditCardValidator.isValid(digits), analysis.isValid());
+        }
+
+        // null
+        assertEquals(CreditCardNetwork.UNKNOWN,
+                CreditCardValidator.detectNetworkFromPAN((CharSequence) null));
+        assertTrue(CreditCardValidator.isValidLength((CharSequence) null));
+        assertTrue(CreditCardValidator.isValidLength((CharSequence) null,
+                CreditCardNetwork.UNKNOWN));
+        assertFalse(CreditCardValidator.isValidLength((CharSequence) null,
+                CreditCardNetwork.VISA));
+        assertFalse(CreditCardValidator.isValidChecksumForPAN((CharSequence) null));
+        assertTrue(CreditCardValidator.isValid((CharSequence) null));
+    }
+
+    @Test
+    public void testCharSequenceMethodsDoNotAllocate() {
+        final java.lang.management.ThreadMXBean threadBean =
+                ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threadBean instanceof com.sun.management.ThreadMXBean);
+        final com.sun.management.ThreadMXBean bean =
+                (com.sun.management.ThreadMXBean) threadBean;
+        Assume.assumeTrue(bean.isThreadAllocatedMemorySupported() &&
+                bean.isThreadAllocatedMemoryEnabled());
+
+        final StringBuilder pan = new StringBuilder("4111-1111-1111-1111");
+        final StringBuilder partialPan = new StringBuilder("4111 1111 1111 111");
+        final long threadId = Thread.currentThread().getId();
+        final int numCalls = 10000;
+        int numValid = 0;
+        int sum = 0;
+
+        final long start = bean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < numCalls; i++) {
+            if (CreditCardValidator.isValid(pan)) {
+                numValid++;
+            }
+            if (CreditCardValidator.isValidLength(pan)) {
+                numValid++;
+            }
+            if (CreditCardValidator.isValidChecksumForPAN(pan)) {
+                numValid++;
+            }
+            if (CreditCardValidator.detectNetworkFromPAN(pan) ==
+                    CreditCardNetwork.VISA) {
+                numValid++;
+            }
+            sum += CreditCardValidator.computeCheckDigit(partialPan);
+        }
+        final long allocated = bean.getThreadAllocatedBytes(threadId) - start;
+
+        assertEquals(4 * numCalls, numValid);
+        assertEquals(numCalls, sum);
+        // allocating a single object per call would take several bytes per
+        // call, while measurement itself only takes a few hundred bytes
+        assertTrue("allocated " + allocated + " bytes", allocated < numCalls);
+    }
+
+    @Test
+    public void testAnalyze() {
+        PanAnalysis analysis = CreditCardValidator.analyze("4111 1111 1111 1111");
+        assertEquals(CreditCardNetwork.VISA, analysis.getNetwork());
+        assertEquals(16, analysis.getNumDigits());
+        assertTrue(analysis.isValidMII());
+        assertTrue(analysis.isValidLength());
+        assertTrue(analysis.isValidChecksum());
+        assertTrue(analysis.isValid());
+
+        // wrong checksum
+        assertSame(analysis, CreditCardValidator.analyze("4111 1111 1111 1112",
+                analysis));
+        assertEquals(CreditCardNetwork.VISA, analysis.getNetwork());
+        assertEquals(16, analysis.getNumDigits());
+        assertTrue(analysis.isValidMII());
+        assertTrue(analysis.isValidLength());
+        assertFalse(analysis.isValidChecksum());
+        assertFalse(analysis.isValid());
+
+        // wrong length
+        CreditCardValidator.analyze("3782-82246-3100", analysis);
+        assertEquals(CreditCardNetwork.AMERICAN_EXPRESS, analysis.getNetwork());
+        assertEquals(13, analysis.getNumDigits());
+        assertTrue(analysis.isValidMII());
+        assertFalse(analysis.isValidLength());
+        assertFalse(analysis.isValid());
+
+        // China UnionPay has no Luhn validation
+        CreditCardValidator.analyze("6200000000000001", analysis);
+        assertEquals(CreditCardNetwork.CHINA_UNIONPAY, analysis.getNetwork());
+        assertTrue(analysis.isValidLength());
+        assertFalse(analysis.isValidChecksum());
+        assertTrue(analysis.isValid());
+
+        // unknown network
+        CreditCardValidator.analyze("1234", analysis);
+        assertEquals(CreditCardNetwork.UNKNOWN, analysis.getNetwork());
+        assertEquals(4, analysis.getNumDigits());
+        assertFalse(analysis.isValidMII());
+        assertTrue(analysis.isValidLength());
+        assertTrue(analysis.isValid());
+
+        // null
+        CreditCardValidator.analyze(null, analysis);
+        assertEquals(CreditCardNetwork.UNKNOWN, analysis.getNetwork());
+        assertEquals(0, analysis.getNumDigits());
+        assertFalse(analysis.isValidMII());
+        assertFalse(analysis.isValidChecksum());
+
+        // Force IllegalArgumentException
+        try {
+            CreditCardValidator.analyze("4111 1111 1111 1111", null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+
+    @Test
+    public void testAnalyzeAscii() {
+        final byte[] ascii = "xx4111 1111 1111 1111\n378282246310005\n".getBytes(
+                Charset.forName("US-ASCII"));
+        final ByteBuffer buffer = ByteBuffer.wrap(ascii);
+        final PanAnalysis analysis = new PanAnalysis();
+
+        // analyze first record
+        assertSame(analysis, CreditCardValidator.analyze(ascii, 2, 20,
+                analysis));
+        assertEquals(CreditCardNetwork.VISA, analysis.getNetwork());
+        assertEquals(16, analysis.getNumDigits());
+        assertTrue(analysis.isValid());
+
+        assertSame(analysis, CreditCardValidator.analyze(buffer, 2, 20,
+                analysis));
+        assertEquals(CreditCardNetwork.VISA, analysis.getNetwork());
+        assertEquals(16, analysis.getNumDigits());
+        assertTrue(analysis.isValid());
+
+        // analyze second record
+        CreditCardValidator.analyze(ascii, 22, 16, analysis);
+        assertEquals(CreditCardNetwork.AMERICAN_EXPRESS, analysis.getNetwork());
+        assertEquals(15, analysis.getNumDigits());
+        assertTrue(analysis.isValid());
+
+        CreditCardValidator.analyze(buffer, 22, 16, analysis);
+        assertEquals(CreditCardNetwork.AMERICAN_EXPRESS, analysis.getNetwork());
+        assertEquals(15, analysis.getNumDigits());
+        assertTrue(analysis.isValid());
+
+        // buffer position and limit are not modified
+        assertEquals(0, buffer.position());
+        assertEquals(ascii.length, buffer.limit());
+
+        // analyze first record truncated
+        CreditCardValidator.analyze(ascii, 2, 10, analysis);
+        assertEquals(CreditCardNetwork.VISA, analysis.getNetwork());
+        assertEquals(8, analysis.getNumDigits());
+        assertFalse(analysis.isValid());
+
+        // Force IllegalArgumentException
+        try {
+            CreditCardValidator.analyze((byte[]) null, 0, 0, analysis);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            CreditCardValidator.analyze((ByteBuffer) null, 0, 0, analysis);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            CreditCardValidator.analyze(ascii, 0, 0, null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            CreditCardValidator.analyze(buffer, 0, 0, null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+
+        // Force IndexOutOfBoundsException
+        try {
+            CreditCardValidator.analyze(ascii, -1, 2, analysis);
+            fail("IndexOutOfBoundsException expected but not thrown");
+        } catch (final IndexOutOfBoundsException ignore) {
+        }
+        try {
+            CreditCardValidator.analyze(ascii, 30, 10, analysis);
+            fail("IndexOutOfBoundsException expected but not thrown");
+        } catch (final IndexOutOfBoundsException ignore) {
+        }
+        try {
+            CreditCardValidator.analyze(buffer, 2, -1, analysis);
+            fail("IndexOutOfBoundsException expected but not thrown");
+        } catch (final IndexOutOfBoundsException ignore) {
+        }
+        try {
+            CreditCardValidator.analyze(buffer, 30, 10, analysis);
+            fail("IndexOutOfBoundsException expected but not thrown");
+        } catch (final IndexOutOfBoundsException ignore) {
+        }
+    }
+
     @Test
     public void testIsAmericanExpressIIN() {
         String pan = "34";
@@ -3082,4 +3449,59 @@ public class CreditCardValidatorTest {
         } catch (final IllegalArgumentException ignore) {
         }
     }
+
+    private static CreditCardNetwork detectNetworkFromIINChecks(final byte[] digits) {
+        if (CreditCardValidator.isAmericanExpressIIN(digits)) {
+            return CreditCardNetwork.AMERICAN_EXPRESS;
+        }
+        if (CreditCardValidator.isBankcardIIN(digits)) {
+            return CreditCardNetwork.BANKCARD;
+        }
+        if (CreditCardValidator.isDinersClubCarteBlancheIIN(digits)) {
+            return CreditCardNetwork.DINERS_CLUB_CARTE_BLANCHE;
+        }
+        if (CreditCardValidator.isDinersClubEnrouteIIN(digits)) {
+            return CreditCardNetwork.DINERS_CLUB_ENROUTE;
+        }
+        if (CreditCardValidator.isDinersClubInternationalIIN(digits)) {
+            return CreditCardNetwork.DINERS_CLUB_INTERNATIONAL;
+        }
+        if (CreditCardValidator.isDinersClubUSACanadaIIN(digits)) {
+            return CreditCardNetwork.DINERS_CLUB_USA_CANADA;
+        }
+        if (CreditCardValidator.isDiscoverIIN(digits)) {
+            return CreditCardNetwork.DISCOVER;
+        }
+        if (CreditCardValidator.isChinaUnionPayIIN(digits)) {
+            return CreditCardNetwork.CHINA_UNIONPAY;
+        }
+        if (CreditCardValidator.isInstaPaymentIIN(digits)) {
+            return CreditCardNetwork.INSTAPAYMENT;
+        }
+        if (CreditCardValidator.isJCBIIN(digits)) {
+            return CreditCardNetwork.JCB;
+        }
+        if (CreditCardValidator.isLaserIIN(digits)) {
+            return CreditCardNetwork.LASER;
+        }
+        if (CreditCardValidator.isMaestroIIN(digits)) {
+            return CreditCardNetwork.MAESTRO;
+        }
+        if (CreditCardValidator.isMastercardIIN(digits)) {
+            return CreditCardNetwork.MASTERCARD;
+        }
+        if (CreditCardValidator.isSoloIIN(digits)) {
+            return CreditCardNetwork.SOLO;
+        }
+        if (CreditCardValidator.isSwitchIIN(digits)) {
+            return CreditCardNetwork.SWITCH;
+        }
+        if (CreditCardValidator.isVISAElectronIIN(digits)) {
+            return CreditCardNetwork.VISA_ELECTRON;
+        }
+        if (CreditCardValidator.isVISAIIN(digits)) {
+            return CreditCardNetwork.VISA;
+        }
+        return CreditCardNetwork.UNKNOWN;
+    }
 }
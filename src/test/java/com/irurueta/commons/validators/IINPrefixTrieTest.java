@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons.validators;
+
+import org.junit.*;
+
+import static org.junit.Assert.*;
+
+public class IINPrefixTrieTest {
+
+    private static final String[][] RANGES_1 = new String[][]{
+            new String[]{"222100", "272099"},
+            new String[]{"51", "55"}
+    };
+
+    private static final String[][] RANGES_2 = new String[][]{
+            new String[]{"622126", "62295"},
+            new String[]{"0604", "0604"}
+    };
+
+    private static final String[][] RANGES_3 = new String[][]{
+            new String[]{"2", "2"}
+    };
+
+    @Test
+    public void testConstructor() {
+        final IINPrefixTrie trie = new IINPrefixTrie(RANGES_1, RANGES_2, RANGES_3);
+
+        assertTrue(trie.getNumberOfNodes() > 1);
+
+        // empty trie
+        assertEquals(1, new IINPrefixTrie().getNumberOfNodes());
+
+        // force IllegalArgumentException
+        try {
+            new IINPrefixTrie((String[][][]) null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            new IINPrefixTrie(RANGES_1, null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            new IINPrefixTrie(new String[][]{new String[]{"1", null}});
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            new IINPrefixTrie(new String[][]{new String[]{"", ""}});
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            new IINPrefixTrie(new String[][]{new String[]{"1a", "2"}});
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            new IINPrefixTrie(new String[][]{new String[]{"55", "51"}});
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            new IINPrefixTrie(new String[IINPrefixTrie.MAX_LABELS + 1][][]);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+
+    @Test
+    public void testChildAndMasks() {
+        final IINPrefixTrie trie = new IINPrefixTrie(RANGES_1, RANGES_3);
+
+        final int node5 = trie.child(IINPrefixTrie.ROOT, 5);
+        assertNotEquals(IINPrefixTrie.NO_NODE, node5);
+        assertEquals(0, trie.pathMask(node5));
+        assertEquals(1, trie.partialMask(node5));
+
+        final int node51 = trie.child(node5, 1);
+        assertEquals(1, trie.pathMask(node51));
+        assertEquals(1, trie.partialMask(node51));
+
+        final int node2 = trie.child(IINPrefixTrie.ROOT, 2);
+        assertEquals(2, trie.pathMask(node2));
+        assertEquals(3, trie.partialMask(node2));
+
+        assertEquals(IINPrefixTrie.NO_NODE, trie.child(IINPrefixTrie.ROOT, 9));
+        assertEquals(IINPrefixTrie.NO_NODE, trie.child(IINPrefixTrie.ROOT, -1));
+        assertEquals(IINPrefixTrie.NO_NODE, trie.child(IINPrefixTrie.ROOT, 10));
+    }
+
+    @Test
+    public void testMatch() {
+        final IINPrefixTrie trie = new IINPrefixTrie(RANGES_1, RANGES_2, RANGES_3);
+
+        assertEquals(0, trie.match(null));
+        assertEquals(0, trie.match(new byte[0]));
+        assertEquals(1, trie.match(new byte[]{5, 3, 0, 0}));
+        assertEquals(5, trie.match(new byte[]{2, 2, 2, 1, 0, 0, 1}));
+        assertEquals(4, trie.match(new byte[]{2, 2, 2, 0, 9, 9}));
+        assertEquals(2, trie.match(new byte[]{6, 2, 2, 9, 5, 9}));
+        assertEquals(0, trie.match(new byte[]{6, 2, 2, 9, 6, 0}));
+        assertEquals(2, trie.match(new byte[]{0, 6}));
+        assertEquals(0, trie.match(new byte[]{0, 6, 0, 5}));
+        assertEquals(0, trie.match(new byte[]{1}));
+        assertEquals(0, trie.match(new byte[]{5, 10}));
+    }
+
+    @Test
+    public void testMatchIsEquivalentToIsValidIIN() {
+        final String[][][] ranges = new String[][][]{RANGES_1, RANGES_2, RANGES_3};
+        final IINPrefixTrie trie = new IINPrefixTrie(ranges);
+
+        // check every PAN prefix having up to 6 digits
+        for (int length = 1; length <= 6; length++) {
+            final byte[] digits = new byte[length];
+            int end = 1;
+            for (int i = 0; i < length; i++) {
+                end *= 10;
+            }
+            for (int value = 0; value < end; value++) {
+                int v = value;
+                for (int i = length - 1; i >= 0; i--) {
+                    digits[i] = (byte) (v % 10);
+                    v /= 10;
+                }
+
+                int expected = 0;
+                for (int label = 0; label < ranges.length; label++) {
+                    if (CreditCardValidator.isValidIIN(digits, ranges[label])) {
+                        expected |= 1 << label;
+                    }
+                }
+                assertEquals(expected, trie.match(digits));
+            }
+        }
+    }
+}
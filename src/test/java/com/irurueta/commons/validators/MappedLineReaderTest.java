@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons.validators;
+
+import org.junit.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.Assert.*;
+
+public class MappedLineReaderTest {
+
+    private static final String CONTENT =
+            "4111111111111111\n\n378282246310005\r\nn/a\n5555555555554444";
+
+    private static final long[] OFFSETS = new long[]{0, 17, 18, 35, 39};
+
+    private File mFile;
+
+    @Before
+    public void setUp() throws IOException {
+        mFile = File.createTempFile("pans", ".txt");
+        try (OutputStream stream = new FileOutputStream(mFile)) {
+            stream.write(CONTENT.getBytes(Charset.forName("US-ASCII")));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        assertTrue(mFile.delete());
+    }
+
+    @Test
+    public void testNext() throws IOException {
+        try (FileChannel channel = FileChannel.open(mFile.toPath(),
+                StandardOpenOption.READ)) {
+            final long size = channel.size();
+            for (int windowBytes = 1; windowBytes <= size + 1; windowBytes++) {
+                final MappedLineReader reader = new MappedLineReader(channel,
+                        size, windowBytes);
+                final PanAnalysis analysis = new PanAnalysis();
+
+                // check default values
+                assertEquals(0, reader.getPosition());
+                assertEquals(-1, reader.getOffset());
+                assertEquals(0, reader.getLength());
+
+                for (int i = 0; i < OFFSETS.length; i++) {
+                    assertTrue(reader.next(analysis));
+                    assertEquals(OFFSETS[i], reader.getOffset());
+                    final long next = i + 1 < OFFSETS.length ?
+                            OFFSETS[i + 1] - 1 : size;
+                    assertEquals(next - OFFSETS[i], reader.getLength());
+                    final String line = CONTENT.substring((int) OFFSETS[i],
+                            (int) next);
+                    assertEquals(CreditCardValidator.isValid(line),
+                            analysis.isValid());
+                }
+                assertEquals(size, reader.getPosition());
+                assertFalse(reader.next(analysis));
+                reader.release();
+            }
+        }
+    }
+
+    @Test
+    public void testSeek() throws IOException {
+        try (FileChannel channel = FileChannel.open(mFile.toPath(),
+                StandardOpenOption.READ)) {
+            final long size = channel.size();
+            for (int windowBytes = 1; windowBytes <= size + 1; windowBytes++) {
+                final MappedLineReader reader = new MappedLineReader(channel,
+                        size, windowBytes);
+                final PanAnalysis analysis = new PanAnalysis();
+                for (long position = 0; position <= size; position++) {
+                    reader.seek(position);
+
+                    // reader moves to first record starting at or after
+                    // position
+                    int first = 0;
+                    while (first < OFFSETS.length && OFFSETS[first] < position) {
+                        first++;
+                    }
+                    assertEquals(first < OFFSETS.length ? OFFSETS[first] : size,
+                            reader.getPosition());
+                    for (int i = first; i < OFFSETS.length; i++) {
+                        assertTrue(reader.next(analysis));
+                        assertEquals(OFFSETS[i], reader.getOffset());
+                    }
+                    assertFalse(reader.next(analysis));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMapNextBlock() throws IOException {
+        try (FileChannel channel = FileChannel.open(mFile.toPath(),
+                StandardOpenOption.READ)) {
+            final long size = channel.size();
+            for (int windowBytes = 18; windowBytes <= size + 1; windowBytes++) {
+                final MappedLineReader reader = new MappedLineReader(channel,
+                        size, windowBytes);
+                final PanAnalysis analysis = new PanAnalysis();
+                int i = 0;
+                long blockStart = 0;
+                while (reader.mapNextBlock()) {
+                    final int length = reader.getBlockLength();
+                    assertTrue(length <= windowBytes);
+                    assertEquals(blockStart, reader.getPosition());
+
+                    // blocks end after a line separator or at end of file
+                    assertTrue(blockStart + length == size ||
+                            CONTENT.charAt((int) blockStart + length - 1) == '\n');
+
+                    final MappedLineReader block = new MappedLineReader(
+                            reader.getBlock(), length);
+                    while (block.next(analysis)) {
+                        assertEquals(OFFSETS[i++], blockStart + block.getOffset());
+                    }
+                    blockStart += length;
+                }
+                assertEquals(OFFSETS.length, i);
+                assertEquals(size, blockStart);
+            }
+
+            // Force IOException when a line does not fit into a window
+            final MappedLineReader reader = new MappedLineReader(channel, size,
+                    10);
+            try {
+                reader.mapNextBlock();
+                fail("IOException expected but not thrown");
+            } catch (final IOException ignore) {
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons.validators;
+
+import org.junit.*;
+
+import static org.junit.Assert.*;
+
+public class PanAnalysisTest {
+
+    @Test
+    public void testConstructor() {
+        final PanAnalysis analysis = new PanAnalysis();
+
+        // check default values, which correspond to an empty PAN
+        assertEquals(CreditCardNetwork.UNKNOWN, analysis.getNetwork());
+        assertEquals(0, analysis.getNumDigits());
+        assertFalse(analysis.isValidMII());
+        assertTrue(analysis.isValidLength());
+        assertFalse(analysis.isValidChecksum());
+        assertTrue(analysis.isValid());
+    }
+
+    @Test
+    public void testAppend() {
+        final PanAnalysis analysis = new PanAnalysis();
+
+        // append a valid VISA PAN with separators
+        analysis.reset();
+        final String pan = "4111-1111-1111-1111";
+        for (int i = 0; i < pan.length(); i++) {
+            analysis.append(pan.charAt(i));
+        }
+        assertSame(analysis, analysis.finish());
+
+        // check
+        assertEquals(CreditCardNetwork.VISA, analysis.getNetwork());
+        assertEquals(16, analysis.getNumDigits());
+        assertTrue(analysis.isValidMII());
+        assertTrue(analysis.isValidLength());
+        assertTrue(analysis.isValidChecksum());
+        assertTrue(analysis.isValid());
+
+        // reset and append digits of an AMEX PAN with an invalid checksum
+        analysis.reset();
+        final int[] digits = new int[]{3, 7, 8, 2, 8, 2, 2, 4, 6, 3, 1, 0, 0, 0, 6};
+        for (final int digit : digits) {
+            analysis.appendDigit(digit);
+        }
+        analysis.finish();
+
+        // check
+        assertEquals(CreditCardNetwork.AMERICAN_EXPRESS, analysis.getNetwork());
+        assertEquals(15, analysis.getNumDigits());
+        assertTrue(analysis.isValidMII());
+        assertTrue(analysis.isValidLength());
+        assertFalse(analysis.isValidChecksum());
+        assertFalse(analysis.isValid());
+
+        // reset without appending anything
+        analysis.reset();
+        analysis.finish();
+
+        // check
+        assertEquals(CreditCardNetwork.UNKNOWN, analysis.getNetwork());
+        assertEquals(0, analysis.getNumDigits());
+        assertFalse(analysis.isValidMII());
+        assertTrue(analysis.isValidLength());
+        assertFalse(analysis.isValidChecksum());
+        assertTrue(analysis.isValid());
+
+        // Force IllegalArgumentException
+        try {
+            analysis.appendDigit(10);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            analysis.appendDigit(-1);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+}
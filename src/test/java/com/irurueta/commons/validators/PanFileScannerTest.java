@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons.validators;
+
+import org.junit.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PanFileScannerTest {
+
+    private static final String[] LINES = new String[]{
+            "4111 1111 1111 1111",
+            "4111 1111 1111 1112\r",
+            "",
+            "378282246310005",
+            "6011-1111-1111-1117",
+            "n/a",
+            "5555555555554444"
+    };
+
+    private File mFile;
+
+    @Before
+    public void setUp() throws IOException {
+        mFile = File.createTempFile("pans", ".txt");
+    }
+
+    @After
+    public void tearDown() {
+        assertTrue(mFile.delete());
+    }
+
+    @Test
+    public void testConstructor() throws IOException {
+        write("");
+        try (PanFileScanner scanner = new PanFileScanner(mFile)) {
+            // check default values
+            assertEquals(0, scanner.getSize());
+            assertEquals(-1, scanner.getOffset());
+            assertEquals(-1, scanner.getIndex());
+            assertEquals(0, scanner.getLength());
+            assertNotNull(scanner.getAnalysis());
+
+            // empty file contains no records
+            assertFalse(scanner.next());
+        }
+
+        // Force IllegalArgumentException
+        try {
+            new PanFileScanner(null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            new PanFileScanner(mFile, 0);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+
+    @Test
+    public void testNext() throws IOException {
+        for (int windowBytes = 1; windowBytes <= 40; windowBytes++) {
+            checkNext(join(LINES) + "\n", windowBytes);
+            checkNext(join(LINES), windowBytes);
+        }
+        checkNext(join(LINES), PanFileScanner.DEFAULT_WINDOW_BYTES);
+    }
+
+    @Test
+    public void testScan() throws IOException {
+        final String content = join(LINES);
+        write(content);
+
+        final List<Long> offsets = new ArrayList<>();
+        final List<CreditCardNetwork> networks = new ArrayList<>();
+        final List<Boolean> valid = new ArrayList<>();
+        final PanScanListener listener = new PanScanListener() {
+            @Override
+            public void onRecord(final long offset, final CreditCardNetwork network,
+                                 final boolean v) {
+                offsets.add(offset);
+                networks.add(network);
+                valid.add(v);
+            }
+        };
+
+        assertEquals(LINES.length, PanFileScanner.scan(mFile, listener));
+
+        // check
+        long offset = 0;
+        for (int i = 0; i < LINES.length; i++) {
+            assertEquals(offset, (long) offsets.get(i));
+            assertEquals(CreditCardValidator.detectNetworkFromPAN(LINES[i]),
+                    networks.get(i));
+            assertEquals(CreditCardValidator.isValid(LINES[i]), valid.get(i));
+            offset += LINES[i].length() + 1;
+        }
+
+        // scan remaining records after reading first one
+        offsets.clear();
+        try (PanFileScanner scanner = new PanFileScanner(mFile, 5)) {
+            assertTrue(scanner.next());
+            assertEquals(LINES.length - 1, scanner.scan(listener));
+            assertEquals(LINES[0].length() + 1, (long) offsets.get(0));
+        }
+
+        // Force IllegalArgumentException
+        try {
+            PanFileScanner.scan(mFile, null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            PanFileScanner.scan(null, listener);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+
+    private void checkNext(final String content, final int windowBytes)
+            throws IOException {
+        write(content);
+        try (PanFileScanner scanner = new PanFileScanner(mFile, windowBytes)) {
+            assertEquals(content.length(), scanner.getSize());
+
+            long offset = 0;
+            for (int i = 0; i < LINES.length; i++) {
+                assertTrue(scanner.next());
+
+                assertEquals(offset, scanner.getOffset());
+                assertEquals(LINES[i].length(), scanner.getLength());
+                assertEquals(i, scanner.getIndex());
+                assertEquals(CreditCardValidator.detectNetworkFromPAN(LINES[i]),
+                        scanner.getNetwork());
+                assertEquals(CreditCardValidator.isValid(LINES[i]),
+                        scanner.isValid());
+                assertEquals(LINES[i].replaceAll("[^0-9]", "").length(),
+                        scanner.getAnalysis().getNumDigits());
+                offset += LINES[i].length() + 1;
+            }
+            assertFalse(scanner.next());
+            assertFalse(scanner.next());
+        }
+    }
+
+    private void write(final String content) throws IOException {
+        try (OutputStream stream = new FileOutputStream(mFile)) {
+            stream.write(content.getBytes(Charset.forName("US-ASCII")));
+        }
+    }
+
+    private static String join(final String[] lines) {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < lines.length; i++) {
+            if (i > 0) {
+                builder.append('\n');
+            }
+            builder.append(lines[i]);
+        }
+        return builder.toString();
+    }
+}
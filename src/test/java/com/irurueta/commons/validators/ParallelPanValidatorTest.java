@@ -0,0 +1,294 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons.validators;
+
+import com.irurueta.commons.CommonsException;
+import org.junit.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class ParallelPanValidatorTest {
+
+    private static final int NUM_PANS = 5000;
+
+    private static final String[] PREFIXES = new String[]{
+            "4", "51", "2221", "34", "37", "6011", "65", "3528", "36", "300",
+            "6759", "62", "6304", "637", "99"
+    };
+
+    private ExecutorService mFixedPool;
+
+    private ForkJoinPool mForkJoinPool;
+
+    @Before
+    public void setUp() {
+        mFixedPool = Executors.newFixedThreadPool(3);
+        mForkJoinPool = new ForkJoinPool(3);
+    }
+
+    @After
+    public void tearDown() {
+        mFixedPool.shutdownNow();
+        mForkJoinPool.shutdownNow();
+    }
+
+    @Test
+    public void testConstructor() {
+        ParallelPanValidator validator = new ParallelPanValidator();
+
+        // check default values
+        assertTrue(validator.getExecutor() instanceof ForkJoinPool);
+        assertEquals(ParallelPanValidator.DEFAULT_CHUNK_SIZE,
+                validator.getChunkSize());
+
+        // default pool is shared
+        assertSame(validator.getExecutor(),
+                new ParallelPanValidator().getExecutor());
+
+        validator = new ParallelPanValidator(mFixedPool);
+
+        // check
+        assertSame(mFixedPool, validator.getExecutor());
+        assertEquals(ParallelPanValidator.DEFAULT_CHUNK_SIZE,
+                validator.getChunkSize());
+
+        validator = new ParallelPanValidator(mFixedPool, 10);
+
+        // check
+        assertSame(mFixedPool, validator.getExecutor());
+        assertEquals(10, validator.getChunkSize());
+
+        // Force IllegalArgumentException
+        validator = null;
+        try {
+            validator = new ParallelPanValidator(null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            validator = new ParallelPanValidator(mFixedPool, 0);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            validator = new ParallelPanValidator(mFixedPool, 10, 0, 10);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        try {
+            validator = new ParallelPanValidator(mFixedPool, 10, 10, 0);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+        assertNull(validator);
+    }
+
+    @Test
+    public void testValidateArray() throws CommonsException {
+        final String[] pans = generatePANs(new Random());
+
+        final ParallelValidationResult expected = expectedResult(pans);
+        checkResult(expected, new ParallelPanValidator().validate(pans));
+        checkResult(expected, new ParallelPanValidator(mForkJoinPool, 7)
+                .validate(pans));
+        checkResult(expected, new ParallelPanValidator(mFixedPool, 100)
+                .validate(pans));
+        checkResult(expected, new ParallelPanValidator(mFixedPool, 2 * NUM_PANS)
+                .validate(pans));
+
+        // empty array
+        final ParallelValidationResult result = new ParallelPanValidator()
+                .validate(new String[0]);
+        assertEquals(0, result.getNumRecords());
+        assertEquals(0, result.getNumValid());
+        assertEquals(0, result.getInvalidIndexes().length);
+
+        // Force IllegalArgumentException
+        try {
+            new ParallelPanValidator().validate((CharSequence[]) null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+
+    @Test
+    public void testValidateList() throws CommonsException {
+        final String[] pans = generatePANs(new Random());
+        final List<String> arrayList = new ArrayList<>(Arrays.asList(pans));
+        final List<String> linkedList = new LinkedList<>(Arrays.asList(pans));
+
+        final ParallelValidationResult expected = expectedResult(pans);
+        checkResult(expected, new ParallelPanValidator(mForkJoinPool, 13)
+                .validate(arrayList));
+        checkResult(expected, new ParallelPanValidator(mFixedPool, 100)
+                .validate(arrayList));
+        checkResult(expected, new ParallelPanValidator(mFixedPool, 100)
+                .validate(linkedList));
+
+        // Force IllegalArgumentException
+        try {
+            new ParallelPanValidator().validate((List<String>) null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+
+    @Test
+    public void testValidateFile() throws IOException, CommonsException {
+        final String[] pans = generatePANs(new Random());
+        final ParallelValidationResult expected = expectedResult(pans);
+
+        final File file = File.createTempFile("pans", ".txt");
+        try {
+            // file ending with a line separator and using CRLF on some lines
+            final StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < NUM_PANS; i++) {
+                builder.append(pans[i]).append(i % 3 == 0 ? "\r\n" : "\n");
+            }
+            write(file, builder.toString());
+
+            checkResult(expected, new ParallelPanValidator().validate(file));
+            checkResult(expected, new ParallelPanValidator(mForkJoinPool, 10,
+                    64, 1000).validate(file));
+            checkResult(expected, new ParallelPanValidator(mFixedPool, 10,
+                    1, 100).validate(file));
+
+            // file not ending with a line separator
+            builder.setLength(builder.length() - 1);
+            write(file, builder.toString());
+
+            checkResult(expected, new ParallelPanValidator().validate(file));
+            checkResult(expected, new ParallelPanValidator(mForkJoinPool, 10,
+                    64, 1000).validate(file));
+            checkResult(expected, new ParallelPanValidator(mFixedPool, 10,
+                    33, 50).validate(file));
+
+            // empty file
+            write(file, "");
+            final ParallelValidationResult result = new ParallelPanValidator()
+                    .validate(file);
+            assertEquals(0, result.getNumRecords());
+
+            // Force IOException when a line does not fit into a window
+            write(file, "4111111111111111\n");
+            try {
+                new ParallelPanValidator(mFixedPool, 10, 10, 10).validate(file);
+                fail("IOException expected but not thrown");
+            } catch (final IOException ignore) {
+            }
+        } finally {
+            assertTrue(file.delete());
+        }
+
+        // Force IllegalArgumentException
+        try {
+            new ParallelPanValidator().validate((File) null);
+            fail("IllegalArgumentException expected but not thrown");
+        } catch (final IllegalArgumentException ignore) {
+        }
+    }
+
+    @Test
+    public void testValidateWithShutdownExecutor() {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+
+        // Force exception when executor rejects tasks
+        try {
+            new ParallelPanValidator(executor, 10).validate(
+                    generatePANs(new Random()));
+            fail("Exception expected but not thrown");
+        } catch (final CommonsException | RuntimeException ignore) {
+        }
+    }
+
+    private static ParallelValidationResult expectedResult(final String[] pans) {
+        final long[] counts = new long[CreditCardNetwork.values().length];
+        final long[] validCounts = new long[CreditCardNetwork.values().length];
+        final List<Long> invalid = new ArrayList<>();
+        int numValid = 0;
+        for (int i = 0; i < pans.length; i++) {
+            final CreditCardNetwork network =
+                    CreditCardValidator.detectNetworkFromPAN(pans[i]);
+            counts[network.ordinal()]++;
+            if (CreditCardValidator.isValid(pans[i])) {
+                validCounts[network.ordinal()]++;
+                numValid++;
+            } else {
+                invalid.add((long) i);
+            }
+        }
+        final long[] invalidIndexes = new long[invalid.size()];
+        for (int i = 0; i < invalidIndexes.length; i++) {
+            invalidIndexes[i] = invalid.get(i);
+        }
+        return new ParallelValidationResult(pans.length, numValid, counts,
+                validCounts, invalidIndexes, 0);
+    }
+
+    private static void checkResult(final ParallelValidationResult expected,
+                                    final ParallelValidationResult result) {
+        assertEquals(expected.getNumRecords(), result.getNumRecords());
+        assertEquals(expected.getNumValid(), result.getNumValid());
+        assertEquals(expected.getNumInvalid(), result.getNumInvalid());
+        for (final CreditCardNetwork network : CreditCardNetwork.values()) {
+            assertEquals(expected.getCount(network), result.getCount(network));
+            assertEquals(expected.getValidCount(network),
+                    result.getValidCount(network));
+        }
+        assertArrayEquals(expected.getInvalidIndexes(),
+                result.getInvalidIndexes());
+        assertTrue(result.getElapsedNanos() >= 0);
+    }
+
+    private static void write(final File file, final String content)
+            throws IOException {
+        try (OutputStream stream = new FileOutputStream(file)) {
+            stream.write(content.getBytes(Charset.forName("US-ASCII")));
+        }
+    }
+
+    private static String[] generatePANs(final Random random) {
+        final String[] pans = new String[NUM_PANS];
+        for (int i = 0; i < NUM_PANS; i++) {
+            final StringBuilder builder = new StringBuilder(
+                    PREFIXES[random.nextInt(PREFIXES.length)]);
+            final int length = 12 + random.nextInt(8);
+            while (builder.length() < length) {
+                builder.append((char) ('0' + random.nextInt(10)));
+            }
+            if (random.nextBoolean()) {
+                builder.insert(4, '-');
+            }
+            pans[i] = builder.toString();
+        }
+        return pans;
+    }
+}
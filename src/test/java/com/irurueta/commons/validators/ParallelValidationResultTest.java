@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2016 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.commons.validators;
+
+import org.junit.*;
+
+import static org.junit.Assert.*;
+
+public class ParallelValidationResultTest {
+
+    @Test
+    public void testConstructor() {
+        final long[] counts = new long[CreditCardNetwork.values().length];
+        final long[] validCounts = new long[CreditCardNetwork.values().length];
+        counts[CreditCardNetwork.VISA.ordinal()] = 7;
+        validCounts[CreditCardNetwork.VISA.ordinal()] = 5;
+        counts[CreditCardNetwork.UNKNOWN.ordinal()] = 3;
+        validCounts[CreditCardNetwork.UNKNOWN.ordinal()] = 3;
+        final long[] invalidIndexes = new long[]{1, 4};
+
+        final ParallelValidationResult result = new ParallelValidationResult(
+                10, 8, counts, validCounts, invalidIndexes, 3500000);
+
+        // check
+        assertEquals(10, result.getNumRecords());
+        assertEquals(8, result.getNumValid());
+        assertEquals(2, result.getNumInvalid());
+        assertEquals(7, result.getCount(CreditCardNetwork.VISA));
+        assertEquals(5, result.getValidCount(CreditCardNetwork.VISA));
+        assertEquals(3, result.getCount(CreditCardNetwork.UNKNOWN));
+        assertEquals(3, result.getValidCount(CreditCardNetwork.UNKNOWN));
+        assertEquals(0, result.getCount(CreditCardNetwork.AMERICAN_EXPRESS));
+        assertEquals(0, result.getCount(null));
+        assertEquals(0, result.getValidCount(null));
+        assertSame(invalidIndexes, result.getInvalidIndexes());
+        assertEquals(3500000, result.getElapsedNanos());
+        assertEquals(3, result.getElapsedMillis());
+    }
+}